@@ -9,6 +9,7 @@ import frc.team281.robot.commands.DriveToPositionCommand;
 import frc.team281.robot.commands.DriveForwardUntilCollisionCommand;
 import frc.team281.robot.commands.DriveForwardNoEncodersCommand;
 import frc.team281.robot.commands.FollowPositionPathCommand;
+import frc.team281.robot.commands.FollowProfiledPathCommand;
 import frc.team281.robot.commands.GrabberShootCommand;
 import frc.team281.robot.commands.GrabberOpenCommand;
 import frc.team281.robot.commands.WristPivotDownCommand;
@@ -19,13 +20,20 @@ import frc.team281.robot.subsystems.GrabberSubsystem;
 import frc.team281.robot.subsystems.WristSubsystem;
 import frc.team281.robot.subsystems.LifterSubsystem;
 import frc.team281.robot.subsystems.Position;
-import frc.team281.robot.subsystems.PositionCalculator;
 import frc.team281.robot.subsystems.drive.RealDriveSubsystem;
 
 public class AutoCommandFactory {
 
     public static final double FORWARD_MOVE_INCHES = 13.0;
     public static final double FORWARD_MOVE_TIMEOUT = 2.0;
+    public static final double SWITCH_LIFT_SECONDS = 1.5;
+    public static final double SWITCH_APPROACH_TIMEOUT = 3.0;
+    public static final double SWITCH_APPROACH_SPEED = 0.6;
+    public static final double SCALE_DROP_SECONDS = 2.0;
+    public static final double SWITCH_SHOOT_SECONDS = 10.0;
+    public static final double BACK_UP_SECONDS = 0.5;
+    // drive the path as one motion profile, instead of a stop at every position
+    public static final boolean STREAM_PATHS = true;
     private LifterSubsystem lifterSubsystem;
     private GrabberSubsystem grabberSubsystem;
     private WristSubsystem wristSubsystem;
@@ -40,19 +48,27 @@ public class AutoCommandFactory {
     }
     
     public CommandGroup makeAutoCommand(AutoPlan autoPlan) {
-        List<Position> path = autoPlan.getPath();
+        List<Position> path = autoPlan.getDrivenPath();
 
-        if ( autoPlan.shouldMirror()){
-            path = PositionCalculator.mirror(path);
+        if (STREAM_PATHS) {
+            return makeAutoCommand(autoPlan, new FollowProfiledPathCommand(driveSubsystem,
+                        driveSubsystem.planProfiledPath(path)));
+        } else {
+            return makeAutoCommand(autoPlan, new FollowPositionPathCommand(driveSubsystem, path));
         }
-        
+    }
+
+    /**
+     * The auto for a plan, with the command that drives its path passed in
+     */
+    public CommandGroup makeAutoCommand(AutoPlan autoPlan, BaseCommand drivePath) {
         CommandGroup auto = new CommandGroup();
         if (autoPlan.isTargetingScale()) {
             auto.addParallel(new LifterTopCommand(lifterSubsystem));
         } else {
-            auto.addParallel(new LifterRaiseSeconds(lifterSubsystem,1.5));
+            auto.addParallel(new LifterRaiseSeconds(lifterSubsystem,SWITCH_LIFT_SECONDS));
         }
-        auto.addSequential(new FollowPositionPathCommand( driveSubsystem, path));
+        auto.addSequential(drivePath);
         //TODO: we discussed having this be drive forward open loop,
         //but to do that, we have to change into speed control mode. That currently happens
         //in teleopInit. We can't do it here because we're creaeting the command, so we'd
@@ -60,7 +76,8 @@ public class AutoCommandFactory {
         //so i'd rather just use closed position mode to drive forward
 
         if (autoPlan.isTargetingSwitch()) {
-            auto.addSequential(new DriveForwardUntilCollisionCommand(driveSubsystem,3.0,0.6));
+            auto.addSequential(new DriveForwardUntilCollisionCommand(driveSubsystem,
+                        SWITCH_APPROACH_TIMEOUT,SWITCH_APPROACH_SPEED));
         } else {
             auto.addSequential(new DriveToPositionCommand(driveSubsystem,
                         new Position(FORWARD_MOVE_INCHES,FORWARD_MOVE_INCHES),
@@ -70,13 +87,13 @@ public class AutoCommandFactory {
         if ( autoPlan.isShouldDropCube()){
             if (autoPlan.isTargetingScale()) {
                 auto.addSequential(new WristPivotDownCommand(wristSubsystem));
-                auto.addSequential(new GrabberOpenCommand(grabberSubsystem, 2.0));
+                auto.addSequential(new GrabberOpenCommand(grabberSubsystem, SCALE_DROP_SECONDS));
             } else {
                 auto.addSequential(new WristPivotDownCommand(wristSubsystem));
-                auto.addSequential(new GrabberShootCommand(grabberSubsystem, 10.0));
+                auto.addSequential(new GrabberShootCommand(grabberSubsystem, SWITCH_SHOOT_SECONDS));
             }
         }
-        auto.addSequential(new DriveForwardNoEncodersCommand(driveSubsystem,0.5,-0.4));
+        auto.addSequential(new DriveForwardNoEncodersCommand(driveSubsystem,BACK_UP_SECONDS,-0.4));
         return auto;
     }
     
@@ -0,0 +1,59 @@
+package frc.team281.robot;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.wpilibj.command.CommandGroup;
+import frc.team281.robot.strategy.AutoPlan;
+
+/**
+ * The auto command for every plan we could pick, built before the match. Then
+ * autonomousInit just looks the command up and starts it, instead of planning
+ * paths and building commands while auto time is running.
+ *
+ * Plans are looked up by instance, so use the ones from
+ * AutoPlanComputer.getAllPlans(). A plan that isn't in the table is built when
+ * it's asked for, so a missing plan is slow, not broken.
+ *
+ * @author dcowden
+ *
+ */
+public class AutoCommandTable {
+
+    private final AutoCommandFactory factory;
+    private final Map<AutoPlan, CommandGroup> commands;
+    private final long buildMillis;
+
+    public AutoCommandTable(AutoCommandFactory factory, List<AutoPlan> plans) {
+        this.factory = factory;
+        long start = System.currentTimeMillis();
+        Map<AutoPlan, CommandGroup> built = new IdentityHashMap<>();
+        for (AutoPlan plan : plans) {
+            built.put(plan, factory.makeAutoCommand(plan));
+        }
+        this.commands = Collections.unmodifiableMap(built);
+        this.buildMillis = System.currentTimeMillis() - start;
+    }
+
+    public CommandGroup getCommand(AutoPlan plan) {
+        CommandGroup command = commands.get(plan);
+        if (command == null) {
+            command = factory.makeAutoCommand(plan);
+        }
+        return command;
+    }
+
+    public boolean contains(AutoPlan plan) {
+        return commands.containsKey(plan);
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+}
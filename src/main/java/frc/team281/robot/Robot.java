@@ -1,5 +1,8 @@
 package frc.team281.robot;
 
+import java.io.File;
+import java.io.IOException;
+
 import edu.wpi.first.wpilibj.Compressor;
 import edu.wpi.first.wpilibj.DigitalInput;
 import edu.wpi.first.wpilibj.DriverStation;
@@ -22,13 +25,23 @@ import frc.team281.robot.commands.LifterStopCommand;
 import frc.team281.robot.commands.WristPivotDownCommand;
 import frc.team281.robot.commands.WristPivotUpCommand;
 import frc.team281.robot.commands.LifterRaiseSeconds;
+import frc.team281.robot.logger.DataLogger;
 import frc.team281.robot.logger.DataLoggerFactory;
+import frc.team281.robot.logger.LoopProfiler;
 import frc.team281.robot.strategy.AutoPlan;
 import frc.team281.robot.strategy.AutoPlanComputer;
+import frc.team281.robot.strategy.AutoPlanEstimator;
+import frc.team281.robot.strategy.CostBasedAutoPlanner;
+import frc.team281.robot.strategy.AutoSelection;
+import frc.team281.robot.strategy.AutoTimingDatabase;
+import frc.team281.robot.subsystems.CanBusBudget;
 import frc.team281.robot.subsystems.GrabberSubsystem;
 import frc.team281.robot.subsystems.LifterSubsystem;
+import frc.team281.robot.subsystems.TalonConfigResult;
+import frc.team281.robot.subsystems.TalonStartupConfigurator;
 import frc.team281.robot.subsystems.WristSubsystem;
 import frc.team281.robot.subsystems.drive.BaseDriveSubsystem.DriveMode;
+import frc.team281.robot.subsystems.drive.EncoderInchesConverter;
 import frc.team281.robot.subsystems.drive.RealDriveSubsystem;
 import frc.team281.robot.RobotMap.DigitalIO;
 import frc.team281.robot.commands.CloseAndIntakeCommand;
@@ -50,6 +63,27 @@ import frc.team281.robot.commands.TurnRightNoEncodersCommand;
  */
 public class Robot extends IterativeRobot implements CommandFactory {
 
+    // logged so that auto selection can be replayed from the match log
+    public static final String LOGGER_NAME = "Robot";
+    public static final String GAME_MESSAGE_KEY = "gameMessage";
+    public static final String LEFT_POSITION_SWITCH_KEY = "leftPositionSwitch";
+    public static final String RIGHT_POSITION_SWITCH_KEY = "rightPositionSwitch";
+    public static final String STOP_AT_E_KEY = "stopAtE";
+    public static final String BOTH_THIS_SIDE_KEY = "bothThisSideScale";
+    public static final String FRONT_SLASH_KEY = "frontSlashScale";
+    public static final String BACK_SLASH_KEY = "backSlashScale";
+    public static final String BOTH_OPPOSITE_KEY = "bothOppositeScale";
+    public static final String SELECTED_AUTO_KEY = "selectedAuto";
+    public static final String AUTO_STARTED_KEY = "autoStarted";
+    public static final String TALON_INIT_MILLIS_KEY = "talonInitMillis";
+    public static final String TALON_INIT_RETRIES_KEY = "talonInitRetries";
+    public static final String AUTO_TABLE_MILLIS_KEY = "autoTableMillis";
+    public static final String USE_PLANNER_KEY = "useCostPlanner";
+    public static final String PREDICTED_SECONDS_KEY = "predictedAutoSeconds";
+    public static final String PREDICTED_POINTS_KEY = "predictedAutoPoints";
+    public static final String USE_PLANNER_PREFERENCE = "USE_COST_PLANNER";
+    public static final String TIMED_PLANS_KEY = "timedPlans";
+
     private RealDriveSubsystem driveSubsystem;
     private OperatorInterface operatorInterface;
     private LifterSubsystem lifterSubsystem;
@@ -60,7 +94,15 @@ public class Robot extends IterativeRobot implements CommandFactory {
     DigitalInput leftPositionSwitch = new DigitalInput(DigitalIO.LEFT_SWITCH_POSITION);
     DigitalInput rightPositionSwitch = new DigitalInput(DigitalIO.RIGHT_SWITCH_POSITION);
     DigitalInput overrideSwitch = new DigitalInput(DigitalIO.PREFERENCE_SWITCH);
+    private AutoSelection autoSelection = new AutoSelection(autoStrategySelector);
+    private boolean overrideDioPublished = false;
+    private boolean lastOverrideDio;
     private FieldMessage fieldPose;
+    private DataLogger dataLogger;
+    private DataLogger canBusLogger;
+    private AutoCommandTable autoCommands;
+    private SpeculativeAutoExecutor speculativeAuto;
+    private CommandGroup overrideAutoCommand;
 
     
     /**
@@ -73,6 +115,12 @@ public class Robot extends IterativeRobot implements CommandFactory {
         
         // create the objects for the real match
         DataLoggerFactory.configureForMatch();
+        dataLogger = DataLoggerFactory.getLoggerFactory().createDataLogger(LOGGER_NAME);
+        canBusLogger = DataLoggerFactory.getLoggerFactory().createDataLogger(CanBusBudget.LOGGER_NAME);
+
+        // subsystems queue their talons, which are then configured all at once
+        TalonStartupConfigurator startup = TalonStartupConfigurator.getInstance();
+        startup.begin();
 
         operatorInterface = new OperatorInterface(this);
         driveSubsystem = new RealDriveSubsystem(operatorInterface);
@@ -84,50 +132,124 @@ public class Robot extends IterativeRobot implements CommandFactory {
         lifterSubsystem.initialize();
         grabberSubsystem.initialize();
         wristSubsystem.initialize();
+
+        TalonConfigResult talonConfig = startup.configureAll();
+        dataLogger.log(TALON_INIT_MILLIS_KEY, startup.getTotalMillis());
+        dataLogger.log(TALON_INIT_RETRIES_KEY, startup.getRetryCount());
+        if (!startup.getFailedTalons().isEmpty()) {
+            dataLogger.warn("Talons not configured: " + startup.getFailedTalons() + " last error "
+                    + talonConfig.getLastError());
+        }
+
         compressor = new Compressor(RobotMap.CAN.PC_MODULE);
         compressor.start();
+
+        // timings from past matches. without them, the planner only has its predictions
+        AutoTimingDatabase timings = new AutoTimingDatabase(new File(AutoTimingDatabase.FILE));
+        try {
+            timings = AutoTimingDatabase.load(new File(AutoTimingDatabase.FILE));
+        } catch (IOException ex) {
+            dataLogger.warn("Could not read auto timings: " + ex.getMessage());
+        }
+        if (timings.getSkippedLines() > 0) {
+            dataLogger.warn("Skipped " + timings.getSkippedLines() + " bad auto timing lines");
+        }
+        dataLogger.log(TIMED_PLANS_KEY, timings.getPlanCount());
+        AutoTimingDatabase.setInstance(timings);
+        driveSubsystem.setProfileSegmentListener(timings::recordSegment);
+
+        // predicts each plan from the same motion profile the paths are driven with
+        AutoPlanEstimator estimator = AutoPlanEstimator.fromSettings(driveSubsystem.getPositionSettings(),
+                new EncoderInchesConverter(RealDriveSubsystem.ENCODER_TICKS_PER_INCH));
+        estimator.setHistory(timings);
+        autoSelection.setPlanner(new CostBasedAutoPlanner(autoStrategySelector, estimator));
+
+        // build every auto now, so starting auto is just a lookup
+        AutoCommandFactory autoFactory = new AutoCommandFactory(lifterSubsystem, grabberSubsystem,
+                wristSubsystem, driveSubsystem);
+        autoCommands = new AutoCommandTable(autoFactory, autoStrategySelector.getAllPlans());
+        speculativeAuto = new SpeculativeAutoExecutor(autoFactory, driveSubsystem,
+                autoStrategySelector.getAllPlans());
+        dataLogger.log(AUTO_TABLE_MILLIS_KEY, autoCommands.getBuildMillis());
+        overrideAutoCommand = new CommandGroup();
+        overrideAutoCommand.addSequential(new DriveForwardNoEncodersCommand(driveSubsystem, 1.75, 0.75));
         
 
     }
 
+    @Override
+    public void robotPeriodic() {
+        CanBusBudget.getInstance().periodic(canBusLogger);
+    }
     
     @Override
     public void autonomousInit() {
        
-        CommandGroup autoCommand = new CommandGroup();
-        if ( fieldPose.isOverrideSwitch()){
-            autoCommand.addSequential(
-                    new DriveForwardNoEncodersCommand(driveSubsystem, 1.75, 0.75));
-        }
-        else{
+        CommandGroup autoCommand = overrideAutoCommand;
+        if ( ! fieldPose.isOverrideSwitch()){
             AutoPlan autoPlan = selectAutoToRun();
             SmartDashboard.putString("Selected Auto", autoPlan+"");
+            dataLogger.log(AUTO_STARTED_KEY, true);
             driveSubsystem.setMode(DriveMode.POSITION_DRIVE);
-            AutoCommandFactory af = new AutoCommandFactory(lifterSubsystem, grabberSubsystem, wristSubsystem, driveSubsystem);
-            autoCommand = af.makeAutoCommand(autoPlan);
+            if ( ! autoSelection.hasGameMessage() ){
+                //timings are recorded once we know which plan we're running
+                //the game message is late. drive the part every possible plan
+                //starts with, and pick the rest in autonomousPeriodic when it comes
+                speculativeAuto.start(autoSelection.getPossiblePlans());
+                return;
+            }
+            autoCommand = autoCommands.getCommand(autoPlan);
+            AutoTimingDatabase.getInstance().startRun(autoPlan.getName());
         }
         autoCommand.start();
     }
     
     @Override
     public void autonomousPeriodic() {
+        long start = LoopProfiler.getInstance().start();
+        if ( speculativeAuto.isSpeculating() ){
+            AutoPlan autoPlan = selectAutoToRun();
+            if ( autoSelection.hasGameMessage() ){
+                SmartDashboard.putString("Selected Auto", autoPlan+"");
+                speculativeAuto.commit(autoPlan);
+                //the drive started before the plan did, so its times aren't whole
+                AutoTimingDatabase.getInstance().startRun(autoPlan.getName(), true);
+            }
+        }
+        speculativeAuto.periodic();
         Scheduler.getInstance().run();
+        LoopProfiler.getInstance().endLoop(start);
     }
 
     @Override
     public void disabledInit() {
         driveSubsystem.setMode(DriveMode.DISABLED);
+        //auto is over, so now it's safe to write what it took to the file
+        AutoTimingDatabase timings = AutoTimingDatabase.getInstance();
+        if ( timings.isRunning() ){
+            if ( ! timings.endRun() ){
+                dataLogger.warn("Could not save auto timings to " + AutoTimingDatabase.FILE);
+            }
+            //the planner learned something, so pick again
+            autoSelection.invalidate();
+        }
     }
 
     @Override
     public void disabledPeriodic() {
+        long start = LoopProfiler.getInstance().start();
         //this allows us to test very quickly without re-running auto at all.
         //just flip the switches and we should the dashboard udpate with the right paths!
-        SmartDashboard.putString("SelectedAuto", selectAutoToRun()+"");
-            SmartDashboard.putBoolean("DIO L", leftPositionSwitch.get());
-            SmartDashboard.putBoolean("DIO R", rightPositionSwitch.get());
-            SmartDashboard.putBoolean("DIO O", overrideSwitch.get());
+        //the plan is only picked again, and published, when something changes
+        selectAutoToRun();
+        boolean overrideDio = overrideSwitch.get();
+        if ( ! overrideDioPublished || overrideDio != lastOverrideDio ){
+            SmartDashboard.putBoolean("DIO O", overrideDio);
+            lastOverrideDio = overrideDio;
+            overrideDioPublished = true;
+        }
         Scheduler.getInstance().run();
+        LoopProfiler.getInstance().endLoop(start);
     }
 
     protected AutoPlan selectAutoToRun(){
@@ -135,14 +257,41 @@ public class Robot extends IterativeRobot implements CommandFactory {
         if (( gameMessage == null ) || ( gameMessage.length() < 3 )) {
             gameMessage = "   ";
         }
-        Preferences p = Preferences.getInstance();
-        boolean override = p.getBoolean("STOP_AT_E",false);
-        fieldPose = new FieldMessageGetter(leftPositionSwitch.get(), rightPositionSwitch.get(), override )
-                .convertGameMessageToFieldMessage(gameMessage);
-        return autoStrategySelector.computePlanFromFieldPoseSwitches(fieldPose, operatorInterface.getBothThisSideScaleInAuto(),
-                                                                     operatorInterface.getFrontslashScaleInAuto(),
-                                                                     operatorInterface.getBackslashScaleInAuto(),
-                                                                     operatorInterface.getBothOppositeScaleInAuto() );
+        boolean changed = autoSelection.update(gameMessage,
+                leftPositionSwitch.get(),
+                rightPositionSwitch.get(),
+                Preferences.getInstance().getBoolean("STOP_AT_E",false),
+                operatorInterface.getBothThisSideScaleInAuto(),
+                operatorInterface.getFrontslashScaleInAuto(),
+                operatorInterface.getBackslashScaleInAuto(),
+                operatorInterface.getBothOppositeScaleInAuto(),
+                Preferences.getInstance().getBoolean(USE_PLANNER_PREFERENCE,false));
+        fieldPose = autoSelection.getFieldMessage();
+        AutoPlan plan = autoSelection.getPlan();
+        if ( changed ){
+            dataLogger.log(GAME_MESSAGE_KEY, autoSelection.getGameMessage());
+            dataLogger.log(LEFT_POSITION_SWITCH_KEY, autoSelection.getLeftSwitch());
+            dataLogger.log(RIGHT_POSITION_SWITCH_KEY, autoSelection.getRightSwitch());
+            dataLogger.log(STOP_AT_E_KEY, autoSelection.getOverride());
+            dataLogger.log(BOTH_THIS_SIDE_KEY, autoSelection.getBothThisSide());
+            dataLogger.log(FRONT_SLASH_KEY, autoSelection.getFrontSlash());
+            dataLogger.log(BACK_SLASH_KEY, autoSelection.getBackSlash());
+            dataLogger.log(BOTH_OPPOSITE_KEY, autoSelection.getBothOpposite());
+            dataLogger.log(SELECTED_AUTO_KEY, plan.getName());
+            dataLogger.log(USE_PLANNER_KEY, autoSelection.isUsingPlanner());
+            SmartDashboard.putString("SelectedAuto", plan+"");
+            AutoPlanEstimator estimator = autoSelection.getPlanner().getEstimator();
+            double predictedSeconds = estimator.getScoreSeconds(plan);
+            double predictedPoints = estimator.getExpectedPoints(plan);
+            dataLogger.log(PREDICTED_SECONDS_KEY, predictedSeconds);
+            dataLogger.log(PREDICTED_POINTS_KEY, predictedPoints);
+            SmartDashboard.putNumber("Predicted Auto Seconds", predictedSeconds);
+            SmartDashboard.putNumber("Predicted Auto Points", predictedPoints);
+            SmartDashboard.putString("Predicted Autos", autoSelection.getPredictions());
+            SmartDashboard.putBoolean("DIO L", autoSelection.getLeftSwitch());
+            SmartDashboard.putBoolean("DIO R", autoSelection.getRightSwitch());
+        }
+        return plan;
     }
     
     @Override
@@ -152,7 +301,9 @@ public class Robot extends IterativeRobot implements CommandFactory {
 
     @Override
     public void teleopPeriodic() {
+        long start = LoopProfiler.getInstance().start();
         Scheduler.getInstance().run();
+        LoopProfiler.getInstance().endLoop(start);
     }
 
     @Override
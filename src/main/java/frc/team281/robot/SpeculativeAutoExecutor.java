@@ -0,0 +1,156 @@
+package frc.team281.robot;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.wpilibj.command.CommandGroup;
+import frc.team281.robot.commands.FinishProfiledPathCommand;
+import frc.team281.robot.commands.FollowProfiledPathCommand;
+import frc.team281.robot.logger.DataLogger;
+import frc.team281.robot.logger.DataLoggerFactory;
+import frc.team281.robot.strategy.AutoPlan;
+import frc.team281.robot.strategy.PathPrefixTree;
+import frc.team281.robot.subsystems.Position;
+import frc.team281.robot.subsystems.drive.BaseDriveSubsystem.DriveMode;
+import frc.team281.robot.subsystems.drive.DriveTrajectory;
+import frc.team281.robot.subsystems.drive.RealDriveSubsystem;
+
+/**
+ * Starts auto before the game message comes, by driving the part of the path
+ * that every plan we could pick starts with.
+ *
+ * start() is given the plans that are still possible. It drives their shared
+ * prefix, from a PathPrefixTree of every plan, as a motion profile. Once the
+ * plan is known, commit() switches the drive to the whole path of that plan.
+ * A path planned the same way has the same points as the prefix until the
+ * prefix starts to slow down, so if the message comes before then, the drive
+ * carries on without stopping, and the rest of the plan's auto starts. If it
+ * comes later, the prefix finishes, and the rest of the path is driven from
+ * there.
+ *
+ * The whole-path trajectories and the autos that carry on from the prefix are
+ * built when this is made, so commit() doesn't plan anything in the usual
+ * case.
+ *
+ * @author dcowden
+ *
+ */
+public class SpeculativeAutoExecutor {
+
+    public static final String LOGGER_NAME = "SpeculativeAuto";
+    public static final String POSSIBLE_PLANS_KEY = "possiblePlans";
+    public static final String PREFIX_MOVES_KEY = "prefixMoves";
+    public static final String COMMITTED_PLAN_KEY = "committedPlan";
+    public static final String STATE_KEY = "state";
+
+    public enum State {
+        IDLE, SPECULATING, WAITING_FOR_PREFIX, COMMITTED, ABANDONED
+    }
+
+    private AutoCommandFactory factory;
+    private RealDriveSubsystem drive;
+    private PathPrefixTree tree = new PathPrefixTree();
+    private Map<AutoPlan, DriveTrajectory> trajectories = new IdentityHashMap<>();
+    private Map<AutoPlan, CommandGroup> carryOnCommands = new IdentityHashMap<>();
+    private DataLogger dataLogger;
+
+    private State state = State.IDLE;
+    private List<Position> prefix;
+    private AutoPlan committedPlan;
+    private CommandGroup committedCommand;
+
+    public SpeculativeAutoExecutor(AutoCommandFactory factory, RealDriveSubsystem drive, List<AutoPlan> plans) {
+        this.factory = factory;
+        this.drive = drive;
+        this.dataLogger = DataLoggerFactory.getLoggerFactory().createDataLogger(LOGGER_NAME);
+        for (AutoPlan plan : plans) {
+            List<Position> path = plan.getDrivenPath();
+            tree.add(plan, path);
+            trajectories.put(plan, drive.planProfiledPath(path));
+            carryOnCommands.put(plan, factory.makeAutoCommand(plan, new FinishProfiledPathCommand(drive)));
+        }
+    }
+
+    /**
+     * Starts driving the shared start of these plans. If they don't share
+     * anything, we wait for the plan without moving.
+     *
+     * @return true if the robot started moving
+     */
+    public boolean start(List<AutoPlan> possiblePlans) {
+        prefix = tree.getSharedPrefix(possiblePlans);
+        dataLogger.log(POSSIBLE_PLANS_KEY, possiblePlans.size());
+        dataLogger.log(PREFIX_MOVES_KEY, prefix.size());
+        setState(State.SPECULATING);
+        if (prefix.isEmpty()) {
+            return false;
+        }
+        drive.setMode(DriveMode.PROFILE_DRIVE);
+        drive.followProfiledPath(drive.planProfiledPath(prefix));
+        return true;
+    }
+
+    /**
+     * Call once the plan is known. Does nothing if we aren't speculating
+     */
+    public void commit(AutoPlan plan) {
+        if (state != State.SPECULATING) {
+            return;
+        }
+        committedPlan = plan;
+        dataLogger.log(COMMITTED_PLAN_KEY, plan.getName());
+        DriveTrajectory whole = trajectories.get(plan);
+        if (whole != null && drive.switchProfiledPath(whole)) {
+            committedCommand = carryOnCommands.get(plan);
+            committedCommand.start();
+            setState(State.COMMITTED);
+            return;
+        }
+
+        List<Position> rest = PathPrefixTree.remainderAfter(prefix, plan.getDrivenPath());
+        if (rest == null) {
+            dataLogger.warn("Plan " + plan + " doesn't start with the path we drove. Stopping auto");
+            setState(State.ABANDONED);
+            return;
+        }
+        committedCommand = factory.makeAutoCommand(plan,
+                new FollowProfiledPathCommand(drive, drive.planProfiledPath(rest)));
+        setState(State.WAITING_FOR_PREFIX);
+    }
+
+    /**
+     * Starts the rest of a late plan, once the prefix is done
+     */
+    public void periodic() {
+        if (state == State.WAITING_FOR_PREFIX && drive.isProfiledPathFinished()) {
+            committedCommand.start();
+            setState(State.COMMITTED);
+        }
+    }
+
+    public boolean isSpeculating() {
+        return state == State.SPECULATING;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public List<Position> getPrefix() {
+        return prefix;
+    }
+
+    public AutoPlan getCommittedPlan() {
+        return committedPlan;
+    }
+
+    public CommandGroup getCommittedCommand() {
+        return committedCommand;
+    }
+
+    private void setState(State state) {
+        this.state = state;
+        dataLogger.log(STATE_KEY, state.name());
+    }
+}
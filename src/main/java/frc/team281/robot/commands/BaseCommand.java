@@ -3,12 +3,22 @@ package frc.team281.robot.commands;
 import edu.wpi.first.wpilibj.command.Command;
 import frc.team281.robot.logger.DataLogger;
 import frc.team281.robot.logger.DataLoggerFactory;
+import frc.team281.robot.logger.LoopProfiler;
+import frc.team281.robot.logger.TimingHistogram;
+import frc.team281.robot.strategy.AutoTimingDatabase;
 import frc.team281.robot.subsystems.BaseSubsystem;
 
 /**
  * All commands must subclass this command. We require that all commands have a
  * subsystem, and a timeout
  * 
+ * The lifecycle methods are timed by the LoopProfiler, so commands override
+ * onInitialize(), onExecute(), checkFinished(), onEnd() and onInterrupted()
+ * instead of the wpilib methods. Commands of the same class share histograms.
+ * 
+ * Commands that finish report how long they ran to the AutoTimingDatabase,
+ * which keeps them while an auto plan is running.
+ * 
  * @author dcowden
  *
  */
@@ -17,6 +27,12 @@ public abstract class BaseCommand extends Command {
     protected DataLogger dataLogger;
     public static final double UNLIMITED_TIMEOUT = 100000000;
 
+    private TimingHistogram initializeTime;
+    private TimingHistogram executeTime;
+    private TimingHistogram isFinishedTime;
+    private TimingHistogram endTime;
+    private TimingHistogram interruptedTime;
+
     public BaseCommand(BaseSubsystem subsystem) {
         this(subsystem, UNLIMITED_TIMEOUT);
     }
@@ -31,6 +47,13 @@ public abstract class BaseCommand extends Command {
         super(timeOut);
         this.dataLogger = DataLoggerFactory.getLoggerFactory().createDataLogger(this.getName());
 
+        LoopProfiler profiler = LoopProfiler.getInstance();
+        initializeTime = profiler.getHistogram(getName() + ".initialize");
+        executeTime = profiler.getHistogram(getName() + ".execute");
+        isFinishedTime = profiler.getHistogram(getName() + ".isFinished");
+        endTime = profiler.getHistogram(getName() + ".end");
+        interruptedTime = profiler.getHistogram(getName() + ".interrupted");
+
         if (subsystem != null) {
             requires(subsystem);
         }
@@ -49,4 +72,59 @@ public abstract class BaseCommand extends Command {
         return super.isCanceled();
     }
 
+    @Override
+    protected final void initialize() {
+        long start = LoopProfiler.getInstance().start();
+        onInitialize();
+        LoopProfiler.getInstance().stop(initializeTime, start);
+    }
+
+    @Override
+    protected final void execute() {
+        long start = LoopProfiler.getInstance().start();
+        onExecute();
+        LoopProfiler.getInstance().stop(executeTime, start);
+    }
+
+    @Override
+    protected final boolean isFinished() {
+        long start = LoopProfiler.getInstance().start();
+        boolean finished = checkFinished();
+        LoopProfiler.getInstance().stop(isFinishedTime, start);
+        return finished;
+    }
+
+    @Override
+    protected final void end() {
+        long start = LoopProfiler.getInstance().start();
+        onEnd();
+        LoopProfiler.getInstance().stop(endTime, start);
+        AutoTimingDatabase.getInstance().recordCommand(getClass().getSimpleName(), timeSinceInitialized());
+    }
+
+    @Override
+    protected final void interrupted() {
+        long start = LoopProfiler.getInstance().start();
+        onInterrupted();
+        LoopProfiler.getInstance().stop(interruptedTime, start);
+    }
+
+    protected void onInitialize() {
+    }
+
+    protected void onExecute() {
+    }
+
+    protected abstract boolean checkFinished();
+
+    protected void onEnd() {
+    }
+
+    /**
+     * Like wpilib, the default is to do what end() does
+     */
+    protected void onInterrupted() {
+        onEnd();
+    }
+
 }
@@ -12,16 +12,16 @@ public class CloseAndIntakeCommand extends BaseCommand{
         setTimeout(5);
     }
     @Override
-    public void initialize() {
+    public void onInitialize() {
         grab.close();
         grab.startLoading();
     }
     @Override
-    public void end() {
+    public void onEnd() {
         grab.stopMotors();
     }
     @Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return grab.isCubeTouchingSwitch()||isTimedOut();
     }
 
@@ -16,7 +16,7 @@ public class DriveForwardNoEncodersCommand extends BaseCommand {
 	}
 
 	@Override
-	protected void initialize() {
+	protected void onInitialize() {
 		drive.setMode(DriveMode.SPEED_DRIVE);
 		DriveInstructionSource justGoForward = new DriveInstructionSource() {
 
@@ -33,13 +33,13 @@ public class DriveForwardNoEncodersCommand extends BaseCommand {
 	}
 
 	@Override
-	protected void end() {
+	protected void onEnd() {
 		drive.restoreOriginalDriveSource();
 		drive.stop();
 	}
 
 	@Override
-	protected boolean isFinished() {		
+	protected boolean checkFinished() {		
 		return isTimedOut();
 	}
 
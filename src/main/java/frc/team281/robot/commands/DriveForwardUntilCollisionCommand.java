@@ -16,7 +16,7 @@ public class DriveForwardUntilCollisionCommand extends BaseCommand {
 	}
 
 	@Override
-	protected void initialize() {
+	protected void onInitialize() {
 		drive.setMode(DriveMode.SPEED_DRIVE);
 		DriveInstructionSource justGoForward = new DriveInstructionSource() {
 
@@ -34,22 +34,22 @@ public class DriveForwardUntilCollisionCommand extends BaseCommand {
 	}
 
 	@Override
-	public void execute() {
+	public void onExecute() {
 	}
 
 	@Override
-	protected void end() {
+	protected void onEnd() {
 		drive.restoreOriginalDriveSource();
 		drive.stop();
 	}
 
 	@Override
-	protected boolean isFinished() {
+	protected boolean checkFinished() {
 		return isTimedOut() || drive.hasCollisionOccurred() || drive.isRobotTipping();
 	}
 
 	@Override
-	protected void interrupted() {
-		end();
+	protected void onInterrupted() {
+		onEnd();
 	}
 }
@@ -23,19 +23,19 @@ public class DriveToPositionCommand extends BaseCommand {
     }    
     
     @Override
-    protected void initialize() {
+    protected void onInitialize() {
         driveSubsystem.getPositionBuffer().addPosition(desiredPosition);
     }
 
     @Override
-    protected void end() {
+    protected void onEnd() {
     	if ( isTimedOut() ) {
     		driveSubsystem.getPositionBuffer().clear();
     	}    	
     }
     
     @Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return (! driveSubsystem.getPositionBuffer().hasNextPosition() || isTimedOut() );
     }
 
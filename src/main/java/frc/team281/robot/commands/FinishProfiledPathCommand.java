@@ -0,0 +1,27 @@
+package frc.team281.robot.commands;
+
+import frc.team281.robot.subsystems.drive.RealDriveSubsystem;
+
+/**
+ * Waits for the motion profile the drive is already following to finish. Used
+ * when the path was started before this command, like a speculative auto
+ * start
+ * 
+ * @author dcowden
+ *
+ */
+public class FinishProfiledPathCommand extends BaseCommand {
+
+    private RealDriveSubsystem drive;
+
+    public FinishProfiledPathCommand(RealDriveSubsystem drive) {
+        super(drive);
+        this.drive = drive;
+    }
+
+    @Override
+    protected boolean checkFinished() {
+        return drive.isProfiledPathFinished() || isTimedOut();
+    }
+
+}
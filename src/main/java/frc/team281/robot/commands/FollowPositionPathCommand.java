@@ -49,19 +49,19 @@ public class FollowPositionPathCommand extends BaseCommand{
     }
     
     @Override
-    protected void initialize() {
+    protected void onInitialize() {
         for (Position p: path){
             driveSubsystem.getPositionBuffer().addPosition(p);
         }       
     }
     @Override
-    protected void end() {
+    protected void onEnd() {
     	if ( isTimedOut() ) {
     		driveSubsystem.getPositionBuffer().clear();
     	}
     }
     @Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return (! driveSubsystem.getPositionBuffer().hasNextPosition()) || isTimedOut() ;
     }
     
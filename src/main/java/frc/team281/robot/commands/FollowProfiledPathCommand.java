@@ -0,0 +1,56 @@
+package frc.team281.robot.commands;
+
+import java.util.List;
+
+import frc.team281.robot.subsystems.Position;
+import frc.team281.robot.subsystems.drive.BaseDriveSubsystem.DriveMode;
+import frc.team281.robot.subsystems.drive.DriveTrajectory;
+import frc.team281.robot.subsystems.drive.RealDriveSubsystem;
+
+/**
+ * Drives a path as one motion profile, without stopping between positions.
+ * Give it a trajectory that's already planned, and starting costs nothing
+ * 
+ * @author dcowden
+ *
+ */
+public class FollowProfiledPathCommand extends BaseCommand {
+
+    private RealDriveSubsystem drive;
+    private List<Position> path;
+    private DriveTrajectory trajectory;
+
+    public FollowProfiledPathCommand(RealDriveSubsystem drive, List<Position> path) {
+        super(drive);
+        this.drive = drive;
+        this.path = path;
+    }
+
+    public FollowProfiledPathCommand(RealDriveSubsystem drive, List<Position> path, double timeoutSeconds) {
+        super(drive, timeoutSeconds);
+        this.drive = drive;
+        this.path = path;
+    }
+
+    public FollowProfiledPathCommand(RealDriveSubsystem drive, DriveTrajectory trajectory) {
+        super(drive);
+        this.drive = drive;
+        this.trajectory = trajectory;
+    }
+
+    @Override
+    protected void onInitialize() {
+        drive.setMode(DriveMode.PROFILE_DRIVE);
+        if (trajectory != null) {
+            drive.followProfiledPath(trajectory);
+        } else {
+            drive.followProfiledPath(path);
+        }
+    }
+
+    @Override
+    protected boolean checkFinished() {
+        return drive.isProfiledPathFinished() || isTimedOut();
+    }
+
+}
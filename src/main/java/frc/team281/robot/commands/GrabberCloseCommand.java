@@ -15,27 +15,27 @@ public class GrabberCloseCommand extends BaseCommand {
     }
 
     @Override
-    protected void initialize() {
+    protected void onInitialize() {
         grab.close();
     }
 
     @Override
-    public void execute() {
+    public void onExecute() {
         grab.close();
     }
 
     @Override
-    protected void end() {
+    protected void onEnd() {
     }
 
     @Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return true;
     }
 
     @Override
-    protected void interrupted() {
-        end();
+    protected void onInterrupted() {
+        onEnd();
     }
 
 }
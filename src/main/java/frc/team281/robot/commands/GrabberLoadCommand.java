@@ -14,27 +14,27 @@ public class GrabberLoadCommand extends BaseCommand {
     }
     
     @Override
-    public void initialize() {
+    public void onInitialize() {
     }
     
     @Override
-    public void execute() {
+    public void onExecute() {
         grabber.startLoading();        
     }
     
     @Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return grabber.isCubeTouchingSwitch();
     }
     
     @Override
-    public void end() {
+    public void onEnd() {
         grabber.stopMotors();
     }
     
     @Override
-    public void interrupted() {
-        // end();
+    public void onInterrupted() {
+        // onEnd();
     }
 
 }
@@ -13,26 +13,26 @@ public class GrabberOpenCommand extends BaseCommand {
         super(subsystem, timeOut);
     }
     @Override
-    protected void initialize() {
+    protected void onInitialize() {
         grab.open();
     }
 
     @Override
-    public void execute() {
+    public void onExecute() {
     }
 
     @Override
-    protected void end() {
+    protected void onEnd() {
     }
 
     @Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return true;
     }
 
     @Override
-    protected void interrupted() {
-        end();
+    protected void onInterrupted() {
+        onEnd();
     }
 
 }
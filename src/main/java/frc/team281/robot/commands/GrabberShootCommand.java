@@ -16,22 +16,22 @@ public class GrabberShootCommand extends BaseCommand {
         grab = (GrabberSubsystem)subsystem;
     }
     @Override
-    public void execute() {
+    public void onExecute() {
         grab.startShooting();
     }
 
     @Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return false;
     }
     
     @Override
-    public void end() {
+    public void onEnd() {
         grab.stopMotors();
     }
     
     @Override
-    public void interrupted() {
+    public void onInterrupted() {
         
     }
 }
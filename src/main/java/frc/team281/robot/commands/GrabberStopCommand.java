@@ -16,16 +16,16 @@ public class GrabberStopCommand extends BaseCommand {
     }
     
     @Override
-    protected void initialize() {
+    protected void onInitialize() {
         grab.stopMotors();
     }
 
     @Override
-    protected void execute() {
+    protected void onExecute() {
     }
 
     @Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return true;
     }
 
@@ -14,26 +14,26 @@ public class LifterHomeCommand extends BaseCommand {
     }
 
     @Override
-    protected void initialize() {
+    protected void onInitialize() {
     }
 
     @Override
-    protected void execute() {
+    protected void onExecute() {
         lifter.motorsDown(LifterSubsystem.DOWN_SPEED_PERCENT);        
     }
     
     @Override
-    protected void end() {
+    protected void onEnd() {
         lifter.motorsOff();
     }
 
     @Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return lifter.isLifterAtBottom() || isTimedOut();
     }
     
     @Override
-    protected void interrupted() {
-        end();
+    protected void onInterrupted() {
+        onEnd();
     }
 }
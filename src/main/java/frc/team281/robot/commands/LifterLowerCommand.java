@@ -13,21 +13,21 @@ public class LifterLowerCommand extends BaseCommand {
 
 
     @Override
-    protected void initialize() {
+    protected void onInitialize() {
         lifter.motorsDown(LifterSubsystem.DOWN_SPEED_PERCENT);
     }
 
 	@Override
-	protected void end() {
+	protected void onEnd() {
 	}
 
     @Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return true;
     }
 
 	@Override
-	protected void interrupted() {
+	protected void onInterrupted() {
 	}
 
 }
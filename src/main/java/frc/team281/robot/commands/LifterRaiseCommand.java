@@ -11,21 +11,21 @@ public class LifterRaiseCommand extends BaseCommand {
     }
 
     @Override
-    protected void initialize() {
+    protected void onInitialize() {
         lifter.motorsUp(LifterSubsystem.UP_SPEED_PERCENT);
     }
 
 	@Override
-	protected void end() {
+	protected void onEnd() {
 	}
 
     @Override
-    protected boolean isFinished() {        
+    protected boolean checkFinished() {        
         return true;
     }
 
 	@Override
-	protected void interrupted() {
+	protected void onInterrupted() {
 	}
 
 }
@@ -12,26 +12,26 @@ public class LifterRaiseSeconds extends BaseCommand {
     }
 
     @Override
-    protected void initialize() {
+    protected void onInitialize() {
     }
 
     @Override
-    protected void execute() {
+    protected void onExecute() {
         lifter.motorsUp(LifterSubsystem.UP_SPEED_PERCENT);
     }
 
     @Override
-	protected void end() {
+	protected void onEnd() {
     	    lifter.motorsOff();
 	}
 
 	@Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return isTimedOut();
     }
 
     @Override
-    protected void interrupted() {
-        end();
+    protected void onInterrupted() {
+        onEnd();
     }
 }
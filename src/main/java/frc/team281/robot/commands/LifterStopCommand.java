@@ -12,22 +12,22 @@ public class LifterStopCommand extends BaseCommand {
     }
 
     @Override
-    protected void initialize() {
+    protected void onInitialize() {
         lifter.motorsOff();
     }
 
     @Override
-	protected void execute() {
+	protected void onExecute() {
         lifter.motorsOff();
 	}
 
 	@Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return true;
     }
 
     @Override
-    protected void interrupted() {
+    protected void onInterrupted() {
         lifter.motorsOff();
     }
 }
@@ -14,26 +14,26 @@ public class LifterTopCommand extends BaseCommand {
 	}
 
 	@Override
-	protected void initialize() {
+	protected void onInitialize() {
 	}
 
 	@Override
-	protected void execute() {
+	protected void onExecute() {
 		lifter.motorsUp(LifterSubsystem.UP_SPEED_PERCENT);
 	}
 
 	@Override
-	protected void end() {
+	protected void onEnd() {
 		lifter.motorsOff();
 	}
 
 	@Override
-	protected boolean isFinished() {
+	protected boolean checkFinished() {
 		return lifter.isLifterAtTop() || isTimedOut();
 	}
 
 	@Override
-	protected void interrupted() {
-		end();
+	protected void onInterrupted() {
+		onEnd();
 	}
 }
@@ -12,14 +12,14 @@ public class PushOutCubeAndOpenCommand extends BaseCommand{
         setTimeout(3);
     }
     @Override
-    public void initialize() {
+    public void onInitialize() {
         grab.startShooting();
     }
     @Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return isTimedOut();
     }
-    public void end() {
+    public void onEnd() {
         grab.stopMotors();
         grab.open();
     }
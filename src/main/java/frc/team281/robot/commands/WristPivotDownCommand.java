@@ -4,20 +4,21 @@ import frc.team281.robot.subsystems.BaseSubsystem;
 import frc.team281.robot.subsystems.WristSubsystem;
 
 public class WristPivotDownCommand extends BaseCommand {
+    public static final double PIVOT_SECONDS = 1.25;
     WristSubsystem wrist;
     public WristPivotDownCommand(BaseSubsystem subsystem) {
-        super(subsystem, 1.25);
+        super(subsystem, PIVOT_SECONDS);
         this.wrist = (WristSubsystem) subsystem;
     }
 
     public WristPivotDownCommand(BaseSubsystem subsystem, double timeOut) {
         super(subsystem, timeOut);
     }
-    public void initialize() {
+    public void onInitialize() {
         wrist.pivotDown();
     }
     @Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return isTimedOut();
     }
 
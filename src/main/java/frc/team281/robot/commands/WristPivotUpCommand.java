@@ -14,12 +14,12 @@ public class WristPivotUpCommand extends BaseCommand {
         super(subsystem, timeOut);
     }
     
-    public void execute() {
+    public void onExecute() {
         wrist.pivotUp();
     }
     
     @Override
-    protected boolean isFinished() {
+    protected boolean checkFinished() {
         return true;
     }
 
@@ -3,24 +3,136 @@ package frc.team281.robot.controllers;
 import com.ctre.phoenix.motorcontrol.ControlMode;
 import com.ctre.phoenix.motorcontrol.can.TalonSRX;
 
+import frc.team281.robot.logger.TimeSource;
+import frc.team281.robot.subsystems.TalonConfigCache;
+import frc.team281.robot.subsystems.TalonConfigResult;
 import frc.team281.robot.subsystems.TalonSettings;
 
+/**
+ * Base for controllers that drive one talon with a set of settings.
+ * 
+ * Subsystems often command the same output every loop. The talon keeps
+ * running the last thing it was told, so an output that is the same as the
+ * last one is not sent again-- unless REFRESH_MILLIS have passed, so that
+ * the talon is still told something often enough to keep motor safety happy.
+ * The counts of sent and suppressed outputs show how much this saves.
+ * 
+ * The talon is used through a MotorIO, so a controller can run a simulated
+ * talon too. getTalon() is only there for a real one.
+ * 
+ * @author dcowden
+ *
+ */
 public abstract class BaseTalonController {
 
+	// motor safety's default expiration is 100ms
+	public static final long REFRESH_MILLIS = 50;
+
 	private TalonSRX talon = null;
+	private MotorIO motor = null;
 	private TalonSettings settings = null;
+	private EncoderZeroer encoderZeroer = EncoderZeroer.DIRECT;
+	private TimeSource timeSource = null;
+
+	private ControlMode lastMode = null;
+	private double lastDemand = 0.0;
+	private long lastSentNanos = 0;
+	private long refreshNanos = REFRESH_MILLIS * 1000000L;
+	private int sentCount = 0;
+	private int suppressedCount = 0;
 
 	public BaseTalonController(TalonSRX talon, TalonSettings settings) {
 		this.talon = talon;
+		this.motor = new TalonMotorIO(talon);
+		this.settings = settings;
+	}
+
+	public BaseTalonController(MotorIO motor, TalonSettings settings) {
+		if (motor instanceof TalonMotorIO) {
+			this.talon = ((TalonMotorIO) motor).getTalon();
+		}
+		this.motor = motor;
 		this.settings = settings;
 	}
 
-	public void configure() {
-		settings.configureTalon(talon);
+	public TalonConfigResult configure() {
+		// configuring sets the mode
+		forgetLastOutput();
+		return TalonConfigCache.getInstance().configure(motor, settings);
 	}
 
 	public void resetPosition() {
-		talon.setSelectedSensorPosition(0, TalonSettings.PID_SLOT, TalonSettings.TIMEOUT_MS);
+		// a position demand means something different after a reset
+		forgetLastOutput();
+		encoderZeroer.zero(motor);
+	}
+
+	/**
+	 * Who resetPosition() zeroes the encoder through
+	 */
+	public void setEncoderZeroer(EncoderZeroer encoderZeroer) {
+		this.encoderZeroer = encoderZeroer;
+	}
+
+	/**
+	 * Sends the output to the talon, unless it's the same as the last one and
+	 * was sent recently
+	 * 
+	 * @return true if it was sent
+	 */
+	protected boolean setOutput(ControlMode mode, double demand) {
+		long now = nanoTime();
+		if (mode == lastMode && demand == lastDemand && (now - lastSentNanos) < refreshNanos) {
+			suppressedCount++;
+			return false;
+		}
+		motor.set(mode, demand);
+		lastMode = mode;
+		lastDemand = demand;
+		lastSentNanos = now;
+		sentCount++;
+		return true;
+	}
+
+	/**
+	 * Makes the next output get sent, no matter what. Call this if something
+	 * else may have changed the talon's mode.
+	 */
+	public void forgetLastOutput() {
+		lastMode = null;
+	}
+
+	protected long nanoTime() {
+		if (timeSource != null) {
+			return Math.round(timeSource.getSystemTime() * 1e9);
+		}
+		return System.nanoTime();
+	}
+
+	/**
+	 * Times refreshes with this clock instead of the system's, like when
+	 * replaying a match in virtual time
+	 */
+	public void setTimeSource(TimeSource timeSource) {
+		this.timeSource = timeSource;
+	}
+
+	public void setRefreshMillis(long refreshMillis) {
+		this.refreshNanos = refreshMillis * 1000000L;
+	}
+
+	/**
+	 * @return outputs actually sent to the talon
+	 */
+	public int getSentCount() {
+		return sentCount;
+	}
+
+	/**
+	 * @return outputs not sent, because the talon already had them
+	 */
+	public int getSuppressedCount() {
+		return suppressedCount;
 	}
 
 	/**
@@ -31,26 +143,33 @@ public abstract class BaseTalonController {
 	 * @return
 	 */
 	public Integer getActualPosition() {
-		if (talon.getControlMode().equals(ControlMode.Follower)) {
+		if (motor.getControlMode().equals(ControlMode.Follower)) {
 			return null;
 		} else {
-			return new Integer(this.getTalon().getSelectedSensorPosition(TalonSettings.PID_SLOT));
+			return new Integer(motor.getSelectedSensorPosition());
 		}
 
 	}
 
 	public void resetMode() {
-		settings.setMode(talon);
+		setOutput(settings.controlMode, settings.demand);
 	}
 
 	public void resetMode(double settingValue) {
-		settings.setMode(talon, settingValue);
+		setOutput(settings.controlMode, settingValue);
 	}
 
+	/**
+	 * @return the real talon, or null if this controller runs something else
+	 */
 	public TalonSRX getTalon() {
 		return talon;
 	}
 
+	public MotorIO getMotorIO() {
+		return motor;
+	}
+
 	public TalonSettings getSettings() {
 		return settings;
 	}
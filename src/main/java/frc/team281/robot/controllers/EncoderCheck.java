@@ -25,10 +25,10 @@ public class EncoderCheck {
 	}
 	
 	public EncoderCheck( FourTalonsWithSettings talons ) {
-		this(   talons.getRearLeft().getSelectedSensorPosition(0),
-				talons.getFrontLeft().getSelectedSensorPosition(0),
-				talons.getFrontRight().getSelectedSensorPosition(0),
-				talons.getRearRight().getSelectedSensorPosition(0) );
+		this(   talons.getRearLeftIO().getSelectedSensorPosition(),
+				talons.getFrontLeftIO().getSelectedSensorPosition(),
+				talons.getFrontRightIO().getSelectedSensorPosition(),
+				talons.getRearRightIO().getSelectedSensorPosition() );
 	}
 	
 	public void adjustTalonSettingsToWorkAroundBrokenEncoders(FourTalonsWithSettings originalTalons) {
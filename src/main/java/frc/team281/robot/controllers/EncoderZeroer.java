@@ -0,0 +1,19 @@
+package frc.team281.robot.controllers;
+
+/**
+ * Zeroes a talon's encoder. Controllers zero through one of these instead of
+ * calling the talon, so anyone counting the encoders, like the odometry, sees
+ * the zeroing happen instead of guessing at it.
+ *
+ * @author dcowden
+ *
+ */
+public interface EncoderZeroer {
+
+	/**
+	 * Just zeroes the talon
+	 */
+	public static final EncoderZeroer DIRECT = motor -> motor.setSelectedSensorPosition(0);
+
+	public void zero(MotorIO motor);
+}
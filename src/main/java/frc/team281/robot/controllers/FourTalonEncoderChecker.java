@@ -1,13 +1,21 @@
 package frc.team281.robot.controllers;
 
 import com.ctre.phoenix.motorcontrol.ControlMode;
-import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
 
 import frc.team281.robot.RobotMap;
 import frc.team281.robot.logger.DataLogger;
 import frc.team281.robot.logger.DataLoggerFactory;
+import frc.team281.robot.subsystems.drive.DriveSensorFrame;
 import frc.team281.robot.subsystems.drive.FourTalonsWithSettings;
 
+/**
+ * Finds broken drive encoders, by comparing each one with the other encoder on
+ * the same side. Encoder counts come from a DriveSensorFrame, so checking
+ * doesn't read the talons.
+ * 
+ * @author dcowden
+ *
+ */
 public class FourTalonEncoderChecker {
 
 	
@@ -17,9 +25,21 @@ public class FourTalonEncoderChecker {
 	
 	private DataLogger log;
 	private FourTalonsWithSettings talons;
+	private DriveSensorFrame frame;
 	
+	/**
+	 * Checks the talons as they are right now
+	 */
 	public FourTalonEncoderChecker(FourTalonsWithSettings talons) {
+		this(talons, DriveSensorFrame.sampled(talons));
+	}
+	
+	/**
+	 * Checks the counts in the frame, whenever it was last sampled
+	 */
+	public FourTalonEncoderChecker(FourTalonsWithSettings talons, DriveSensorFrame frame) {
 		this.talons = talons;
+		this.frame = frame;
 		this.log = DataLoggerFactory.getLoggerFactory().createDataLogger(getClass().getSimpleName());
 	}
 	
@@ -63,32 +83,32 @@ public class FourTalonEncoderChecker {
 		//but that would make the follower mode persistent, which i dont think we want
 		
 		if (shouldDisableAll()) {
-			talons.getFrontLeft().set(ControlMode.Disabled, 0);
-			talons.getFrontRight().set(ControlMode.Disabled, 0);
-			talons.getRearLeft().set(ControlMode.Disabled, 0);
-			talons.getRearRight().set(ControlMode.Disabled, 0);
+			talons.getFrontLeftIO().set(ControlMode.Disabled, 0);
+			talons.getFrontRightIO().set(ControlMode.Disabled, 0);
+			talons.getRearLeftIO().set(ControlMode.Disabled, 0);
+			talons.getRearRightIO().set(ControlMode.Disabled, 0);
 		} else {
 			if (shouldLeftFrontFollowLeftRear()) {
 				log.warn("Left Front Encoder appears to be broken. It will follow Left Rear");
-				talons.getFrontLeft().set(ControlMode.Follower, RobotMap.CAN.REAR_LEFT_MOTOR);
+				talons.getFrontLeftIO().set(ControlMode.Follower, RobotMap.CAN.REAR_LEFT_MOTOR);
 			}
 			if (shouldLeftRearFollowLeftFront()) {
 				log.warn("Left Rear Encoder appears to be broken. It will follow Left Front");
-				talons.getRearLeft().set(ControlMode.Follower,RobotMap.CAN.FRONT_LEFT_MOTOR);
+				talons.getRearLeftIO().set(ControlMode.Follower,RobotMap.CAN.FRONT_LEFT_MOTOR);
 			}
 			if (shouldRightFrontFollowRightRear()) {
 				log.warn("Right Front Encoder appears to be broken. It will follow Right Rear");
-				talons.getFrontRight().set(ControlMode.Follower,RobotMap.CAN.REAR_RIGHT_MOTOR);
+				talons.getFrontRightIO().set(ControlMode.Follower,RobotMap.CAN.REAR_RIGHT_MOTOR);
 			}
 			if (shouldRightRearFollowRightFront()) {
 				log.warn("Right Rear Encoder appears to be broken. It will follow Right Front");
-				talons.getRearRight().set(ControlMode.Follower,RobotMap.CAN.FRONT_RIGHT_MOTOR );
+				talons.getRearRightIO().set(ControlMode.Follower,RobotMap.CAN.FRONT_RIGHT_MOTOR );
 			}
 		}		
-		log.log("frontLeftMode",talons.getFrontLeft().getControlMode());
-		log.log("frontRightMode",talons.getFrontRight().getControlMode());
-		log.log("rearLeftMode",talons.getRearLeft().getControlMode());
-		log.log("rearRightMode",talons.getRearRight().getControlMode());
+		log.log("frontLeftMode",talons.getFrontLeftIO().getControlMode());
+		log.log("frontRightMode",talons.getFrontRightIO().getControlMode());
+		log.log("rearLeftMode",talons.getRearLeftIO().getControlMode());
+		log.log("rearRightMode",talons.getRearRightIO().getControlMode());
 		
 	}
 	
@@ -112,9 +132,9 @@ public class FourTalonEncoderChecker {
 		return this.hasProblems() && !this.canDrive();
 	}
 
-	protected boolean checkPair(WPI_TalonSRX primary, WPI_TalonSRX secondary) {
-		int myCounts = primary.getSelectedSensorPosition(0);
-		int myPairCounts = secondary.getSelectedSensorPosition(0);
+	protected boolean checkPair(int primary, int secondary) {
+		int myCounts = frame.getPosition(primary);
+		int myPairCounts = frame.getPosition(secondary);
 		if ( Math.abs(myPairCounts) > MIN_COUNTS_TO_CONSIDER && myCounts == 0) {
 			return false;
 		}
@@ -123,20 +143,20 @@ public class FourTalonEncoderChecker {
 		}		
 	}
 	public boolean isLeftRearOk() {
-		return checkPair(talons.getRearLeft(),talons.getFrontLeft());
+		return checkPair(DriveSensorFrame.REAR_LEFT, DriveSensorFrame.FRONT_LEFT);
 	}
 
 	public boolean isLeftFrontOk() {
-		return checkPair(talons.getFrontLeft(),talons.getRearLeft());
+		return checkPair(DriveSensorFrame.FRONT_LEFT, DriveSensorFrame.REAR_LEFT);
 	}
 
 	public boolean isRightRearOk() {
-		return checkPair(talons.getRearRight(),talons.getFrontRight());
+		return checkPair(DriveSensorFrame.REAR_RIGHT, DriveSensorFrame.FRONT_RIGHT);
 	}
 
 	public boolean isRightFrontOk() {
 	    //return false;
-		return checkPair(talons.getFrontRight(),talons.getRearRight());
+		return checkPair(DriveSensorFrame.FRONT_RIGHT, DriveSensorFrame.REAR_RIGHT);
 	}
 
 	public boolean isLeftOk() {
@@ -0,0 +1,87 @@
+package frc.team281.robot.controllers;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motion.MotionProfileStatus;
+import com.ctre.phoenix.motion.TrajectoryPoint;
+import com.ctre.phoenix.motorcontrol.ControlMode;
+
+import frc.team281.robot.subsystems.TalonConfigResult;
+import frc.team281.robot.subsystems.TalonSettings;
+
+/**
+ * The parts of a talon that our controllers use. TalonMotorIO is a real CTRE
+ * talon, and SimulatedMotorIO is a simulated one, so control code can run
+ * without a robot.
+ * 
+ * Units are the talon's: encoder counts, counts per 100ms, and output from
+ * -1 to 1. Sensor reads use TalonSettings.PID_SLOT.
+ * 
+ * @author dcowden
+ *
+ */
+public interface MotorIO {
+
+	/**
+	 * Applies the settings, sending only what's different from previous
+	 * 
+	 * @param previous
+	 *            what the motor has now, or null to send everything
+	 */
+	public TalonConfigResult configure(TalonSettings settings, TalonSettings previous);
+
+	public void set(ControlMode mode, double demand);
+
+	/**
+	 * @return the last demand set
+	 */
+	public double get();
+
+	public ControlMode getControlMode();
+
+	public int getSelectedSensorPosition();
+
+	public int getSelectedSensorVelocity();
+
+	public int getClosedLoopError();
+
+	public void setSelectedSensorPosition(int position);
+
+	public double getOutputCurrent();
+
+	public double getMotorOutputPercent();
+
+	public double getMotorOutputVoltage();
+
+	public ErrorCode getLastError();
+
+	/**
+	 * @return true if the talon has reset ( browned out, say ) since this was
+	 *         last called, and so has lost its settings
+	 */
+	public boolean hasResetOccurred();
+
+	/**
+	 * Adds a point to the top ( roboRIO side ) motion profile buffer
+	 */
+	public ErrorCode pushMotionProfileTrajectory(TrajectoryPoint point);
+
+	/**
+	 * Moves points from the top buffer to the talon. Call this at least twice
+	 * as often as the points run
+	 */
+	public void processMotionProfileBuffer();
+
+	public void getMotionProfileStatus(MotionProfileStatus status);
+
+	public void clearMotionProfileTrajectories();
+
+	public void changeMotionControlFramePeriod(int periodMs);
+
+	public int getDeviceID();
+
+	/**
+	 * @return the hardware behind this. Two MotorIOs for the same talon
+	 *         return the same device
+	 */
+	public Object getDevice();
+}
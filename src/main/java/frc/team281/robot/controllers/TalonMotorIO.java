@@ -0,0 +1,133 @@
+package frc.team281.robot.controllers;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motion.MotionProfileStatus;
+import com.ctre.phoenix.motion.TrajectoryPoint;
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+
+import frc.team281.robot.subsystems.TalonConfigResult;
+import frc.team281.robot.subsystems.TalonSettings;
+
+/**
+ * A real CTRE talon
+ * 
+ * @author dcowden
+ *
+ */
+public class TalonMotorIO implements MotorIO {
+
+	private TalonSRX talon;
+
+	public TalonMotorIO(TalonSRX talon) {
+		this.talon = talon;
+	}
+
+	public TalonSRX getTalon() {
+		return talon;
+	}
+
+	@Override
+	public TalonConfigResult configure(TalonSettings settings, TalonSettings previous) {
+		return settings.configureTalon(talon, previous);
+	}
+
+	@Override
+	public void set(ControlMode mode, double demand) {
+		talon.set(mode, demand);
+	}
+
+	@Override
+	public double get() {
+		if (talon instanceof WPI_TalonSRX) {
+			return ((WPI_TalonSRX) talon).get();
+		}
+		return talon.getMotorOutputPercent();
+	}
+
+	@Override
+	public ControlMode getControlMode() {
+		return talon.getControlMode();
+	}
+
+	@Override
+	public int getSelectedSensorPosition() {
+		return talon.getSelectedSensorPosition(TalonSettings.PID_SLOT);
+	}
+
+	@Override
+	public int getSelectedSensorVelocity() {
+		return talon.getSelectedSensorVelocity(TalonSettings.PID_SLOT);
+	}
+
+	@Override
+	public int getClosedLoopError() {
+		return talon.getClosedLoopError(TalonSettings.PID_SLOT);
+	}
+
+	@Override
+	public void setSelectedSensorPosition(int position) {
+		talon.setSelectedSensorPosition(position, TalonSettings.PID_SLOT, TalonSettings.TIMEOUT_MS);
+	}
+
+	@Override
+	public double getOutputCurrent() {
+		return talon.getOutputCurrent();
+	}
+
+	@Override
+	public double getMotorOutputPercent() {
+		return talon.getMotorOutputPercent();
+	}
+
+	@Override
+	public double getMotorOutputVoltage() {
+		return talon.getMotorOutputVoltage();
+	}
+
+	@Override
+	public ErrorCode getLastError() {
+		return talon.getLastError();
+	}
+
+	@Override
+	public boolean hasResetOccurred() {
+		return talon.hasResetOccurred();
+	}
+
+	@Override
+	public ErrorCode pushMotionProfileTrajectory(TrajectoryPoint point) {
+		return talon.pushMotionProfileTrajectory(point);
+	}
+
+	@Override
+	public void processMotionProfileBuffer() {
+		talon.processMotionProfileBuffer();
+	}
+
+	@Override
+	public void getMotionProfileStatus(MotionProfileStatus status) {
+		talon.getMotionProfileStatus(status);
+	}
+
+	@Override
+	public void clearMotionProfileTrajectories() {
+		talon.clearMotionProfileTrajectories();
+	}
+
+	@Override
+	public void changeMotionControlFramePeriod(int periodMs) {
+		talon.changeMotionControlFramePeriod(periodMs);
+	}
+
+	@Override
+	public int getDeviceID() {
+		return talon.getDeviceID();
+	}
+
+	@Override
+	public Object getDevice() {
+		return talon;
+	}
+}
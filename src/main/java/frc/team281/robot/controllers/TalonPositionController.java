@@ -26,4 +26,8 @@ public class TalonPositionController extends BaseTalonController {
 	public TalonPositionController(TalonSRX talon, TalonSettings settings) {
 		super(talon, settings);
 	}
+
+	public TalonPositionController(MotorIO motor, TalonSettings settings) {
+		super(motor, settings);
+	}
 }
@@ -1,5 +1,6 @@
 package frc.team281.robot.controllers;
 
+import frc.team281.robot.logger.TimeSource;
 import frc.team281.robot.subsystems.Position;
 import frc.team281.robot.subsystems.drive.EncoderInchesConverter;
 
@@ -45,6 +46,20 @@ public class TalonPositionControllerGroup {
 		rearRight.resetPosition();
 	}
 
+	public void setEncoderZeroer(EncoderZeroer encoderZeroer) {
+		frontLeft.setEncoderZeroer(encoderZeroer);
+		frontRight.setEncoderZeroer(encoderZeroer);
+		rearLeft.setEncoderZeroer(encoderZeroer);
+		rearRight.setEncoderZeroer(encoderZeroer);
+	}
+
+	public void setTimeSource(TimeSource timeSource) {
+		frontLeft.setTimeSource(timeSource);
+		frontRight.setTimeSource(timeSource);
+		rearLeft.setTimeSource(timeSource);
+		rearRight.setTimeSource(timeSource);
+	}
+
 	public void setDesiredPosition(int leftPosition, int rightPosition, boolean isRelative) {
 		if (isRelative) {
 			resetPosition();
@@ -13,7 +13,7 @@ public class TalonSpeedController extends BaseTalonController {
 	}
 
 	public double getActualSpeed() {
-		return this.getTalon().getSelectedSensorVelocity(TalonSettings.PID_SLOT);
+		return this.getMotorIO().getSelectedSensorVelocity();
 	}
 
 	public void setDesiredSpeed(double desiredSpeed) {
@@ -25,4 +25,8 @@ public class TalonSpeedController extends BaseTalonController {
 		super(talon, settings);
 	}
 
+	public TalonSpeedController(MotorIO motor, TalonSettings settings) {
+		super(motor, settings);
+	}
+
 }
@@ -0,0 +1,245 @@
+package frc.team281.robot.logger;
+
+import java.util.Arrays;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.command.Subsystem;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.team281.robot.subsystems.BaseSubsystem;
+
+/**
+ * A datalogger that sends data to the smartDashboard, but from a background
+ * thread. Values are queued on a SmartDashboardPublisher, which is shared by
+ * all of the loggers made by a factory. Dont' create them directly, use
+ * MatchDataLoggerFactory.
+ *
+ * Most values are the same from one loop to the next, so the last value sent
+ * for each key is remembered, and a value is only queued when it changes.
+ * A key can also be given a maximum rate, for values that change every loop
+ * but that nobody needs to see 50 times a second. String keys are turned into
+ * handles the first time they are seen, so they are cached too.
+ *
+ * The publisher drops the oldest sample when it is full, so a change we
+ * queued may never reach the dashboard. Unchanged values are sent again
+ * once REFRESH_SECONDS have passed, so a dropped change is fixed by the next
+ * refresh instead of staying stale.
+ *
+ * Only log from the main robot thread-- the publisher queue has a single
+ * producer.
+ *
+ * @author dcowden
+ *
+ */
+public class AsyncSmartDashboardLogger extends DataLogger {
+
+	private static final byte NONE = 0;
+	private static final byte NUMBER = 1;
+	private static final byte BOOLEAN = 2;
+	private static final byte STRING = 3;
+
+	// unchanged values are published again this often
+	public static final double REFRESH_SECONDS = 1.0;
+
+	private SmartDashboardPublisher publisher;
+	private TimeSource timeSource;
+	private double refreshSeconds = REFRESH_SECONDS;
+
+	// last value published, per handle
+	private byte[] lastTypes = new byte[INITIAL_KEY_CAPACITY];
+	private double[] lastNumbers = new double[INITIAL_KEY_CAPACITY];
+	private String[] lastStrings = new String[INITIAL_KEY_CAPACITY];
+	private double[] lastPublishTimes = new double[INITIAL_KEY_CAPACITY];
+	private double[] minIntervals = new double[INITIAL_KEY_CAPACITY];
+	private long[] publishCounts = new long[INITIAL_KEY_CAPACITY];
+	private long suppressedCount = 0;
+
+	public AsyncSmartDashboardLogger(String name, SmartDashboardPublisher publisher) {
+		this(name, publisher, new WpilibTimeSource());
+	}
+
+	public AsyncSmartDashboardLogger(String name, SmartDashboardPublisher publisher, TimeSource timeSource) {
+		super(name);
+		this.publisher = publisher;
+		this.timeSource = timeSource;
+	}
+
+	@Override
+	public int registerKey(String key) {
+		int handle = super.registerKey(key);
+		if (handle == lastTypes.length) {
+			int size = lastTypes.length * 2;
+			lastTypes = Arrays.copyOf(lastTypes, size);
+			lastNumbers = Arrays.copyOf(lastNumbers, size);
+			lastStrings = Arrays.copyOf(lastStrings, size);
+			lastPublishTimes = Arrays.copyOf(lastPublishTimes, size);
+			minIntervals = Arrays.copyOf(minIntervals, size);
+			publishCounts = Arrays.copyOf(publishCounts, size);
+		}
+		return handle;
+	}
+
+	/**
+	 * Limits how often a key is published. Changes that come faster are
+	 * skipped-- the latest value goes out once the interval has passed, as
+	 * long as it's still being logged.
+	 *
+	 * @param maxPerSecond
+	 *            maximum publishes per second, or 0 for no limit
+	 */
+	public void setMaxRate(String key, double maxPerSecond) {
+		int handle = registerKey(key);
+		minIntervals[handle] = maxPerSecond > 0 ? 1.0 / maxPerSecond : 0.0;
+	}
+
+	/**
+	 * How long an unchanged value goes before it's published again, or 0 to
+	 * never publish it again
+	 */
+	public void setRefreshSeconds(double refreshSeconds) {
+		this.refreshSeconds = refreshSeconds;
+	}
+
+	@Override
+	public void log(String key, Object value) {
+		log(registerKey(key), "" + value);
+	}
+
+	@Override
+	public void log(String key, double value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(String key, int value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(String key, String value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(String key, long value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(String key, boolean value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(int handle, double value) {
+		if (shouldPublish(handle, NUMBER, value, null)) {
+			publisher.offerNumber(getPath(handle), value);
+		}
+	}
+
+	@Override
+	public void log(int handle, int value) {
+		log(handle, (double) value);
+	}
+
+	@Override
+	public void log(int handle, long value) {
+		log(handle, (double) value);
+	}
+
+	@Override
+	public void log(int handle, boolean value) {
+		if (shouldPublish(handle, BOOLEAN, value ? 1.0 : 0.0, null)) {
+			publisher.offerBoolean(getPath(handle), value);
+		}
+	}
+
+	@Override
+	public void log(int handle, String value) {
+		if (shouldPublish(handle, STRING, 0.0, value)) {
+			publisher.offerString(getPath(handle), value);
+		}
+	}
+
+	/**
+	 * A key under its rate limit doesn't want a sample, since it would be
+	 * skipped anyway. A value that didn't change can't be known without
+	 * reading it, so other keys always want one.
+	 */
+	@Override
+	public boolean wantsSample(int handle) {
+		double interval = minIntervals[handle];
+		if (interval > 0.0 && lastTypes[handle] != NONE) {
+			return timeSource.getElapsedSeconds() - lastPublishTimes[handle] >= interval;
+		}
+		return true;
+	}
+
+	private boolean shouldPublish(int handle, byte type, double number, String string) {
+		double now = timeSource.getElapsedSeconds();
+		double age = now - lastPublishTimes[handle];
+		if (lastTypes[handle] == type && sameValue(handle, number, string)
+				&& (refreshSeconds <= 0.0 || age < refreshSeconds)) {
+			suppressedCount++;
+			return false;
+		}
+		if (lastTypes[handle] != NONE && age < minIntervals[handle]) {
+			suppressedCount++;
+			return false;
+		}
+		lastPublishTimes[handle] = now;
+		lastTypes[handle] = type;
+		lastNumbers[handle] = number;
+		lastStrings[handle] = string;
+		publishCounts[handle]++;
+		return true;
+	}
+
+	private boolean sameValue(int handle, double number, String string) {
+		if (Double.doubleToLongBits(lastNumbers[handle]) != Double.doubleToLongBits(number)) {
+			return false;
+		}
+		String last = lastStrings[handle];
+		return last == null ? string == null : last.equals(string);
+	}
+
+	/**
+	 * Forgets the cached values, so everything is published again the next
+	 * time it's logged. Useful if the dashboard was restarted.
+	 */
+	public void resetCache() {
+		Arrays.fill(lastTypes, NONE);
+		Arrays.fill(lastStrings, null);
+	}
+
+	public long getPublishCount(int handle) {
+		return publishCounts[handle];
+	}
+
+	public long getPublishCount(String key) {
+		return getPublishCount(registerKey(key));
+	}
+
+	/**
+	 * @return the number of values not published, because they didn't change
+	 *         since the last refresh, or were over the rate limit
+	 */
+	public long getSuppressedCount() {
+		return suppressedCount;
+	}
+
+	@Override
+	public void warn(String message) {
+		DriverStation.reportWarning(message, true);
+	}
+
+	@Override
+	public void log(BaseSubsystem subsystem) {
+		// only happens at startup, so no need to queue it
+		SmartDashboard.putData((Subsystem) subsystem);
+	}
+
+	public SmartDashboardPublisher getPublisher() {
+		return publisher;
+	}
+
+}
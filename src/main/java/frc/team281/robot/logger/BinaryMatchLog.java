@@ -0,0 +1,290 @@
+package frc.team281.robot.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A binary match log file. This is written by BinaryMatchLoggers, and read
+ * back by BinaryMatchLogReader.
+ *
+ * The whole file is allocated and memory mapped up front, so writing a record
+ * is just a few puts into memory: no printf, no NetworkTables, and no
+ * allocation. The operating system writes the pages to flash on its own, so
+ * disk writes never happen in the robot loop.
+ *
+ * The file is self-describing. It starts with a fixed size header, which holds
+ * the key dictionary. Keys are added to the dictionary as they are registered,
+ * so the names are always in the file before any record that uses them.
+ *
+ * Records are compressed against the previous value of the same key, since
+ * most values change slowly from one loop to the next:
+ * <ul>
+ * <li>ints and longs are stored as the zig-zag varint of the change</li>
+ * <li>doubles are XORed with the previous bits, and the XOR is stored without
+ * its trailing zeros. Doubles can be quantized first ( see
+ * setDoubleFractionBits ), which gives more trailing zeros</li>
+ * <li>booleans, and strings that didn't change, need no value at all</li>
+ * </ul>
+ *
+ * <pre>
+ * header:  int magic, short version, short doubleFractionBits, int keyCount, int headerSize
+ *          then keyCount entries of: short length, ascii bytes
+ * records: byte tag, varint keyId, signed varint microseconds since the last record, value
+ * </pre>
+ *
+ * The unused part of the file is all zeros, so a tag of END marks the end of
+ * the data.
+ *
+ * Only one thread should write at a time-- the methods are synchronized, so
+ * that's safe, but meant for the main robot thread.
+ *
+ * @author dcowden
+ *
+ */
+public class BinaryMatchLog {
+
+	public static final int MAGIC = 0x32383142; // "281B"
+	public static final short VERSION = 2;
+	public static final int HEADER_SIZE = 64 * 1024;
+	public static final int DEFAULT_FILE_SIZE = 64 * 1024 * 1024;
+	public static final int MAX_STRING_LENGTH = 255;
+	public static final int NO_KEY = -1;
+	public static final int LOSSLESS = -1;
+
+	public static final int FRACTION_BITS_OFFSET = 6;
+	public static final int KEY_COUNT_OFFSET = 8;
+	public static final int HEADER_SIZE_OFFSET = 12;
+	public static final int FIRST_KEY_OFFSET = 16;
+
+	// the types of value a record can hold
+	public static final byte END = 0;
+	public static final byte DOUBLE = 1;
+	public static final byte INT = 2;
+	public static final byte LONG = 3;
+	public static final byte BOOLEAN = 4;
+	public static final byte STRING = 5;
+
+	// how a record is written
+	static final byte TAG_END = 0;
+	static final byte TAG_DOUBLE_XOR = 1;
+	static final byte TAG_DOUBLE_SAME = 2;
+	static final byte TAG_INT_DELTA = 3;
+	static final byte TAG_LONG_DELTA = 4;
+	static final byte TAG_TRUE = 5;
+	static final byte TAG_FALSE = 6;
+	static final byte TAG_STRING = 7;
+	static final byte TAG_STRING_SAME = 8;
+
+	// tag + key + time, as big as they can get
+	static final int MAX_RECORD_HEADER_BYTES = 1 + 5 + LogEncoding.MAX_VARLONG_BYTES;
+
+	private ByteBuffer buffer;
+	private TimeSource timeSource;
+	private Map<String, Integer> keyIds = new HashMap<>();
+	private int keyCount = 0;
+	private int nextKeyOffset = FIRST_KEY_OFFSET;
+	private long recordCount = 0;
+	private long droppedCount = 0;
+	private long lastTimeMicros = 0;
+	private int doubleFractionBits = LOSSLESS;
+
+	// the previous value of each key, to encode against
+	private long[] lastLongs = new long[DataLogger.INITIAL_KEY_CAPACITY];
+	private long[] lastDoubleBits = new long[DataLogger.INITIAL_KEY_CAPACITY];
+	private String[] lastStrings = new String[DataLogger.INITIAL_KEY_CAPACITY];
+
+	/**
+	 * Creates a log file of the given size, and maps it into memory.
+	 */
+	public static BinaryMatchLog create(File file, int sizeBytes, TimeSource timeSource) throws IOException {
+		File dir = file.getAbsoluteFile().getParentFile();
+		if (dir != null && !dir.exists() && !dir.mkdirs()) {
+			throw new IOException("Cannot create log directory " + dir);
+		}
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(sizeBytes);
+			// the mapping stays valid after the channel is closed
+			MappedByteBuffer mapped = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes);
+			return new BinaryMatchLog(mapped, timeSource);
+		}
+	}
+
+	/**
+	 * @param buffer
+	 *            zero-filled buffer to write into, at least HEADER_SIZE long
+	 */
+	public BinaryMatchLog(ByteBuffer buffer, TimeSource timeSource) {
+		if (buffer.capacity() <= HEADER_SIZE) {
+			throw new IllegalArgumentException("Log buffer must be bigger than the header: " + buffer.capacity());
+		}
+		this.buffer = buffer;
+		this.timeSource = timeSource;
+		buffer.putInt(0, MAGIC);
+		buffer.putShort(4, VERSION);
+		buffer.putShort(FRACTION_BITS_OFFSET, (short) doubleFractionBits);
+		buffer.putInt(KEY_COUNT_OFFSET, 0);
+		buffer.putInt(HEADER_SIZE_OFFSET, HEADER_SIZE);
+		buffer.position(HEADER_SIZE);
+	}
+
+	/**
+	 * Adds a key to the dictionary, and returns its id. Registering the same
+	 * key twice returns the same id. Returns NO_KEY if the dictionary is full.
+	 */
+	public synchronized int registerKey(String path) {
+		Integer existing = keyIds.get(path);
+		if (existing != null) {
+			return existing;
+		}
+		int length = Math.min(path.length(), MAX_STRING_LENGTH);
+		if (nextKeyOffset + 2 + length > HEADER_SIZE || keyCount > Short.MAX_VALUE) {
+			return NO_KEY;
+		}
+		buffer.putShort(nextKeyOffset, (short) length);
+		for (int i = 0; i < length; i++) {
+			buffer.put(nextKeyOffset + 2 + i, toAscii(path.charAt(i)));
+		}
+		nextKeyOffset += 2 + length;
+		int id = keyCount++;
+		if (id == lastLongs.length) {
+			lastLongs = Arrays.copyOf(lastLongs, id * 2);
+			lastDoubleBits = Arrays.copyOf(lastDoubleBits, id * 2);
+			lastStrings = Arrays.copyOf(lastStrings, id * 2);
+		}
+		// write the count last, so a reader never sees a half written key
+		buffer.putInt(KEY_COUNT_OFFSET, keyCount);
+		keyIds.put(path, id);
+		return id;
+	}
+
+	/**
+	 * Rounds doubles to a multiple of 2^-bits before they are written, which
+	 * makes them compress much better. 10 bits is about 0.001. Use LOSSLESS to
+	 * write doubles exactly. Set this before writing anything.
+	 */
+	public synchronized void setDoubleFractionBits(int bits) {
+		this.doubleFractionBits = bits;
+		buffer.putShort(FRACTION_BITS_OFFSET, (short) bits);
+	}
+
+	public synchronized void writeDouble(int keyId, double value) {
+		if (!hasRoom(keyId, 1 + LogEncoding.MAX_VARLONG_BYTES)) {
+			return;
+		}
+		if (doubleFractionBits != LOSSLESS) {
+			value = LogEncoding.quantize(value, doubleFractionBits);
+		}
+		long bits = Double.doubleToLongBits(value);
+		long xor = bits ^ lastDoubleBits[keyId];
+		lastDoubleBits[keyId] = bits;
+		if (xor == 0) {
+			startRecord(TAG_DOUBLE_SAME, keyId);
+		} else {
+			startRecord(TAG_DOUBLE_XOR, keyId);
+			int trailingZeros = Long.numberOfTrailingZeros(xor);
+			buffer.put((byte) trailingZeros);
+			LogEncoding.putVarLong(buffer, xor >>> trailingZeros);
+		}
+	}
+
+	public synchronized void writeInt(int keyId, int value) {
+		writeDelta(TAG_INT_DELTA, keyId, value);
+	}
+
+	public synchronized void writeLong(int keyId, long value) {
+		writeDelta(TAG_LONG_DELTA, keyId, value);
+	}
+
+	private void writeDelta(byte tag, int keyId, long value) {
+		if (hasRoom(keyId, LogEncoding.MAX_VARLONG_BYTES)) {
+			startRecord(tag, keyId);
+			LogEncoding.putSignedVarLong(buffer, value - lastLongs[keyId]);
+			lastLongs[keyId] = value;
+		}
+	}
+
+	public synchronized void writeBoolean(int keyId, boolean value) {
+		if (hasRoom(keyId, 0)) {
+			startRecord(value ? TAG_TRUE : TAG_FALSE, keyId);
+		}
+	}
+
+	public synchronized void writeString(int keyId, String value) {
+		if (value == null) {
+			value = "null";
+		}
+		int length = Math.min(value.length(), MAX_STRING_LENGTH);
+		if (!hasRoom(keyId, 2 + length)) {
+			return;
+		}
+		if (value.equals(lastStrings[keyId])) {
+			startRecord(TAG_STRING_SAME, keyId);
+			return;
+		}
+		lastStrings[keyId] = value;
+		startRecord(TAG_STRING, keyId);
+		LogEncoding.putVarLong(buffer, length);
+		for (int i = 0; i < length; i++) {
+			buffer.put(toAscii(value.charAt(i)));
+		}
+	}
+
+	private boolean hasRoom(int keyId, int maxValueBytes) {
+		if (keyId == NO_KEY) {
+			droppedCount++;
+			return false;
+		}
+		// always leave room for an END marker
+		if (buffer.remaining() < MAX_RECORD_HEADER_BYTES + maxValueBytes + 1) {
+			droppedCount++;
+			return false;
+		}
+		return true;
+	}
+
+	private void startRecord(byte tag, int keyId) {
+		long now = Math.round(timeSource.getElapsedSeconds() * 1e6);
+		buffer.put(tag);
+		LogEncoding.putVarLong(buffer, keyId);
+		LogEncoding.putSignedVarLong(buffer, now - lastTimeMicros);
+		lastTimeMicros = now;
+		recordCount++;
+	}
+
+	private static byte toAscii(char c) {
+		return c < 128 ? (byte) c : (byte) '?';
+	}
+
+	/**
+	 * Forces the written data out to the file. This blocks, so don't call it
+	 * from the robot loop while enabled.
+	 */
+	public synchronized void force() {
+		if (buffer instanceof MappedByteBuffer) {
+			((MappedByteBuffer) buffer).force();
+		}
+	}
+
+	public synchronized int getKeyCount() {
+		return keyCount;
+	}
+
+	public synchronized long getRecordCount() {
+		return recordCount;
+	}
+
+	public synchronized long getDroppedCount() {
+		return droppedCount;
+	}
+
+	public synchronized int getBytesWritten() {
+		return buffer.position() - HEADER_SIZE;
+	}
+}
@@ -0,0 +1,222 @@
+package frc.team281.robot.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a file written by BinaryMatchLog. Use it like a cursor: call next()
+ * until it returns false, and look at the current record in between.
+ *
+ * Records are stored as changes from the previous value of the same key, so
+ * the reader keeps the previous value of every key, just like the writer did.
+ *
+ * <pre>
+ * BinaryMatchLogReader reader = BinaryMatchLogReader.open(file);
+ * while (reader.next()) {
+ *     System.out.println(reader.getTimeSeconds() + " " + reader.getKey() + "=" + reader.getValueAsString());
+ * }
+ * </pre>
+ *
+ * @author dcowden
+ *
+ */
+public class BinaryMatchLogReader {
+
+	private ByteBuffer buffer;
+	private List<String> keys = new ArrayList<>();
+
+	private byte type = BinaryMatchLog.END;
+	private int keyId;
+	private long timeMicros;
+	private int doubleFractionBits;
+
+	// the previous value of each key
+	private long[] lastLongs;
+	private long[] lastDoubleBits;
+	private String[] lastStrings;
+	private double doubleValue;
+	private long longValue;
+	private String stringValue;
+
+	public static BinaryMatchLogReader open(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			return new BinaryMatchLogReader(raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length()));
+		}
+	}
+
+	public BinaryMatchLogReader(ByteBuffer buffer) {
+		this.buffer = buffer;
+		if (buffer.getInt(0) != BinaryMatchLog.MAGIC) {
+			throw new IllegalArgumentException("Not a binary match log");
+		}
+		if (buffer.getShort(4) != BinaryMatchLog.VERSION) {
+			throw new IllegalArgumentException("Unsupported log version " + buffer.getShort(4));
+		}
+		doubleFractionBits = buffer.getShort(BinaryMatchLog.FRACTION_BITS_OFFSET);
+		int keyCount = buffer.getInt(BinaryMatchLog.KEY_COUNT_OFFSET);
+		lastLongs = new long[keyCount];
+		lastDoubleBits = new long[keyCount];
+		lastStrings = new String[keyCount];
+		int offset = BinaryMatchLog.FIRST_KEY_OFFSET;
+		for (int i = 0; i < keyCount; i++) {
+			int length = buffer.getShort(offset);
+			keys.add(readAscii(offset + 2, length));
+			offset += 2 + length;
+		}
+		buffer.position(buffer.getInt(BinaryMatchLog.HEADER_SIZE_OFFSET));
+	}
+
+	/**
+	 * Moves to the next record.
+	 *
+	 * @return false when there are no more records
+	 */
+	public boolean next() {
+		if (!buffer.hasRemaining()) {
+			type = BinaryMatchLog.END;
+			return false;
+		}
+		byte tag = buffer.get();
+		if (tag == BinaryMatchLog.TAG_END) {
+			buffer.position(buffer.position() - 1);
+			type = BinaryMatchLog.END;
+			return false;
+		}
+		keyId = (int) LogEncoding.getVarLong(buffer);
+		timeMicros += LogEncoding.getSignedVarLong(buffer);
+		stringValue = null;
+		switch (tag) {
+		case BinaryMatchLog.TAG_DOUBLE_XOR:
+			int trailingZeros = buffer.get();
+			lastDoubleBits[keyId] ^= LogEncoding.getVarLong(buffer) << trailingZeros;
+			setDouble(Double.longBitsToDouble(lastDoubleBits[keyId]));
+			break;
+		case BinaryMatchLog.TAG_DOUBLE_SAME:
+			setDouble(Double.longBitsToDouble(lastDoubleBits[keyId]));
+			break;
+		case BinaryMatchLog.TAG_INT_DELTA:
+			lastLongs[keyId] += LogEncoding.getSignedVarLong(buffer);
+			setLong(BinaryMatchLog.INT, lastLongs[keyId]);
+			break;
+		case BinaryMatchLog.TAG_LONG_DELTA:
+			lastLongs[keyId] += LogEncoding.getSignedVarLong(buffer);
+			setLong(BinaryMatchLog.LONG, lastLongs[keyId]);
+			break;
+		case BinaryMatchLog.TAG_TRUE:
+			setLong(BinaryMatchLog.BOOLEAN, 1);
+			break;
+		case BinaryMatchLog.TAG_FALSE:
+			setLong(BinaryMatchLog.BOOLEAN, 0);
+			break;
+		case BinaryMatchLog.TAG_STRING:
+			int length = (int) LogEncoding.getVarLong(buffer);
+			lastStrings[keyId] = readAscii(buffer.position(), length);
+			buffer.position(buffer.position() + length);
+			setString(lastStrings[keyId]);
+			break;
+		case BinaryMatchLog.TAG_STRING_SAME:
+			setString(lastStrings[keyId]);
+			break;
+		default:
+			throw new IllegalStateException("Unknown record tag " + tag + " at " + buffer.position());
+		}
+		return true;
+	}
+
+	private void setDouble(double value) {
+		type = BinaryMatchLog.DOUBLE;
+		doubleValue = value;
+		longValue = (long) value;
+	}
+
+	private void setLong(byte type, long value) {
+		this.type = type;
+		longValue = value;
+		doubleValue = value;
+	}
+
+	private void setString(String value) {
+		type = BinaryMatchLog.STRING;
+		stringValue = value;
+	}
+
+	private String readAscii(int offset, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char) buffer.get(offset + i);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * @return the quantization used for doubles, or BinaryMatchLog.LOSSLESS
+	 */
+	public int getDoubleFractionBits() {
+		return doubleFractionBits;
+	}
+
+	public List<String> getKeys() {
+		return keys;
+	}
+
+	public byte getType() {
+		return type;
+	}
+
+	public int getKeyId() {
+		return keyId;
+	}
+
+	public String getKey() {
+		return keys.get(keyId);
+	}
+
+	/**
+	 * A long, since an int of microseconds runs out after 35 minutes
+	 */
+	public long getTimeMicros() {
+		return timeMicros;
+	}
+
+	public double getTimeSeconds() {
+		return timeMicros / 1e6;
+	}
+
+	public double getDouble() {
+		return doubleValue;
+	}
+
+	public int getInt() {
+		return (int) longValue;
+	}
+
+	public long getLong() {
+		return longValue;
+	}
+
+	public boolean getBoolean() {
+		return longValue != 0;
+	}
+
+	public String getString() {
+		return stringValue;
+	}
+
+	public String getValueAsString() {
+		switch (type) {
+		case BinaryMatchLog.DOUBLE:
+			return "" + doubleValue;
+		case BinaryMatchLog.BOOLEAN:
+			return "" + getBoolean();
+		case BinaryMatchLog.STRING:
+			return stringValue;
+		default:
+			return "" + longValue;
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package frc.team281.robot.logger;
+
+import java.util.Arrays;
+
+import frc.team281.robot.subsystems.BaseSubsystem;
+
+/**
+ * A datalogger that writes compact binary records into a BinaryMatchLog file
+ * on the RIO, for looking at ( or replaying ) after the match. All of the
+ * loggers made by a factory share one log.
+ *
+ * Each registered key is added to the log's key dictionary once, using its
+ * full path. Logging by handle is then just a few bytes written into memory.
+ * Logging with a String key looks the key up first, which doesn't allocate
+ * after the first time the key is seen.
+ *
+ * @author dcowden
+ *
+ */
+public class BinaryMatchLogger extends DataLogger {
+
+	public static final String WARN_KEY = "warn";
+	public static final String SUBSYSTEM_KEY = "subsystem";
+
+	private BinaryMatchLog matchLog;
+	// log key id for each of our handles
+	private int[] keyIds = new int[INITIAL_KEY_CAPACITY];
+	private int registeredCount = 0;
+	private int warnKey;
+	private int subsystemKey;
+
+	public BinaryMatchLogger(String name, BinaryMatchLog matchLog) {
+		super(name);
+		this.matchLog = matchLog;
+		warnKey = registerKey(WARN_KEY);
+		subsystemKey = registerKey(SUBSYSTEM_KEY);
+	}
+
+	@Override
+	public int registerKey(String key) {
+		int handle = super.registerKey(key);
+		if (handle == registeredCount) {
+			// a new key: add it to the log's dictionary too
+			if (handle == keyIds.length) {
+				keyIds = Arrays.copyOf(keyIds, keyIds.length * 2);
+			}
+			keyIds[handle] = matchLog.registerKey(getPath(handle));
+			registeredCount++;
+		}
+		return handle;
+	}
+
+	public BinaryMatchLog getMatchLog() {
+		return matchLog;
+	}
+
+	@Override
+	public void warn(String message) {
+		log(warnKey, message);
+	}
+
+	@Override
+	public void log(String key, Object value) {
+		log(registerKey(key), "" + value);
+	}
+
+	@Override
+	public void log(String key, double value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(String key, int value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(String key, String value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(String key, long value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(String key, boolean value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(BaseSubsystem subsystem) {
+		log(subsystemKey, subsystem.getName());
+	}
+
+	@Override
+	public void log(int handle, double value) {
+		matchLog.writeDouble(keyIds[handle], value);
+	}
+
+	@Override
+	public void log(int handle, int value) {
+		matchLog.writeInt(keyIds[handle], value);
+	}
+
+	@Override
+	public void log(int handle, long value) {
+		matchLog.writeLong(keyIds[handle], value);
+	}
+
+	@Override
+	public void log(int handle, boolean value) {
+		matchLog.writeBoolean(keyIds[handle], value);
+	}
+
+	@Override
+	public void log(int handle, String value) {
+		matchLog.writeString(keyIds[handle], value);
+	}
+
+}
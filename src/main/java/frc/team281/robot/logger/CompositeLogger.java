@@ -1,64 +1,252 @@
 package frc.team281.robot.logger;
 
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+
 import frc.team281.robot.subsystems.BaseSubsystem;
 
 /**
  * This data logger sends everything to a list of other loggers
  * 
+ * Each logger can have a LogSubscription, which says which keys it wants and
+ * how often. When a key is registered, we work out once which loggers get it,
+ * and register it only with those. Logging is then a walk over that short
+ * list, so a high rate key that only goes to the match log doesn't cost a
+ * call on the dashboard logger.
+ * 
+ * Keys logged with a String are registered the first time they're seen, so
+ * they are routed the same way.
+ * 
+ * Values logged with a supplier are only read if at least one logger is
+ * taking a sample this time, and then only once.
+ * 
  * @author dcowden
  *
  */
 public class CompositeLogger extends DataLogger {
 
 	private DataLogger[] loggers;
+	private LogSubscription[] subscriptions;
+
+	// routes[ourHandle] = which loggers get that key
+	private Route[] routes = new Route[INITIAL_KEY_CAPACITY];
+	private int routeCount = 0;
+	private long skippedReads = 0;
 
 	public CompositeLogger(DataLogger... loggers) {
+		this(loggers, everything(loggers.length));
+	}
+
+	/**
+	 * @param subscriptions
+	 *            one per logger, in the same order
+	 */
+	public CompositeLogger(DataLogger[] loggers, LogSubscription[] subscriptions) {
 		super("");
+		if (loggers.length != subscriptions.length) {
+			throw new IllegalArgumentException("Need one subscription per logger");
+		}
 		this.loggers = loggers;
+		this.subscriptions = subscriptions;
+	}
+
+	private static LogSubscription[] everything(int count) {
+		LogSubscription[] all = new LogSubscription[count];
+		for (int i = 0; i < count; i++) {
+			all[i] = LogSubscription.everything();
+		}
+		return all;
 	}
 
 	@Override
-	public void log(String key, Object value) {
-		for (DataLogger l : loggers) {
-			l.log(key, value);
+	public int registerKey(String key) {
+		int handle = super.registerKey(key);
+		if (handle == routeCount) {
+			if (handle == routes.length) {
+				routes = Arrays.copyOf(routes, routes.length * 2);
+			}
+			routes[handle] = buildRoute(key);
+			routeCount++;
+		}
+		return handle;
+	}
+
+	private Route buildRoute(String key) {
+		Route route = new Route(loggers.length);
+		for (int i = 0; i < loggers.length; i++) {
+			int every = subscriptions[i].getSampleEvery(loggers[i].computePath(key));
+			if (every != LogSubscription.EXCLUDED) {
+				route.add(loggers[i], loggers[i].registerKey(key), every);
+			}
 		}
+		return route;
+	}
+
+	/**
+	 * @return how many loggers get this key
+	 */
+	public int getRouteSize(int handle) {
+		return routes[handle].size;
 	}
 
 	@Override
-	public void log(String key, double value) {
-		for (DataLogger l : loggers) {
-			l.log(key, value);
+	public void log(int handle, double value) {
+		Route r = routes[handle];
+		for (int i = 0; i < r.size; i++) {
+			if (r.sample(i)) {
+				r.sinks[i].log(r.handles[i], value);
+			}
 		}
 	}
 
 	@Override
-	public void log(String key, int value) {
-		for (DataLogger l : loggers) {
-			l.log(key, value);
+	public void log(int handle, int value) {
+		Route r = routes[handle];
+		for (int i = 0; i < r.size; i++) {
+			if (r.sample(i)) {
+				r.sinks[i].log(r.handles[i], value);
+			}
 		}
 	}
 
 	@Override
-	public void log(String key, String value) {
-		for (DataLogger l : loggers) {
-			l.log(key, value);
+	public void log(int handle, long value) {
+		Route r = routes[handle];
+		for (int i = 0; i < r.size; i++) {
+			if (r.sample(i)) {
+				r.sinks[i].log(r.handles[i], value);
+			}
 		}
 	}
 
 	@Override
-	public void log(String key, long value) {
-		for (DataLogger l : loggers) {
-			l.log(key, value);
+	public void log(int handle, boolean value) {
+		Route r = routes[handle];
+		for (int i = 0; i < r.size; i++) {
+			if (r.sample(i)) {
+				r.sinks[i].log(r.handles[i], value);
+			}
 		}
 	}
 
 	@Override
-	public void log(String key, boolean value) {
-		for (DataLogger l : loggers) {
-			l.log(key, value);
+	public void log(int handle, String value) {
+		Route r = routes[handle];
+		for (int i = 0; i < r.size; i++) {
+			if (r.sample(i)) {
+				r.sinks[i].log(r.handles[i], value);
+			}
+		}
+	}
+
+	@Override
+	public boolean wantsSample(int handle) {
+		Route r = routes[handle];
+		for (int i = 0; i < r.size; i++) {
+			if (r.wouldSample(i) && r.sinks[i].wantsSample(r.handles[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void log(int handle, DoubleSupplier value) {
+		Route r = routes[handle];
+		boolean read = false;
+		double v = 0.0;
+		for (int i = 0; i < r.size; i++) {
+			if (r.sample(i) && r.sinks[i].wantsSample(r.handles[i])) {
+				if (!read) {
+					v = value.getAsDouble();
+					read = true;
+				}
+				r.sinks[i].log(r.handles[i], v);
+			}
+		}
+		if (!read) {
+			skippedReads++;
+		}
+	}
+
+	@Override
+	public void log(int handle, IntSupplier value) {
+		Route r = routes[handle];
+		boolean read = false;
+		int v = 0;
+		for (int i = 0; i < r.size; i++) {
+			if (r.sample(i) && r.sinks[i].wantsSample(r.handles[i])) {
+				if (!read) {
+					v = value.getAsInt();
+					read = true;
+				}
+				r.sinks[i].log(r.handles[i], v);
+			}
+		}
+		if (!read) {
+			skippedReads++;
 		}
 	}
 
+	@Override
+	public void log(int handle, BooleanSupplier value) {
+		Route r = routes[handle];
+		boolean read = false;
+		boolean v = false;
+		for (int i = 0; i < r.size; i++) {
+			if (r.sample(i) && r.sinks[i].wantsSample(r.handles[i])) {
+				if (!read) {
+					v = value.getAsBoolean();
+					read = true;
+				}
+				r.sinks[i].log(r.handles[i], v);
+			}
+		}
+		if (!read) {
+			skippedReads++;
+		}
+	}
+
+	/**
+	 * @return how many supplier values were never read, because no logger
+	 *         wanted them
+	 */
+	public long getSkippedReadCount() {
+		return skippedReads;
+	}
+
+	@Override
+	public void log(String key, Object value) {
+		log(registerKey(key), "" + value);
+	}
+
+	@Override
+	public void log(String key, double value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(String key, int value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(String key, String value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(String key, long value) {
+		log(registerKey(key), value);
+	}
+
+	@Override
+	public void log(String key, boolean value) {
+		log(registerKey(key), value);
+	}
+
 	@Override
 	public void warn(String message) {
 		for (DataLogger l : loggers) {
@@ -73,4 +261,49 @@ public class CompositeLogger extends DataLogger {
 		}
 	}
 
+	/**
+	 * The loggers that get one key, with their handles for it and how often
+	 * they want it.
+	 */
+	private static class Route {
+		final DataLogger[] sinks;
+		final int[] handles;
+		final int[] every;
+		final int[] counters;
+		int size = 0;
+
+		Route(int capacity) {
+			sinks = new DataLogger[capacity];
+			handles = new int[capacity];
+			every = new int[capacity];
+			counters = new int[capacity];
+		}
+
+		void add(DataLogger sink, int handle, int sampleEvery) {
+			sinks[size] = sink;
+			handles[size] = handle;
+			every[size] = sampleEvery;
+			size++;
+		}
+
+		/**
+		 * @return true if sink i would get a value logged now, without
+		 *         counting it
+		 */
+		boolean wouldSample(int i) {
+			return every[i] == LogSubscription.EVERY_SAMPLE || counters[i] == 0;
+		}
+
+		/**
+		 * @return true if sink i should get this value
+		 */
+		boolean sample(int i) {
+			if (every[i] == LogSubscription.EVERY_SAMPLE) {
+				return true;
+			}
+			int count = counters[i];
+			counters[i] = (count + 1 == every[i]) ? 0 : count + 1;
+			return count == 0;
+		}
+	}
 }
@@ -4,63 +4,206 @@ import frc.team281.robot.subsystems.BaseSubsystem;
 
 /**
  * logs data to the console ( system.out ) . Useful for unit testing.
- * 
+ *
+ * Lines are formatted by hand into a line borrowed from a ConsoleWriter,
+ * instead of with printf, so logging a primitive does not allocate. With a
+ * buffered writer the printing happens on the writer's thread, so this is
+ * cheap enough to leave on in a match.
+ *
  * @author dcowden
  *
  */
 public class ConsoleDataLogger extends DataLogger {
 
 	private TimeSource timer;
+	private ConsoleWriter writer;
 
+	/**
+	 * Prints each line right away. Use this for tests.
+	 */
 	public ConsoleDataLogger(String name, TimeSource systemTimer) {
+		this(name, systemTimer, ConsoleWriter.unbuffered(System.out));
+	}
+
+	public ConsoleDataLogger(String name, TimeSource systemTimer, ConsoleWriter writer) {
 		super(name);
 		this.timer = systemTimer;
+		this.writer = writer;
+	}
+
+	public ConsoleWriter getWriter() {
+		return writer;
+	}
+
+	/**
+	 * Starts a line for a key that isn't registered, without building its path
+	 *
+	 * @return the line, or null if it was dropped
+	 */
+	private StringBuilder startKeyLine(String key) {
+		StringBuilder line = startLine();
+		if (line != null) {
+			line.append(getName()).append(SEPARATOR).append(key).append("::");
+		}
+		return line;
 	}
 
-	private void printMessage(String format, String key, Object value) {
-		System.out.printf("[ %.3f ] - %s::" + format + "\n", timer.getElapsedSeconds(), computePath(key), value);
+	private StringBuilder startHandleLine(int handle) {
+		StringBuilder line = startLine();
+		if (line != null) {
+			line.append(getPath(handle)).append("::");
+		}
+		return line;
+	}
+
+	// [ 1.234 ] - path::value
+	private StringBuilder startLine() {
+		StringBuilder line = writer.claim();
+		if (line != null) {
+			line.append("[ ");
+			appendFixed(line, timer.getElapsedSeconds());
+			line.append(" ] - ");
+		}
+		return line;
+	}
+
+	/**
+	 * Appends a number with 3 decimal places, like %.3f but without the
+	 * garbage.
+	 */
+	static void appendFixed(StringBuilder line, double value) {
+		if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e15) {
+			line.append(value);
+			return;
+		}
+		// round the size, so halves round away from zero like printf
+		if (value < 0) {
+			line.append('-');
+			value = -value;
+		}
+		long thousandths = Math.round(value * 1000.0);
+		line.append(thousandths / 1000).append('.');
+		long fraction = thousandths % 1000;
+		if (fraction < 100) {
+			line.append('0');
+		}
+		if (fraction < 10) {
+			line.append('0');
+		}
+		line.append(fraction);
 	}
 
 	@Override
 	public void log(String key, String value) {
-		printMessage("%s", key, value);
+		StringBuilder line = startKeyLine(key);
+		if (line != null) {
+			line.append(value);
+			writer.commit();
+		}
 	}
 
 	@Override
 	public void log(String key, Object value) {
-		printMessage("%s", key, ""+value);
+		StringBuilder line = startKeyLine(key);
+		if (line != null) {
+			line.append(value);
+			writer.commit();
+		}
 	}
 
 	@Override
 	public void log(String key, double value) {
-		printMessage("%.3f", key, value);
+		StringBuilder line = startKeyLine(key);
+		if (line != null) {
+			appendFixed(line, value);
+			writer.commit();
+		}
 	}
 
 	@Override
 	public void log(String key, int value) {
-		printMessage("%d", key, value);
+		StringBuilder line = startKeyLine(key);
+		if (line != null) {
+			line.append(value);
+			writer.commit();
+		}
 	}
 
 	@Override
 	public void log(String key, long value) {
-		printMessage("%d", key, value);
+		StringBuilder line = startKeyLine(key);
+		if (line != null) {
+			line.append(value);
+			writer.commit();
+		}
 	}
 
 	@Override
 	public void log(String key, boolean value) {
-		printMessage("%s", key, Boolean.toString(value));
+		StringBuilder line = startKeyLine(key);
+		if (line != null) {
+			line.append(value);
+			writer.commit();
+		}
 	}
 
 	@Override
-	public void warn(String message) {
-		printMessage("%s", "", message);
+	public void log(int handle, double value) {
+		StringBuilder line = startHandleLine(handle);
+		if (line != null) {
+			appendFixed(line, value);
+			writer.commit();
+		}
+	}
 
+	@Override
+	public void log(int handle, int value) {
+		StringBuilder line = startHandleLine(handle);
+		if (line != null) {
+			line.append(value);
+			writer.commit();
+		}
 	}
 
 	@Override
-	public void log(BaseSubsystem subsystem) {
-		printMessage("%s", "", subsystem.getName() + " initializing.");
+	public void log(int handle, long value) {
+		StringBuilder line = startHandleLine(handle);
+		if (line != null) {
+			line.append(value);
+			writer.commit();
+		}
+	}
+
+	@Override
+	public void log(int handle, boolean value) {
+		StringBuilder line = startHandleLine(handle);
+		if (line != null) {
+			line.append(value);
+			writer.commit();
+		}
+	}
+
+	@Override
+	public void log(int handle, String value) {
+		StringBuilder line = startHandleLine(handle);
+		if (line != null) {
+			line.append(value);
+			writer.commit();
+		}
+	}
 
+	@Override
+	public void warn(String message) {
+		log("", message);
+	}
+
+	@Override
+	public void log(BaseSubsystem subsystem) {
+		StringBuilder line = startKeyLine("");
+		if (line != null) {
+			line.append(subsystem.getName()).append(" initializing.");
+			writer.commit();
+		}
 	}
 
 }
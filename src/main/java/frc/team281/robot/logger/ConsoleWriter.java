@@ -0,0 +1,202 @@
+package frc.team281.robot.logger;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes lines to the console from a background thread, so that the robot
+ * loop never waits on System.out.
+ *
+ * The lines are a fixed ring of StringBuilders that are used over and over.
+ * The robot loop claims a line, appends to it, and commits it. The writer
+ * thread copies committed lines into one batch and prints them together.
+ * When every line is full the new line is dropped and counted-- the robot
+ * loop never blocks.
+ *
+ * Only one thread may claim lines ( the main robot thread ), and only one
+ * line can be claimed at a time.
+ *
+ * An unbuffered writer has no thread, and prints each line as soon as it is
+ * committed, which is what unit tests want.
+ *
+ * @author dcowden
+ *
+ */
+public class ConsoleWriter implements Runnable {
+
+	public static final int DEFAULT_CAPACITY = 256;
+	public static final int LINE_LENGTH = 128;
+	public static final long DEFAULT_IDLE_NANOS = 10000000L;
+
+	private final PrintStream out;
+	private final int capacity;
+	private final int mask;
+	private final StringBuilder[] lines;
+
+	// head is the next line to write, tail the next line to fill.
+	// only the writer thread moves head
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong written = new AtomicLong();
+
+	private final boolean buffered;
+	// used when we are not buffered
+	private final StringBuilder direct = new StringBuilder(LINE_LENGTH);
+	private StringBuilder claimed;
+	// only used by the writer thread
+	private final StringBuilder batch;
+
+	private volatile boolean running = false;
+	private Thread thread;
+	private long idleNanos = DEFAULT_IDLE_NANOS;
+
+	public ConsoleWriter() {
+		this(System.out, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity
+	 *            number of lines that can be waiting. must be a power of 2
+	 */
+	public ConsoleWriter(PrintStream out, int capacity) {
+		this(out, capacity, true);
+	}
+
+	/**
+	 * A writer that prints each line as it is committed, on the calling thread
+	 */
+	public static ConsoleWriter unbuffered(PrintStream out) {
+		return new ConsoleWriter(out, 1, false);
+	}
+
+	private ConsoleWriter(PrintStream out, int capacity, boolean buffered) {
+		if (Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("capacity must be a power of 2: got " + capacity);
+		}
+		this.out = out;
+		this.buffered = buffered;
+		this.capacity = capacity;
+		this.mask = capacity - 1;
+		this.lines = new StringBuilder[capacity];
+		for (int i = 0; i < capacity; i++) {
+			lines[i] = new StringBuilder(LINE_LENGTH);
+		}
+		this.batch = new StringBuilder(capacity * LINE_LENGTH);
+	}
+
+	public synchronized void start() {
+		if (running || !buffered) {
+			return;
+		}
+		running = true;
+		thread = new Thread(this, "ConsoleWriter");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public synchronized void stop() {
+		running = false;
+		if (thread != null) {
+			LockSupport.unpark(thread);
+			thread = null;
+		}
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	public void setIdleNanos(long idleNanos) {
+		this.idleNanos = idleNanos;
+	}
+
+	/**
+	 * Gets an empty line to append to. Call commit() when it's done.
+	 *
+	 * @return the line, or null if the buffer is full and the line is dropped
+	 */
+	public StringBuilder claim() {
+		if (!buffered) {
+			claimed = direct;
+		} else {
+			long t = tail.get();
+			if (t - head.get() >= capacity) {
+				dropped.incrementAndGet();
+				return null;
+			}
+			claimed = lines[(int) (t & mask)];
+		}
+		claimed.setLength(0);
+		return claimed;
+	}
+
+	/**
+	 * Hands the claimed line to the writer
+	 */
+	public void commit() {
+		if (claimed == direct) {
+			out.println(direct);
+			written.incrementAndGet();
+		} else if (claimed != null) {
+			tail.lazySet(tail.get() + 1);
+		}
+		claimed = null;
+	}
+
+	/**
+	 * Prints everything committed so far, in one write.
+	 *
+	 * @return the number of lines written
+	 */
+	public int writePending() {
+		int count = 0;
+		batch.setLength(0);
+		long h = head.get();
+		while (h < tail.get()) {
+			batch.append(lines[(int) (h & mask)]).append('\n');
+			// the line is copied, so it can be used again
+			head.lazySet(++h);
+			count++;
+		}
+		if (count > 0) {
+			out.print(batch);
+			out.flush();
+			written.addAndGet(count);
+		}
+		return count;
+	}
+
+	@Override
+	public void run() {
+		long lastDropped = 0;
+		while (running) {
+			if (writePending() == 0) {
+				long d = dropped.get();
+				if (d != lastDropped) {
+					out.println("ConsoleWriter dropped " + d + " lines");
+					lastDropped = d;
+				}
+				LockSupport.parkNanos(idleNanos);
+			}
+		}
+		writePending();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int getQueuedCount() {
+		return (int) (tail.get() - head.get());
+	}
+
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	public long getWrittenCount() {
+		return written.get();
+	}
+}
@@ -1,19 +1,45 @@
 package frc.team281.robot.logger;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+
 import frc.team281.robot.subsystems.BaseSubsystem;
 
 /**
  * Base class for DataLoggers. Each logger has a name, and sends data somewhere
  * for logging and display later.
- * 
+ *
+ * Keys can be logged two ways. The easy way is to pass the key as a String
+ * every time. That builds a new path string on every call, which is garbage
+ * the roboRIO has to collect. For values logged every loop, register the key
+ * once ( in a constructor ) with registerKey, and log using the int handle it
+ * returns. Paths are computed once at registration, so logging a primitive by
+ * handle does not allocate. Keys are found by hash, so logging by String still
+ * doesn't compare against every key.
+ *
+ * Some values are expensive to read, like talon status that comes over CAN.
+ * Those can be logged with a supplier, which is only called if a logger
+ * actually wants a sample of that key right now. Make the supplier once, in
+ * a constructor-- a lambda made in periodic() is garbage too.
+ *
  * @author dcowden
  *
  */
 public abstract class DataLogger {
 
 	public final static String SEPARATOR = ".";
+	public static final int INITIAL_KEY_CAPACITY = 32;
 	private String name = "";
 
+	private String[] keys = new String[INITIAL_KEY_CAPACITY];
+	private String[] paths = new String[INITIAL_KEY_CAPACITY];
+	private Map<String, Integer> handles = new HashMap<>();
+	private int keyCount = 0;
+
 	public DataLogger(String name) {
 		this.name = name;
 	}
@@ -26,6 +52,44 @@ public abstract class DataLogger {
 		return getName() + SEPARATOR + key;
 	}
 
+	/**
+	 * Registers a key, and returns a handle to use when logging it. Registering
+	 * the same key twice returns the same handle. This allocates, so do it when
+	 * the object is constructed, not in periodic()
+	 *
+	 * @param key
+	 * @return a handle for use with the log(int, ...) methods
+	 */
+	public int registerKey(String key) {
+		Integer handle = handles.get(key);
+		if (handle != null) {
+			return handle;
+		}
+		if (keyCount == keys.length) {
+			keys = Arrays.copyOf(keys, keys.length * 2);
+			paths = Arrays.copyOf(paths, paths.length * 2);
+		}
+		keys[keyCount] = key;
+		paths[keyCount] = computePath(key);
+		handles.put(key, keyCount);
+		return keyCount++;
+	}
+
+	public int getKeyCount() {
+		return keyCount;
+	}
+
+	public String getKey(int handle) {
+		return keys[handle];
+	}
+
+	/**
+	 * The full path of a registered key, computed once when it was registered
+	 */
+	public String getPath(int handle) {
+		return paths[handle];
+	}
+
 	public abstract void warn(String message);
 
 	public abstract void log(String key, Object value);
@@ -42,4 +106,53 @@ public abstract class DataLogger {
 
 	public abstract void log(BaseSubsystem subsystem);
 
+	// the handle-based methods fall back to the keyed versions.
+	// loggers that care about garbage should override them.
+	public void log(int handle, double value) {
+		log(getKey(handle), value);
+	}
+
+	public void log(int handle, int value) {
+		log(getKey(handle), value);
+	}
+
+	public void log(int handle, long value) {
+		log(getKey(handle), value);
+	}
+
+	public void log(int handle, boolean value) {
+		log(getKey(handle), value);
+	}
+
+	public void log(int handle, String value) {
+		log(getKey(handle), value);
+	}
+
+	/**
+	 * Whether a value logged for this key now would be used. Loggers that
+	 * skip values ( by rate or by sampling ) should override this, so that
+	 * suppliers for skipped values are never called.
+	 */
+	public boolean wantsSample(int handle) {
+		return true;
+	}
+
+	public void log(int handle, DoubleSupplier value) {
+		if (wantsSample(handle)) {
+			log(handle, value.getAsDouble());
+		}
+	}
+
+	public void log(int handle, IntSupplier value) {
+		if (wantsSample(handle)) {
+			log(handle, value.getAsInt());
+		}
+	}
+
+	public void log(int handle, BooleanSupplier value) {
+		if (wantsSample(handle)) {
+			log(handle, value.getAsBoolean());
+		}
+	}
+
 }
@@ -0,0 +1,74 @@
+package frc.team281.robot.logger;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Variable length integer encoding, shared by BinaryMatchLog and
+ * BinaryMatchLogReader.
+ *
+ * Varints use 7 bits per byte, with the high bit set on every byte but the
+ * last, so small numbers take one byte. Zig-zag encoding maps signed numbers
+ * to unsigned ones so that small negative numbers are small too: 0, -1, 1, -2
+ * become 0, 1, 2, 3.
+ *
+ * @author dcowden
+ *
+ */
+public final class LogEncoding {
+
+	public static final int MAX_VARLONG_BYTES = 10;
+
+	private LogEncoding() {
+	}
+
+	public static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	public static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	public static void putVarLong(ByteBuffer buffer, long value) {
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	public static long getVarLong(ByteBuffer buffer) {
+		long value = 0;
+		int shift = 0;
+		while (true) {
+			byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+			shift += 7;
+			if (shift >= 64) {
+				throw new IllegalStateException("Malformed varint at " + buffer.position());
+			}
+		}
+	}
+
+	public static void putSignedVarLong(ByteBuffer buffer, long value) {
+		putVarLong(buffer, zigZag(value));
+	}
+
+	public static long getSignedVarLong(ByteBuffer buffer) {
+		return unZigZag(getVarLong(buffer));
+	}
+
+	/**
+	 * Rounds a double to a multiple of 2^-fractionBits. Multiples of a power of
+	 * two have zeros at the end of the mantissa, which XOR encoding can skip.
+	 */
+	public static double quantize(double value, int fractionBits) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			return value;
+		}
+		return Math.scalb(Math.rint(Math.scalb(value, fractionBits)), -fractionBits);
+	}
+}
@@ -0,0 +1,86 @@
+package frc.team281.robot.logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Says which keys a logger inside a CompositeLogger wants, and how often.
+ *
+ * A subscription is a list of path prefixes, each with a sampling level: the
+ * logger gets one of every sampleEvery values logged for a key. The longest
+ * prefix that matches a key wins, and a sampleEvery of 0 means the logger
+ * doesn't get the key at all. Keys that match no prefix are not sent.
+ *
+ * <pre>
+ * // everything, but the drive talon status only 10 times a second
+ * LogSubscription.everything().subscribe("PositionDriveController.", 5);
+ *
+ * // just the lifter
+ * LogSubscription.nothing().subscribeSubsystem("LifterSubsystem", 1);
+ * </pre>
+ *
+ * Matching is done once per key, when it is registered-- not when it is
+ * logged.
+ *
+ * @author dcowden
+ *
+ */
+public class LogSubscription {
+
+	public static final int EXCLUDED = 0;
+	public static final int EVERY_SAMPLE = 1;
+
+	private List<String> prefixes = new ArrayList<>();
+	private List<Integer> levels = new ArrayList<>();
+
+	public static LogSubscription everything() {
+		return new LogSubscription().subscribe("", EVERY_SAMPLE);
+	}
+
+	public static LogSubscription nothing() {
+		return new LogSubscription();
+	}
+
+	/**
+	 * @param prefix
+	 *            start of the full key path, like "LifterSubsystem."
+	 * @param sampleEvery
+	 *            send one of every this many values. 1 sends all, 0 none
+	 */
+	public LogSubscription subscribe(String prefix, int sampleEvery) {
+		if (sampleEvery < 0) {
+			throw new IllegalArgumentException("sampleEvery must be 0 or more: got " + sampleEvery);
+		}
+		prefixes.add(prefix);
+		levels.add(sampleEvery);
+		return this;
+	}
+
+	/**
+	 * Subscribes to every key logged by the named subsystem ( or other
+	 * logger name )
+	 */
+	public LogSubscription subscribeSubsystem(String name, int sampleEvery) {
+		return subscribe(name + DataLogger.SEPARATOR, sampleEvery);
+	}
+
+	public LogSubscription exclude(String prefix) {
+		return subscribe(prefix, EXCLUDED);
+	}
+
+	/**
+	 * @return how often to send values for this path, or EXCLUDED
+	 */
+	public int getSampleEvery(String path) {
+		int best = -1;
+		int level = EXCLUDED;
+		for (int i = 0; i < prefixes.size(); i++) {
+			String prefix = prefixes.get(i);
+			if (prefix.length() > best && path.startsWith(prefix)) {
+				best = prefix.length();
+				level = levels.get(i);
+			}
+		}
+		return level;
+	}
+}
@@ -0,0 +1,142 @@
+package frc.team281.robot.logger;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures where the 20ms robot loop goes. Subsystems and commands time their
+ * periodic and lifecycle methods into TimingHistograms, and the robot times
+ * the whole loop with endLoop().
+ *
+ * Every PUBLISH_EVERY_LOOPS loops ( once a second ), the p50, p99, max and
+ * overrun count of each histogram are sent to the logger, and the windows are
+ * reset. Timing and publishing don't allocate.
+ *
+ * Like DataLoggerFactory, there is one shared instance.
+ *
+ * @author dcowden
+ *
+ */
+public class LoopProfiler {
+
+	public static final long LOOP_BUDGET_NANOS = 20000000L;
+	public static final int PUBLISH_EVERY_LOOPS = 50;
+	public static final String LOGGER_NAME = "LoopProfiler";
+	public static final String LOOP_NAME = "Loop";
+
+	private static LoopProfiler instance = new LoopProfiler();
+
+	private Map<String, TimingHistogram> byName = new HashMap<>();
+	private TimingHistogram[] histograms = new TimingHistogram[16];
+	private int histogramCount = 0;
+	private TimingHistogram loop;
+	private boolean enabled = true;
+	private int loopsSincePublish = 0;
+	private DataLogger dataLogger;
+
+	public static LoopProfiler getInstance() {
+		return instance;
+	}
+
+	public static void setInstance(LoopProfiler profiler) {
+		LoopProfiler.instance = profiler;
+	}
+
+	public LoopProfiler() {
+		loop = getHistogram(LOOP_NAME);
+	}
+
+	/**
+	 * Finds or creates a histogram. This allocates the first time, so call it
+	 * from a constructor.
+	 */
+	public TimingHistogram getHistogram(String name) {
+		TimingHistogram h = byName.get(name);
+		if (h == null) {
+			h = new TimingHistogram(name, LOOP_BUDGET_NANOS);
+			byName.put(name, h);
+			if (histogramCount == histograms.length) {
+				histograms = Arrays.copyOf(histograms, histogramCount * 2);
+			}
+			histograms[histogramCount++] = h;
+		}
+		return h;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return a start time to pass to stop(), or 0 if profiling is off
+	 */
+	public long start() {
+		return enabled ? System.nanoTime() : 0L;
+	}
+
+	public void stop(TimingHistogram histogram, long startNanos) {
+		if (startNanos != 0L) {
+			histogram.record(System.nanoTime() - startNanos);
+		}
+	}
+
+	/**
+	 * Call at the end of each robot loop, with the time from start() at the
+	 * beginning of the loop.
+	 */
+	public void endLoop(long loopStartNanos) {
+		stop(loop, loopStartNanos);
+		if (++loopsSincePublish >= PUBLISH_EVERY_LOOPS) {
+			publish();
+		}
+	}
+
+	/**
+	 * Sends the stats to the logger, and starts a new window.
+	 */
+	public void publish() {
+		loopsSincePublish = 0;
+		if (dataLogger == null && DataLoggerFactory.getLoggerFactory() != null) {
+			dataLogger = DataLoggerFactory.getLoggerFactory().createDataLogger(LOGGER_NAME);
+		}
+		for (int i = 0; i < histogramCount; i++) {
+			TimingHistogram h = histograms[i];
+			if (dataLogger != null) {
+				publish(h);
+			}
+			h.reset();
+		}
+	}
+
+	private void publish(TimingHistogram h) {
+		if (h.p50Key < 0) {
+			h.p50Key = dataLogger.registerKey(h.getName() + "_p50");
+			h.p99Key = dataLogger.registerKey(h.getName() + "_p99");
+			h.maxKey = dataLogger.registerKey(h.getName() + "_max");
+			h.overrunKey = dataLogger.registerKey(h.getName() + "_overruns");
+		}
+		if (h.getCount() > 0) {
+			dataLogger.log(h.p50Key, h.getPercentileMillis(50));
+			dataLogger.log(h.p99Key, h.getPercentileMillis(99));
+			dataLogger.log(h.maxKey, h.getMaxMillis());
+		}
+		dataLogger.log(h.overrunKey, h.getOverrunCount());
+	}
+
+	public TimingHistogram getLoopHistogram() {
+		return loop;
+	}
+
+	public int getHistogramCount() {
+		return histogramCount;
+	}
+
+	public TimingHistogram getHistogram(int index) {
+		return histograms[index];
+	}
+}
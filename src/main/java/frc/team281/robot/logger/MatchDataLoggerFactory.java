@@ -1,19 +1,141 @@
  package frc.team281.robot.logger;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
 /**
  * Creates DataLoggers that will send to SmartDashboard and the console. Useful
  * for in a match.
  * 
+ * SmartDashboard values are published from a background thread by a single
+ * publisher shared by all of the loggers we make.
+ * 
+ * Everything is also written to a binary match log file on the RIO, if we
+ * can create one. All of the loggers share that file. The dashboard only
+ * gets the high rate drive status keys every DASHBOARD_DRIVE_SAMPLE_EVERY
+ * loops-- the match log has them all.
+ * 
+ * Each boot makes a new log file, and the RIO's flash is small, so before
+ * making one, the oldest logs are deleted until the logs left and the new
+ * one fit in MAX_LOG_BYTES. Copy off a log you want to keep.
+ * 
+ * The console gets a sample of everything about once a second, through a
+ * buffered writer so printing never happens in the robot loop.
+ * 
  * @author dcowden
  *
  */
 public class MatchDataLoggerFactory extends DataLoggerFactory {
 
+	public static final String LOG_DIRECTORY = "/home/lvuser/logs";
+	public static final String LOG_PREFIX = "match_";
+	public static final String LOG_SUFFIX = ".bin";
+	// the new log and three before it
+	public static final long MAX_LOG_BYTES = 4L * BinaryMatchLog.DEFAULT_FILE_SIZE;
+	public static final int DASHBOARD_DRIVE_SAMPLE_EVERY = 5;
+	public static final int CONSOLE_SAMPLE_EVERY = 50;
+	// doubles in the match log are good to about 0.001
+	public static final int MATCH_LOG_FRACTION_BITS = 10;
+
+	private SmartDashboardPublisher publisher = new SmartDashboardPublisher();
+	private ConsoleWriter consoleWriter = new ConsoleWriter();
+	private BinaryMatchLog matchLog;
+
+	public MatchDataLoggerFactory() {
+		this(new File(LOG_DIRECTORY, LOG_PREFIX + System.currentTimeMillis() + LOG_SUFFIX));
+	}
+
+	/**
+	 * @param logFile
+	 *            the binary log to write, or null to skip the binary log
+	 */
+	public MatchDataLoggerFactory(File logFile) {
+		publisher.start();
+		consoleWriter.start();
+		if (logFile != null) {
+			File dir = logFile.getAbsoluteFile().getParentFile();
+			if (dir != null) {
+				deleteOldLogs(dir, MAX_LOG_BYTES - BinaryMatchLog.DEFAULT_FILE_SIZE);
+			}
+			try {
+				matchLog = BinaryMatchLog.create(logFile, BinaryMatchLog.DEFAULT_FILE_SIZE, new WpilibTimeSource());
+				matchLog.setDoubleFractionBits(MATCH_LOG_FRACTION_BITS);
+			} catch (IOException ex) {
+				// not fatal-- we still have the dashboard
+				DriverStation.reportWarning("Cannot create match log " + logFile + ": " + ex.getMessage(), false);
+			}
+		}
+	}
+
+	/**
+	 * Deletes match logs in the directory, oldest first, until the rest take
+	 * no more than maxBytes. Other files are left alone.
+	 * 
+	 * @return how many logs were deleted
+	 */
+	public static int deleteOldLogs(File dir, long maxBytes) {
+		File[] logs = dir.listFiles((d, name) -> name.startsWith(LOG_PREFIX) && name.endsWith(LOG_SUFFIX));
+		if (logs == null) {
+			return 0;
+		}
+		// newest first
+		Arrays.sort(logs, Comparator.comparingLong(File::lastModified).reversed().thenComparing(File::getName,
+				Comparator.reverseOrder()));
+		long kept = 0;
+		boolean full = false;
+		int deleted = 0;
+		for (File log : logs) {
+			full = full || kept + log.length() > maxBytes;
+			if (!full) {
+				kept += log.length();
+			} else if (log.delete()) {
+				deleted++;
+			} else {
+				DriverStation.reportWarning("Cannot delete old match log " + log, false);
+			}
+		}
+		return deleted;
+	}
+
+	public SmartDashboardPublisher getPublisher() {
+		return publisher;
+	}
+
+	/**
+	 * @return the binary match log, or null if it couldn't be created
+	 */
+	public BinaryMatchLog getMatchLog() {
+		return matchLog;
+	}
+
+	public ConsoleWriter getConsoleWriter() {
+		return consoleWriter;
+	}
+
+	protected LogSubscription consoleSubscription() {
+		return LogSubscription.nothing().subscribe("", CONSOLE_SAMPLE_EVERY);
+	}
+
+	protected LogSubscription dashboardSubscription() {
+		return LogSubscription.everything()
+				.subscribeSubsystem("PositionDriveController", DASHBOARD_DRIVE_SAMPLE_EVERY);
+	}
+
 	@Override
 	public DataLogger createDataLogger(String name) {
-	    // TODO: remove ConsoleDataLogger at the competition.
-		return new CompositeLogger(new SmartDashboardLogger(name));
-		// return new CompositeLogger(new SmartDashboardLogger(name), new ConsoleDataLogger(name, new WpilibTimeSource()));
+		AsyncSmartDashboardLogger dashboard = new AsyncSmartDashboardLogger(name, publisher);
+		ConsoleDataLogger console = new ConsoleDataLogger(name, new WpilibTimeSource(), consoleWriter);
+		if (matchLog != null) {
+			return new CompositeLogger(
+					new DataLogger[] { dashboard, console, new BinaryMatchLogger(name, matchLog) },
+					new LogSubscription[] { dashboardSubscription(), consoleSubscription(), LogSubscription.everything() });
+		}
+		return new CompositeLogger(new DataLogger[] { dashboard, console },
+				new LogSubscription[] { dashboardSubscription(), consoleSubscription() });
 	}
 
 }
@@ -48,6 +48,31 @@ public class SmartDashboardLogger extends DataLogger {
 		SmartDashboard.putBoolean(computePath(key), value);
 	}
 
+	@Override
+	public void log(int handle, double value) {
+		SmartDashboard.putNumber(getPath(handle), value);
+	}
+
+	@Override
+	public void log(int handle, int value) {
+		SmartDashboard.putNumber(getPath(handle), value);
+	}
+
+	@Override
+	public void log(int handle, long value) {
+		SmartDashboard.putNumber(getPath(handle), value);
+	}
+
+	@Override
+	public void log(int handle, boolean value) {
+		SmartDashboard.putBoolean(getPath(handle), value);
+	}
+
+	@Override
+	public void log(int handle, String value) {
+		SmartDashboard.putString(getPath(handle), value);
+	}
+
 	@Override
 	public void warn(String message) {
 		DriverStation.reportWarning(message, true);
@@ -0,0 +1,206 @@
+package frc.team281.robot.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+/**
+ * Publishes values to the SmartDashboard from a background thread, so that
+ * NetworkTables locking and formatting are not paid inside the robot loop.
+ *
+ * The robot loop puts samples into a fixed size ring buffer, and the publisher
+ * thread drains them into SmartDashboard. Only one thread may offer samples
+ * ( the main robot thread ). The buffer never blocks the robot loop: when it is
+ * full, the oldest sample is dropped and counted.
+ *
+ * Slots are pre-allocated parallel arrays, so offering a sample with an
+ * already computed path does not allocate.
+ *
+ * @author dcowden
+ *
+ */
+public class SmartDashboardPublisher implements Runnable {
+
+	public static final int DEFAULT_CAPACITY = 1024;
+	public static final long DEFAULT_IDLE_NANOS = 5000000L;
+	public static final String DROPPED_PATH = "SmartDashboardPublisher" + DataLogger.SEPARATOR + "dropped";
+
+	protected static final byte NUMBER = 0;
+	protected static final byte BOOLEAN = 1;
+	protected static final byte STRING = 2;
+
+	private final int capacity;
+	private final int mask;
+	private final byte[] types;
+	private final String[] paths;
+	private final double[] numbers;
+	private final String[] strings;
+
+	// head is the next slot to publish, tail the next slot to fill.
+	// the producer moves head too, when it drops the oldest sample
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong published = new AtomicLong();
+
+	private volatile boolean running = false;
+	private Thread thread;
+	private long idleNanos = DEFAULT_IDLE_NANOS;
+
+	public SmartDashboardPublisher() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity
+	 *            number of samples that can be queued. must be a power of 2
+	 */
+	public SmartDashboardPublisher(int capacity) {
+		if (Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("capacity must be a power of 2: got " + capacity);
+		}
+		this.capacity = capacity;
+		this.mask = capacity - 1;
+		this.types = new byte[capacity];
+		this.paths = new String[capacity];
+		this.numbers = new double[capacity];
+		this.strings = new String[capacity];
+	}
+
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		running = true;
+		thread = new Thread(this, "SmartDashboardPublisher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public synchronized void stop() {
+		running = false;
+		if (thread != null) {
+			LockSupport.unpark(thread);
+			thread = null;
+		}
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	public void setIdleNanos(long idleNanos) {
+		this.idleNanos = idleNanos;
+	}
+
+	public void offerNumber(String path, double value) {
+		offer(NUMBER, path, value, null);
+	}
+
+	public void offerBoolean(String path, boolean value) {
+		offer(BOOLEAN, path, value ? 1.0 : 0.0, null);
+	}
+
+	public void offerString(String path, String value) {
+		offer(STRING, path, 0.0, value);
+	}
+
+	private void offer(byte type, String path, double number, String string) {
+		long t = tail.get();
+		long h = head.get();
+		if (t - h >= capacity) {
+			// full: drop the oldest. if the CAS fails, the publisher just took it
+			if (head.compareAndSet(h, h + 1)) {
+				dropped.incrementAndGet();
+			}
+		}
+		int slot = (int) (t & mask);
+		types[slot] = type;
+		paths[slot] = path;
+		numbers[slot] = number;
+		strings[slot] = string;
+		tail.lazySet(t + 1);
+	}
+
+	/**
+	 * Publishes everything currently queued.
+	 *
+	 * @return the number of samples published
+	 */
+	public int publishPending() {
+		int count = 0;
+		while (true) {
+			long h = head.get();
+			if (h >= tail.get()) {
+				return count;
+			}
+			int slot = (int) (h & mask);
+			byte type = types[slot];
+			String path = paths[slot];
+			double number = numbers[slot];
+			String string = strings[slot];
+
+			// if head moved, the producer dropped this slot and may be
+			// overwriting it, so what we read can't be trusted
+			if (head.compareAndSet(h, h + 1)) {
+				publish(type, path, number, string);
+				count++;
+			}
+		}
+	}
+
+	private void publish(byte type, String path, double number, String string) {
+		if (type == NUMBER) {
+			putNumber(path, number);
+		} else if (type == BOOLEAN) {
+			putBoolean(path, number != 0.0);
+		} else {
+			putString(path, string);
+		}
+		published.incrementAndGet();
+	}
+
+	@Override
+	public void run() {
+		long lastDropped = -1;
+		while (running) {
+			if (publishPending() == 0) {
+				long d = dropped.get();
+				if (d != lastDropped) {
+					putNumber(DROPPED_PATH, d);
+					lastDropped = d;
+				}
+				LockSupport.parkNanos(idleNanos);
+			}
+		}
+	}
+
+	protected void putNumber(String path, double value) {
+		SmartDashboard.putNumber(path, value);
+	}
+
+	protected void putBoolean(String path, boolean value) {
+		SmartDashboard.putBoolean(path, value);
+	}
+
+	protected void putString(String path, String value) {
+		SmartDashboard.putString(path, value);
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int getQueuedCount() {
+		return (int) (tail.get() - head.get());
+	}
+
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	public long getPublishedCount() {
+		return published.get();
+	}
+}
@@ -0,0 +1,120 @@
+package frc.team281.robot.logger;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of how long something took, with fixed size buckets so that
+ * recording a sample never allocates.
+ *
+ * Buckets are BUCKET_NANOS wide, up to MAX_TRACKED_NANOS. Anything longer goes
+ * in an overflow bucket, though the max is still exact. Percentiles are
+ * reported as the top of the bucket they fall in, so they are never
+ * optimistic.
+ *
+ * Samples over the budget are counted as overruns. The overrun count is kept
+ * across resets, the rest of the histogram is for the current window.
+ *
+ * @author dcowden
+ *
+ */
+public class TimingHistogram {
+
+	public static final long BUCKET_NANOS = 100000L;
+	public static final int BUCKET_COUNT = 250;
+	public static final long MAX_TRACKED_NANOS = BUCKET_NANOS * BUCKET_COUNT;
+	public static final double NANOS_PER_MILLI = 1e6;
+
+	private final String name;
+	private final long budgetNanos;
+	// the last bucket is overflow
+	private final long[] buckets = new long[BUCKET_COUNT + 1];
+	private long count = 0;
+	private long totalNanos = 0;
+	private long maxNanos = 0;
+	private long overrunCount = 0;
+
+	// logger handles, registered by the profiler the first time it publishes
+	int p50Key = -1;
+	int p99Key = -1;
+	int maxKey = -1;
+	int overrunKey = -1;
+
+	public TimingHistogram(String name, long budgetNanos) {
+		this.name = name;
+		this.budgetNanos = budgetNanos;
+	}
+
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		int bucket = nanos >= MAX_TRACKED_NANOS ? BUCKET_COUNT : (int) (nanos / BUCKET_NANOS);
+		buckets[bucket]++;
+		count++;
+		totalNanos += nanos;
+		if (nanos > maxNanos) {
+			maxNanos = nanos;
+		}
+		if (nanos > budgetNanos) {
+			overrunCount++;
+		}
+	}
+
+	/**
+	 * Clears the window. The overrun count is kept.
+	 */
+	public void reset() {
+		Arrays.fill(buckets, 0L);
+		count = 0;
+		totalNanos = 0;
+		maxNanos = 0;
+	}
+
+	/**
+	 * @param percentile
+	 *            between 0 and 100
+	 * @return the top of the bucket the percentile falls in, or the max if it
+	 *         falls in the overflow bucket
+	 */
+	public double getPercentileMillis(double percentile) {
+		if (count == 0) {
+			return 0.0;
+		}
+		long target = (long) Math.ceil(count * percentile / 100.0);
+		if (target < 1) {
+			target = 1;
+		}
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += buckets[i];
+			if (seen >= target) {
+				return Math.min((i + 1) * BUCKET_NANOS, maxNanos) / NANOS_PER_MILLI;
+			}
+		}
+		return getMaxMillis();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getBudgetNanos() {
+		return budgetNanos;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public double getMeanMillis() {
+		return count == 0 ? 0.0 : totalNanos / (double) count / NANOS_PER_MILLI;
+	}
+
+	public double getMaxMillis() {
+		return maxNanos / NANOS_PER_MILLI;
+	}
+
+	public long getOverrunCount() {
+		return overrunCount;
+	}
+}
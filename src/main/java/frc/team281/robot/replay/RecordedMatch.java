@@ -0,0 +1,180 @@
+package frc.team281.robot.replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import frc.team281.robot.logger.BinaryMatchLog;
+import frc.team281.robot.logger.BinaryMatchLogReader;
+
+/**
+ * A binary match log, loaded into memory so that it can be played back in
+ * virtual time.
+ *
+ * Playback works like the robot saw it: advanceTo() applies every record up
+ * to a time, and the get methods return the latest value of each key at that
+ * point. Nothing depends on the wall clock, so a replay gives the same answer
+ * every time, and runs as fast as the cpu can go.
+ *
+ * @author dcowden
+ *
+ */
+public class RecordedMatch {
+
+	private List<String> keys;
+	private Map<String, Integer> keyIds = new HashMap<>();
+
+	// the records, in the order they were written
+	private int recordCount = 0;
+	private long[] timeMicros = new long[1024];
+	private int[] recordKeys = new int[1024];
+	private double[] numbers = new double[1024];
+	private String[] strings = new String[1024];
+
+	// playback state
+	private int nextRecord = 0;
+	private double currentTime = 0.0;
+	private boolean[] seen;
+	private double[] currentNumbers;
+	private String[] currentStrings;
+
+	public static RecordedMatch load(File file) throws IOException {
+		return new RecordedMatch(BinaryMatchLogReader.open(file));
+	}
+
+	public RecordedMatch(BinaryMatchLogReader reader) {
+		keys = reader.getKeys();
+		for (int i = 0; i < keys.size(); i++) {
+			keyIds.put(keys.get(i), i);
+		}
+		while (reader.next()) {
+			if (recordCount == timeMicros.length) {
+				int size = recordCount * 2;
+				timeMicros = Arrays.copyOf(timeMicros, size);
+				recordKeys = Arrays.copyOf(recordKeys, size);
+				numbers = Arrays.copyOf(numbers, size);
+				strings = Arrays.copyOf(strings, size);
+			}
+			timeMicros[recordCount] = reader.getTimeMicros();
+			recordKeys[recordCount] = reader.getKeyId();
+			if (reader.getType() == BinaryMatchLog.STRING) {
+				strings[recordCount] = reader.getString();
+			} else {
+				numbers[recordCount] = reader.getDouble();
+			}
+			recordCount++;
+		}
+		seen = new boolean[keys.size()];
+		currentNumbers = new double[keys.size()];
+		currentStrings = new String[keys.size()];
+		rewind();
+	}
+
+	/**
+	 * Goes back to the start of the match, before any record was applied.
+	 */
+	public void rewind() {
+		nextRecord = 0;
+		currentTime = getStartSeconds();
+		Arrays.fill(seen, false);
+		Arrays.fill(currentNumbers, 0.0);
+		Arrays.fill(currentStrings, null);
+	}
+
+	/**
+	 * Applies every record logged at or before the given time.
+	 */
+	public void advanceTo(double seconds) {
+		long limit = (long) Math.floor(seconds * 1e6);
+		while (nextRecord < recordCount && timeMicros[nextRecord] <= limit) {
+			int key = recordKeys[nextRecord];
+			seen[key] = true;
+			currentNumbers[key] = numbers[nextRecord];
+			currentStrings[key] = strings[nextRecord];
+			nextRecord++;
+		}
+		currentTime = Math.max(currentTime, seconds);
+	}
+
+	/**
+	 * The time of the first record of a key, at or after the given time.
+	 *
+	 * @return the time, or -1 if there is no such record
+	 */
+	public double findNext(String path, double afterSeconds) {
+		Integer key = keyIds.get(path);
+		if (key == null) {
+			return -1;
+		}
+		long limit = (long) Math.ceil(afterSeconds * 1e6);
+		for (int i = 0; i < recordCount; i++) {
+			if (recordKeys[i] == key && timeMicros[i] >= limit) {
+				return timeMicros[i] / 1e6;
+			}
+		}
+		return -1;
+	}
+
+	public double getCurrentTime() {
+		return currentTime;
+	}
+
+	public boolean isFinished() {
+		return nextRecord >= recordCount;
+	}
+
+	public double getStartSeconds() {
+		return recordCount == 0 ? 0.0 : timeMicros[0] / 1e6;
+	}
+
+	public double getEndSeconds() {
+		return recordCount == 0 ? 0.0 : timeMicros[recordCount - 1] / 1e6;
+	}
+
+	public int getRecordCount() {
+		return recordCount;
+	}
+
+	public List<String> getKeys() {
+		return keys;
+	}
+
+	public boolean hasKey(String path) {
+		return keyIds.containsKey(path);
+	}
+
+	/**
+	 * @return true if the key has been logged at or before the current time
+	 */
+	public boolean hasValue(String path) {
+		Integer key = keyIds.get(path);
+		return key != null && seen[key];
+	}
+
+	public double getDouble(String path, double defaultValue) {
+		Integer key = keyIds.get(path);
+		if (key == null || !seen[key] || currentStrings[key] != null) {
+			return defaultValue;
+		}
+		return currentNumbers[key];
+	}
+
+	public int getInt(String path, int defaultValue) {
+		return (int) getDouble(path, defaultValue);
+	}
+
+	public boolean getBoolean(String path, boolean defaultValue) {
+		return getDouble(path, defaultValue ? 1.0 : 0.0) != 0.0;
+	}
+
+	public String getString(String path, String defaultValue) {
+		Integer key = keyIds.get(path);
+		if (key == null || !seen[key] || currentStrings[key] == null) {
+			return defaultValue;
+		}
+		return currentStrings[key];
+	}
+}
@@ -0,0 +1,40 @@
+package frc.team281.robot.replay;
+
+import frc.team281.robot.logger.TimeSource;
+
+/**
+ * A clock that only moves when it's told to. Used to run robot code in virtual
+ * time, when replaying a match.
+ *
+ * @author dcowden
+ *
+ */
+public class ReplayClock implements TimeSource {
+
+	private double now = 0.0;
+	private double startTime = 0.0;
+
+	public void setTime(double seconds) {
+		this.now = seconds;
+	}
+
+	public void advance(double seconds) {
+		this.now += seconds;
+	}
+
+	@Override
+	public double getSystemTime() {
+		return now;
+	}
+
+	@Override
+	public void resetClock() {
+		startTime = now;
+	}
+
+	@Override
+	public double getElapsedSeconds() {
+		return now - startTime;
+	}
+
+}
@@ -0,0 +1,53 @@
+package frc.team281.robot.sim;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of simulated talons that run together, so that followers can find
+ * their leaders. Step the bus, not the talons, so they all move together a
+ * millisecond at a time.
+ *
+ * @author dcowden
+ *
+ */
+public class SimulatedCanBus {
+
+	private Map<Integer, SimulatedMotorIO> byId = new HashMap<>();
+	private List<SimulatedMotorIO> motors = new ArrayList<>();
+	private double elapsedSeconds = 0.0;
+
+	public SimulatedMotorIO add(int deviceId) {
+		return add(new SimulatedMotorIO(deviceId));
+	}
+
+	public SimulatedMotorIO add(SimulatedMotorIO motor) {
+		if (byId.containsKey(motor.getDeviceID())) {
+			throw new IllegalArgumentException("There is already a talon with id " + motor.getDeviceID());
+		}
+		motor.setBus(this);
+		byId.put(motor.getDeviceID(), motor);
+		motors.add(motor);
+		return motor;
+	}
+
+	public SimulatedMotorIO get(int deviceId) {
+		return byId.get(deviceId);
+	}
+
+	public void step(double seconds) {
+		long steps = Math.round(seconds / SimulatedMotorIO.STEP_SECONDS);
+		for (long i = 0; i < steps; i++) {
+			for (int m = 0; m < motors.size(); m++) {
+				motors.get(m).stepOnce(SimulatedMotorIO.STEP_SECONDS);
+			}
+		}
+		elapsedSeconds += steps * SimulatedMotorIO.STEP_SECONDS;
+	}
+
+	public double getElapsedSeconds() {
+		return elapsedSeconds;
+	}
+}
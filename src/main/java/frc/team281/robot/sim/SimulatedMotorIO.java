@@ -0,0 +1,533 @@
+package frc.team281.robot.sim;
+
+import java.util.ArrayDeque;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motion.MotionProfileStatus;
+import com.ctre.phoenix.motion.SetValueMotionProfile;
+import com.ctre.phoenix.motion.TrajectoryPoint;
+import com.ctre.phoenix.motorcontrol.ControlMode;
+
+import frc.team281.robot.controllers.MotorIO;
+import frc.team281.robot.subsystems.TalonConfigResult;
+import frc.team281.robot.subsystems.TalonSettings;
+import frc.team281.robot.subsystems.TalonSettings.CurrentLimits;
+import frc.team281.robot.subsystems.TalonSettings.Gains;
+import frc.team281.robot.subsystems.TalonSettings.MotorOutputLimits;
+
+/**
+ * A talon and the motor it drives, simulated well enough to run our control
+ * code on a laptop.
+ *
+ * Like the real talon, the closed loop runs every millisecond, using the
+ * gains in the selected slot, in the talon's units: output is
+ * (kP * error + kI * sum of errors + kD * change in error + kF * target) /
+ * 1023. Inside the allowable error only kF is applied. Position, Velocity,
+ * MotionMagic ( a trapezoid from the cruise velocity and acceleration ),
+ * MotionProfile, PercentOutput and Follower modes work. Nominal and peak
+ * outputs, ramping and current limits come from the TalonSettings.
+ * 
+ * Motion profile points go into a top buffer, and each
+ * processMotionProfileBuffer() moves one into the talon's bottom buffer,
+ * like the CTRE API. When enabled, each point runs for its duration, with kF
+ * on the point's velocity and the PID on its position.
+ *
+ * The motor is a DC motor with a first order response: full output gives
+ * freeSpeed counts per 100ms, the velocity gets there with timeConstant, and
+ * the current is stallAmps times the difference between the output and the
+ * back emf. There is no friction, gravity, or battery sag.
+ *
+ * Sensor phase and inversion aren't simulated: positive output always makes
+ * the sensor count up.
+ *
+ * @author dcowden
+ *
+ */
+public class SimulatedMotorIO implements MotorIO {
+
+	// the talon closed loop period
+	public static final double STEP_SECONDS = 0.001;
+	public static final double BATTERY_VOLTS = 12.0;
+	public static final double CLOSED_LOOP_FULL_OUTPUT = 1023.0;
+	public static final int TOP_BUFFER_POINTS = 2048;
+	public static final int BOTTOM_BUFFER_POINTS = 128;
+
+	// roughly a CIM on our drive gearbox, with the drive encoders
+	public static final double DEFAULT_FREE_SPEED = 800.0;
+	public static final double DEFAULT_STALL_AMPS = 131.0;
+	public static final double DEFAULT_TIME_CONSTANT_SECONDS = 0.1;
+
+	private final int deviceId;
+	private final double freeSpeed;
+	private final double stallAmps;
+	private final double timeConstantSeconds;
+	private SimulatedCanBus bus;
+
+	private TalonSettings settings = new TalonSettings();
+	private ControlMode mode = ControlMode.Disabled;
+	private double demand = 0.0;
+	private boolean encoderConnected = true;
+	private boolean resetOccurred = false;
+
+	// the motor. position in counts, velocity in counts per 100ms
+	private double position = 0.0;
+	private double velocity = 0.0;
+	private double output = 0.0;
+	private double current = 0.0;
+
+	// the closed loop
+	private double integral = 0.0;
+	private double lastError = 0.0;
+	private boolean hasLastError = false;
+	private double closedLoopError = 0.0;
+
+	// the motion magic trajectory
+	private boolean profileStarted = false;
+	private double profilePosition = 0.0;
+	private double profileVelocity = 0.0;
+
+	// the motion profile
+	private ArrayDeque<TrajectoryPoint> topBuffer = new ArrayDeque<>();
+	private ArrayDeque<TrajectoryPoint> bottomBuffer = new ArrayDeque<>();
+	private TrajectoryPoint activePoint = null;
+	private double activePointSeconds = 0.0;
+	private boolean hasUnderrun = false;
+	private boolean isUnderrun = false;
+	private int motionControlFramePeriodMs = 0;
+
+	// current limiting
+	private double secondsOverPeak = 0.0;
+	private boolean currentLimiting = false;
+
+	public SimulatedMotorIO(int deviceId) {
+		this(deviceId, DEFAULT_FREE_SPEED, DEFAULT_STALL_AMPS, DEFAULT_TIME_CONSTANT_SECONDS);
+	}
+
+	/**
+	 * @param freeSpeed
+	 *            counts per 100ms at full output with no load
+	 * @param stallAmps
+	 *            current at full output, stopped
+	 * @param timeConstantSeconds
+	 *            how quickly the motor gets to speed
+	 */
+	public SimulatedMotorIO(int deviceId, double freeSpeed, double stallAmps, double timeConstantSeconds) {
+		this.deviceId = deviceId;
+		this.freeSpeed = freeSpeed;
+		this.stallAmps = stallAmps;
+		this.timeConstantSeconds = timeConstantSeconds;
+	}
+
+	/**
+	 * The bus is where a follower finds its leader
+	 */
+	void setBus(SimulatedCanBus bus) {
+		this.bus = bus;
+	}
+
+	@Override
+	public TalonConfigResult configure(TalonSettings settings, TalonSettings previous) {
+		long start = System.nanoTime();
+		TalonConfigResult r = new TalonConfigResult();
+		this.settings = settings.copy();
+		if (previous == null) {
+			position = 0.0;
+		}
+		set(settings.controlMode, settings.demand);
+		r.sent();
+		r.addElapsedNanos(System.nanoTime() - start);
+		return r;
+	}
+
+	@Override
+	public void set(ControlMode mode, double demand) {
+		if (mode != this.mode) {
+			resetClosedLoop();
+		}
+		this.mode = mode;
+		this.demand = demand;
+	}
+
+	private void resetClosedLoop() {
+		integral = 0.0;
+		hasLastError = false;
+		closedLoopError = 0.0;
+		profileStarted = false;
+	}
+
+	/**
+	 * Runs the talon and motor forward in time, a millisecond at a time
+	 */
+	public void step(double seconds) {
+		long steps = Math.round(seconds / STEP_SECONDS);
+		for (long i = 0; i < steps; i++) {
+			stepOnce(STEP_SECONDS);
+		}
+	}
+
+	void stepOnce(double dt) {
+		double target = computeOutput(dt);
+		target = ramp(target, dt);
+		target = limitCurrent(target, dt);
+		output = target;
+
+		double backEmf = velocity / freeSpeed;
+		current = stallAmps * Math.abs(output - backEmf);
+		velocity += (output * freeSpeed - velocity) * dt / timeConstantSeconds;
+		// velocity is per 100ms
+		position += velocity * 10.0 * dt;
+	}
+
+	protected double computeOutput(double dt) {
+		switch (mode) {
+		case PercentOutput:
+			return clampPeak(demand);
+		case Follower:
+			SimulatedMotorIO leader = bus == null ? null : bus.get((int) demand);
+			return leader == null ? 0.0 : leader.output;
+		case Position:
+			return closedLoop(demand - position, demand);
+		case Velocity:
+			return closedLoop(demand - velocity, demand);
+		case MotionMagic:
+			stepProfile(dt);
+			return closedLoop(profilePosition - position, profileVelocity);
+		case MotionProfile:
+			return motionProfileOutput(dt);
+		default:
+			return 0.0;
+		}
+	}
+
+	/**
+	 * Moves the motion magic trajectory one step toward the demand,
+	 * accelerating up to cruise velocity and slowing down in time to stop
+	 */
+	protected void stepProfile(double dt) {
+		if (!profileStarted) {
+			profilePosition = position;
+			profileVelocity = velocity;
+			profileStarted = true;
+		}
+		// the talon's units are per 100ms, and per 100ms per second
+		double cruise = Math.abs(settings.profile.cruiseVelocityEncoderClicksPerSecond) * 10.0;
+		double accel = Math.abs(settings.profile.accelerationEncoderClicksPerSecond2) * 10.0;
+		double v = profileVelocity * 10.0;
+		double remaining = demand - profilePosition;
+		double direction = Math.signum(remaining);
+		double stoppingDistance = (v * v) / (2.0 * accel);
+		double desired;
+		if (Math.abs(remaining) <= stoppingDistance && Math.signum(v) == direction) {
+			desired = 0.0;
+		} else {
+			desired = direction * cruise;
+		}
+		double dv = accel * dt;
+		if (v < desired) {
+			v = Math.min(desired, v + dv);
+		} else {
+			v = Math.max(desired, v - dv);
+		}
+		double next = profilePosition + v * dt;
+		// don't go past the end
+		if ((demand - next) * direction < 0 || remaining == 0.0) {
+			next = demand;
+			v = 0.0;
+		}
+		profilePosition = next;
+		profileVelocity = v / 10.0;
+	}
+
+	/**
+	 * Runs the active point, moving to the next one when its time is up. The
+	 * last point is held forever
+	 */
+	protected double motionProfileOutput(double dt) {
+		int setValue = (int) demand;
+		if (setValue == SetValueMotionProfile.Enable.value) {
+			activePointSeconds -= dt;
+			if (activePoint == null || (activePointSeconds <= 0.0 && !activePoint.isLastPoint)) {
+				TrajectoryPoint next = bottomBuffer.poll();
+				if (next == null) {
+					isUnderrun = activePoint != null;
+					hasUnderrun |= isUnderrun;
+				} else {
+					activate(next);
+				}
+			}
+		} else if (setValue != SetValueMotionProfile.Hold.value) {
+			return 0.0;
+		}
+		if (activePoint == null) {
+			return 0.0;
+		}
+		double feedForward = setValue == SetValueMotionProfile.Hold.value ? 0.0 : activePoint.velocity;
+		return closedLoop(activePoint.position - position, feedForward, selectedGains(activePoint.profileSlotSelect0));
+	}
+
+	private void activate(TrajectoryPoint point) {
+		activePoint = point;
+		isUnderrun = false;
+		int durationMs = point.timeDur == null ? 0 : point.timeDur.value;
+		activePointSeconds = Math.max(durationMs / 1000.0, STEP_SECONDS);
+		if (point.zeroPos) {
+			setSelectedSensorPosition(0);
+		}
+	}
+
+	protected double closedLoop(double error, double feedForwardTarget) {
+		return closedLoop(error, feedForwardTarget, selectedGains(settings.profileSlot));
+	}
+
+	protected double closedLoop(double error, double feedForwardTarget, Gains g) {
+		closedLoopError = error;
+		boolean closeEnough = Math.abs(error) <= settings.profile.allowableClosedLoopError;
+		double derivative = hasLastError ? error - lastError : 0.0;
+		lastError = error;
+		hasLastError = true;
+		double pid = 0.0;
+		if (closeEnough) {
+			integral = 0.0;
+		} else {
+			integral += error;
+			pid = g.p * error + g.i * integral + g.d * derivative;
+		}
+		double out = (pid + g.f * feedForwardTarget) / CLOSED_LOOP_FULL_OUTPUT;
+
+		if (!closeEnough) {
+			MotorOutputLimits limits = settings.outputLimits;
+			double nominalForward = clamp(limits.minMotorOutputForward, 0.0, 1.0);
+			double nominalReverse = clamp(limits.minMotorOutputBackward, -1.0, 0.0);
+			if (out > 0.0 && out < nominalForward) {
+				out = nominalForward;
+			} else if (out < 0.0 && out > nominalReverse) {
+				out = nominalReverse;
+			}
+		}
+		return clampPeak(out);
+	}
+
+	protected Gains selectedGains(int slot) {
+		if (slot == TalonSettings.PROFILE_SLOT) {
+			return settings.gains;
+		}
+		Gains g = settings.extraSlotGains.get(slot);
+		return g == null ? new Gains() : g;
+	}
+
+	protected double clampPeak(double out) {
+		MotorOutputLimits limits = settings.outputLimits;
+		double peakForward = clamp(limits.maxMotorOutputForward, 0.0, 1.0);
+		double peakReverse = clamp(limits.maxMotorOutputBackward, -1.0, 0.0);
+		return clamp(out, peakReverse, peakForward);
+	}
+
+	protected double ramp(double target, double dt) {
+		boolean closedLoop = mode == ControlMode.Position || mode == ControlMode.Velocity
+				|| mode == ControlMode.MotionMagic;
+		double rampSeconds = closedLoop ? settings.rampUp.rampUpSecondsClosedLoop
+				: settings.rampUp.rampUpSecondsOpenLoop;
+		if (rampSeconds <= 0.0) {
+			return target;
+		}
+		double maxChange = dt / rampSeconds;
+		return clamp(target, output - maxChange, output + maxChange);
+	}
+
+	/**
+	 * Once the current has been over the peak for the peak duration, it is
+	 * held to the continuous limit, until the motor would draw less than that
+	 * on its own
+	 */
+	protected double limitCurrent(double target, double dt) {
+		CurrentLimits limits = settings.currentLimits;
+		double backEmf = velocity / freeSpeed;
+		double wanted = stallAmps * Math.abs(target - backEmf);
+		if (wanted > limits.instantaneousPeak) {
+			secondsOverPeak += dt;
+		} else {
+			secondsOverPeak = 0.0;
+		}
+		if (secondsOverPeak * 1000.0 >= limits.continuousPeakMilliseconds) {
+			currentLimiting = true;
+		}
+		if (currentLimiting && wanted <= limits.continuousPeak) {
+			currentLimiting = false;
+		}
+		if (!currentLimiting) {
+			return target;
+		}
+		double maxDifference = limits.continuousPeak / stallAmps;
+		return clamp(target, backEmf - maxDifference, backEmf + maxDifference);
+	}
+
+	private static double clamp(double value, double min, double max) {
+		return Math.max(min, Math.min(max, value));
+	}
+
+	/**
+	 * A disconnected encoder reads zero, like a broken one on the robot
+	 */
+	public void setEncoderConnected(boolean connected) {
+		this.encoderConnected = connected;
+	}
+
+	/**
+	 * Resets the talon like a brownout does: factory settings, disabled, and
+	 * the sensor back at zero
+	 */
+	public void powerCycle() {
+		settings = new TalonSettings();
+		mode = ControlMode.Disabled;
+		demand = 0.0;
+		position = 0.0;
+		resetClosedLoop();
+		clearMotionProfileTrajectories();
+		motionControlFramePeriodMs = 0;
+		resetOccurred = true;
+	}
+
+	public boolean isCurrentLimiting() {
+		return currentLimiting;
+	}
+
+	@Override
+	public double get() {
+		return demand;
+	}
+
+	@Override
+	public ControlMode getControlMode() {
+		return mode;
+	}
+
+	@Override
+	public int getSelectedSensorPosition() {
+		return encoderConnected ? (int) Math.round(position) : 0;
+	}
+
+	@Override
+	public int getSelectedSensorVelocity() {
+		return encoderConnected ? (int) Math.round(velocity) : 0;
+	}
+
+	@Override
+	public int getClosedLoopError() {
+		return (int) Math.round(closedLoopError);
+	}
+
+	@Override
+	public void setSelectedSensorPosition(int position) {
+		this.position = position;
+		// the trajectory starts over from the new position
+		this.profileStarted = false;
+		this.hasLastError = false;
+	}
+
+	@Override
+	public double getOutputCurrent() {
+		return current;
+	}
+
+	@Override
+	public double getMotorOutputPercent() {
+		return output;
+	}
+
+	@Override
+	public double getMotorOutputVoltage() {
+		return output * BATTERY_VOLTS;
+	}
+
+	@Override
+	public ErrorCode getLastError() {
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public boolean hasResetOccurred() {
+		boolean reset = resetOccurred;
+		resetOccurred = false;
+		return reset;
+	}
+
+	@Override
+	public ErrorCode pushMotionProfileTrajectory(TrajectoryPoint point) {
+		if (topBuffer.size() >= TOP_BUFFER_POINTS) {
+			return ErrorCode.BufferFull;
+		}
+		// the api copies the point, so callers can reuse theirs
+		TrajectoryPoint copy = new TrajectoryPoint();
+		copy.position = point.position;
+		copy.velocity = point.velocity;
+		copy.headingDeg = point.headingDeg;
+		copy.profileSlotSelect0 = point.profileSlotSelect0;
+		copy.profileSlotSelect1 = point.profileSlotSelect1;
+		copy.isLastPoint = point.isLastPoint;
+		copy.zeroPos = point.zeroPos;
+		copy.timeDur = point.timeDur;
+		topBuffer.add(copy);
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public void processMotionProfileBuffer() {
+		if (!topBuffer.isEmpty() && bottomBuffer.size() < BOTTOM_BUFFER_POINTS) {
+			bottomBuffer.add(topBuffer.poll());
+		}
+	}
+
+	@Override
+	public void getMotionProfileStatus(MotionProfileStatus status) {
+		status.topBufferCnt = topBuffer.size();
+		status.topBufferRem = TOP_BUFFER_POINTS - topBuffer.size();
+		status.btmBufferCnt = bottomBuffer.size();
+		status.hasUnderrun = hasUnderrun;
+		status.isUnderrun = isUnderrun;
+		status.activePointValid = activePoint != null;
+		status.isLast = activePoint != null && activePoint.isLastPoint;
+		status.profileSlotSelect0 = activePoint == null ? 0 : activePoint.profileSlotSelect0;
+		status.timeDurMs = activePoint == null || activePoint.timeDur == null ? 0 : activePoint.timeDur.value;
+		if (mode != ControlMode.MotionProfile) {
+			status.outputEnable = SetValueMotionProfile.Disable;
+		} else if ((int) demand == SetValueMotionProfile.Enable.value) {
+			status.outputEnable = SetValueMotionProfile.Enable;
+		} else if ((int) demand == SetValueMotionProfile.Hold.value) {
+			status.outputEnable = SetValueMotionProfile.Hold;
+		} else {
+			status.outputEnable = SetValueMotionProfile.Disable;
+		}
+	}
+
+	@Override
+	public void clearMotionProfileTrajectories() {
+		topBuffer.clear();
+		bottomBuffer.clear();
+		activePoint = null;
+		isUnderrun = false;
+		hasUnderrun = false;
+	}
+
+	@Override
+	public void changeMotionControlFramePeriod(int periodMs) {
+		this.motionControlFramePeriodMs = periodMs;
+	}
+
+	public int getMotionControlFramePeriod() {
+		return motionControlFramePeriodMs;
+	}
+
+	@Override
+	public int getDeviceID() {
+		return deviceId;
+	}
+
+	@Override
+	public Object getDevice() {
+		return this;
+	}
+
+	public TalonSettings getSettings() {
+		return settings;
+	}
+}
@@ -3,6 +3,7 @@ package frc.team281.robot.strategy;
 import java.util.List;
 
 import frc.team281.robot.subsystems.Position;
+import frc.team281.robot.subsystems.PositionCalculator;
 
 public class AutoPlan {
 
@@ -12,6 +13,10 @@ public class AutoPlan {
         this.shouldDropCube = shouldDropCube;
         this.isTargetingScale = isTargetScale;
     }
+    public AutoPlan(String name, boolean isTargetScale, boolean shouldDropCube, List<Position> path, boolean mirror){
+        this(name, isTargetScale, shouldDropCube, path);
+        this.mirror = mirror;
+    }
     public String getName() {
         return name;
     }
@@ -28,6 +33,15 @@ public class AutoPlan {
     public List<Position> getPath() {
         return path;
     }
+    /**
+     * The path as the robot will drive it, mirrored if needed
+     */
+    public List<Position> getDrivenPath() {
+        if ( mirror ){
+            return PositionCalculator.mirror(path);
+        }
+        return path;
+    }
     public void setPath(List<Position> path) {
         this.path = path;
     }
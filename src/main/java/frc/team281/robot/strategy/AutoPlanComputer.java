@@ -1,5 +1,7 @@
 package frc.team281.robot.strategy;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import edu.wpi.first.wpilibj.Preferences;
@@ -84,17 +86,48 @@ public class AutoPlanComputer {
 
     protected List<Position> EMPTY = PositionCalculator.builder().build();
 
+    // every plan we can pick, made once so that picking one doesn't build
+    // anything. the second of each pair is mirrored, for starting on the right.
+    // these are shared, so don't change them
+    private List<AutoPlan> allPlans = new ArrayList<>();
+    private AutoPlan[] DO_NOTHING = variants("DoNothing",false,false,EMPTY);
+    private AutoPlan[] PLAN_A = variants(A,false,true,AUTO_A);
+    private AutoPlan[] PLAN_B = variants(B,true,true,AUTO_B);
+    private AutoPlan[] PLAN_C = variants(C,false,false,AUTO_C);
+    private AutoPlan[] PLAN_D = variants(D,false,true,AUTO_D);
+    private AutoPlan[] PLAN_G = variants(G,false,true,AUTO_G);
+    private AutoPlan[] PLAN_E_SCALE = variants(E,true,false,AUTO_E);
+    private AutoPlan[] PLAN_E_SWITCH = variants(E,false,false,AUTO_E);
+    private AutoPlan[] PLAN_F = variants(F,true,false,AUTO_F);
+
+    private AutoPlan[] variants(String name, boolean isTargetScale, boolean shouldDropCube, List<Position> path){
+        AutoPlan[] plans = new AutoPlan[] {
+                new AutoPlan(name, isTargetScale, shouldDropCube, path, false),
+                new AutoPlan(name, isTargetScale, shouldDropCube, path, true) };
+        allPlans.add(plans[0]);
+        allPlans.add(plans[1]);
+        return plans;
+    }
+
+    /**
+     * Every plan computePlanFromFieldPoseSwitches can return, so they can
+     * be got ready before the match
+     */
+    public List<AutoPlan> getAllPlans(){
+        return Collections.unmodifiableList(allPlans);
+    }
+
     public AutoPlan computePlanFromFieldPoseSwitches(FieldMessage fm, boolean bothThisSideSelector, boolean frontSlashSelector,
             boolean backSlashSelector, boolean bothOppositeSelector){
         
         //do nothing by default
-        AutoPlan selectedPlan = new AutoPlan("DoNothing",false,false,EMPTY);
+        AutoPlan[] selectedPlan = DO_NOTHING;
         
         if ( fm.isRobotInMiddle()){
             if ( fm.isOurSwitchOnTheRight()){
-                selectedPlan =  new AutoPlan(G,false, true, AUTO_G);
+                selectedPlan = PLAN_G;
             } else {
-                selectedPlan =  new AutoPlan(D,false, true, AUTO_D);
+                selectedPlan = PLAN_D;
             }
         } else {
             //we're on one side or the other
@@ -105,52 +138,52 @@ public class AutoPlanComputer {
             // AutoPlan logicals: isTargetScale, dropCube
             if ( pose == FieldPose.BOTH_OUR_SIDE){
                 if ( bothThisSideSelector ) {
-                    selectedPlan = new AutoPlan(B,true,true,AUTO_B);
+                    selectedPlan = PLAN_B;
                 } else {
-                    selectedPlan = new AutoPlan(A,false,true,AUTO_A);
+                    selectedPlan = PLAN_A;
                 }
             }
             if ( pose == FieldPose.BOTH_OTHER_SIDE){
                 if ( fm.isOverrideSwitch() ) {
-                    selectedPlan = new AutoPlan(E,true,false,AUTO_E);
+                    selectedPlan = PLAN_E_SCALE;
                 } else {
                     if ( bothOppositeSelector ){
-                        selectedPlan = new AutoPlan(F,true,false,AUTO_F);
+                        selectedPlan = PLAN_F;
                     } else {
-                        selectedPlan = new AutoPlan(C,false,false,AUTO_C);
+                        selectedPlan = PLAN_C;
                     }
                 }
             }
             if ( pose == FieldPose.FRONT_SLASH){
                 if ( frontSlashSelector ){ 
                     if ( fm.isOverrideSwitch() ) {
-                        selectedPlan = new AutoPlan(E,true,false,AUTO_E);
+                        selectedPlan = PLAN_E_SCALE;
                     } else {
-                        selectedPlan = new AutoPlan(F,true,false,AUTO_F);
+                        selectedPlan = PLAN_F;
                     }
                 } else {
-                    selectedPlan = new AutoPlan(A,false,true,AUTO_A);
+                    selectedPlan = PLAN_A;
                 }
             }
             if ( pose == FieldPose.BACK_SLASH){
                 if ( backSlashSelector ){
-                    selectedPlan = new AutoPlan(B,true,true,AUTO_B);
+                    selectedPlan = PLAN_B;
                 }
                 else{
                     if ( fm.isOverrideSwitch() ) {
-                        selectedPlan = new AutoPlan(E,false,false,AUTO_E);
+                        selectedPlan = PLAN_E_SWITCH;
                     } else {
-                        selectedPlan = new AutoPlan(C,false,false,AUTO_C);
+                        selectedPlan = PLAN_C;
                     }
                 }
             }
             //mirror the path if needed
             if ( fm.isRobotOnright()){
-                selectedPlan.setMirror(true);
+                return selectedPlan[1];
             }
 
         }
-        return selectedPlan;
+        return selectedPlan[0];
     }
         
     public AutoPlan computePlanFromRobotPreferences(FieldMessage fm){
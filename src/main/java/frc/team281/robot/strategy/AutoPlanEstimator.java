@@ -0,0 +1,165 @@
+package frc.team281.robot.strategy;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import frc.team281.robot.AutoCommandFactory;
+import frc.team281.robot.commands.DriveForwardUntilCollisionCommand;
+import frc.team281.robot.commands.DriveToPositionCommand;
+import frc.team281.robot.commands.FollowProfiledPathCommand;
+import frc.team281.robot.commands.LifterTopCommand;
+import frc.team281.robot.commands.WristPivotDownCommand;
+import frc.team281.robot.subsystems.Position;
+import frc.team281.robot.subsystems.PositionCalculator;
+import frc.team281.robot.subsystems.TalonSettings;
+import frc.team281.robot.subsystems.drive.DriveTrajectory;
+import frc.team281.robot.subsystems.drive.EncoderInchesConverter;
+import frc.team281.robot.subsystems.drive.MotionProfileDriveController;
+
+/**
+ * Predicts how long an auto plan takes, and how many points it's worth.
+ *
+ * The path is timed by planning it the same way MotionProfileDriveController
+ * drives it. The lifter runs alongside the drive, and the rest of the auto
+ * runs after it, the same as the command AutoCommandFactory makes. The cube
+ * is down once the robot has driven, approached and pivoted the wrist, and
+ * the lifter is up.
+ *
+ * Points are 2018 auto points: the auto line, and two points a second for
+ * owning the switch or scale until the end of auto, times how often the drop
+ * works.
+ *
+ * Once a plan has run enough matches, the drive, lift and approach times come
+ * from the AutoTimingDatabase instead of the predictions.
+ *
+ * @author dcowden
+ *
+ */
+public class AutoPlanEstimator {
+
+    public static final double AUTO_SECONDS = 15.0;
+    public static final double AUTO_LINE_INCHES = 120.0;
+    public static final double AUTO_LINE_POINTS = 5.0;
+    public static final double OWNERSHIP_POINTS_PER_SECOND = 2.0;
+
+    // the lifter doesn't report its speed, so this was timed on the robot
+    public static final double SCALE_LIFT_SECONDS = 2.5;
+    // we usually hit the fence well before the timeout
+    public static final double SWITCH_APPROACH_SECONDS = 1.0;
+    public static final double SWITCH_EJECT_SECONDS = 0.5;
+    public static final double SCALE_EJECT_SECONDS = 0.25;
+
+    // guesses, until we have match data
+    public static final double SWITCH_SUCCESS = 0.9;
+    public static final double SCALE_SUCCESS = 0.7;
+
+    private double cruiseInchesPerSecond;
+    private double accelerationInchesPerSecond2;
+    private Map<AutoPlan, Double> driveSeconds = new IdentityHashMap<>();
+    private double scaleApproachSeconds;
+    private AutoTimingDatabase history;
+
+    public AutoPlanEstimator(double cruiseInchesPerSecond, double accelerationInchesPerSecond2) {
+        this.cruiseInchesPerSecond = cruiseInchesPerSecond;
+        this.accelerationInchesPerSecond2 = accelerationInchesPerSecond2;
+        this.scaleApproachSeconds = planSeconds(new AutoPlan("ScaleApproach", true, false,
+                PositionCalculator.builder().forward(AutoCommandFactory.FORWARD_MOVE_INCHES).build()));
+    }
+
+    /**
+     * Uses the same cruise and acceleration as the motion profile drive
+     */
+    public static AutoPlanEstimator fromSettings(TalonSettings settings, EncoderInchesConverter converter) {
+        // motion magic settings are per 100ms
+        TalonSettings.MotionProfile profile = settings.profile;
+        return new AutoPlanEstimator(converter.toInches(profile.cruiseVelocityEncoderClicksPerSecond * 10),
+                converter.toInches(profile.accelerationEncoderClicksPerSecond2 * 10));
+    }
+
+    /**
+     * Times from past matches, when there are enough of them
+     */
+    public void setHistory(AutoTimingDatabase history) {
+        this.history = history;
+    }
+
+    public AutoTimingDatabase getHistory() {
+        return history;
+    }
+
+    public double getDriveSeconds(AutoPlan plan) {
+        Double seconds = driveSeconds.get(plan);
+        if (seconds == null) {
+            seconds = planSeconds(plan);
+            driveSeconds.put(plan, seconds);
+        }
+        return learned(plan, FollowProfiledPathCommand.class, seconds);
+    }
+
+    public double getLiftSeconds(AutoPlan plan) {
+        if (plan.isTargetingScale()) {
+            return learned(plan, LifterTopCommand.class, SCALE_LIFT_SECONDS);
+        }
+        // this one is timed, so there's nothing to learn
+        return AutoCommandFactory.SWITCH_LIFT_SECONDS;
+    }
+
+    public double getApproachSeconds(AutoPlan plan) {
+        if (plan.isTargetingScale()) {
+            return learned(plan, DriveToPositionCommand.class, scaleApproachSeconds);
+        }
+        return learned(plan, DriveForwardUntilCollisionCommand.class, SWITCH_APPROACH_SECONDS);
+    }
+
+    /**
+     * When the cube is down, or when the robot stops if it doesn't drop one
+     */
+    public double getScoreSeconds(AutoPlan plan) {
+        double drive = getDriveSeconds(plan) + getApproachSeconds(plan);
+        if (!plan.isShouldDropCube()) {
+            return drive;
+        }
+        double ready = Math.max(drive + WristPivotDownCommand.PIVOT_SECONDS, getLiftSeconds(plan));
+        return ready + (plan.isTargetingScale() ? SCALE_EJECT_SECONDS : SWITCH_EJECT_SECONDS);
+    }
+
+    public double getExpectedPoints(AutoPlan plan) {
+        double points = 0.0;
+        if (crossesAutoLine(plan) && getDriveSeconds(plan) < AUTO_SECONDS) {
+            points += AUTO_LINE_POINTS;
+        }
+        if (plan.isShouldDropCube()) {
+            double owned = Math.max(0.0, AUTO_SECONDS - getScoreSeconds(plan));
+            double success = plan.isTargetingScale() ? SCALE_SUCCESS : SWITCH_SUCCESS;
+            points += success * OWNERSHIP_POINTS_PER_SECOND * owned;
+        }
+        return points;
+    }
+
+    /**
+     * Plans that drop a cube got to the switch or scale, which are past the
+     * line. Others have to drive far enough forward
+     */
+    public boolean crossesAutoLine(AutoPlan plan) {
+        if (plan.isShouldDropCube()) {
+            return true;
+        }
+        double forward = 0.0;
+        for (Position p : plan.getPath()) {
+            forward += (p.getLeftInches() + p.getRightInches()) / 2.0;
+        }
+        return forward >= AUTO_LINE_INCHES;
+    }
+
+    private double learned(AutoPlan plan, Class<?> command, double predicted) {
+        if (history == null) {
+            return predicted;
+        }
+        return history.getMean(plan.getName(), AutoTimingDatabase.commandKey(command.getSimpleName()), predicted);
+    }
+
+    private double planSeconds(AutoPlan plan) {
+        return DriveTrajectory.plan(plan.getDrivenPath(), cruiseInchesPerSecond, accelerationInchesPerSecond2,
+                MotionProfileDriveController.POINT_MILLIS).getDurationSeconds();
+    }
+}
@@ -0,0 +1,196 @@
+package frc.team281.robot.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import frc.team281.robot.FieldMessage;
+import frc.team281.robot.FieldMessageGetter;
+
+/**
+ * Remembers what the auto plan was picked from, and only picks again when one
+ * of those things changes. disabledPeriodic reads the inputs every loop, but
+ * the field message, the plan and everything we publish about them are only
+ * made when the drive team flips a switch or the game message shows up.
+ *
+ * The inputs are the game message, the position and override switches, the
+ * four selector buttons, and whether to let the CostBasedAutoPlanner pick.
+ * With a planner, the predicted timings of every candidate are kept for the
+ * dashboard either way.
+ *
+ * @author dcowden
+ *
+ */
+public class AutoSelection {
+
+    public static final String[] POSSIBLE_MESSAGES = { "LLL", "LRL", "RLR", "RRR" };
+
+    private AutoPlanComputer computer;
+    private boolean hasInputs = false;
+    private String gameMessage;
+    private boolean leftSwitch;
+    private boolean rightSwitch;
+    private boolean override;
+    private boolean bothThisSide;
+    private boolean frontSlash;
+    private boolean backSlash;
+    private boolean bothOpposite;
+    private boolean usePlanner;
+    private CostBasedAutoPlanner planner;
+    private String predictions = "";
+
+    private FieldMessage fieldMessage;
+    private AutoPlan plan;
+    private int computeCount = 0;
+
+    public AutoSelection(AutoPlanComputer computer) {
+        this.computer = computer;
+    }
+
+    public void setPlanner(CostBasedAutoPlanner planner) {
+        this.planner = planner;
+        this.hasInputs = false;
+    }
+
+    /**
+     * Picks the plan again on the next update, even if nothing changed. The
+     * planner's timings change after a match is recorded
+     */
+    public void invalidate() {
+        this.hasInputs = false;
+    }
+
+    public boolean update(String gameMessage, boolean leftSwitch, boolean rightSwitch, boolean override,
+            boolean bothThisSide, boolean frontSlash, boolean backSlash, boolean bothOpposite) {
+        return update(gameMessage, leftSwitch, rightSwitch, override, bothThisSide, frontSlash, backSlash,
+                bothOpposite, false);
+    }
+
+    /**
+     * Picks the plan again if anything changed since last time.
+     *
+     * @return true if the plan was picked again, so it should be published
+     */
+    public boolean update(String gameMessage, boolean leftSwitch, boolean rightSwitch, boolean override,
+            boolean bothThisSide, boolean frontSlash, boolean backSlash, boolean bothOpposite,
+            boolean usePlanner) {
+        if (hasInputs && gameMessage.equals(this.gameMessage) && leftSwitch == this.leftSwitch
+                && rightSwitch == this.rightSwitch && override == this.override
+                && bothThisSide == this.bothThisSide && frontSlash == this.frontSlash
+                && backSlash == this.backSlash && bothOpposite == this.bothOpposite
+                && usePlanner == this.usePlanner) {
+            return false;
+        }
+        this.hasInputs = true;
+        this.gameMessage = gameMessage;
+        this.leftSwitch = leftSwitch;
+        this.rightSwitch = rightSwitch;
+        this.override = override;
+        this.bothThisSide = bothThisSide;
+        this.frontSlash = frontSlash;
+        this.backSlash = backSlash;
+        this.bothOpposite = bothOpposite;
+        this.usePlanner = usePlanner;
+
+        fieldMessage = new FieldMessageGetter(leftSwitch, rightSwitch, override)
+                .convertGameMessageToFieldMessage(gameMessage);
+        plan = pick(fieldMessage);
+        if (planner != null) {
+            predictions = planner.describe(fieldMessage);
+        }
+        computeCount++;
+        return true;
+    }
+
+    private AutoPlan pick(FieldMessage fm) {
+        AutoPlan selected = computer.computePlanFromFieldPoseSwitches(fm, bothThisSide, frontSlash, backSlash,
+                bothOpposite);
+        if (usePlanner && planner != null) {
+            selected = planner.choose(fm, selected);
+        }
+        return selected;
+    }
+
+    /**
+     * False until the field sends the game message
+     */
+    public boolean hasGameMessage() {
+        return gameMessage != null && gameMessage.trim().length() >= 3;
+    }
+
+    /**
+     * The plans we could end up running once the game message comes, given
+     * the switches and buttons as they are now. Only the switch and scale
+     * sides matter
+     */
+    public List<AutoPlan> getPossiblePlans() {
+        List<AutoPlan> plans = new ArrayList<>();
+        for (String message : POSSIBLE_MESSAGES) {
+            AutoPlan plan = pick(new FieldMessageGetter(leftSwitch, rightSwitch, override)
+                    .convertGameMessageToFieldMessage(message));
+            if (!plans.contains(plan)) {
+                plans.add(plan);
+            }
+        }
+        return plans;
+    }
+
+    public FieldMessage getFieldMessage() {
+        return fieldMessage;
+    }
+
+    public AutoPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Predicted time and points of each plan we could run, or empty without
+     * a planner
+     */
+    public String getPredictions() {
+        return predictions;
+    }
+
+    public CostBasedAutoPlanner getPlanner() {
+        return planner;
+    }
+
+    public boolean isUsingPlanner() {
+        return usePlanner && planner != null;
+    }
+
+    public int getComputeCount() {
+        return computeCount;
+    }
+
+    public String getGameMessage() {
+        return gameMessage;
+    }
+
+    public boolean getLeftSwitch() {
+        return leftSwitch;
+    }
+
+    public boolean getRightSwitch() {
+        return rightSwitch;
+    }
+
+    public boolean getOverride() {
+        return override;
+    }
+
+    public boolean getBothThisSide() {
+        return bothThisSide;
+    }
+
+    public boolean getFrontSlash() {
+        return frontSlash;
+    }
+
+    public boolean getBackSlash() {
+        return backSlash;
+    }
+
+    public boolean getBothOpposite() {
+        return bothOpposite;
+    }
+}
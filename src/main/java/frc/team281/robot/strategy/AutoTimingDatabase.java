@@ -0,0 +1,250 @@
+package frc.team281.robot.strategy;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How long each part of each auto plan took, over every match we've run.
+ *
+ * While a plan runs, each command that finishes records how long it took, and
+ * the motion profile records how long each segment took and how far off the
+ * path it got. Those are written to the end of a file on the RIO when the
+ * robot is disabled, so the auto loop never writes to flash.
+ *
+ * At startup the file is read back into a RunningSummary per plan name and
+ * key, so the estimates get better with every match. The file is only ever
+ * appended to. Lines that don't parse, like one cut off by a power loss, are
+ * skipped.
+ *
+ * <pre>
+ * line: millis when written, plan name, key, value
+ * keys: command.[command class].seconds
+ *       segment.[n].seconds
+ *       segment.[n].errorInches
+ * </pre>
+ *
+ * When the game message is late, auto starts driving before we know the
+ * plan, so the plan's run starts part way through the drive, and its path
+ * is driven as two trajectories. Those runs are kept under keys starting
+ * with SPECULATIVE_PREFIX, so they don't pull down the times of whole runs.
+ *
+ * Commands report through getInstance(), which does nothing until a loaded
+ * database is set with setInstance().
+ *
+ * @author dcowden
+ *
+ */
+public class AutoTimingDatabase {
+
+	public static final String FILE = "/home/lvuser/auto_timing.csv";
+	public static final String SEPARATOR = ",";
+	// fewer samples than this, and we still use the prediction
+	public static final int MIN_SAMPLES = 3;
+	public static final double SECONDS_BUCKET = 0.05;
+	public static final double INCHES_BUCKET = 0.25;
+	public static final String SPECULATIVE_PREFIX = "speculative.";
+
+	private static AutoTimingDatabase instance = new AutoTimingDatabase(null);
+
+	private File file;
+	private Map<String, Map<String, RunningSummary>> summaries = new HashMap<>();
+	private String currentPlan;
+	private String keyPrefix = "";
+	private List<String> unsaved = new ArrayList<>();
+	private long loadedLines = 0;
+	private long skippedLines = 0;
+
+	public static AutoTimingDatabase getInstance() {
+		return instance;
+	}
+
+	public static void setInstance(AutoTimingDatabase database) {
+		instance = database;
+	}
+
+	/**
+	 * @param file
+	 *            where runs are saved, or null to keep them in memory only
+	 */
+	public AutoTimingDatabase(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Reads every run saved so far. A missing file is an empty database
+	 */
+	public static AutoTimingDatabase load(File file) throws IOException {
+		AutoTimingDatabase database = new AutoTimingDatabase(file);
+		if (file.exists()) {
+			try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					database.addLine(line);
+				}
+			}
+		}
+		return database;
+	}
+
+	public static String commandKey(String commandName) {
+		return "command." + commandName + ".seconds";
+	}
+
+	public static String segmentSecondsKey(int segment) {
+		return "segment." + segment + ".seconds";
+	}
+
+	public static String segmentErrorKey(int segment) {
+		return "segment." + segment + ".errorInches";
+	}
+
+	public static String speculativeKey(String key) {
+		return SPECULATIVE_PREFIX + key;
+	}
+
+	/**
+	 * Records are kept for this plan until endRun()
+	 */
+	public void startRun(String planName) {
+		startRun(planName, false);
+	}
+
+	/**
+	 * @param speculative
+	 *            true if the run started after auto was already driving, so
+	 *            it goes under speculative keys
+	 */
+	public void startRun(String planName, boolean speculative) {
+		this.currentPlan = planName;
+		this.keyPrefix = speculative ? SPECULATIVE_PREFIX : "";
+	}
+
+	public boolean isRunning() {
+		return currentPlan != null;
+	}
+
+	public void recordCommand(String commandName, double seconds) {
+		record(commandKey(commandName), seconds);
+	}
+
+	/**
+	 * Matches MotionProfileDriveController.SegmentListener
+	 */
+	public void recordSegment(int segment, double seconds, double maxErrorInches) {
+		record(segmentSecondsKey(segment), seconds);
+		record(segmentErrorKey(segment), maxErrorInches);
+	}
+
+	private void record(String key, double value) {
+		if (currentPlan == null) {
+			return;
+		}
+		String fullKey = keyPrefix + key;
+		summary(currentPlan, fullKey).add(value);
+		unsaved.add(System.currentTimeMillis() + SEPARATOR + currentPlan + SEPARATOR + fullKey + SEPARATOR + value);
+	}
+
+	/**
+	 * Stops recording, and appends what this run recorded to the file.
+	 *
+	 * @return false if the file couldn't be written. The run is still in the
+	 *         summaries
+	 */
+	public boolean endRun() {
+		currentPlan = null;
+		if (file == null || unsaved.isEmpty()) {
+			unsaved.clear();
+			return true;
+		}
+		try {
+			File dir = file.getAbsoluteFile().getParentFile();
+			if (dir != null && !dir.exists()) {
+				dir.mkdirs();
+			}
+			try (Writer writer = new FileWriter(file, true)) {
+				for (String line : unsaved) {
+					writer.write(line);
+					writer.write('\n');
+				}
+			}
+			return true;
+		} catch (IOException ex) {
+			return false;
+		} finally {
+			unsaved.clear();
+		}
+	}
+
+	private void addLine(String line) {
+		String[] fields = line.split(SEPARATOR);
+		if (fields.length != 4) {
+			skippedLines++;
+			return;
+		}
+		try {
+			summary(fields[1], fields[2]).add(Double.parseDouble(fields[3]));
+			loadedLines++;
+		} catch (NumberFormatException ex) {
+			skippedLines++;
+		}
+	}
+
+	private RunningSummary summary(String planName, String key) {
+		Map<String, RunningSummary> plan = summaries.get(planName);
+		if (plan == null) {
+			plan = new HashMap<>();
+			summaries.put(planName, plan);
+		}
+		RunningSummary summary = plan.get(key);
+		if (summary == null) {
+			summary = new RunningSummary(key.endsWith(".errorInches") ? INCHES_BUCKET : SECONDS_BUCKET);
+			plan.put(key, summary);
+		}
+		return summary;
+	}
+
+	/**
+	 * @return the summary, or null if this plan never recorded the key
+	 */
+	public RunningSummary getSummary(String planName, String key) {
+		Map<String, RunningSummary> plan = summaries.get(planName);
+		return plan == null ? null : plan.get(key);
+	}
+
+	/**
+	 * The mean, if there are at least MIN_SAMPLES of it, or else the fallback
+	 */
+	public double getMean(String planName, String key, double fallback) {
+		RunningSummary summary = getSummary(planName, key);
+		if (summary == null || summary.getCount() < MIN_SAMPLES) {
+			return fallback;
+		}
+		return summary.getMean();
+	}
+
+	public Map<String, RunningSummary> getSummaries(String planName) {
+		Map<String, RunningSummary> plan = summaries.get(planName);
+		return plan == null ? Collections.<String, RunningSummary> emptyMap() : Collections.unmodifiableMap(plan);
+	}
+
+	public int getPlanCount() {
+		return summaries.size();
+	}
+
+	public long getLoadedLines() {
+		return loadedLines;
+	}
+
+	public long getSkippedLines() {
+		return skippedLines;
+	}
+}
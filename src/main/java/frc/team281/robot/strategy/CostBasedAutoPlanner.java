@@ -0,0 +1,80 @@
+package frc.team281.robot.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import frc.team281.robot.FieldMessage;
+
+/**
+ * Picks the auto plan worth the most points, instead of following the
+ * selector buttons.
+ *
+ * The candidates are the plans AutoPlanComputer would pick for this field
+ * with any setting of the selector buttons, so they all make sense for where
+ * the switch and scale are. Each is scored by AutoPlanEstimator. The plan the
+ * buttons pick wins a tie, so the drive team still decides when the numbers
+ * don't.
+ *
+ * @author dcowden
+ *
+ */
+public class CostBasedAutoPlanner {
+
+    // points closer than this are a tie
+    public static final double TIE_POINTS = 0.01;
+
+    private AutoPlanComputer computer;
+    private AutoPlanEstimator estimator;
+
+    public CostBasedAutoPlanner(AutoPlanComputer computer, AutoPlanEstimator estimator) {
+        this.computer = computer;
+        this.estimator = estimator;
+    }
+
+    public List<AutoPlan> getCandidates(FieldMessage fm) {
+        List<AutoPlan> candidates = new ArrayList<>();
+        for (int selectors = 0; selectors < 16; selectors++) {
+            AutoPlan plan = computer.computePlanFromFieldPoseSwitches(fm, (selectors & 1) != 0,
+                    (selectors & 2) != 0, (selectors & 4) != 0, (selectors & 8) != 0);
+            if (!candidates.contains(plan)) {
+                candidates.add(plan);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * The candidate worth the most points. preferred wins a tie
+     */
+    public AutoPlan choose(FieldMessage fm, AutoPlan preferred) {
+        AutoPlan best = preferred;
+        double bestPoints = estimator.getExpectedPoints(preferred);
+        for (AutoPlan plan : getCandidates(fm)) {
+            double points = estimator.getExpectedPoints(plan);
+            if (points > bestPoints + TIE_POINTS) {
+                best = plan;
+                bestPoints = points;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Predicted timings of each candidate, for the dashboard
+     */
+    public String describe(FieldMessage fm) {
+        StringBuilder sb = new StringBuilder();
+        for (AutoPlan plan : getCandidates(fm)) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(String.format("%s %.1fs %.1fpts", plan.getName(), estimator.getScoreSeconds(plan),
+                    estimator.getExpectedPoints(plan)));
+        }
+        return sb.toString();
+    }
+
+    public AutoPlanEstimator getEstimator() {
+        return estimator;
+    }
+}
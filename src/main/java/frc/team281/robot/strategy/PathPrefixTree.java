@@ -0,0 +1,175 @@
+package frc.team281.robot.strategy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import frc.team281.robot.subsystems.Position;
+
+/**
+ * All of the auto paths in one tree, so we can see how far the robot can drive
+ * before it has to know which plan it's running.
+ *
+ * Each edge is a move, and each node knows which plans drive through it. Moves
+ * in the same direction share the shorter part: forward 168 and forward 224
+ * become forward 168, then forward 56 for the longer one. So paths like A, B,
+ * E and F, which all start with a long forward move, share that move up to
+ * where the shortest of them turns.
+ *
+ * Paths must be relative positions, and should already be mirrored.
+ *
+ * @author dcowden
+ *
+ */
+public class PathPrefixTree {
+
+    // moves closer than this, in inches, are the same move
+    public static final double TOLERANCE = 1e-6;
+
+    private static class Node {
+        private Position move;
+        private List<Node> children = new ArrayList<>();
+        private Set<AutoPlan> plans = Collections.newSetFromMap(new IdentityHashMap<AutoPlan, Boolean>());
+
+        private Node(Position move) {
+            this.move = move;
+        }
+    }
+
+    private Node root = new Node(null);
+
+    public void add(AutoPlan plan, List<Position> path) {
+        Node node = root;
+        node.plans.add(plan);
+        for (Position p : path) {
+            if (!p.isRelative()) {
+                throw new IllegalArgumentException("Only relative paths can be shared");
+            }
+            Position move = length(p) < TOLERANCE ? null : p;
+            while (move != null) {
+                Node next = null;
+                Position rest = null;
+                for (Node child : node.children) {
+                    if (sameDirection(child.move, move)) {
+                        double childLength = length(child.move);
+                        double moveLength = length(move);
+                        if (moveLength < childLength - TOLERANCE) {
+                            next = split(node, child, moveLength);
+                        } else {
+                            next = child;
+                            if (moveLength > childLength + TOLERANCE) {
+                                rest = scale(move, (moveLength - childLength) / moveLength);
+                            }
+                        }
+                        break;
+                    }
+                }
+                if (next == null) {
+                    next = new Node(move);
+                    node.children.add(next);
+                }
+                next.plans.add(plan);
+                node = next;
+                move = rest;
+            }
+        }
+    }
+
+    /**
+     * The moves every one of these plans starts with. Moves in the same
+     * direction are joined, so a long forward move comes back as one position.
+     */
+    public List<Position> getSharedPrefix(Collection<AutoPlan> plans) {
+        List<Position> prefix = new ArrayList<>();
+        Node node = root;
+        while (node != null) {
+            Node next = null;
+            for (Node child : node.children) {
+                if (child.plans.containsAll(plans)) {
+                    next = child;
+                    break;
+                }
+            }
+            if (next != null) {
+                int last = prefix.size() - 1;
+                if (last >= 0 && sameDirection(prefix.get(last), next.move)) {
+                    Position joined = prefix.get(last);
+                    prefix.set(last, new Position(joined.getLeftInches() + next.move.getLeftInches(),
+                            joined.getRightInches() + next.move.getRightInches()));
+                } else {
+                    prefix.add(next.move);
+                }
+            }
+            node = next;
+        }
+        return prefix;
+    }
+
+    /**
+     * What's left of a path after driving the prefix, or null if the path
+     * doesn't start with the prefix
+     */
+    public static List<Position> remainderAfter(List<Position> prefix, List<Position> path) {
+        LinkedList<Position> rest = new LinkedList<>();
+        for (Position p : path) {
+            if (length(p) >= TOLERANCE) {
+                rest.add(p);
+            }
+        }
+        for (Position p : prefix) {
+            Position needed = length(p) < TOLERANCE ? null : p;
+            while (needed != null) {
+                if (rest.isEmpty() || !sameDirection(rest.getFirst(), needed)) {
+                    return null;
+                }
+                Position first = rest.removeFirst();
+                double firstLength = length(first);
+                double neededLength = length(needed);
+                if (firstLength > neededLength + TOLERANCE) {
+                    rest.addFirst(scale(first, (firstLength - neededLength) / firstLength));
+                    needed = null;
+                } else if (neededLength > firstLength + TOLERANCE) {
+                    needed = scale(needed, (neededLength - firstLength) / neededLength);
+                } else {
+                    needed = null;
+                }
+            }
+        }
+        return new ArrayList<>(rest);
+    }
+
+    /**
+     * Puts a node partway along child, so a move of length can end there
+     */
+    private static Node split(Node parent, Node child, double length) {
+        double childLength = length(child.move);
+        Node middle = new Node(scale(child.move, length / childLength));
+        middle.plans.addAll(child.plans);
+        middle.children.add(child);
+        child.move = scale(child.move, (childLength - length) / childLength);
+        parent.children.set(parent.children.indexOf(child), middle);
+        return middle;
+    }
+
+    /**
+     * Same as DriveTrajectory, the faster side
+     */
+    private static double length(Position p) {
+        return Math.max(Math.abs(p.getLeftInches()), Math.abs(p.getRightInches()));
+    }
+
+    private static boolean sameDirection(Position a, Position b) {
+        double aLength = length(a);
+        double bLength = length(b);
+        return Math.abs(a.getLeftInches() / aLength - b.getLeftInches() / bLength) < TOLERANCE
+                && Math.abs(a.getRightInches() / aLength - b.getRightInches() / bLength) < TOLERANCE;
+    }
+
+    private static Position scale(Position p, double fraction) {
+        return new Position(p.getLeftInches() * fraction, p.getRightInches() * fraction);
+    }
+}
@@ -0,0 +1,89 @@
+package frc.team281.robot.strategy;
+
+/**
+ * The mean, variance and percentiles of a stream of values, without keeping
+ * the values.
+ *
+ * The mean and variance are kept with Welford's method, so they are exact.
+ * Percentiles come from fixed size buckets, bucketWidth wide, and are reported
+ * as the top of the bucket they fall in, so they are never optimistic. Values
+ * past the last bucket go in an overflow bucket, though the max is still
+ * exact.
+ *
+ * @author dcowden
+ *
+ */
+public class RunningSummary {
+
+	public static final int BUCKET_COUNT = 200;
+
+	private final double bucketWidth;
+	// the last bucket is overflow
+	private final long[] buckets = new long[BUCKET_COUNT + 1];
+	private long count = 0;
+	private double mean = 0.0;
+	private double sumOfSquares = 0.0;
+	private double max = 0.0;
+
+	public RunningSummary(double bucketWidth) {
+		this.bucketWidth = bucketWidth;
+	}
+
+	public void add(double value) {
+		count++;
+		double delta = value - mean;
+		mean += delta / count;
+		sumOfSquares += delta * (value - mean);
+		if (count == 1 || value > max) {
+			max = value;
+		}
+		int bucket = value >= bucketWidth * BUCKET_COUNT ? BUCKET_COUNT : (int) (Math.max(0.0, value) / bucketWidth);
+		buckets[bucket]++;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * The sample variance, or zero with fewer than two values
+	 */
+	public double getVariance() {
+		return count < 2 ? 0.0 : sumOfSquares / (count - 1);
+	}
+
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * @param percentile
+	 *            between 0 and 100
+	 */
+	public double getPercentile(double percentile) {
+		if (count == 0) {
+			return 0.0;
+		}
+		long target = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += buckets[i];
+			if (seen >= target) {
+				return Math.min((i + 1) * bucketWidth, max);
+			}
+		}
+		return max;
+	}
+
+	public double getP95() {
+		return getPercentile(95.0);
+	}
+}
@@ -3,6 +3,8 @@ package frc.team281.robot.subsystems;
 import edu.wpi.first.wpilibj.command.Subsystem;
 import frc.team281.robot.logger.DataLogger;
 import frc.team281.robot.logger.DataLoggerFactory;
+import frc.team281.robot.logger.LoopProfiler;
+import frc.team281.robot.logger.TimingHistogram;
 
 /**
  * Base class for all subsystems. Each subsystem should provide 3 classes based
@@ -13,20 +15,40 @@ import frc.team281.robot.logger.DataLoggerFactory;
  * extend BaseYourSubsystem, and should be in src/test. It will be used for
  * tests, but not distributed to the robot.
  * 
+ * periodic() is timed by the LoopProfiler, so subsystems put their periodic
+ * work in onPeriodic().
+ * 
  * @author dcowden
  *
  */
 public abstract class BaseSubsystem extends Subsystem {
 
 	protected DataLogger dataLogger;
+	private TimingHistogram periodicTime;
 
 	public BaseSubsystem() {
 		this.dataLogger = DataLoggerFactory.getLoggerFactory().createDataLogger(this.getName());
+		this.periodicTime = LoopProfiler.getInstance().getHistogram(this.getName() + ".periodic");
 		dataLogger.log(this);
 	}
 
 	public abstract void initialize();
 
+	@Override
+	public final void periodic() {
+		LoopProfiler profiler = LoopProfiler.getInstance();
+		long start = profiler.start();
+		onPeriodic();
+		profiler.stop(periodicTime, start);
+	}
+
+	/**
+	 * Called once per scheduler run. Override this instead of periodic()
+	 */
+	protected void onPeriodic() {
+
+	}
+
 	@Override
 	protected void initDefaultCommand() {
 
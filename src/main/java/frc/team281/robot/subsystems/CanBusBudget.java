@@ -0,0 +1,123 @@
+package frc.team281.robot.subsystems;
+
+import edu.wpi.first.wpilibj.RobotController;
+import frc.team281.robot.logger.DataLogger;
+import frc.team281.robot.subsystems.TalonSettings.FramePeriods;
+
+/**
+ * Estimates how busy the CAN bus is from the frame periods each talon was
+ * configured with, and logs that next to the utilization the roborio
+ * measures. If the measured number is well above the estimate, something is
+ * sending that we don't know about. If the estimate is close to 100%, the
+ * StatusFrameProfiles need to be slowed down.
+ *
+ * The estimate is frames per second times a typical frame length, on a
+ * 1Mbit bus.
+ *
+ * @author dcowden
+ *
+ */
+public class CanBusBudget {
+
+	public static final double CAN_BITS_PER_SECOND = 1000000.0;
+
+	// 29 bit id, 8 data bytes, crc, framing and typical bit stuffing
+	public static final double BITS_PER_FRAME = 150.0;
+
+	// the PDP and the PCM, which we don't configure
+	public static final double OTHER_DEVICES_FRAMES_PER_SECOND = 170.0;
+
+	public static final int PUBLISH_EVERY_LOOPS = 50;
+	public static final String LOGGER_NAME = "CanBus";
+	public static final String ESTIMATED_FRAMES_KEY = "estimatedFramesPerSecond";
+	public static final String ESTIMATED_UTILIZATION_KEY = "estimatedUtilization";
+	public static final String MEASURED_UTILIZATION_KEY = "measuredUtilization";
+
+	private static CanBusBudget instance = new CanBusBudget();
+
+	private TalonConfigCache cache;
+	private int loopsSincePublish = 0;
+	private int estimatedFramesKey = -1;
+	private int estimatedUtilizationKey = -1;
+	private int measuredUtilizationKey = -1;
+
+	public static CanBusBudget getInstance() {
+		return instance;
+	}
+
+	public static void setInstance(CanBusBudget budget) {
+		instance = budget;
+	}
+
+	public CanBusBudget() {
+		this(TalonConfigCache.getInstance());
+	}
+
+	public CanBusBudget(TalonConfigCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * @return frames per second one talon sends and receives with these
+	 *         periods
+	 */
+	public static double framesPerSecond(FramePeriods p) {
+		return perSecond(p.generalMilliseconds) + perSecond(p.feedbackMilliseconds)
+				+ perSecond(p.quadratureMilliseconds) + perSecond(p.analogTempVbatMilliseconds)
+				+ perSecond(p.pulseWidthMilliseconds) + perSecond(p.motionMagicMilliseconds)
+				+ perSecond(p.pidMilliseconds) + perSecond(p.controlMilliseconds);
+	}
+
+	private static double perSecond(int periodMillis) {
+		return periodMillis > 0 ? 1000.0 / periodMillis : 0.0;
+	}
+
+	/**
+	 * @return fraction of the bus the frames would use, 1.0 being full
+	 */
+	public static double utilization(double framesPerSecond) {
+		return framesPerSecond * BITS_PER_FRAME / CAN_BITS_PER_SECOND;
+	}
+
+	/**
+	 * @return estimated frames per second on the bus, using the settings last
+	 *         applied to each talon
+	 */
+	public double estimateFramesPerSecond() {
+		double total = OTHER_DEVICES_FRAMES_PER_SECOND;
+		for (TalonSettings s : cache.getAppliedSettings()) {
+			total += framesPerSecond(s.framePeriods);
+		}
+		return total;
+	}
+
+	public double estimateUtilization() {
+		return utilization(estimateFramesPerSecond());
+	}
+
+	/**
+	 * @return fraction of the bus in use, as measured by the roborio
+	 */
+	protected double readMeasuredUtilization() {
+		return RobotController.getCANStatus().percentBusUtilization;
+	}
+
+	/**
+	 * Call every loop. Logs the estimate and the measurement once a second.
+	 */
+	public void periodic(DataLogger dataLogger) {
+		if (++loopsSincePublish < PUBLISH_EVERY_LOOPS) {
+			return;
+		}
+		loopsSincePublish = 0;
+		if (estimatedFramesKey < 0) {
+			estimatedFramesKey = dataLogger.registerKey(ESTIMATED_FRAMES_KEY);
+			estimatedUtilizationKey = dataLogger.registerKey(ESTIMATED_UTILIZATION_KEY);
+			measuredUtilizationKey = dataLogger.registerKey(MEASURED_UTILIZATION_KEY);
+		}
+		double frames = estimateFramesPerSecond();
+		dataLogger.log(estimatedFramesKey, frames);
+		dataLogger.log(estimatedUtilizationKey, utilization(frames));
+		dataLogger.log(measuredUtilizationKey, readMeasuredUtilization());
+	}
+}
@@ -28,9 +28,17 @@ public class GrabberSubsystem extends BaseSubsystem {
     private boolean isLoading = false;
     private boolean isShooting = false;
 
+    private int isCubeLoadedKey;
+    private int leftMotorModeKey;
+    private int rightMotorModeKey;
+    private int suppressedOutputsKey;
     
     public GrabberSubsystem() {
         super();
+        isCubeLoadedKey = dataLogger.registerKey("IsCubeLoaded");
+        leftMotorModeKey = dataLogger.registerKey("LeftMotorMode");
+        rightMotorModeKey = dataLogger.registerKey("RightMotorMode");
+        suppressedOutputsKey = dataLogger.registerKey("SuppressedOutputs");
     }
 
     @Override
@@ -65,11 +73,17 @@ public class GrabberSubsystem extends BaseSubsystem {
                 .build();        
         
         
+        // nothing is read from these talons, so they don't need to talk much
+        StatusFrameProfile.lifter().applyTo(leftMotorSettings);
+        StatusFrameProfile.lifter().applyTo(rightMotorSettings);
+
         leftMotorController = new TalonSpeedController(leftMotor, leftMotorSettings);
         rightMotorController = new TalonSpeedController(rightMotor, rightMotorSettings);
         
-        leftMotorController.configure();
-        rightMotorController.configure();
+        // queued, if the robot is configuring everything at once
+        TalonStartupConfigurator startup = TalonStartupConfigurator.getInstance();
+        startup.configure("GrabberLeft", leftMotorController);
+        startup.configure("GrabberRight", rightMotorController);
         
         //leftMotorController.getTalon().set(ControlMode.PercentOutput, 0.0);
         //rightMotorController.getTalon().set(ControlMode.PercentOutput, 0.0);
@@ -101,10 +115,10 @@ public class GrabberSubsystem extends BaseSubsystem {
     }
     
     @Override
-    public void periodic() {
-        dataLogger.log("IsCubeLoaded",isCubeTouchingSwitch());
-        dataLogger.log("LeftMotorMode", leftMotorController.getTalon().getControlMode()+"");
-        dataLogger.log("RightMotorMode", rightMotorController.getTalon().getControlMode()+"");
+    protected void onPeriodic() {
+        dataLogger.log(isCubeLoadedKey,isCubeTouchingSwitch());
+        dataLogger.log(leftMotorModeKey, leftMotorController.getTalon().getControlMode().name());
+        dataLogger.log(rightMotorModeKey, rightMotorController.getTalon().getControlMode().name());
         
         if (isShooting) {
             startShooting();
@@ -116,6 +130,8 @@ public class GrabberSubsystem extends BaseSubsystem {
             	startLoading();
             }
         }
+        dataLogger.log(suppressedOutputsKey,
+                leftMotorController.getSuppressedCount() + rightMotorController.getSuppressedCount());
     }
 
     public void stopMotors() {
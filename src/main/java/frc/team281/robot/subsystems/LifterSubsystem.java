@@ -33,17 +33,55 @@ public class LifterSubsystem extends BaseSubsystem {
     private double upMotorCurrentBaseline;
     private boolean truelyAtTop = false; 
     
+    private int upperLimitKey;
+    private int upperLimitSwitchKey;
+    private int lowerLimitKey;
+    private int encoderCountKey;
+    private int motorOneCurrentKey;
+    private int motorTwoCurrentKey;
+    private int motorOutputKey;
+    private int suppressedOutputsKey;
+    
+    // keys that match replay needs
+    public static final String UPPER_LIMIT_SWITCH_KEY = "UpperLimitSwitch";
+    public static final String LOWER_LIMIT_KEY = "LowerLimit";
+    public static final String ENCODER_COUNT_KEY = "EncoderCount:";
+    public static final String MOTOR_ONE_CURRENT_KEY = "MotorOneCurrent";
+    public static final String MOTOR_TWO_CURRENT_KEY = "MotorTwoCurrent";
+    public static final String MOTOR_OUTPUT_KEY = "MotorOutput";
+    
     public LifterSubsystem() {
         super();
+        upperLimitKey = dataLogger.registerKey("UpperLimit");
+        upperLimitSwitchKey = dataLogger.registerKey(UPPER_LIMIT_SWITCH_KEY);
+        lowerLimitKey = dataLogger.registerKey(LOWER_LIMIT_KEY);
+        encoderCountKey = dataLogger.registerKey(ENCODER_COUNT_KEY);
+        motorOneCurrentKey = dataLogger.registerKey(MOTOR_ONE_CURRENT_KEY);
+        motorTwoCurrentKey = dataLogger.registerKey(MOTOR_TWO_CURRENT_KEY);
+        motorOutputKey = dataLogger.registerKey(MOTOR_OUTPUT_KEY);
+        suppressedOutputsKey = dataLogger.registerKey("SuppressedOutputs");
     }
 
     @Override
     public void initialize() {
-        motorOne = new WPI_TalonSRX(RobotMap.CAN.Lifter.MOTOR_ONE);
-        motorTwo = new WPI_TalonSRX(RobotMap.CAN.Lifter.MOTOR_TWO);
-        bottomLimitSwitch = new DigitalInput(RobotMap.DigitalIO.LIFTER_AT_BOTTOM);
-        topLimitSwitch = new DigitalInput(RobotMap.DigitalIO.LIFTER_AT_TOP);
-        encoder = new SettableEncoder( new Encoder(RobotMap.DigitalIO.LIFTER_ENCODER_A, RobotMap.DigitalIO.LIFTER_ENCODER_B) );
+        initialize(new WPI_TalonSRX(RobotMap.CAN.Lifter.MOTOR_ONE),
+                new WPI_TalonSRX(RobotMap.CAN.Lifter.MOTOR_TWO),
+                new DigitalInput(RobotMap.DigitalIO.LIFTER_AT_BOTTOM),
+                new DigitalInput(RobotMap.DigitalIO.LIFTER_AT_TOP),
+                new SettableEncoder( new Encoder(RobotMap.DigitalIO.LIFTER_ENCODER_A, RobotMap.DigitalIO.LIFTER_ENCODER_B) ));
+    }
+
+    /**
+     * Initializes with the given hardware. The robot uses initialize(), this
+     * is here so that the lifter logic can run against fake or replayed inputs.
+     */
+    protected void initialize(WPI_TalonSRX motorOne, WPI_TalonSRX motorTwo, DigitalInput bottomLimitSwitch,
+            DigitalInput topLimitSwitch, SettableEncoder encoder) {
+        this.motorOne = motorOne;
+        this.motorTwo = motorTwo;
+        this.bottomLimitSwitch = bottomLimitSwitch;
+        this.topLimitSwitch = topLimitSwitch;
+        this.encoder = encoder;
         encoder.reset();
         TalonSettings motorSettings = TalonSettingsBuilder.defaults()
                 .withCurrentLimits(20, 15, 200)
@@ -53,14 +91,18 @@ public class LifterSubsystem extends BaseSubsystem {
                 .noMotorStartupRamping()
                 .useSpeedControl()
                 .build();
+        // the lifter encoder is on the roborio, not the talons
+        StatusFrameProfile.lifter().applyTo(motorSettings);
      
         
         //TalonSettings motorTwoSettings = TalonSettingsBuilder.inverted(motorOneSettings);
         motorOneController = new TalonSpeedController(motorOne, motorSettings);
         motorTwoController = new TalonSpeedController(motorTwo, motorSettings);
         
-        motorOneController.configure();
-        motorTwoController.configure();
+        // queued, if the robot is configuring everything at once
+        TalonStartupConfigurator startup = TalonStartupConfigurator.getInstance();
+        startup.configure("LifterMotorOne", motorOneController);
+        startup.configure("LifterMotorTwo", motorTwoController);
     }
 
     public void motorsUp(double speedPercent) {
@@ -98,14 +140,16 @@ public class LifterSubsystem extends BaseSubsystem {
     }
 
     @Override
-    public void periodic() {
+    protected void onPeriodic() {
     	int currentPosition = encoder.get();
-        dataLogger.log("UpperLimit",isLifterAtTop());
-        dataLogger.log("UpperLimitSwitch",isTopLimitSwitchPressed());
-        dataLogger.log("LowerLimit",isLifterAtBottom());
+        dataLogger.log(upperLimitKey,isLifterAtTop());
+        dataLogger.log(upperLimitSwitchKey,isTopLimitSwitchPressed());
+        dataLogger.log(lowerLimitKey,isLifterAtBottom());
         dataLogger.log("lifter Position 1: ",motorOneController.getActualPosition());
         dataLogger.log("lifter Position 2: ",motorTwoController.getActualPosition());
-        dataLogger.log("EncoderCount:" ,currentPosition);
+        dataLogger.log(encoderCountKey ,currentPosition);
+        dataLogger.log(motorOneCurrentKey, motorOne.getOutputCurrent());
+        dataLogger.log(motorTwoCurrentKey, motorTwo.getOutputCurrent());
         
         if (movingUp && ( ! isTopLimitSwitchPressed() )) {
         	    upMotorCurrentBaseline = getAverageMotorCurrent();
@@ -128,6 +172,10 @@ public class LifterSubsystem extends BaseSubsystem {
         		motorsUp(SLOW_SPEED_DOWN_PERCENT);
         	}
         }
+        // after the logic above, so this is what we commanded this loop
+        dataLogger.log(motorOutputKey, motorOneController.getDesiredSpeed());
+        dataLogger.log(suppressedOutputsKey,
+                motorOneController.getSuppressedCount() + motorTwoController.getSuppressedCount());
     }
     
     public boolean isLifterAtBottom() {
@@ -22,6 +22,14 @@ public class PositionBuffer implements PositionSource {
 		
 	}
 
+	@Override
+	public Position getFollowingPosition() {
+		if (targetList.size() < 2) {
+			return null;
+		}
+		return targetList.get(1);
+	}
+
 	@Override
 	public boolean hasNextPosition() {
 		return ! targetList.isEmpty();
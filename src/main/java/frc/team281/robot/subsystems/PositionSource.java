@@ -2,6 +2,10 @@ package frc.team281.robot.subsystems;
 
 public interface PositionSource {
 	public Position getCurrentPosition();
+	/**
+	 * The position after the current one, or null if there isn't one yet
+	 */
+	public Position getFollowingPosition();
 	public boolean hasNextPosition();
 	public void next();
 }
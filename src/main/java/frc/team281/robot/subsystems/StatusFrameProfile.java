@@ -0,0 +1,140 @@
+package frc.team281.robot.subsystems;
+
+import frc.team281.robot.subsystems.TalonSettings.FramePeriods;
+
+/**
+ * Named sets of status frame periods, one for each kind of job a talon does.
+ * Every talon sends all of its status frames whether anyone reads them or
+ * not, so slowing down the ones we don't use is the easiest way to keep the
+ * CAN bus from filling up when every subsystem is running.
+ *
+ * drive-position: motion magic needs fast feedback and closed loop frames
+ * drive-teleop: open loop, only the encoder is read, at the default rate
+ * lifter: position is read, but nothing else
+ * idle: as slow as the talon allows. for talons that aren't being used
+ *
+ * @author dcowden
+ *
+ */
+public class StatusFrameProfile {
+
+	public static final String DRIVE_POSITION = "drive-position";
+	public static final String DRIVE_TELEOP = "drive-teleop";
+	public static final String LIFTER = "lifter";
+	public static final String IDLE = "idle";
+
+	// the slowest period the talon accepts
+	public static final int SLOWEST_MILLIS = 255;
+
+	private final String name;
+	private final FramePeriods periods;
+
+	public static StatusFrameProfile drivePosition() {
+		FramePeriods p = new FramePeriods();
+		p.generalMilliseconds = 10;
+		p.feedbackMilliseconds = 10;
+		p.quadratureMilliseconds = SLOWEST_MILLIS;
+		p.analogTempVbatMilliseconds = SLOWEST_MILLIS;
+		p.pulseWidthMilliseconds = SLOWEST_MILLIS;
+		p.motionMagicMilliseconds = 10;
+		p.pidMilliseconds = 10;
+		p.controlMilliseconds = 10;
+		return new StatusFrameProfile(DRIVE_POSITION, p);
+	}
+
+	public static StatusFrameProfile driveTeleop() {
+		FramePeriods p = new FramePeriods();
+		p.generalMilliseconds = 10;
+		p.feedbackMilliseconds = 20;
+		p.quadratureMilliseconds = SLOWEST_MILLIS;
+		p.analogTempVbatMilliseconds = SLOWEST_MILLIS;
+		p.pulseWidthMilliseconds = SLOWEST_MILLIS;
+		p.motionMagicMilliseconds = SLOWEST_MILLIS;
+		p.pidMilliseconds = SLOWEST_MILLIS;
+		p.controlMilliseconds = 20;
+		return new StatusFrameProfile(DRIVE_TELEOP, p);
+	}
+
+	public static StatusFrameProfile lifter() {
+		FramePeriods p = new FramePeriods();
+		p.generalMilliseconds = 20;
+		p.feedbackMilliseconds = 20;
+		p.quadratureMilliseconds = SLOWEST_MILLIS;
+		p.analogTempVbatMilliseconds = SLOWEST_MILLIS;
+		p.pulseWidthMilliseconds = SLOWEST_MILLIS;
+		p.motionMagicMilliseconds = SLOWEST_MILLIS;
+		p.pidMilliseconds = SLOWEST_MILLIS;
+		p.controlMilliseconds = 20;
+		return new StatusFrameProfile(LIFTER, p);
+	}
+
+	public static StatusFrameProfile idle() {
+		FramePeriods p = new FramePeriods();
+		p.generalMilliseconds = 100;
+		p.feedbackMilliseconds = 100;
+		p.quadratureMilliseconds = SLOWEST_MILLIS;
+		p.analogTempVbatMilliseconds = SLOWEST_MILLIS;
+		p.pulseWidthMilliseconds = SLOWEST_MILLIS;
+		p.motionMagicMilliseconds = SLOWEST_MILLIS;
+		p.pidMilliseconds = SLOWEST_MILLIS;
+		p.controlMilliseconds = 100;
+		return new StatusFrameProfile(IDLE, p);
+	}
+
+	public static StatusFrameProfile named(String name) {
+		switch (name) {
+		case DRIVE_POSITION:
+			return drivePosition();
+		case DRIVE_TELEOP:
+			return driveTeleop();
+		case LIFTER:
+			return lifter();
+		case IDLE:
+			return idle();
+		default:
+			throw new IllegalArgumentException("No status frame profile named '" + name + "'");
+		}
+	}
+
+	private StatusFrameProfile(String name, FramePeriods periods) {
+		this.name = name;
+		this.periods = periods;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return a copy of the periods, so the profile itself can't be changed
+	 */
+	public FramePeriods getPeriods() {
+		return copyOf(periods);
+	}
+
+	/**
+	 * Puts this profile's periods into the settings. They are sent the next
+	 * time the settings are applied to a talon.
+	 */
+	public void applyTo(TalonSettings settings) {
+		settings.framePeriods = copyOf(periods);
+	}
+
+	private static FramePeriods copyOf(FramePeriods p) {
+		FramePeriods c = new FramePeriods();
+		c.generalMilliseconds = p.generalMilliseconds;
+		c.feedbackMilliseconds = p.feedbackMilliseconds;
+		c.quadratureMilliseconds = p.quadratureMilliseconds;
+		c.analogTempVbatMilliseconds = p.analogTempVbatMilliseconds;
+		c.pulseWidthMilliseconds = p.pulseWidthMilliseconds;
+		c.motionMagicMilliseconds = p.motionMagicMilliseconds;
+		c.pidMilliseconds = p.pidMilliseconds;
+		c.controlMilliseconds = p.controlMilliseconds;
+		return c;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
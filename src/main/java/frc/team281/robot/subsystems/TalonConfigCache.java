@@ -0,0 +1,124 @@
+package frc.team281.robot.subsystems;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+
+import frc.team281.robot.controllers.MotorIO;
+import frc.team281.robot.controllers.TalonMotorIO;
+
+/**
+ * Remembers the settings last applied to each talon, so that configuring a
+ * talon again only sends the settings that changed. The drive switches
+ * between speed and position settings on the same four talons, and most of
+ * the settings are the same in both.
+ *
+ * Settings are only remembered if every call succeeded. If anything failed,
+ * the talon is forgotten, and the next configure sends everything.
+ *
+ * A talon that resets ( after a brownout, say ) comes back with factory
+ * settings. Configure checks MotorIO.hasResetOccurred() before diffing, and
+ * sends everything to a talon that has reset. invalidate() does the same for
+ * any other reason to distrust what a talon has.
+ *
+ * Talons are remembered by MotorIO.getDevice(), so a talon is the same talon
+ * no matter which MotorIO it's configured through.
+ *
+ * @author dcowden
+ *
+ */
+public class TalonConfigCache {
+
+	private static TalonConfigCache instance = new TalonConfigCache();
+
+	private Map<Object, TalonSettings> applied = new IdentityHashMap<>();
+	private TalonConfigResult totals = new TalonConfigResult();
+	private int resets = 0;
+
+	public static TalonConfigCache getInstance() {
+		return instance;
+	}
+
+	public static void setInstance(TalonConfigCache cache) {
+		instance = cache;
+	}
+
+	/**
+	 * Applies settings to a talon, sending only what's different from the
+	 * last settings applied to it. Different talons can be configured from
+	 * different threads at the same time-- the lock isn't held while talking
+	 * to the talon.
+	 */
+	public TalonConfigResult configure(TalonSRX talon, TalonSettings settings) {
+		return configure(new TalonMotorIO(talon), settings);
+	}
+
+	public TalonConfigResult configure(MotorIO motor, TalonSettings settings) {
+		Object device = motor.getDevice();
+		boolean reset = motor.hasResetOccurred();
+		TalonSettings previous;
+		synchronized (this) {
+			if (reset) {
+				applied.remove(device);
+				resets++;
+			}
+			previous = applied.get(device);
+		}
+		TalonConfigResult result = motor.configure(settings, previous);
+		// keep a copy, in case the caller changes theirs later
+		TalonSettings copy = result.isOk() ? settings.copy() : null;
+		synchronized (this) {
+			if (copy != null) {
+				applied.put(device, copy);
+			} else {
+				applied.remove(device);
+			}
+			totals.add(result);
+		}
+		return result;
+	}
+
+	public synchronized void invalidate(TalonSRX talon) {
+		applied.remove(talon);
+	}
+
+	public synchronized void invalidate(MotorIO motor) {
+		applied.remove(motor.getDevice());
+	}
+
+	public synchronized void clear() {
+		applied.clear();
+	}
+
+	public synchronized boolean isCached(TalonSRX talon) {
+		return applied.containsKey(talon);
+	}
+
+	public synchronized boolean isCached(MotorIO motor) {
+		return applied.containsKey(motor.getDevice());
+	}
+
+	/**
+	 * @return the settings each talon has now, as far as we know
+	 */
+	public synchronized List<TalonSettings> getAppliedSettings() {
+		return new ArrayList<>(applied.values());
+	}
+
+	/**
+	 * @return how many times a talon was found to have reset
+	 */
+	public synchronized int getResetCount() {
+		return resets;
+	}
+
+	/**
+	 * @return everything sent and skipped since this cache was made
+	 */
+	public synchronized TalonConfigResult getTotals() {
+		return new TalonConfigResult().add(totals);
+	}
+}
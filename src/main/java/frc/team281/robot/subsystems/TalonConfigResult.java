@@ -0,0 +1,91 @@
+package frc.team281.robot.subsystems;
+
+import com.ctre.phoenix.ErrorCode;
+
+/**
+ * What happened when settings were copied to a talon: how many calls were
+ * sent, how many were skipped because the talon already had that value, how
+ * many failed ( and the last error ), and how long it all took.
+ *
+ * Results for several talons can be added together.
+ *
+ * @author dcowden
+ *
+ */
+public class TalonConfigResult {
+
+	private int sent = 0;
+	private int skipped = 0;
+	private int failed = 0;
+	private long elapsedNanos = 0;
+	private ErrorCode lastError = ErrorCode.OK;
+
+	/**
+	 * Counts a call that was sent to the talon
+	 */
+	public void sent(ErrorCode code) {
+		sent++;
+		if (code != null && code != ErrorCode.OK) {
+			failed++;
+			lastError = code;
+		}
+	}
+
+	/**
+	 * Counts a call that doesn't report errors
+	 */
+	public void sent() {
+		sent++;
+	}
+
+	public void skipped() {
+		skipped++;
+	}
+
+	public void addElapsedNanos(long nanos) {
+		elapsedNanos += nanos;
+	}
+
+	public TalonConfigResult add(TalonConfigResult other) {
+		sent += other.sent;
+		skipped += other.skipped;
+		failed += other.failed;
+		elapsedNanos += other.elapsedNanos;
+		if (other.lastError != ErrorCode.OK) {
+			lastError = other.lastError;
+		}
+		return this;
+	}
+
+	public boolean isOk() {
+		return failed == 0;
+	}
+
+	public int getSent() {
+		return sent;
+	}
+
+	public int getSkipped() {
+		return skipped;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	/**
+	 * @return the last error a call returned, or OK
+	 */
+	public ErrorCode getLastError() {
+		return lastError;
+	}
+
+	public double getElapsedMillis() {
+		return elapsedNanos / 1e6;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("sent %d, skipped %d, failed %d in %.1f ms", sent, skipped, failed, getElapsedMillis());
+	}
+}
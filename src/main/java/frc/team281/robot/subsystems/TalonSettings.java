@@ -1,9 +1,13 @@
 package frc.team281.robot.subsystems;
 
 import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.apache.commons.lang3.SerializationUtils;
 
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motorcontrol.ControlFrame;
 import com.ctre.phoenix.motorcontrol.ControlMode;
 import com.ctre.phoenix.motorcontrol.FeedbackDevice;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
@@ -35,11 +39,16 @@ public class TalonSettings implements Serializable {
 	public static final int TIMEOUT_MS = 10;
 	public static final int PID_SLOT = 0;
 	public static final int PROFILE_SLOT = 0;
+	public static final int SLOT_COUNT = 4;
+	// config calls with this timeout are sent without waiting for the talon
+	public static final int NO_WAIT_TIMEOUT_MS = 0;
 	public static final int DEFAULT_FAST_FRAMERATE_MILLIS = 10;
 	public static final double DEFAULT_DEMAND = 0;
 
 	public MotionProfile profile = new MotionProfile();
 	public Gains gains = new Gains();
+	// gains for the other slots, by slot. PROFILE_SLOT uses gains
+	public TreeMap<Integer, Gains> extraSlotGains = new TreeMap<>();
 	public CurrentLimits currentLimits = new CurrentLimits();
 	public MotorOutputLimits outputLimits = new MotorOutputLimits();
 	public MotorRampUp rampUp = new MotorRampUp();
@@ -50,6 +59,7 @@ public class TalonSettings implements Serializable {
 	public FeedbackDevice feedbackDevice = FeedbackDevice.QuadEncoder;
 	public ControlMode controlMode = ControlMode.Disabled;
 	public double demand = DEFAULT_DEMAND;
+	public int profileSlot = PROFILE_SLOT;
 
 	public TalonSettings copy() {
 		return SerializationUtils.clone(this);
@@ -58,47 +68,218 @@ public class TalonSettings implements Serializable {
 	/**
 	 * Copies the settings to the talon.
 	 */
-	public void configureTalon(TalonSRX talon) {
+	public TalonConfigResult configureTalon(TalonSRX talon) {
+		return configureTalon(talon, null);
+	}
+
+	/**
+	 * Copies the settings to the talon, skipping the ones that are the same as
+	 * previous. Each config call blocks for up to TIMEOUT_MS, so skipping the
+	 * ones that didn't change matters when switching modes in a match. Use
+	 * TalonConfigCache to remember what each talon has.
+	 * 
+	 * The profile slot and mode are always set, since they are not settings
+	 * the talon keeps. The sensor position is only reset when everything is
+	 * sent.
+	 * 
+	 * Gains for every slot are loaded, not just the one selected. So two
+	 * settings that differ only in profileSlot, controlMode and brakeMode ( see
+	 * TalonSettingsBuilder.inMode ) switch between each other without any
+	 * calls that wait for the talon. Changed frame periods don't wait either,
+	 * except when everything is sent.
+	 * 
+	 * @param previous
+	 *            what the talon has now, or null to send everything
+	 */
+	public TalonConfigResult configureTalon(TalonSRX talon, TalonSettings previous) {
+		long start = System.nanoTime();
+		TalonConfigResult r = new TalonConfigResult();
+		boolean all = previous == null;
 
 		// hard coded stuff that's not configurable
-		talon.selectProfileSlot(PROFILE_SLOT, PID_SLOT);
-		talon.setSelectedSensorPosition(0, PID_SLOT, TIMEOUT_MS);
-		talon.configSelectedFeedbackSensor(FeedbackDevice.QuadEncoder, PID_SLOT, 0);
-
-		talon.setStatusFramePeriod(StatusFrameEnhanced.Status_13_Base_PIDF0, this.framePeriods.pidMilliseconds,
-				TIMEOUT_MS);
-		talon.setStatusFramePeriod(StatusFrameEnhanced.Status_10_MotionMagic, this.framePeriods.motionMagicMilliseconds,
-				TIMEOUT_MS);
-
-		talon.setSensorPhase(this.motorDirections.sensorPhase);
-		talon.setInverted(this.motorDirections.inverted);
-
-		talon.configNominalOutputForward(this.outputLimits.minMotorOutputForward, TIMEOUT_MS);
-		talon.configNominalOutputReverse(this.outputLimits.minMotorOutputBackward, TIMEOUT_MS);
-		talon.configPeakOutputForward(this.outputLimits.maxMotorOutputForward, TIMEOUT_MS);
-		talon.configPeakOutputReverse(this.outputLimits.maxMotorOutputBackward, TIMEOUT_MS);
-
-		talon.configPeakCurrentLimit(this.currentLimits.instantaneousPeak, TIMEOUT_MS);
-		talon.configPeakCurrentDuration(this.currentLimits.continuousPeakMilliseconds, TIMEOUT_MS);
-		talon.configContinuousCurrentLimit(this.currentLimits.continuousPeak, TIMEOUT_MS);
-		talon.enableCurrentLimit(true);
-
-		talon.setNeutralMode(this.brakeMode);
-		talon.configSelectedFeedbackSensor(this.feedbackDevice, PID_SLOT, TIMEOUT_MS);
-
-		talon.configClosedloopRamp(this.rampUp.rampUpSecondsClosedLoop, TIMEOUT_MS);
-		talon.configOpenloopRamp(this.rampUp.rampUpSecondsOpenLoop, TIMEOUT_MS);
-		talon.configNeutralDeadband(this.rampUp.neutralDeadband, TIMEOUT_MS);
-
-		talon.config_kF(PID_SLOT, this.gains.f, TIMEOUT_MS);
-		talon.config_kP(PID_SLOT, this.gains.p, TIMEOUT_MS);
-		talon.config_kI(PID_SLOT, this.gains.i, TIMEOUT_MS);
-		talon.config_kD(PID_SLOT, this.gains.d, TIMEOUT_MS);
-
-		talon.configMotionCruiseVelocity(this.profile.cruiseVelocityEncoderClicksPerSecond, TIMEOUT_MS);
-		talon.configMotionAcceleration(this.profile.accelerationEncoderClicksPerSecond2, TIMEOUT_MS);
-		talon.configAllowableClosedloopError(PID_SLOT, this.profile.allowableClosedLoopError, TIMEOUT_MS);
+		talon.selectProfileSlot(profileSlot, PID_SLOT);
+		if (all) {
+			r.sent(talon.setSelectedSensorPosition(0, PID_SLOT, TIMEOUT_MS));
+			r.sent(talon.configSelectedFeedbackSensor(FeedbackDevice.QuadEncoder, PID_SLOT, 0));
+		}
+
+		FramePeriods lastFrames = all ? null : previous.framePeriods;
+		FramePeriods frames = this.framePeriods;
+		int frameTimeout = all ? TIMEOUT_MS : NO_WAIT_TIMEOUT_MS;
+		statusFrame(talon, r, StatusFrameEnhanced.Status_1_General, frames.generalMilliseconds, frameTimeout,
+				all || lastFrames.generalMilliseconds != frames.generalMilliseconds);
+		statusFrame(talon, r, StatusFrameEnhanced.Status_2_Feedback0, frames.feedbackMilliseconds, frameTimeout,
+				all || lastFrames.feedbackMilliseconds != frames.feedbackMilliseconds);
+		statusFrame(talon, r, StatusFrameEnhanced.Status_3_Quadrature, frames.quadratureMilliseconds, frameTimeout,
+				all || lastFrames.quadratureMilliseconds != frames.quadratureMilliseconds);
+		statusFrame(talon, r, StatusFrameEnhanced.Status_4_AinTempVbat, frames.analogTempVbatMilliseconds,
+				frameTimeout, all || lastFrames.analogTempVbatMilliseconds != frames.analogTempVbatMilliseconds);
+		statusFrame(talon, r, StatusFrameEnhanced.Status_8_PulseWidth, frames.pulseWidthMilliseconds, frameTimeout,
+				all || lastFrames.pulseWidthMilliseconds != frames.pulseWidthMilliseconds);
+		statusFrame(talon, r, StatusFrameEnhanced.Status_10_MotionMagic, frames.motionMagicMilliseconds,
+				frameTimeout, all || lastFrames.motionMagicMilliseconds != frames.motionMagicMilliseconds);
+		statusFrame(talon, r, StatusFrameEnhanced.Status_13_Base_PIDF0, frames.pidMilliseconds, frameTimeout,
+				all || lastFrames.pidMilliseconds != frames.pidMilliseconds);
+		if (all || lastFrames.controlMilliseconds != frames.controlMilliseconds) {
+			r.sent(talon.setControlFramePeriod(ControlFrame.Control_3_General, frames.controlMilliseconds));
+		} else {
+			r.skipped();
+		}
+
+		if (all || previous.motorDirections.sensorPhase != motorDirections.sensorPhase) {
+			talon.setSensorPhase(this.motorDirections.sensorPhase);
+			r.sent();
+		} else {
+			r.skipped();
+		}
+		if (all || previous.motorDirections.inverted != motorDirections.inverted) {
+			talon.setInverted(this.motorDirections.inverted);
+			r.sent();
+		} else {
+			r.skipped();
+		}
+
+		MotorOutputLimits lastOutput = all ? null : previous.outputLimits;
+		if (all || lastOutput.minMotorOutputForward != outputLimits.minMotorOutputForward) {
+			r.sent(talon.configNominalOutputForward(this.outputLimits.minMotorOutputForward, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+		if (all || lastOutput.minMotorOutputBackward != outputLimits.minMotorOutputBackward) {
+			r.sent(talon.configNominalOutputReverse(this.outputLimits.minMotorOutputBackward, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+		if (all || lastOutput.maxMotorOutputForward != outputLimits.maxMotorOutputForward) {
+			r.sent(talon.configPeakOutputForward(this.outputLimits.maxMotorOutputForward, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+		if (all || lastOutput.maxMotorOutputBackward != outputLimits.maxMotorOutputBackward) {
+			r.sent(talon.configPeakOutputReverse(this.outputLimits.maxMotorOutputBackward, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+
+		CurrentLimits lastCurrent = all ? null : previous.currentLimits;
+		if (all || lastCurrent.instantaneousPeak != currentLimits.instantaneousPeak) {
+			r.sent(talon.configPeakCurrentLimit(this.currentLimits.instantaneousPeak, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+		if (all || lastCurrent.continuousPeakMilliseconds != currentLimits.continuousPeakMilliseconds) {
+			r.sent(talon.configPeakCurrentDuration(this.currentLimits.continuousPeakMilliseconds, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+		if (all || lastCurrent.continuousPeak != currentLimits.continuousPeak) {
+			r.sent(talon.configContinuousCurrentLimit(this.currentLimits.continuousPeak, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+		if (all) {
+			talon.enableCurrentLimit(true);
+			r.sent();
+		} else {
+			r.skipped();
+		}
+
+		if (all || previous.brakeMode != brakeMode) {
+			talon.setNeutralMode(this.brakeMode);
+			r.sent();
+		} else {
+			r.skipped();
+		}
+		if (all || previous.feedbackDevice != feedbackDevice) {
+			r.sent(talon.configSelectedFeedbackSensor(this.feedbackDevice, PID_SLOT, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+
+		MotorRampUp lastRamp = all ? null : previous.rampUp;
+		if (all || lastRamp.rampUpSecondsClosedLoop != rampUp.rampUpSecondsClosedLoop) {
+			r.sent(talon.configClosedloopRamp(this.rampUp.rampUpSecondsClosedLoop, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+		if (all || lastRamp.rampUpSecondsOpenLoop != rampUp.rampUpSecondsOpenLoop) {
+			r.sent(talon.configOpenloopRamp(this.rampUp.rampUpSecondsOpenLoop, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+		if (all || lastRamp.neutralDeadband != rampUp.neutralDeadband) {
+			r.sent(talon.configNeutralDeadband(this.rampUp.neutralDeadband, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+
+		sendGains(talon, r, PID_SLOT, this.gains, all ? null : previous.gains);
+		for (Map.Entry<Integer, Gains> slot : extraSlotGains.entrySet()) {
+			Gains lastSlotGains = all ? null : previous.extraSlotGains.get(slot.getKey());
+			sendGains(talon, r, slot.getKey(), slot.getValue(), lastSlotGains);
+		}
+
+		MotionProfile lastProfile = all ? null : previous.profile;
+		if (all || lastProfile.cruiseVelocityEncoderClicksPerSecond != profile.cruiseVelocityEncoderClicksPerSecond) {
+			r.sent(talon.configMotionCruiseVelocity(this.profile.cruiseVelocityEncoderClicksPerSecond, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+		if (all || lastProfile.accelerationEncoderClicksPerSecond2 != profile.accelerationEncoderClicksPerSecond2) {
+			r.sent(talon.configMotionAcceleration(this.profile.accelerationEncoderClicksPerSecond2, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+		if (all || lastProfile.allowableClosedLoopError != profile.allowableClosedLoopError) {
+			r.sent(talon.configAllowableClosedloopError(PID_SLOT, this.profile.allowableClosedLoopError,
+					TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
 		talon.set(this.controlMode, 0);
+
+		r.addElapsedNanos(System.nanoTime() - start);
+		return r;
+	}
+
+	private static void statusFrame(TalonSRX talon, TalonConfigResult r, StatusFrameEnhanced frame, int millis,
+			int timeoutMillis, boolean changed) {
+		if (changed) {
+			ErrorCode code = talon.setStatusFramePeriod(frame, millis, timeoutMillis);
+			r.sent(code);
+		} else {
+			r.skipped();
+		}
+	}
+
+	/**
+	 * Sends the gains for one slot
+	 * 
+	 * @param last
+	 *            what the slot has now, or null to send all of them
+	 */
+	private static void sendGains(TalonSRX talon, TalonConfigResult r, int slot, Gains gains, Gains last) {
+		boolean all = last == null;
+		if (all || last.f != gains.f) {
+			r.sent(talon.config_kF(slot, gains.f, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+		if (all || last.p != gains.p) {
+			r.sent(talon.config_kP(slot, gains.p, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+		if (all || last.i != gains.i) {
+			r.sent(talon.config_kI(slot, gains.i, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
+		if (all || last.d != gains.d) {
+			r.sent(talon.config_kD(slot, gains.d, TIMEOUT_MS));
+		} else {
+			r.skipped();
+		}
 	}
 
 	/**
@@ -156,10 +337,23 @@ public class TalonSettings implements Serializable {
 		public double neutralDeadband = 0.001;
 	}
 
+	/**
+	 * How often the talon sends each status frame, and how often we send it
+	 * the control frame. Every one of these is traffic on the CAN bus-- see
+	 * StatusFrameProfile for sets of these that fit what a talon is doing.
+	 * The defaults are the talon's own, except for the two closed loop
+	 * frames.
+	 */
 	public static class FramePeriods implements Serializable {
 		private static final long serialVersionUID = 2845750610037826988L;
+		public int generalMilliseconds = 10;
+		public int feedbackMilliseconds = 20;
+		public int quadratureMilliseconds = 160;
+		public int analogTempVbatMilliseconds = 160;
+		public int pulseWidthMilliseconds = 160;
 		public int motionMagicMilliseconds = DEFAULT_FAST_FRAMERATE_MILLIS;
 		public int pidMilliseconds = DEFAULT_FAST_FRAMERATE_MILLIS;
+		public int controlMilliseconds = 10;
 	}
 
 	public static class MotorDirections implements Serializable {
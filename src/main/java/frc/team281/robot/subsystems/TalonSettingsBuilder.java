@@ -56,6 +56,43 @@ public class TalonSettingsBuilder {
 		return s;
 	}
 
+	public static TalonSettings withSlotGains(TalonSettings other, int slot, double f, double p, double i,
+			double d) {
+		if (slot < 0 || slot >= TalonSettings.SLOT_COUNT) {
+			throw new IllegalArgumentException("Slot must be 0 to " + (TalonSettings.SLOT_COUNT - 1) + ": got " + slot);
+		}
+		TalonSettings s = other.copy();
+		TalonSettings.Gains gains = new TalonSettings.Gains();
+		gains.f = f;
+		gains.p = p;
+		gains.i = i;
+		gains.d = d;
+		if (slot == TalonSettings.PROFILE_SLOT) {
+			s.gains = gains;
+		} else {
+			s.extraSlotGains.put(slot, gains);
+		}
+		return s;
+	}
+
+	/**
+	 * The same settings, running in a different mode. Switching a talon
+	 * between the two only selects the slot and sets the mode and brake.
+	 */
+	public static TalonSettings inMode(TalonSettings other, int slot, ControlMode controlMode, NeutralMode brakeMode) {
+		TalonSettings s = other.copy();
+		s.profileSlot = slot;
+		s.controlMode = controlMode;
+		s.brakeMode = brakeMode;
+		return s;
+	}
+
+	public static TalonSettings withFrameProfile(TalonSettings other, StatusFrameProfile profile) {
+		TalonSettings s = other.copy();
+		profile.applyTo(s);
+		return s;
+	}
+
 	/**
 	 * Walk through talon configuration step-by-step Allows reuiring things that are
 	 * reuired, and provides choices when they are relevant.
@@ -0,0 +1,236 @@
+package frc.team281.robot.subsystems;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+
+import frc.team281.robot.controllers.BaseTalonController;
+import frc.team281.robot.controllers.MotorIO;
+import frc.team281.robot.controllers.TalonMotorIO;
+
+/**
+ * Configures all of the talons at startup at the same time, instead of one
+ * after another. Each talon takes 20 or so blocking CAN round trips, so doing
+ * them together gets the robot ready to enable much sooner after a reboot.
+ *
+ * In robotInit, call begin() before the subsystems are initialized. While
+ * collecting, subsystems that call configure() have their talons queued
+ * instead of configured. configureAll() then configures everything queued,
+ * one thread per talon, and waits for them all. A talon that reports an error
+ * is tried again, waiting longer each time.
+ *
+ * When not collecting, configure() just configures the talon right away, so
+ * tests and code that runs later work the same as before.
+ *
+ * Everything goes through a TalonConfigCache, so once a talon is configured
+ * here, configuring it again later with the same settings sends almost
+ * nothing.
+ *
+ * @author dcowden
+ *
+ */
+public class TalonStartupConfigurator {
+
+	public static final int DEFAULT_MAX_ATTEMPTS = 3;
+	public static final long DEFAULT_BACKOFF_MILLIS = 20;
+	public static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+
+	private static TalonStartupConfigurator instance = new TalonStartupConfigurator();
+
+	private TalonConfigCache cache;
+	private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+	private long backoffMillis = DEFAULT_BACKOFF_MILLIS;
+	private long timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+
+	private boolean collecting = false;
+	private List<Entry> entries = new ArrayList<>();
+
+	// what the last configureAll did
+	private long totalNanos = 0;
+	private int retryCount = 0;
+	private List<String> failedTalons = new ArrayList<>();
+
+	public static TalonStartupConfigurator getInstance() {
+		return instance;
+	}
+
+	public static void setInstance(TalonStartupConfigurator configurator) {
+		instance = configurator;
+	}
+
+	public TalonStartupConfigurator() {
+		this(TalonConfigCache.getInstance());
+	}
+
+	public TalonStartupConfigurator(TalonConfigCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * @param maxAttempts
+	 *            how many times to try each talon, including the first
+	 * @param backoffMillis
+	 *            wait before the first retry. doubles each retry after that
+	 */
+	public void setRetries(int maxAttempts, long backoffMillis) {
+		if (maxAttempts < 1) {
+			throw new IllegalArgumentException("maxAttempts must be at least 1: got " + maxAttempts);
+		}
+		this.maxAttempts = maxAttempts;
+		this.backoffMillis = backoffMillis;
+	}
+
+	public void setTimeoutMillis(long timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Starts queueing talons instead of configuring them
+	 */
+	public synchronized void begin() {
+		collecting = true;
+		entries.clear();
+	}
+
+	public synchronized boolean isCollecting() {
+		return collecting;
+	}
+
+	/**
+	 * Configures the talon now, or queues it if we're collecting
+	 */
+	public void configure(String name, TalonSRX talon, TalonSettings settings) {
+		configure(name, new TalonMotorIO(talon), settings);
+	}
+
+	public synchronized void configure(String name, MotorIO motor, TalonSettings settings) {
+		if (collecting) {
+			entries.add(new Entry(name, motor, settings));
+		} else {
+			cache.configure(motor, settings);
+		}
+	}
+
+	public void configure(String name, BaseTalonController controller) {
+		configure(name, controller.getMotorIO(), controller.getSettings());
+	}
+
+	/**
+	 * Configures everything queued since begin(), all at once, and stops
+	 * collecting. Blocks until every talon is done, or the timeout passes.
+	 *
+	 * @return the results for all of the talons, added together
+	 */
+	public TalonConfigResult configureAll() {
+		List<Entry> toConfigure;
+		synchronized (this) {
+			collecting = false;
+			toConfigure = new ArrayList<>(entries);
+			entries.clear();
+		}
+		long start = System.nanoTime();
+		retryCount = 0;
+		failedTalons.clear();
+		TalonConfigResult total = new TalonConfigResult();
+		if (toConfigure.isEmpty()) {
+			totalNanos = 0;
+			return total;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(toConfigure.size(), r -> {
+			Thread t = new Thread(r, "TalonStartupConfigurator");
+			t.setDaemon(true);
+			return t;
+		});
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (Entry e : toConfigure) {
+			tasks.add(() -> {
+				configureWithRetries(e);
+				return null;
+			});
+		}
+		try {
+			executor.invokeAll(tasks, timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		for (Entry e : toConfigure) {
+			synchronized (e) {
+				if (e.result == null || !e.result.isOk()) {
+					failedTalons.add(e.name);
+				}
+				if (e.result != null) {
+					total.add(e.result);
+				}
+				retryCount += Math.max(0, e.attempts - 1);
+			}
+		}
+		totalNanos = System.nanoTime() - start;
+		return total;
+	}
+
+	private void configureWithRetries(Entry e) throws InterruptedException {
+		long wait = backoffMillis;
+		for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+			TalonConfigResult result = cache.configure(e.motor, e.settings);
+			synchronized (e) {
+				e.result = result;
+				e.attempts = attempt;
+			}
+			if (result.isOk()) {
+				return;
+			}
+			if (attempt < maxAttempts) {
+				sleep(wait);
+				wait *= 2;
+			}
+		}
+	}
+
+	protected void sleep(long millis) throws InterruptedException {
+		Thread.sleep(millis);
+	}
+
+	/**
+	 * @return how long the last configureAll took, start to finish
+	 */
+	public double getTotalMillis() {
+		return totalNanos / 1e6;
+	}
+
+	/**
+	 * @return how many retries the last configureAll needed
+	 */
+	public int getRetryCount() {
+		return retryCount;
+	}
+
+	/**
+	 * @return names of the talons that still had errors after every attempt
+	 */
+	public List<String> getFailedTalons() {
+		return failedTalons;
+	}
+
+	private static class Entry {
+		final String name;
+		final MotorIO motor;
+		final TalonSettings settings;
+		TalonConfigResult result;
+		int attempts = 0;
+
+		Entry(String name, MotorIO motor, TalonSettings settings) {
+			this.name = name;
+			this.motor = motor;
+			this.settings = settings;
+		}
+	}
+}
@@ -28,7 +28,7 @@ public class WristSubsystem extends BaseSubsystem {
     }
 
     @Override
-    public void periodic() {
+    protected void onPeriodic() {
     	//1 if (wristUp) {
     	//1     up.set(false);
     	//1     down.set(false);
@@ -4,6 +4,7 @@ import edu.wpi.first.wpilibj.SpeedControllerGroup;
 import edu.wpi.first.wpilibj.drive.DifferentialDrive;
 import frc.team281.robot.DriveInstruction;
 import frc.team281.robot.DriveInstructionSource;
+import frc.team281.robot.subsystems.TalonConfigResult;
 
 /**
  * Basic speed control using built-in WPILib stuff. Nothing fancy.
@@ -32,7 +33,9 @@ public class BasicArcadeDriveController extends BaseDriveController {
 
 	@Override
 	public void activate() {
-		talons.configureAll();
+		TalonConfigResult config = talons.configureAll();
+		dataLogger.log("configSkipped", config.getSkipped());
+		dataLogger.log("configMillis", config.getElapsedMillis());
 		SpeedControllerGroup left = new SpeedControllerGroup(talons.getFrontLeft(), talons.getRearLeft());
 		left.setInverted(true);
 		
@@ -0,0 +1,258 @@
+package frc.team281.robot.subsystems.drive;
+
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.wpilibj.Notifier;
+import frc.team281.robot.controllers.EncoderZeroer;
+import frc.team281.robot.controllers.MotorIO;
+import frc.team281.robot.logger.TimeSource;
+import frc.team281.robot.logger.WpilibTimeSource;
+
+/**
+ * Keeps track of where the robot is on the field, from the drive encoders and
+ * the gyro, on its own Notifier every PERIOD_SECONDS.
+ *
+ * Only the notifier thread writes the pose. Each update makes a new
+ * RobotPose and publishes it through a volatile field, so anyone can call
+ * getPose() from any thread, without locks, and always get a whole pose.
+ * Resets are requested the same way, and done by the notifier thread on its
+ * next update.
+ *
+ * Each update moves along an arc: the average of the left and right deltas,
+ * at the heading halfway between the last one and this one. The heading
+ * comes from the gyro yaw when there is one, or the difference between the
+ * sides over the track width when there isn't.
+ *
+ * Controllers zero the encoders when they start a move, and they do it through
+ * zero(), so we can add what the encoder read just before to its offset. The
+ * counts we use are the reading plus the offset, so they don't jump when an
+ * encoder is zeroed, however short the move before it was.
+ *
+ * A talon's reading comes from its last status frame, so it can read the old
+ * count for a frame or two after it was zeroed. What it read before is kept
+ * pending until the reading is closer to zero than to that, and only then
+ * added to the offset. Until then the old reading is still counted with the
+ * old offset, so neither side jumps while the four encoders catch up. Reading
+ * and zeroing share a lock.
+ *
+ * @author dcowden
+ *
+ */
+public class DriveOdometry implements EncoderZeroer {
+
+	public static final double PERIOD_SECONDS = 0.01;
+
+	private final MotorIO[] left;
+	private final MotorIO[] right;
+	// what each encoder read before it was zeroed, added up. guarded by this
+	private final long[] leftOffsets = new long[2];
+	private final long[] rightOffsets = new long[2];
+	// what each encoder read when it was zeroed, until the reading drops
+	private final int[] leftPending = new int[2];
+	private final int[] rightPending = new int[2];
+	private long encoderZeros = 0;
+	private final EncoderInchesConverter encoderConverter;
+	private final double trackWidthInches;
+	private final DoubleSupplier yawDegrees;
+	private final TimeSource timeSource;
+	private Notifier notifier;
+
+	// only touched by the writer
+	private boolean started = false;
+	private long lastLeftCounts;
+	private long lastRightCounts;
+	private double yawOffsetDegrees;
+	private double heading;
+	private double x;
+	private double y;
+	private long updates = 0;
+
+	private volatile RobotPose pose = RobotPose.ORIGIN;
+	private volatile RobotPose resetRequest = null;
+
+	/**
+	 * @param yawDegrees
+	 *            the gyro yaw, clockwise positive like the navX, or null to
+	 *            use the encoders for heading
+	 */
+	public DriveOdometry(FourTalonsWithSettings talons, EncoderInchesConverter encoderConverter,
+			double trackWidthInches, DoubleSupplier yawDegrees) {
+		this(talons, encoderConverter, trackWidthInches, yawDegrees, new WpilibTimeSource());
+	}
+
+	public DriveOdometry(FourTalonsWithSettings talons, EncoderInchesConverter encoderConverter,
+			double trackWidthInches, DoubleSupplier yawDegrees, TimeSource timeSource) {
+		this.left = new MotorIO[] { talons.getFrontLeftIO(), talons.getRearLeftIO() };
+		this.right = new MotorIO[] { talons.getFrontRightIO(), talons.getRearRightIO() };
+		this.encoderConverter = encoderConverter;
+		this.trackWidthInches = trackWidthInches;
+		this.yawDegrees = yawDegrees;
+		this.timeSource = timeSource;
+	}
+
+	public void start() {
+		if (notifier == null) {
+			notifier = new Notifier(this::update);
+		}
+		notifier.startPeriodic(PERIOD_SECONDS);
+	}
+
+	public void stop() {
+		if (notifier != null) {
+			notifier.stop();
+		}
+	}
+
+	/**
+	 * The latest pose. Safe to call from any thread
+	 */
+	public RobotPose getPose() {
+		return pose;
+	}
+
+	/**
+	 * Starts counting from this pose, on the next update
+	 */
+	public void reset(RobotPose newPose) {
+		resetRequest = newPose;
+	}
+
+	/**
+	 * Zeroes one of our encoders, remembering what it read so the counts carry
+	 * on. Any other motor is just zeroed
+	 */
+	@Override
+	public synchronized void zero(MotorIO motor) {
+		int before = motor.getSelectedSensorPosition();
+		motor.setSelectedSensorPosition(0);
+		int i = indexOf(motor);
+		if (i < 0) {
+			return;
+		}
+		boolean isLeft = indexOf(left, motor) >= 0;
+		long[] offsets = isLeft ? leftOffsets : rightOffsets;
+		int[] pending = isLeft ? leftPending : rightPending;
+		// if the last zero hasn't shown up yet, this is the same old reading
+		if (!settle(offsets, pending, i, before)) {
+			pending[i] = before;
+		}
+		encoderZeros++;
+	}
+
+	/**
+	 * Moves a pending zero into the offset, once the reading shows it
+	 * 
+	 * @return true if the zero is still pending
+	 */
+	private static boolean settle(long[] offsets, int[] pending, int i, int reading) {
+		if (pending[i] == 0) {
+			return false;
+		}
+		if (Math.abs(reading) < Math.abs((long) reading - pending[i])) {
+			offsets[i] += pending[i];
+			pending[i] = 0;
+			return false;
+		}
+		return true;
+	}
+
+	private int indexOf(MotorIO motor) {
+		int i = indexOf(left, motor);
+		return i >= 0 ? i : indexOf(right, motor);
+	}
+
+	private static int indexOf(MotorIO[] side, MotorIO motor) {
+		for (int i = 0; i < side.length; i++) {
+			if (side[i] == motor) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Runs on the notifier. Only one thread may call this
+	 */
+	public void update() {
+		long leftCounts;
+		long rightCounts;
+		synchronized (this) {
+			leftCounts = averageCounts(left, leftOffsets, leftPending, lastLeftCounts);
+			rightCounts = averageCounts(right, rightOffsets, rightPending, lastRightCounts);
+		}
+		double now = timeSource.getSystemTime();
+		double yaw = yawDegrees == null ? 0.0 : yawDegrees.getAsDouble();
+
+		RobotPose requested = resetRequest;
+		if (!started || requested != null) {
+			RobotPose from = requested == null ? pose : requested;
+			if (requested != null) {
+				resetRequest = null;
+			}
+			x = from.getXInches();
+			y = from.getYInches();
+			heading = from.getHeadingRadians();
+			yawOffsetDegrees = from.getHeadingDegrees() + yaw;
+			lastLeftCounts = leftCounts;
+			lastRightCounts = rightCounts;
+			started = true;
+			pose = new RobotPose(x, y, from.getHeadingDegrees(), now);
+			return;
+		}
+
+		double dl = encoderConverter.toInches((int) (leftCounts - lastLeftCounts));
+		double dr = encoderConverter.toInches((int) (rightCounts - lastRightCounts));
+		lastLeftCounts = leftCounts;
+		lastRightCounts = rightCounts;
+
+		double newHeading;
+		if (yawDegrees == null) {
+			newHeading = heading + (dr - dl) / trackWidthInches;
+		} else {
+			// the navx is clockwise positive
+			newHeading = Math.toRadians(yawOffsetDegrees - yaw);
+		}
+		double distance = (dl + dr) / 2.0;
+		double midHeading = heading + angleBetween(heading, newHeading) / 2.0;
+		x += distance * Math.cos(midHeading);
+		y += distance * Math.sin(midHeading);
+		heading = newHeading;
+		updates++;
+
+		pose = new RobotPose(x, y, Math.toDegrees(heading), now);
+	}
+
+	/**
+	 * A broken encoder reads zero, so we use the other one on that side. So
+	 * does one that was just zeroed, so if both read zero, the side hasn't
+	 * moved
+	 */
+	private static long averageCounts(MotorIO[] side, long[] offsets, int[] pending, long unchanged) {
+		long total = 0;
+		int count = 0;
+		for (int i = 0; i < side.length; i++) {
+			int pos = side[i].getSelectedSensorPosition();
+			settle(offsets, pending, i, pos);
+			if (pos != 0) {
+				total += pos + offsets[i];
+				count++;
+			}
+		}
+		return count == 0 ? unchanged : total / count;
+	}
+
+	private static double angleBetween(double from, double to) {
+		return Math.atan2(Math.sin(to - from), Math.cos(to - from));
+	}
+
+	public long getUpdates() {
+		return updates;
+	}
+
+	/**
+	 * How many times one of our encoders was zeroed through zero()
+	 */
+	public synchronized long getEncoderZeros() {
+		return encoderZeros;
+	}
+}
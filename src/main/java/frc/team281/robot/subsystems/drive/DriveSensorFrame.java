@@ -0,0 +1,136 @@
+package frc.team281.robot.subsystems.drive;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+
+import frc.team281.robot.controllers.MotorIO;
+import frc.team281.robot.controllers.TalonMotorIO;
+
+/**
+ * What the four drive talons said this loop.
+ *
+ * Every read from a talon is a trip through JNI, and most of them are values
+ * that come over CAN. The drive subsystem, the position controller, the
+ * encoder checker and the logger all want the same few values, so sample()
+ * reads each of them once per loop into plain fields, and everyone reads the
+ * fields.
+ *
+ * Sample once, at the top of the loop. Values don't change until the next
+ * sample, even if a talon is changed in between.
+ *
+ * @author dcowden
+ *
+ */
+public class DriveSensorFrame {
+
+	public static final int FRONT_LEFT = 0;
+	public static final int FRONT_RIGHT = 1;
+	public static final int REAR_LEFT = 2;
+	public static final int REAR_RIGHT = 3;
+	public static final int TALON_COUNT = 4;
+
+	private final MotorIO[] talons;
+	private final int[] positions = new int[TALON_COUNT];
+	private final int[] velocities = new int[TALON_COUNT];
+	private final int[] closedLoopErrors = new int[TALON_COUNT];
+	private final double[] currents = new double[TALON_COUNT];
+	private final boolean[] followers = new boolean[TALON_COUNT];
+	private long sampleCount = 0;
+
+	public DriveSensorFrame(WPI_TalonSRX frontLeft, WPI_TalonSRX frontRight, WPI_TalonSRX rearLeft,
+			WPI_TalonSRX rearRight) {
+		this(new TalonMotorIO(frontLeft), new TalonMotorIO(frontRight), new TalonMotorIO(rearLeft),
+				new TalonMotorIO(rearRight));
+	}
+
+	public DriveSensorFrame(MotorIO frontLeft, MotorIO frontRight, MotorIO rearLeft, MotorIO rearRight) {
+		this.talons = new MotorIO[] { frontLeft, frontRight, rearLeft, rearRight };
+	}
+
+	public DriveSensorFrame(FourTalonsWithSettings talons) {
+		this(talons.getFrontLeftIO(), talons.getFrontRightIO(), talons.getRearLeftIO(), talons.getRearRightIO());
+	}
+
+	/**
+	 * Makes a frame, and samples it right away
+	 */
+	public static DriveSensorFrame sampled(FourTalonsWithSettings talons) {
+		DriveSensorFrame frame = new DriveSensorFrame(talons);
+		frame.sample();
+		return frame;
+	}
+
+	/**
+	 * Reads every talon once
+	 */
+	public void sample() {
+		for (int i = 0; i < TALON_COUNT; i++) {
+			MotorIO talon = talons[i];
+			positions[i] = talon.getSelectedSensorPosition();
+			velocities[i] = talon.getSelectedSensorVelocity();
+			closedLoopErrors[i] = talon.getClosedLoopError();
+			currents[i] = talon.getOutputCurrent();
+			// the mode is kept on our side, so this is not a CAN read
+			followers[i] = talon.getControlMode() == ControlMode.Follower;
+		}
+		sampleCount++;
+	}
+
+	public MotorIO getTalon(int talon) {
+		return talons[talon];
+	}
+
+	public int getPosition(int talon) {
+		return positions[talon];
+	}
+
+	public int getVelocity(int talon) {
+		return velocities[talon];
+	}
+
+	public int getClosedLoopError(int talon) {
+		return closedLoopErrors[talon];
+	}
+
+	public double getCurrent(int talon) {
+		return currents[talon];
+	}
+
+	/**
+	 * A follower's encoder is not used-- a talon is made a follower because its
+	 * encoder is broken
+	 */
+	public boolean isFollower(int talon) {
+		return followers[talon];
+	}
+
+	public long getSampleCount() {
+		return sampleCount;
+	}
+
+	public int getLeftEncoderCounts() {
+		return averageCounts(FRONT_LEFT, REAR_LEFT);
+	}
+
+	public int getRightEncoderCounts() {
+		return averageCounts(FRONT_RIGHT, REAR_RIGHT);
+	}
+
+	/**
+	 * The average of the two encoders on a side, leaving out followers and
+	 * encoders that read zero
+	 */
+	protected int averageCounts(int first, int second) {
+		int total = 0;
+		int count = 0;
+		if (!followers[first] && positions[first] != 0) {
+			total += positions[first];
+			count++;
+		}
+		if (!followers[second] && positions[second] != 0) {
+			total += positions[second];
+			count++;
+		}
+		return count == 0 ? 0 : total / count;
+	}
+}
@@ -0,0 +1,215 @@
+package frc.team281.robot.subsystems.drive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import frc.team281.robot.subsystems.Position;
+
+/**
+ * A whole path of positions, turned into left and right points every
+ * pointMillis, so the talons can run it as one motion profile.
+ *
+ * The path is driven as one trapezoid: speed up to cruise, and only slow
+ * down where the path needs it. Each segment moves its faster side at the
+ * path speed, and the other side in proportion. Where the sides change
+ * speed suddenly between segments ( like going from straight to turning in
+ * place ), we slow down enough that the jump is no more than one point's
+ * worth of acceleration. Otherwise the robot doesn't stop between segments.
+ *
+ * Positions are inches from the start of the path, and velocities are inches
+ * per second. Relative positions move from the end of the last one, and
+ * absolute ones are from the start of the path.
+ *
+ * @author dcowden
+ *
+ */
+public class DriveTrajectory {
+
+	// stop planning if the path never finishes
+	public static final double MAX_SECONDS = 60.0;
+
+	private final int pointMillis;
+	private final double[] leftInches;
+	private final double[] rightInches;
+	private final double[] leftVelocity;
+	private final double[] rightVelocity;
+	private final int[] segment;
+	private final int segmentCount;
+
+	private DriveTrajectory(int pointMillis, List<double[]> points, int segmentCount) {
+		this.pointMillis = pointMillis;
+		this.segmentCount = segmentCount;
+		int n = points.size();
+		leftInches = new double[n];
+		rightInches = new double[n];
+		leftVelocity = new double[n];
+		rightVelocity = new double[n];
+		segment = new int[n];
+		for (int i = 0; i < n; i++) {
+			double[] p = points.get(i);
+			leftInches[i] = p[0];
+			rightInches[i] = p[1];
+			leftVelocity[i] = p[2];
+			rightVelocity[i] = p[3];
+			segment[i] = (int) p[4];
+		}
+	}
+
+	public static DriveTrajectory plan(List<Position> path, double cruiseInchesPerSecond,
+			double accelerationInchesPerSecond2, int pointMillis) {
+		if (cruiseInchesPerSecond <= 0.0 || accelerationInchesPerSecond2 <= 0.0 || pointMillis <= 0) {
+			throw new IllegalArgumentException("Cruise, acceleration and point time must be positive");
+		}
+		double dt = pointMillis / 1000.0;
+		double cruise = cruiseInchesPerSecond;
+		double accel = accelerationInchesPerSecond2;
+
+		// segments, as left and right moves. length is the faster side
+		List<double[]> segments = new ArrayList<>();
+		double left = 0.0;
+		double right = 0.0;
+		for (Position p : path) {
+			double dl = p.isRelative() ? p.getLeftInches() : p.getLeftInches() - left;
+			double dr = p.isRelative() ? p.getRightInches() : p.getRightInches() - right;
+			left += dl;
+			right += dr;
+			double length = Math.max(Math.abs(dl), Math.abs(dr));
+			if (length > 0.0) {
+				segments.add(new double[] { dl, dr, length });
+			}
+		}
+
+		List<double[]> points = new ArrayList<>();
+		if (segments.isEmpty()) {
+			points.add(new double[] { 0.0, 0.0, 0.0, 0.0, 0 });
+			return new DriveTrajectory(pointMillis, points, 1);
+		}
+
+		// fastest we can be going at the end of each segment, working back
+		// from stopped at the end
+		int n = segments.size();
+		double[] endSpeed = new double[n];
+		endSpeed[n - 1] = 0.0;
+		for (int i = n - 2; i >= 0; i--) {
+			double[] a = segments.get(i);
+			double[] b = segments.get(i + 1);
+			double junction = cruise;
+			junction = Math.min(junction, junctionSpeed(a[0] / a[2], b[0] / b[2], accel * dt));
+			junction = Math.min(junction, junctionSpeed(a[1] / a[2], b[1] / b[2], accel * dt));
+			double canStop = Math.sqrt(endSpeed[i + 1] * endSpeed[i + 1] + 2.0 * accel * b[2]);
+			endSpeed[i] = Math.min(junction, canStop);
+		}
+
+		int segment = 0;
+		double startLeft = 0.0;
+		double startRight = 0.0;
+		double s = 0.0;
+		double v = 0.0;
+		int maxPoints = (int) (MAX_SECONDS / dt);
+		boolean done = false;
+		while (!done && points.size() < maxPoints) {
+			double[] seg = segments.get(segment);
+			double remaining = seg[2] - s;
+			// fastest we can be going after this point and still slow down to
+			// the end speed by the end of the segment
+			double halfStep = accel * dt / 2.0;
+			double braking = -halfStep + Math.sqrt(halfStep * halfStep
+					+ Math.max(0.0, 2.0 * accel * (remaining - v * dt / 2.0) + endSpeed[segment] * endSpeed[segment]));
+			double allowed = Math.min(cruise, braking);
+			double next = Math.min(v + accel * dt, allowed);
+			s += (v + next) / 2.0 * dt;
+			v = next;
+			while (s >= seg[2]) {
+				if (segment == n - 1) {
+					s = seg[2];
+					v = 0.0;
+					done = true;
+					break;
+				}
+				s -= seg[2];
+				startLeft += seg[0];
+				startRight += seg[1];
+				segment++;
+				seg = segments.get(segment);
+			}
+			double leftRatio = seg[0] / seg[2];
+			double rightRatio = seg[1] / seg[2];
+			points.add(new double[] { startLeft + leftRatio * s, startRight + rightRatio * s, leftRatio * v,
+					rightRatio * v, segment });
+		}
+		return new DriveTrajectory(pointMillis, points, n);
+	}
+
+	/**
+	 * How fast we can go through a corner where one side's share of the speed
+	 * changes from one ratio to another
+	 */
+	private static double junctionSpeed(double ratioBefore, double ratioAfter, double maxJump) {
+		double change = Math.abs(ratioBefore - ratioAfter);
+		if (change == 0.0) {
+			return Double.MAX_VALUE;
+		}
+		return maxJump / change;
+	}
+
+	/**
+	 * How many points at the start are the same in both, to within tolerance
+	 * inches. A different path planned the same way has the same points until
+	 * one of them has to slow down sooner
+	 */
+	public int matchingPoints(DriveTrajectory other, double tolerance) {
+		if (other.pointMillis != pointMillis) {
+			return 0;
+		}
+		int n = Math.min(size(), other.size());
+		for (int i = 0; i < n; i++) {
+			if (Math.abs(leftInches[i] - other.leftInches[i]) > tolerance
+					|| Math.abs(rightInches[i] - other.rightInches[i]) > tolerance
+					|| Math.abs(leftVelocity[i] - other.leftVelocity[i]) > tolerance
+					|| Math.abs(rightVelocity[i] - other.rightVelocity[i]) > tolerance) {
+				return i;
+			}
+		}
+		return n;
+	}
+
+	public int size() {
+		return leftInches.length;
+	}
+
+	public int getPointMillis() {
+		return pointMillis;
+	}
+
+	public double getDurationSeconds() {
+		return size() * pointMillis / 1000.0;
+	}
+
+	public double getLeftInches(int point) {
+		return leftInches[point];
+	}
+
+	public double getRightInches(int point) {
+		return rightInches[point];
+	}
+
+	public double getLeftVelocity(int point) {
+		return leftVelocity[point];
+	}
+
+	public double getRightVelocity(int point) {
+		return rightVelocity[point];
+	}
+
+	/**
+	 * Which segment of the path a point is on. Positions that don't move
+	 * aren't segments, so this counts the ones that do
+	 */
+	public int getSegment(int point) {
+		return segment[point];
+	}
+
+	public int getSegmentCount() {
+		return segmentCount;
+	}
+}
@@ -2,12 +2,19 @@ package frc.team281.robot.subsystems.drive;
 
 import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
 
+import frc.team281.robot.controllers.MotorIO;
+import frc.team281.robot.controllers.TalonMotorIO;
+import frc.team281.robot.subsystems.TalonConfigCache;
+import frc.team281.robot.subsystems.TalonConfigResult;
 import frc.team281.robot.subsystems.TalonSettings;
 import frc.team281.robot.subsystems.TalonSettingsBuilder;
 
 /**
  * The motors and associated settings for 4 talons
  * 
+ * Everything except WPI drive code uses the talons through MotorIOs, so the
+ * four can be simulated. A group made from MotorIOs has no WPI talons.
+ * 
  * @author dcowden
  *
  */
@@ -17,6 +24,10 @@ public class FourTalonsWithSettings {
 	protected WPI_TalonSRX frontRight;
 	protected WPI_TalonSRX rearLeft;
 	protected WPI_TalonSRX rearRight;
+	protected MotorIO frontLeftIO;
+	protected MotorIO frontRightIO;
+	protected MotorIO rearLeftIO;
+	protected MotorIO rearRightIO;
 	protected TalonSettings frontLeftSettings;
 	protected TalonSettings frontRightSettings;
 	protected TalonSettings rearLeftSettings;
@@ -26,15 +37,28 @@ public class FourTalonsWithSettings {
 	public FourTalonsWithSettings(WPI_TalonSRX frontLeft, WPI_TalonSRX rearLeft, WPI_TalonSRX frontRight,WPI_TalonSRX rearRight,
 			TalonSettings frontLeftSettings,TalonSettings rearLeftSettings, TalonSettings frontRightSettings,TalonSettings rearRightSettings) {
 	    
+		this(new TalonMotorIO(frontLeft), new TalonMotorIO(rearLeft), new TalonMotorIO(frontRight),
+				new TalonMotorIO(rearRight), frontLeftSettings, rearLeftSettings, frontRightSettings,
+				rearRightSettings);
 		this.frontLeft = frontLeft;
 		this.frontRight = frontRight;
 		this.rearLeft = rearLeft;
 		this.rearRight = rearRight;
+	}
+
+	public FourTalonsWithSettings(MotorIO frontLeft, MotorIO rearLeft, MotorIO frontRight, MotorIO rearRight,
+			TalonSettings frontLeftSettings, TalonSettings rearLeftSettings, TalonSettings frontRightSettings,
+			TalonSettings rearRightSettings) {
+		this.frontLeftIO = frontLeft;
+		this.frontRightIO = frontRight;
+		this.rearLeftIO = rearLeft;
+		this.rearRightIO = rearRight;
 		this.frontLeftSettings = frontLeftSettings;
-        this.rearLeftSettings = rearLeftSettings;
-        this.frontRightSettings = frontRightSettings;
-        this.rearRightSettings = rearRightSettings;
-	}	
+		this.rearLeftSettings = rearLeftSettings;
+		this.frontRightSettings = frontRightSettings;
+		this.rearRightSettings = rearRightSettings;
+	}
+
 	private FourTalonsWithSettings() {
 		
 	}
@@ -44,6 +68,10 @@ public class FourTalonsWithSettings {
 		fg.frontRight = this.frontRight;
 		fg.rearLeft = this.rearLeft;
 		fg.rearRight = this.rearRight;
+		fg.frontLeftIO = this.frontLeftIO;
+		fg.frontRightIO = this.frontRightIO;
+		fg.rearLeftIO = this.rearLeftIO;
+		fg.rearRightIO = this.rearRightIO;
 		fg.frontLeftSettings = this.frontLeftSettings.copy();
 		fg.frontRightSettings = this.frontRightSettings.copy();
 		fg.rearLeftSettings = this.rearLeftSettings.copy();
@@ -58,11 +86,20 @@ public class FourTalonsWithSettings {
 		this.rearRightSettings = rightSettings;		
 	}
 	
-	public void configureAll() {
-		frontLeftSettings.configureTalon(frontLeft);
-		frontRightSettings.configureTalon(frontRight);
-		rearLeftSettings.configureTalon(rearLeft);
-		rearRightSettings.configureTalon(rearRight);
+	/**
+	 * Applies the settings to all four talons, sending only what changed
+	 * since they were last configured.
+	 * 
+	 * @return the combined result for all four
+	 */
+	public TalonConfigResult configureAll() {
+		TalonConfigCache cache = TalonConfigCache.getInstance();
+		TalonConfigResult result = new TalonConfigResult();
+		result.add(cache.configure(frontLeftIO, frontLeftSettings));
+		result.add(cache.configure(frontRightIO, frontRightSettings));
+		result.add(cache.configure(rearLeftIO, rearLeftSettings));
+		result.add(cache.configure(rearRightIO, rearRightSettings));
+		return result;
 	}
 
 	public void disableAllSettings() {
@@ -88,6 +125,22 @@ public class FourTalonsWithSettings {
 		return rearRight;
 	}
 
+	public MotorIO getFrontLeftIO() {
+		return frontLeftIO;
+	}
+
+	public MotorIO getFrontRightIO() {
+		return frontRightIO;
+	}
+
+	public MotorIO getRearLeftIO() {
+		return rearLeftIO;
+	}
+
+	public MotorIO getRearRightIO() {
+		return rearRightIO;
+	}
+
 	public TalonSettings getFrontLeftSettings() {
 		return frontLeftSettings;
 	}
@@ -0,0 +1,397 @@
+package frc.team281.robot.subsystems.drive;
+
+import java.util.List;
+
+import com.ctre.phoenix.motion.MotionProfileStatus;
+import com.ctre.phoenix.motion.SetValueMotionProfile;
+import com.ctre.phoenix.motion.TrajectoryPoint;
+import com.ctre.phoenix.motion.TrajectoryPoint.TrajectoryDuration;
+import com.ctre.phoenix.motorcontrol.ControlMode;
+
+import edu.wpi.first.wpilibj.Notifier;
+import frc.team281.robot.controllers.EncoderZeroer;
+import frc.team281.robot.controllers.FourTalonEncoderChecker;
+import frc.team281.robot.controllers.MotorIO;
+import frc.team281.robot.logger.TimeSource;
+import frc.team281.robot.logger.WpilibTimeSource;
+import frc.team281.robot.subsystems.Position;
+import frc.team281.robot.subsystems.TalonConfigResult;
+import frc.team281.robot.subsystems.TalonSettings;
+
+/**
+ * Drives a whole path as one talon motion profile, instead of one Motion Magic
+ * move per position, so the robot doesn't stop at the end of every segment.
+ *
+ * The path is planned into a DriveTrajectory, and a Notifier streams the
+ * points into the talons every STREAM_SECONDS, a few at a time, so neither
+ * follow() nor the main loop waits on it. It stays at most MAX_POINTS_AHEAD
+ * points ahead of the robot, so switchTo() can change the rest of the path. The profile starts once the talons
+ * have MIN_POINTS_TO_START points buffered, and is finished when the last
+ * point is running. follow() zeroes the encoders, through the EncoderZeroer,
+ * rather than having the first point do it in the talon, so the odometry
+ * knows when it happened.
+ *
+ * Cruise and acceleration come from the Motion Magic settings of the front
+ * left talon, so both ways of driving go the same speed.
+ *
+ * @author dcowden
+ *
+ */
+public class MotionProfileDriveController extends BaseDriveController {
+
+	public static final int POINT_MILLIS = 10;
+	// CTRE says to move points twice as often as they run
+	public static final int STREAM_MILLIS = POINT_MILLIS / 2;
+	public static final double STREAM_SECONDS = STREAM_MILLIS / 1000.0;
+	public static final int POINTS_PER_STREAM = 20;
+	public static final int MIN_POINTS_TO_START = 5;
+	// don't get further ahead of the robot than this, so the rest of the
+	// trajectory can still be switched
+	public static final int MAX_POINTS_AHEAD = 50;
+	// points this close are the same point, when switching trajectories
+	public static final double SWITCH_TOLERANCE_INCHES = 0.001;
+	public static final String PROFILE_STATE_KEY = "profileState";
+	// currentSegment, once the last segment has been reported
+	private static final int FINISHED_SEGMENT = -2;
+
+	public enum ProfileState {
+		IDLE, LOADING, RUNNING, FINISHED
+	}
+
+	/**
+	 * Told how long each segment of the path took, and the furthest either
+	 * side got from the plan while driving it
+	 */
+	public interface SegmentListener {
+		void segmentFinished(int segment, double seconds, double maxErrorInches);
+	}
+
+	private FourTalonsWithSettings talons;
+	private EncoderInchesConverter encoderConverter;
+	private DriveSensorFrame frame;
+	private boolean ownsFrame;
+	private FourTalonEncoderChecker checker;
+	private double cruiseInchesPerSecond;
+	private double accelerationInchesPerSecond2;
+
+	private MotorIO[] left;
+	private MotorIO[] right;
+	private MotorIO[] all;
+	private Notifier notifier;
+	// the notifier and the main loop each read status into their own
+	private MotionProfileStatus status = new MotionProfileStatus();
+	private MotionProfileStatus periodicStatus = new MotionProfileStatus();
+
+	// shared with the notifier thread. changed only while holding the lock
+	private volatile ProfileState state = ProfileState.IDLE;
+	private volatile DriveTrajectory trajectory;
+	private volatile int pointsStreamed = 0;
+	private TrajectoryPoint leftPoint = new TrajectoryPoint();
+	private TrajectoryPoint rightPoint = new TrajectoryPoint();
+
+	private TimeSource timeSource = new WpilibTimeSource();
+	private EncoderZeroer encoderZeroer = EncoderZeroer.DIRECT;
+	private SegmentListener segmentListener;
+	private int currentSegment = -1;
+	private double segmentStartSeconds;
+	private double segmentMaxError;
+
+	private int stateKey;
+	private int pointsStreamedKey;
+	private int bufferedKey;
+	private int underrunKey;
+
+	/**
+	 * Makes our own frame, and samples it every loop
+	 */
+	public MotionProfileDriveController(FourTalonsWithSettings talons, EncoderInchesConverter encoderConverter) {
+		this(talons, encoderConverter, new DriveSensorFrame(talons), true);
+	}
+
+	/**
+	 * Uses a frame that someone else samples, before our periodic() runs
+	 */
+	public MotionProfileDriveController(FourTalonsWithSettings talons, EncoderInchesConverter encoderConverter,
+			DriveSensorFrame frame) {
+		this(talons, encoderConverter, frame, false);
+	}
+
+	private MotionProfileDriveController(FourTalonsWithSettings talons, EncoderInchesConverter encoderConverter,
+			DriveSensorFrame frame, boolean ownsFrame) {
+		this.talons = talons;
+		this.encoderConverter = encoderConverter;
+		this.frame = frame;
+		this.ownsFrame = ownsFrame;
+		this.checker = new FourTalonEncoderChecker(talons, frame);
+
+		// motion magic settings are per 100ms
+		TalonSettings.MotionProfile profile = talons.getFrontLeftSettings().profile;
+		this.cruiseInchesPerSecond = encoderConverter.toInches(profile.cruiseVelocityEncoderClicksPerSecond * 10);
+		this.accelerationInchesPerSecond2 = encoderConverter.toInches(profile.accelerationEncoderClicksPerSecond2 * 10);
+
+		this.stateKey = dataLogger.registerKey(PROFILE_STATE_KEY);
+		this.pointsStreamedKey = dataLogger.registerKey("pointsStreamed");
+		this.bufferedKey = dataLogger.registerKey("pointsBuffered");
+		this.underrunKey = dataLogger.registerKey("hasUnderrun");
+	}
+
+	/**
+	 * Plans a path at our cruise and acceleration, without driving it. Plan
+	 * ahead of time, and hand the result to follow() later
+	 */
+	public DriveTrajectory plan(List<Position> path) {
+		return DriveTrajectory.plan(path, cruiseInchesPerSecond, accelerationInchesPerSecond2, POINT_MILLIS);
+	}
+
+	/**
+	 * Plans the path, and starts streaming it. This can be called before the
+	 * controller is activated
+	 */
+	public void follow(List<Position> path) {
+		follow(plan(path));
+	}
+
+	/**
+	 * Starts streaming a path that was already planned
+	 */
+	public void follow(DriveTrajectory planned) {
+		synchronized (this) {
+			for (MotorIO m : talons()) {
+				m.set(ControlMode.MotionProfile, SetValueMotionProfile.Disable.value);
+				m.clearMotionProfileTrajectories();
+				encoderZeroer.zero(m);
+			}
+			this.trajectory = planned;
+			this.pointsStreamed = 0;
+			this.state = ProfileState.LOADING;
+			this.currentSegment = -1;
+		}
+	}
+
+	/**
+	 * Carries on with a different trajectory, without stopping, if every point
+	 * we've streamed so far is also the start of the new one. Otherwise nothing
+	 * changes, and the current trajectory finishes.
+	 *
+	 * @return true if we switched
+	 */
+	public synchronized boolean switchTo(DriveTrajectory next) {
+		if (trajectory == null || state == ProfileState.FINISHED || pointsStreamed >= trajectory.size()) {
+			return false;
+		}
+		if (trajectory.matchingPoints(next, SWITCH_TOLERANCE_INCHES) < pointsStreamed) {
+			return false;
+		}
+		trajectory = next;
+		return true;
+	}
+
+	public boolean isFinished() {
+		return state == ProfileState.FINISHED || state == ProfileState.IDLE;
+	}
+
+	public ProfileState getState() {
+		return state;
+	}
+
+	public DriveTrajectory getTrajectory() {
+		return trajectory;
+	}
+
+	public int getPointsStreamed() {
+		return pointsStreamed;
+	}
+
+	@Override
+	public void activate() {
+		TalonConfigResult config = talons.configureAll();
+		dataLogger.log("configSkipped", config.getSkipped());
+		dataLogger.log("configMillis", config.getElapsedMillis());
+
+		for (MotorIO m : talons()) {
+			m.changeMotionControlFramePeriod(STREAM_MILLIS);
+		}
+		if (ownsFrame) {
+			frame.sample();
+		}
+		startStreaming();
+	}
+
+	/**
+	 * Runs on the notifier: pushes the next few points, and moves one into
+	 * each talon
+	 */
+	public synchronized void stream() {
+		if (trajectory != null) {
+			talons()[0].getMotionProfileStatus(status);
+			int ahead = status.topBufferCnt + status.btmBufferCnt;
+			int room = Math.max(0, Math.min(Math.min(POINTS_PER_STREAM, status.topBufferRem), MAX_POINTS_AHEAD - ahead));
+			int last = Math.min(trajectory.size(), pointsStreamed + room);
+			for (int i = pointsStreamed; i < last; i++) {
+				fillPoint(leftPoint, i, trajectory.getLeftInches(i), trajectory.getLeftVelocity(i));
+				fillPoint(rightPoint, i, trajectory.getRightInches(i), trajectory.getRightVelocity(i));
+				for (MotorIO m : left) {
+					m.pushMotionProfileTrajectory(leftPoint);
+				}
+				for (MotorIO m : right) {
+					m.pushMotionProfileTrajectory(rightPoint);
+				}
+			}
+			pointsStreamed = last;
+		}
+		for (MotorIO m : talons()) {
+			m.processMotionProfileBuffer();
+		}
+	}
+
+	private void fillPoint(TrajectoryPoint point, int index, double inches, double inchesPerSecond) {
+		point.position = encoderConverter.toCounts(inches);
+		// the talon wants counts per 100ms
+		point.velocity = encoderConverter.toCounts(inchesPerSecond) / 10.0;
+		point.headingDeg = 0.0;
+		point.profileSlotSelect0 = talons.getFrontLeftSettings().profileSlot;
+		point.profileSlotSelect1 = 0;
+		// follow() already zeroed
+		point.zeroPos = false;
+		point.isLastPoint = index == trajectory.size() - 1;
+		point.timeDur = durationOf(trajectory.getPointMillis());
+	}
+
+	private static TrajectoryDuration durationOf(int millis) {
+		for (TrajectoryDuration d : TrajectoryDuration.values()) {
+			if (d.value == millis) {
+				return d;
+			}
+		}
+		throw new IllegalArgumentException("Talons can't run points of " + millis + "ms");
+	}
+
+	@Override
+	public void periodic() {
+		if (ownsFrame) {
+			frame.sample();
+		}
+		talons()[0].getMotionProfileStatus(periodicStatus);
+		DriveTrajectory running;
+		int streamed;
+		ProfileState now;
+		synchronized (this) {
+			running = trajectory;
+			streamed = pointsStreamed;
+			if (state == ProfileState.LOADING) {
+				boolean allBuffered = running != null && streamed == running.size();
+				if (periodicStatus.btmBufferCnt >= MIN_POINTS_TO_START
+						|| (allBuffered && periodicStatus.btmBufferCnt > 0)) {
+					state = ProfileState.RUNNING;
+				}
+			} else if (state == ProfileState.RUNNING) {
+				if (periodicStatus.activePointValid && periodicStatus.isLast) {
+					state = ProfileState.FINISHED;
+				}
+			}
+			now = state;
+		}
+
+		SetValueMotionProfile output = SetValueMotionProfile.Disable;
+		if (now == ProfileState.RUNNING) {
+			output = SetValueMotionProfile.Enable;
+		} else if (now == ProfileState.FINISHED) {
+			output = SetValueMotionProfile.Hold;
+		}
+		for (MotorIO m : talons()) {
+			m.set(ControlMode.MotionProfile, output.value);
+		}
+		checker.setMotorsWithBrokenEncodersToFollowers();
+		trackSegment(running, streamed, now);
+
+		dataLogger.log(stateKey, now.name());
+		dataLogger.log(pointsStreamedKey, streamed);
+		dataLogger.log(bufferedKey, periodicStatus.btmBufferCnt);
+		dataLogger.log(underrunKey, periodicStatus.hasUnderrun);
+	}
+
+	@Override
+	public void deactivate() {
+		stopStreaming();
+		synchronized (this) {
+			for (MotorIO m : talons()) {
+				m.clearMotionProfileTrajectories();
+			}
+			trajectory = null;
+			state = ProfileState.IDLE;
+		}
+	}
+
+	public void setSegmentListener(SegmentListener segmentListener) {
+		this.segmentListener = segmentListener;
+	}
+
+	public void setEncoderZeroer(EncoderZeroer encoderZeroer) {
+		this.encoderZeroer = encoderZeroer;
+	}
+
+	public void setTimeSource(TimeSource timeSource) {
+		this.timeSource = timeSource;
+	}
+
+	/**
+	 * Times the segment the talons are running, and how far off the plan they
+	 * are. The running point is the last one streamed, less what's still
+	 * buffered. Uses what periodic() saw, not what the notifier has changed
+	 * since
+	 */
+	private void trackSegment(DriveTrajectory running, int streamed, ProfileState state) {
+		if (running == null || currentSegment == FINISHED_SEGMENT
+				|| (state != ProfileState.RUNNING && state != ProfileState.FINISHED)) {
+			return;
+		}
+		int point = streamed - periodicStatus.topBufferCnt - periodicStatus.btmBufferCnt - 1;
+		if (state == ProfileState.FINISHED) {
+			point = running.size() - 1;
+		}
+		point = Math.max(0, Math.min(running.size() - 1, point));
+		int segment = running.getSegment(point);
+		double now = timeSource.getSystemTime();
+		if (segment != currentSegment) {
+			finishSegment(now);
+			currentSegment = segment;
+			segmentStartSeconds = now;
+			segmentMaxError = 0.0;
+		}
+		double leftError = encoderConverter.toInches(frame.getLeftEncoderCounts()) - running.getLeftInches(point);
+		double rightError = encoderConverter.toInches(frame.getRightEncoderCounts()) - running.getRightInches(point);
+		segmentMaxError = Math.max(segmentMaxError, Math.max(Math.abs(leftError), Math.abs(rightError)));
+		if (state == ProfileState.FINISHED) {
+			finishSegment(now);
+			currentSegment = FINISHED_SEGMENT;
+		}
+	}
+
+	private void finishSegment(double now) {
+		if (currentSegment >= 0 && segmentListener != null) {
+			segmentListener.segmentFinished(currentSegment, now - segmentStartSeconds, segmentMaxError);
+		}
+	}
+
+	protected void startStreaming() {
+		if (notifier == null) {
+			notifier = new Notifier(this::stream);
+		}
+		notifier.startPeriodic(STREAM_SECONDS);
+	}
+
+	protected void stopStreaming() {
+		if (notifier != null) {
+			notifier.stop();
+		}
+	}
+
+	private MotorIO[] talons() {
+		if (all == null) {
+			left = new MotorIO[] { talons.getFrontLeftIO(), talons.getRearLeftIO() };
+			right = new MotorIO[] { talons.getFrontRightIO(), talons.getRearRightIO() };
+			all = new MotorIO[] { left[0], right[0], left[1], right[1] };
+		}
+		return all;
+	}
+}
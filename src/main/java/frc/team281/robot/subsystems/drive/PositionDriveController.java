@@ -1,18 +1,35 @@
 package frc.team281.robot.subsystems.drive;
 
 
-import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+import java.util.function.DoubleSupplier;
 
+import frc.team281.robot.controllers.EncoderZeroer;
 import frc.team281.robot.controllers.FourTalonEncoderChecker;
+import frc.team281.robot.controllers.MotorIO;
 import frc.team281.robot.controllers.TalonPositionController;
 import frc.team281.robot.controllers.TalonPositionControllerGroup;
+import frc.team281.robot.logger.TimeSource;
 import frc.team281.robot.subsystems.Position;
 import frc.team281.robot.subsystems.PositionSource;
+import frc.team281.robot.subsystems.TalonConfigResult;
+import frc.team281.robot.subsystems.TalonSettings;
 
 
 /**
  * Drives to positions given by the position buffer.
  * 
+ * Normally each position is its own move: we wait until we're there, then
+ * reset the encoders for the next one. With a blend velocity set, when we're
+ * close enough to the end of a move that motion magic has slowed to that
+ * speed, and the next position is relative, we hand over to it without
+ * stopping or resetting: the talons get the next target added to the one
+ * they have. Corners get rounded off a little, and we don't lose a whole
+ * slow down and speed up at each one.
+ * 
+ * Encoder counts, and the status we log, come from a DriveSensorFrame that is
+ * sampled once per loop, so the talons are only read once no matter how many
+ * times we look at the position.
+ * 
  * @author dcowden
  *
  */
@@ -21,45 +38,161 @@ public class PositionDriveController extends BaseDriveController {
     //TODO: this should be computed from the talon settings
 	public static final double TOLERANCE_INCHES = 1.0;
 
+	// talon names and status keys, which match replay needs
+	public static final String FRONT_LEFT = "FrontLeft";
+	public static final String FRONT_RIGHT = "FrontRight";
+	public static final String REAR_LEFT = "RearLeft";
+	public static final String REAR_RIGHT = "RearRight";
+	public static final String POSITION_SUFFIX = "_pos";
+	public static final String OUTPUT_SUFFIX = "_get";
+	public static final String CURRENT_SUFFIX = "_current";
+
 	private FourTalonsWithSettings talons;
 	private TalonPositionControllerGroup positionControllerGroup;
+	private EncoderZeroer encoderZeroer = EncoderZeroer.DIRECT;
+	private TimeSource timeSource = null;
 	private EncoderInchesConverter encoderConverter;
 	private Position desiredPosition;
+	// where the current command ends, in the encoders' frame
+	private int targetLeftCounts;
+	private int targetRightCounts;
+	private double blendVelocity = 0.0;
+	private double blendInches = 0.0;
+	private int blendCount = 0;
 	private PositionSource positionSource;
 	private int updateCount = 0;
+	private DriveSensorFrame frame;
+	private boolean ownsFrame;
+	private FourTalonEncoderChecker checker;
 
+	private int updateCountKey;
+	private int blendCountKey;
+	private TalonStatusKeys frontLeftKeys;
+	private TalonStatusKeys frontRightKeys;
+	private TalonStatusKeys rearLeftKeys;
+	private TalonStatusKeys rearRightKeys;
 	
+	/**
+	 * Makes our own frame, and samples it every loop
+	 */
 	public PositionDriveController(FourTalonsWithSettings talons, PositionSource positionSource,
 			EncoderInchesConverter encoderConverter) {
+		this(talons, positionSource, encoderConverter, new DriveSensorFrame(talons), true);
+	}
+
+	/**
+	 * Uses a frame that someone else samples, before our periodic() runs
+	 */
+	public PositionDriveController(FourTalonsWithSettings talons, PositionSource positionSource,
+			EncoderInchesConverter encoderConverter, DriveSensorFrame frame) {
+		this(talons, positionSource, encoderConverter, frame, false);
+	}
+
+	private PositionDriveController(FourTalonsWithSettings talons, PositionSource positionSource,
+			EncoderInchesConverter encoderConverter, DriveSensorFrame frame, boolean ownsFrame) {
 		this.talons = talons;
+		this.frame = frame;
+		this.ownsFrame = ownsFrame;
+		this.checker = new FourTalonEncoderChecker(talons, frame);
 		this.encoderConverter = encoderConverter;
 		this.positionSource = positionSource;
+		
+		this.updateCountKey = dataLogger.registerKey("updateCount");
+		this.blendCountKey = dataLogger.registerKey("blendCount");
+		this.frontLeftKeys = new TalonStatusKeys(FRONT_LEFT, DriveSensorFrame.FRONT_LEFT);
+		this.frontRightKeys = new TalonStatusKeys(FRONT_RIGHT, DriveSensorFrame.FRONT_RIGHT);
+		this.rearLeftKeys = new TalonStatusKeys(REAR_LEFT, DriveSensorFrame.REAR_LEFT);
+		this.rearRightKeys = new TalonStatusKeys(REAR_RIGHT, DriveSensorFrame.REAR_RIGHT);
 	}
 
 	@Override
 	public void activate() {
 
-		talons.configureAll();
+		TalonConfigResult config = talons.configureAll();
+		dataLogger.log("configSkipped", config.getSkipped());
+		dataLogger.log("configMillis", config.getElapsedMillis());
 		
 		positionControllerGroup = new TalonPositionControllerGroup(
-				new TalonPositionController(talons.getFrontLeft(), talons.getFrontLeftSettings()),
-				new TalonPositionController(talons.getFrontRight(), talons.getFrontRightSettings()),
-				new TalonPositionController(talons.getRearLeft(), talons.getRearLeftSettings()),
-				new TalonPositionController(talons.getRearRight(), talons.getRearRightSettings()));
+				new TalonPositionController(talons.getFrontLeftIO(), talons.getFrontLeftSettings()),
+				new TalonPositionController(talons.getFrontRightIO(), talons.getFrontRightSettings()),
+				new TalonPositionController(talons.getRearLeftIO(), talons.getRearLeftSettings()),
+				new TalonPositionController(talons.getRearRightIO(), talons.getRearRightSettings()));
+		positionControllerGroup.setEncoderZeroer(encoderZeroer);
+		positionControllerGroup.setTimeSource(timeSource);
 
 		positionControllerGroup.resetPosition();
+		if (ownsFrame) {
+			frame.sample();
+		}
+	}
 
+	/**
+	 * Who the encoders are zeroed through, when a move starts
+	 */
+	public void setEncoderZeroer(EncoderZeroer encoderZeroer) {
+		this.encoderZeroer = encoderZeroer;
+		if (positionControllerGroup != null) {
+			positionControllerGroup.setEncoderZeroer(encoderZeroer);
+		}
+	}
+
+	/**
+	 * The clock the talon controllers time their refreshes with, or null for
+	 * the system's
+	 */
+	public void setTimeSource(TimeSource timeSource) {
+		this.timeSource = timeSource;
+		if (positionControllerGroup != null) {
+			positionControllerGroup.setTimeSource(timeSource);
+		}
+	}
+
+	/**
+	 * Hand over to the next position while still going this fast, in inches
+	 * per second. Zero, the default, stops at every position
+	 */
+	public void setBlendVelocity(double inchesPerSecond) {
+		this.blendVelocity = inchesPerSecond;
+		// motion magic slows down to this speed this far from the end
+		TalonSettings.MotionProfile profile = talons.getFrontLeftSettings().profile;
+		double acceleration = encoderConverter.toInches(profile.accelerationEncoderClicksPerSecond2 * 10);
+		this.blendInches = acceleration > 0.0 ? inchesPerSecond * inchesPerSecond / (2.0 * acceleration) : 0.0;
+	}
+
+	public double getBlendVelocity() {
+		return blendVelocity;
+	}
+
+	public double getBlendInches() {
+		return blendInches;
+	}
+
+	public int getBlendCount() {
+		return blendCount;
 	}
 
 	public boolean isFinished() {
 		if (this.desiredPosition == null) {
 			return true;
 		}
-		return getCurrentPosition().isCloseTo(desiredPosition, RealDriveSubsystem.POSITION_TOLERANCE_INCHES);
+		return getCurrentPosition().isCloseTo(getCommandTarget(), RealDriveSubsystem.POSITION_TOLERANCE_INCHES);
+	}
+
+	/**
+	 * Where the current command ends, in the encoders' frame. Once we've
+	 * blended, this isn't the same as the command
+	 */
+	protected Position getCommandTarget() {
+		return new Position(encoderConverter.toInches(targetLeftCounts), encoderConverter.toInches(targetRightCounts));
 	}
 
 	public Position getCurrentPosition() {
-		return positionControllerGroup.getCurrentPosition(encoderConverter);
+		return new Position(encoderConverter.toInches(frame.getLeftEncoderCounts()),
+				encoderConverter.toInches(frame.getRightEncoderCounts()));
+	}
+
+	public DriveSensorFrame getSensorFrame() {
+		return frame;
 	}
 
 
@@ -74,9 +207,11 @@ public class PositionDriveController extends BaseDriveController {
 	}
 	
 	@Override
-	public void periodic() {		
+	public void periodic() {
+		if (ownsFrame) {
+			frame.sample();
+		}
 		processPositionCommand();
-		FourTalonEncoderChecker checker =  new FourTalonEncoderChecker(talons);
 		checker.setMotorsWithBrokenEncodersToFollowers();
 		
 		dataLogger.log("Motor Status:",checker.friendlyStatus());
@@ -86,22 +221,19 @@ public class PositionDriveController extends BaseDriveController {
 	protected void processPositionCommand() {
 		if ( hasCurrentCommand() ) {
 			Position current = getCurrentPosition();
-			Position command = getCurrentCommand();
-			if ( command.isCloseTo(current, TOLERANCE_INCHES)) {
+			if ( getCommandTarget().isCloseTo(current, TOLERANCE_INCHES)) {
 			    positionSource.next();
 				setCurrentCommand(null);
-			}			
+			}
+			else if ( shouldBlend(current) ) {
+				positionSource.next();
+				blendCount++;
+				startCommand(positionSource.getCurrentPosition(), true);
+			}
 		}
 		else {
 			if ( positionSource.hasNextPosition()) {
-				Position p = positionSource.getCurrentPosition();
-				setCurrentCommand(p);
-				int encoderLeft = encoderConverter.toCounts(p.getLeftInches());
-				int encoderRight = encoderConverter.toCounts(p.getRightInches());
-				positionControllerGroup.setDesiredPosition(encoderLeft, encoderRight, p.isRelative());
-			}
-			else {
-				
+				startCommand(positionSource.getCurrentPosition(), false);
 			}
 		}		
 		if ( hasCurrentCommand() ) {
@@ -111,26 +243,104 @@ public class PositionDriveController extends BaseDriveController {
 			dataLogger.log("commandPosition", "<IDLE>");
 		}		
 		dataLogger.log("currentPosition", getCurrentPosition());
-		dataLogger.log("updateCount", updateCount++);
+		dataLogger.log(updateCountKey, updateCount++);
+		dataLogger.log(blendCountKey, blendCount);
 		
 	}
+
+	/**
+	 * Blend when both sides are within the blend distance of the end, and
+	 * the next position can just be added on
+	 */
+	protected boolean shouldBlend(Position current) {
+		if (blendInches <= 0.0) {
+			return false;
+		}
+		Position following = positionSource.getFollowingPosition();
+		if (following == null || !following.isRelative()) {
+			return false;
+		}
+		Position target = getCommandTarget();
+		return Math.abs(target.getLeftInches() - current.getLeftInches()) <= blendInches
+				&& Math.abs(target.getRightInches() - current.getRightInches()) <= blendInches;
+	}
+
+	/**
+	 * @param blend
+	 *            add this move to the current target, instead of starting
+	 *            over from here
+	 */
+	protected void startCommand(Position p, boolean blend) {
+		setCurrentCommand(p);
+		int encoderLeft = encoderConverter.toCounts(p.getLeftInches());
+		int encoderRight = encoderConverter.toCounts(p.getRightInches());
+		if (blend) {
+			encoderLeft += targetLeftCounts;
+			encoderRight += targetRightCounts;
+			positionControllerGroup.setDesiredPosition(encoderLeft, encoderRight, false);
+		} else {
+			positionControllerGroup.setDesiredPosition(encoderLeft, encoderRight, p.isRelative());
+		}
+		targetLeftCounts = encoderLeft;
+		targetRightCounts = encoderRight;
+	}
 	
 	protected void displayControllerStatuses() {
-		displayControllerStatus(talons.getFrontLeft(),"FrontLeft");
-		displayControllerStatus(talons.getFrontRight(),"FrontRight");
-		displayControllerStatus(talons.getRearLeft(),"RearLeft");
-		displayControllerStatus(talons.getRearRight(),"RearRight");
+		displayControllerStatus(frame.getTalon(DriveSensorFrame.FRONT_LEFT),frontLeftKeys);
+		displayControllerStatus(frame.getTalon(DriveSensorFrame.FRONT_RIGHT),frontRightKeys);
+		displayControllerStatus(frame.getTalon(DriveSensorFrame.REAR_LEFT),rearLeftKeys);
+		displayControllerStatus(frame.getTalon(DriveSensorFrame.REAR_RIGHT),rearRightKeys);
 	}
 	
-	protected void displayControllerStatus(WPI_TalonSRX talon, String name) {
-        dataLogger.log(name +"_error", talon.getClosedLoopError(0) );
-        dataLogger.log(name +"_errorMsg", talon.getLastError() );
-        dataLogger.log(name +"_get", talon.get() );
-        dataLogger.log(name +"_percent", talon.getMotorOutputPercent() );
-        dataLogger.log(name +"_tvolts", talon.getMotorOutputVoltage() );
-        dataLogger.log(name +"_current", talon.getOutputCurrent() );
-        dataLogger.log(name +"_pos", talon.getSelectedSensorPosition(0) );
-        dataLogger.log(name +"_vel", talon.getSelectedSensorVelocity(0) );		
+	/**
+	 * Most of the status is already in the frame. The rest goes over CAN just
+	 * for logging, so it's logged with suppliers, and only read when a logger
+	 * wants it this loop.
+	 */
+	protected void displayControllerStatus(MotorIO talon, TalonStatusKeys keys) {
+		keys.talon = talon;
+        dataLogger.log(keys.error, frame.getClosedLoopError(keys.index) );
+        dataLogger.log(keys.errorMsg, talon.getLastError().name() );
+        dataLogger.log(keys.get, talon.get() );
+        dataLogger.log(keys.percent, keys.readPercent );
+        dataLogger.log(keys.tvolts, keys.readVolts );
+        dataLogger.log(keys.current, frame.getCurrent(keys.index) );
+        dataLogger.log(keys.pos, frame.getPosition(keys.index) );
+        dataLogger.log(keys.vel, frame.getVelocity(keys.index) );
+	}
+	
+	/**
+	 * Logger handles for the status of one talon, registered once so that
+	 * we dont build the key strings every loop. The suppliers read from
+	 * whichever talon was set last, so they're made once too.
+	 */
+	protected class TalonStatusKeys {
+		final int error;
+		final int errorMsg;
+		final int get;
+		final int percent;
+		final int tvolts;
+		final int current;
+		final int pos;
+		final int vel;
+		// where this talon is in the frame
+		final int index;
+		
+		MotorIO talon;
+		final DoubleSupplier readPercent = () -> talon.getMotorOutputPercent();
+		final DoubleSupplier readVolts = () -> talon.getMotorOutputVoltage();
+		
+		TalonStatusKeys(String name, int index) {
+			this.index = index;
+			error = dataLogger.registerKey(name + "_error");
+			errorMsg = dataLogger.registerKey(name + "_errorMsg");
+			get = dataLogger.registerKey(name + OUTPUT_SUFFIX);
+			percent = dataLogger.registerKey(name + "_percent");
+			tvolts = dataLogger.registerKey(name + "_tvolts");
+			current = dataLogger.registerKey(name + CURRENT_SUFFIX);
+			pos = dataLogger.registerKey(name + POSITION_SUFFIX);
+			vel = dataLogger.registerKey(name + "_vel");
+		}
 	}
 
 	@Override
@@ -1,12 +1,20 @@
 package frc.team281.robot.subsystems.drive;
 
+import java.util.List;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.NeutralMode;
 import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
 import com.kauailabs.navx.frc.AHRS;
 import edu.wpi.first.wpilibj.SerialPort;
 import frc.team281.robot.DriveInstructionSource;
 import frc.team281.robot.RobotMap;
+import frc.team281.robot.subsystems.Position;
+import frc.team281.robot.subsystems.PositionCalculator;
+import frc.team281.robot.subsystems.StatusFrameProfile;
 import frc.team281.robot.subsystems.TalonSettings;
 import frc.team281.robot.subsystems.TalonSettingsBuilder;
+import frc.team281.robot.subsystems.TalonStartupConfigurator;
 import frc.team281.robot.subsystems.NavXIntializer;
 
 /**
@@ -30,7 +38,15 @@ public class RealDriveSubsystem extends BaseDriveSubsystem {
 	public static final double ENCODER_TICKS_PER_INCH = 44.88;
 
 	public static final int POSITION_ENCODER_TOLERANCE = 25;
+	public static final int POSITION_SLOT = TalonSettings.PROFILE_SLOT;
+	public static final int SPEED_SLOT = 1;
 	public static final double POSITION_TOLERANCE_INCHES = (double)POSITION_ENCODER_TOLERANCE/ ENCODER_TICKS_PER_INCH;
+	// hand over to the next position at this speed, instead of stopping
+	public static final double POSITION_BLEND_INCHES_PER_SECOND = 30.0;
+	public static final String FRONT_LEFT_ENCODER_KEY = "frontLeftEncoder";
+	public static final String FRONT_RIGHT_ENCODER_KEY = "frontRightEncoder";
+	public static final String REAR_LEFT_ENCODER_KEY = "rearLeftEncoder";
+	public static final String REAR_RIGHT_ENCODER_KEY = "rearRightEncoder";
 	
 	//protected FourTalonGroup talons;
 	private AHRS navX = null;
@@ -45,6 +61,7 @@ public class RealDriveSubsystem extends BaseDriveSubsystem {
 	//private FourDriveTalonCalibratorController calibrator;
 	private BasicArcadeDriveController arcadeDrive;
 	private PositionDriveController positionDrive;
+	private MotionProfileDriveController profileDrive;
 	protected DoNothingDriveController doNothing = new DoNothingDriveController();
 	private DriveInstructionSource driveInstructionSource;
 	
@@ -55,9 +72,28 @@ public class RealDriveSubsystem extends BaseDriveSubsystem {
 	private WPI_TalonSRX frontRightMotor;
 	private WPI_TalonSRX rearLeftMotor;
 	private WPI_TalonSRX rearRightMotor;
+	private DriveSensorFrame sensorFrame;
+	private DriveOdometry odometry;
+	
+	private int driveModeKey;
+	private int frontLeftEncoderKey;
+	private int frontRightEncoderKey;
+	private int rearLeftEncoderKey;
+	private int rearRightEncoderKey;
+	private int poseXKey;
+	private int poseYKey;
+	private int poseHeadingKey;
 	
 	public RealDriveSubsystem(DriveInstructionSource driveInstructionSource) {
 		this.driveInstructionSource = driveInstructionSource;
+		this.driveModeKey = dataLogger.registerKey("DriveMode");
+		this.frontLeftEncoderKey = dataLogger.registerKey(FRONT_LEFT_ENCODER_KEY);
+		this.frontRightEncoderKey = dataLogger.registerKey(FRONT_RIGHT_ENCODER_KEY);
+		this.rearLeftEncoderKey = dataLogger.registerKey(REAR_LEFT_ENCODER_KEY);
+		this.rearRightEncoderKey = dataLogger.registerKey(REAR_RIGHT_ENCODER_KEY);
+		this.poseXKey = dataLogger.registerKey("poseX");
+		this.poseYKey = dataLogger.registerKey("poseY");
+		this.poseHeadingKey = dataLogger.registerKey("poseHeading");
 	}
 
 	@Override
@@ -73,39 +109,19 @@ public class RealDriveSubsystem extends BaseDriveSubsystem {
 		frontRightMotor = new WPI_TalonSRX(RobotMap.CAN.FRONT_RIGHT_MOTOR);
 		rearLeftMotor = new WPI_TalonSRX(RobotMap.CAN.REAR_LEFT_MOTOR);
 		rearRightMotor = new WPI_TalonSRX(RobotMap.CAN.REAR_RIGHT_MOTOR);
+		sensorFrame = new DriveSensorFrame(frontLeftMotor, frontRightMotor, rearLeftMotor, rearRightMotor);
 		
-		TalonSettings leftFrontSpeedSettings = TalonSettingsBuilder.defaults()
-				.withCurrentLimits(35, 30, 200)
-				.coastInNeutral()
-				.withDirections(false, false)
-				.limitMotorOutputs(1.0, 0.2)
-				.noMotorStartupRamping()
-				.useSpeedControl()
-				.build();
-		TalonSettings rightFrontSpeedSettings = TalonSettingsBuilder.defaults()
-                .withCurrentLimits(35, 30, 200)
-                .coastInNeutral()
-                .withDirections(false, true)
-                .limitMotorOutputs(1.0, 0.2)
-                .noMotorStartupRamping()
-                .useSpeedControl()
-                .build();
-		TalonSettings leftRearSpeedSettings = TalonSettingsBuilder.defaults()
-                .withCurrentLimits(35, 30, 200)
-                .coastInNeutral()
-                .withDirections(false, false)
-                .limitMotorOutputs(1.0, 0.2)
-                .noMotorStartupRamping()
-                .useSpeedControl()
-                .build();
-        TalonSettings rightRearSpeedSettings = TalonSettingsBuilder.defaults()
-                .withCurrentLimits(35, 30, 200)
-                .coastInNeutral()
-                .withDirections(false, true)
-                .limitMotorOutputs(1.0, 0.2)
-                .noMotorStartupRamping()
-                .useSpeedControl()
-                .build();
+		TalonSettings leftFrontPositionSettings = leftPositionSettings();
+		TalonSettings leftRearPositionSettings = leftPositionSettings();
+		TalonSettings rightFrontPositionSettings = rightPositionSettings();
+		TalonSettings rightRearPositionSettings = rightPositionSettings();
+
+		// the same settings in a different slot and mode, so switching drive
+		// modes doesn't have to wait on the talons
+		TalonSettings leftFrontSpeedSettings = speedModeOf(leftFrontPositionSettings);
+		TalonSettings leftRearSpeedSettings = speedModeOf(leftRearPositionSettings);
+		TalonSettings rightFrontSpeedSettings = speedModeOf(rightFrontPositionSettings);
+		TalonSettings rightRearSpeedSettings = speedModeOf(rightRearPositionSettings);
 
 		speedModeTalons = new FourTalonsWithSettings(
 		        frontLeftMotor,
@@ -115,7 +131,47 @@ public class RealDriveSubsystem extends BaseDriveSubsystem {
 		        leftFrontSpeedSettings,leftRearSpeedSettings,
 		        rightFrontSpeedSettings,rightRearSpeedSettings);
 
-		TalonSettings leftFrontPositionSettings = TalonSettingsBuilder.defaults()
+		positionModeTalons = new FourTalonsWithSettings(
+                frontLeftMotor,
+                rearLeftMotor,
+                frontRightMotor,
+                rearRightMotor,
+                leftFrontPositionSettings,
+                leftRearPositionSettings,
+                rightFrontPositionSettings,
+                rightRearPositionSettings);
+
+		// auto comes first, so start in position settings. then activating
+		// position drive sends almost nothing
+		TalonStartupConfigurator startup = TalonStartupConfigurator.getInstance();
+		startup.configure("DriveFrontLeft", frontLeftMotor, leftFrontPositionSettings);
+		startup.configure("DriveFrontRight", frontRightMotor, rightFrontPositionSettings);
+		startup.configure("DriveRearLeft", rearLeftMotor, leftRearPositionSettings);
+		startup.configure("DriveRearRight", rearRightMotor, rightRearPositionSettings);
+				
+		arcadeDrive = new BasicArcadeDriveController(speedModeTalons, driveInstructionSource);
+		positionDrive = new PositionDriveController(positionModeTalons, getPositionBuffer(), 
+				        new EncoderInchesConverter(ENCODER_TICKS_PER_INCH), sensorFrame);
+		positionDrive.setBlendVelocity(POSITION_BLEND_INCHES_PER_SECOND);
+		profileDrive = new MotionProfileDriveController(positionModeTalons,
+				new EncoderInchesConverter(ENCODER_TICKS_PER_INCH), sensorFrame);
+
+		// uses the encoders for heading until the navx is back
+		AHRS gyro = this.navX;
+		odometry = new DriveOdometry(positionModeTalons, new EncoderInchesConverter(ENCODER_TICKS_PER_INCH),
+				PositionCalculator.DISTANCE_BETWEEN_WHEELS, gyro == null ? null : () -> gyro.getYaw());
+		positionDrive.setEncoderZeroer(odometry);
+		profileDrive.setEncoderZeroer(odometry);
+		odometry.start();
+		
+	}
+
+	/**
+	 * The position settings of a left side talon, with the speed slot loaded.
+	 * Match replay uses these too, so it always has what the robot runs
+	 */
+	public static TalonSettings leftPositionSettings() {
+		return withSpeedSlot(TalonSettingsBuilder.defaults()
 				.withCurrentLimits(35, 30, 200)
 				.brakeInNeutral()
 				.withDirections(false, false)
@@ -124,18 +180,14 @@ public class RealDriveSubsystem extends BaseDriveSubsystem {
 				.usePositionControl()
 				.withGains(0.3,5.0, 0.0, 0.0)
 				.withMotionProfile(400, 500,POSITION_ENCODER_TOLERANCE)
-				.build();
-		TalonSettings leftRearPositionSettings = TalonSettingsBuilder.defaults()
-                .withCurrentLimits(35, 30, 200)
-                .brakeInNeutral()
-                .withDirections(false, false)
-                .limitMotorOutputs(1.0, 0.25)
-                .noMotorStartupRamping()
-                .usePositionControl()
-                .withGains(0.3,5.0, 0.0, 0.0)
-                .withMotionProfile(400, 500,POSITION_ENCODER_TOLERANCE)
-                .build();
-		TalonSettings rightFrontPositionSettings = TalonSettingsBuilder.defaults()
+				.build());
+	}
+
+	/**
+	 * The right side is inverted, and needs more gain to keep up
+	 */
+	public static TalonSettings rightPositionSettings() {
+		return withSpeedSlot(TalonSettingsBuilder.defaults()
 				.withCurrentLimits(35, 30, 200)
 				.brakeInNeutral()
 				.withDirections(false, true)
@@ -144,33 +196,25 @@ public class RealDriveSubsystem extends BaseDriveSubsystem {
 				.usePositionControl()
 				.withGains(0.3,8.0, 0, 0.0)
 				.withMotionProfile(400, 500,POSITION_ENCODER_TOLERANCE)
-				.build();
-		
+				.build());
+	}
 
-        TalonSettings rightRearPositionSettings = TalonSettingsBuilder.defaults()
-                .withCurrentLimits(35, 30, 200)
-                .brakeInNeutral()
-                .withDirections(false, true)
-                .limitMotorOutputs(1.0, 0.15)
-                .noMotorStartupRamping()
-                .usePositionControl()
-                .withGains(0.3,8.0, 0, 0.0)
-                .withMotionProfile(400, 500,POSITION_ENCODER_TOLERANCE)
-                .build();
-		positionModeTalons = new FourTalonsWithSettings(
-                frontLeftMotor,
-                rearLeftMotor,
-                frontRightMotor,
-                rearRightMotor,
-                leftFrontPositionSettings,
-                leftRearPositionSettings,
-                rightFrontPositionSettings,
-                rightRearPositionSettings);
-				
-		arcadeDrive = new BasicArcadeDriveController(speedModeTalons, driveInstructionSource);
-		positionDrive = new PositionDriveController(positionModeTalons, getPositionBuffer(), 
-				        new EncoderInchesConverter(ENCODER_TICKS_PER_INCH));
-		
+	/**
+	 * Loads the speed slot too, and uses the position frame rates, which are
+	 * what the talons start with
+	 */
+	private static TalonSettings withSpeedSlot(TalonSettings positionSettings) {
+		// speed drive is open loop, so the gains aren't used yet
+		TalonSettings s = TalonSettingsBuilder.withSlotGains(positionSettings, SPEED_SLOT, 0.0, 0.0, 0.0, 0.0);
+		StatusFrameProfile.drivePosition().applyTo(s);
+		return s;
+	}
+
+	private static TalonSettings speedModeOf(TalonSettings positionSettings) {
+		TalonSettings s = TalonSettingsBuilder.inMode(positionSettings, SPEED_SLOT, ControlMode.PercentOutput,
+				NeutralMode.Coast);
+		StatusFrameProfile.driveTeleop().applyTo(s);
+		return s;
 	}
 
 	public void setupNewDriveSource(DriveInstructionSource newSource) {
@@ -180,6 +224,62 @@ public class RealDriveSubsystem extends BaseDriveSubsystem {
 		arcadeDrive.setDriveInstructionSource(this.driveInstructionSource);
 	}
 	
+	/**
+	 * Drives the whole path as one motion profile. Use PROFILE_DRIVE mode
+	 */
+	public void followProfiledPath(List<Position> path) {
+		profileDrive.follow(path);
+	}
+
+	/**
+	 * Plans a path for followProfiledPath, so the planning can happen before
+	 * we need to drive it
+	 */
+	public DriveTrajectory planProfiledPath(List<Position> path) {
+		return profileDrive.plan(path);
+	}
+
+	public void followProfiledPath(DriveTrajectory trajectory) {
+		profileDrive.follow(trajectory);
+	}
+
+	/**
+	 * Switches the path we're following to another one that starts the same
+	 * way, without stopping. Returns false if it's too late to switch
+	 */
+	public boolean switchProfiledPath(DriveTrajectory trajectory) {
+		return profileDrive.switchTo(trajectory);
+	}
+
+	/**
+	 * Told how long each segment of a profiled path took
+	 */
+	public void setProfileSegmentListener(MotionProfileDriveController.SegmentListener listener) {
+		profileDrive.setSegmentListener(listener);
+	}
+
+	public boolean isProfiledPathFinished() {
+		return profileDrive.isFinished();
+	}
+
+	/**
+	 * Where we are on the field. Safe to call from anywhere
+	 */
+	public RobotPose getPose() {
+		return odometry.getPose();
+	}
+
+	/**
+	 * The settings the auto paths are driven with, including the motion profile
+	 */
+	public TalonSettings getPositionSettings() {
+		return positionModeTalons.getFrontLeftSettings();
+	}
+
+	public DriveOdometry getOdometry() {
+		return odometry;
+	}
+
 	public void stop(){
 	    frontLeftMotor.set(0.0);
 	    rearLeftMotor.set(0.0);
@@ -227,13 +327,19 @@ public class RealDriveSubsystem extends BaseDriveSubsystem {
     }
 
 	@Override
-	public void periodic() {
-		dataLogger.log("DriveMode", driveMode + "");
+	protected void onPeriodic() {
+		// the one place the drive talons are read each loop
+		sensorFrame.sample();
+		dataLogger.log(driveModeKey, driveMode.name());
 		
-		dataLogger.log("frontLeftEncoder", frontLeftMotor.getSelectedSensorPosition(0));
-		dataLogger.log("frontRightEncoder", frontRightMotor.getSelectedSensorPosition(0));
-		dataLogger.log("rearLeftEncoder", rearLeftMotor.getSelectedSensorPosition(0));
-		dataLogger.log("rearRightEncoder", rearRightMotor.getSelectedSensorPosition(0));
+		dataLogger.log(frontLeftEncoderKey, sensorFrame.getPosition(DriveSensorFrame.FRONT_LEFT));
+		dataLogger.log(frontRightEncoderKey, sensorFrame.getPosition(DriveSensorFrame.FRONT_RIGHT));
+		dataLogger.log(rearLeftEncoderKey, sensorFrame.getPosition(DriveSensorFrame.REAR_LEFT));
+		dataLogger.log(rearRightEncoderKey, sensorFrame.getPosition(DriveSensorFrame.REAR_RIGHT));
+		RobotPose pose = odometry.getPose();
+		dataLogger.log(poseXKey, pose.getXInches());
+		dataLogger.log(poseYKey, pose.getYInches());
+		dataLogger.log(poseHeadingKey, pose.getHeadingDegrees());
         if (this.navX != null) {
             // dataLogger.log("NavX: ", this.navX);
             dataLogger.log("NavX Collision Detected: ", this.collisionDetected);
@@ -245,6 +351,8 @@ public class RealDriveSubsystem extends BaseDriveSubsystem {
 		
 		if (driveMode == DriveMode.POSITION_DRIVE) {
 			runController(positionDrive);
+		} else if (driveMode == DriveMode.PROFILE_DRIVE) {
+			runController(profileDrive);
 		} else if (driveMode == DriveMode.SPEED_DRIVE) {
 			runController(arcadeDrive);
 		} else {
@@ -0,0 +1,60 @@
+package frc.team281.robot.subsystems.drive;
+
+/**
+ * Where the robot is on the field, at one moment. x is forward from where we
+ * started, y is to the left, and heading is counter-clockwise from the x
+ * axis, in degrees.
+ *
+ * Poses never change, so one can be handed between threads safely.
+ *
+ * @author dcowden
+ *
+ */
+public final class RobotPose {
+
+	public static final RobotPose ORIGIN = new RobotPose(0.0, 0.0, 0.0, 0.0);
+
+	private final double xInches;
+	private final double yInches;
+	private final double headingDegrees;
+	private final double timestampSeconds;
+
+	public RobotPose(double xInches, double yInches, double headingDegrees, double timestampSeconds) {
+		this.xInches = xInches;
+		this.yInches = yInches;
+		this.headingDegrees = headingDegrees;
+		this.timestampSeconds = timestampSeconds;
+	}
+
+	public double getXInches() {
+		return xInches;
+	}
+
+	public double getYInches() {
+		return yInches;
+	}
+
+	public double getHeadingDegrees() {
+		return headingDegrees;
+	}
+
+	public double getHeadingRadians() {
+		return Math.toRadians(headingDegrees);
+	}
+
+	/**
+	 * When this pose was measured, in TimeSource seconds
+	 */
+	public double getTimestampSeconds() {
+		return timestampSeconds;
+	}
+
+	public double distanceTo(RobotPose other) {
+		return Math.hypot(other.xInches - xInches, other.yInches - yInches);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("x=%.2f, y=%.2f, heading=%.1f", xInches, yInches, headingDegrees);
+	}
+}
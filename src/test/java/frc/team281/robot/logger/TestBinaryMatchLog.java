@@ -0,0 +1,199 @@
+package frc.team281.robot.logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class TestBinaryMatchLog {
+
+    @Test
+    public void testRecordsReadBack() throws Exception {
+        File file = File.createTempFile("match", ".bin");
+        file.deleteOnExit();
+        FakeTimeSource time = new FakeTimeSource();
+        BinaryMatchLog log = BinaryMatchLog.create(file, BinaryMatchLog.HEADER_SIZE + 1024, time);
+        BinaryMatchLogger logger = new BinaryMatchLogger("drive", log);
+
+        int speed = logger.registerKey("speed");
+        time.elapsed = 0.5;
+        logger.log(speed, 2.5);
+        time.elapsed = 0.52;
+        logger.log("count", 7);
+        logger.log("enabled", true);
+        logger.log("mode", "SPEED");
+        logger.log("ticks", 123456789012L);
+        log.force();
+
+        BinaryMatchLogReader reader = BinaryMatchLogReader.open(file);
+        assertTrue(reader.getKeys().contains("drive.speed"));
+
+        assertTrue(reader.next());
+        assertEquals("drive.speed", reader.getKey());
+        assertEquals(BinaryMatchLog.DOUBLE, reader.getType());
+        assertEquals(2.5, reader.getDouble(), 0.0);
+        assertEquals(0.5, reader.getTimeSeconds(), 1e-6);
+
+        assertTrue(reader.next());
+        assertEquals("drive.count", reader.getKey());
+        assertEquals(7, reader.getInt());
+        assertEquals(0.52, reader.getTimeSeconds(), 1e-6);
+
+        assertTrue(reader.next());
+        assertTrue(reader.getBoolean());
+
+        assertTrue(reader.next());
+        assertEquals("SPEED", reader.getString());
+
+        assertTrue(reader.next());
+        assertEquals(123456789012L, reader.getLong());
+
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void testTimesPastAnIntOfMicroseconds() {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryMatchLog.HEADER_SIZE + 1024);
+        FakeTimeSource time = new FakeTimeSource();
+        BinaryMatchLog log = new BinaryMatchLog(buffer, time);
+        BinaryMatchLogger logger = new BinaryMatchLogger("a", log);
+        // left on in the queue for an hour
+        time.elapsed = 3600.0;
+        logger.log("x", 1);
+
+        BinaryMatchLogReader reader = new BinaryMatchLogReader(buffer);
+        assertTrue(reader.next());
+        assertEquals(3600000000L, reader.getTimeMicros());
+        assertEquals(3600.0, reader.getTimeSeconds(), 1e-6);
+    }
+
+    @Test
+    public void testLoggersShareDictionary() {
+        BinaryMatchLog log = new BinaryMatchLog(ByteBuffer.allocate(BinaryMatchLog.HEADER_SIZE + 1024),
+                new FakeTimeSource());
+        BinaryMatchLogger a = new BinaryMatchLogger("a", log);
+        BinaryMatchLogger b = new BinaryMatchLogger("b", log);
+        int beforeKeys = log.getKeyCount();
+
+        a.registerKey("x");
+        a.registerKey("x");
+        b.registerKey("x");
+        assertEquals(beforeKeys + 2, log.getKeyCount());
+    }
+
+    @Test
+    public void testDropsWhenFull() {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryMatchLog.HEADER_SIZE + 256);
+        BinaryMatchLog log = new BinaryMatchLog(buffer, new FakeTimeSource());
+        BinaryMatchLogger logger = new BinaryMatchLogger("a", log);
+        int key = logger.registerKey("x");
+        for (int i = 0; i < 100; i++) {
+            logger.log(key, i * 1.5);
+        }
+        assertTrue(log.getDroppedCount() > 0);
+        assertEquals(100, log.getRecordCount() + log.getDroppedCount());
+
+        // what was written still reads back
+        BinaryMatchLogReader reader = new BinaryMatchLogReader(buffer);
+        int read = 0;
+        while (reader.next()) {
+            assertEquals(read * 1.5, reader.getDouble(), 0.0);
+            read++;
+        }
+        assertEquals(log.getRecordCount(), read);
+    }
+
+    @Test
+    public void testSlowSeriesCompress() {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryMatchLog.HEADER_SIZE + 64 * 1024);
+        FakeTimeSource time = new FakeTimeSource();
+        BinaryMatchLog log = new BinaryMatchLog(buffer, time);
+        log.setDoubleFractionBits(10);
+        BinaryMatchLogger logger = new BinaryMatchLogger("drive", log);
+        int pos = logger.registerKey("pos");
+        int current = logger.registerKey("current");
+        int mode = logger.registerKey("mode");
+        int enabled = logger.registerKey("enabled");
+        int loops = 500;
+        for (int i = 0; i < loops; i++) {
+            time.elapsed = i * 0.02;
+            logger.log(pos, 1000 + i * 7);
+            logger.log(current, 12.125 + (i % 3) * 0.125);
+            logger.log(mode, "POSITION");
+            logger.log(enabled, true);
+        }
+        // uncompressed, these would be at least 4 * 7 bytes of header, plus values
+        double bytesPerRecord = log.getBytesWritten() / (double) log.getRecordCount();
+        assertTrue("bytes per record: " + bytesPerRecord, bytesPerRecord < 6.0);
+
+        BinaryMatchLogReader reader = new BinaryMatchLogReader(buffer);
+        assertEquals(10, reader.getDoubleFractionBits());
+        for (int i = 0; i < loops; i++) {
+            assertTrue(reader.next());
+            assertEquals(BinaryMatchLog.INT, reader.getType());
+            assertEquals(1000 + i * 7, reader.getInt());
+            assertEquals(i * 0.02, reader.getTimeSeconds(), 1e-6);
+            assertTrue(reader.next());
+            assertEquals(12.125 + (i % 3) * 0.125, reader.getDouble(), 0.0);
+            assertTrue(reader.next());
+            assertEquals("POSITION", reader.getString());
+            assertTrue(reader.next());
+            assertTrue(reader.getBoolean());
+        }
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void testQuantizesDoubles() {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryMatchLog.HEADER_SIZE + 1024);
+        BinaryMatchLog log = new BinaryMatchLog(buffer, new FakeTimeSource());
+        log.setDoubleFractionBits(10);
+        BinaryMatchLogger logger = new BinaryMatchLogger("a", log);
+        logger.log("x", Math.PI);
+        logger.log("x", -Math.E);
+
+        BinaryMatchLogReader reader = new BinaryMatchLogReader(buffer);
+        assertTrue(reader.next());
+        assertEquals(Math.PI, reader.getDouble(), 1.0 / 2048);
+        assertTrue(reader.next());
+        assertEquals(-Math.E, reader.getDouble(), 1.0 / 2048);
+    }
+
+    @Test
+    public void testVarints() {
+        ByteBuffer b = ByteBuffer.allocate(64);
+        long[] values = { 0, 1, -1, 63, -64, 64, 1L << 40, Long.MIN_VALUE, Long.MAX_VALUE };
+        for (long v : values) {
+            LogEncoding.putSignedVarLong(b, v);
+        }
+        b.flip();
+        for (long v : values) {
+            assertEquals(v, LogEncoding.getSignedVarLong(b));
+        }
+        assertEquals(1, LogEncoding.zigZag(-1));
+        assertEquals(2, LogEncoding.zigZag(1));
+    }
+}
+
+class FakeTimeSource implements TimeSource {
+    double elapsed = 0.0;
+
+    @Override
+    public double getSystemTime() {
+        return elapsed;
+    }
+
+    @Override
+    public void resetClock() {
+        elapsed = 0.0;
+    }
+
+    @Override
+    public double getElapsedSeconds() {
+        return elapsed;
+    }
+}
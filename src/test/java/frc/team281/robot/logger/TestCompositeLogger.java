@@ -1,6 +1,9 @@
 package frc.team281.robot.logger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.function.DoubleSupplier;
 
 import org.junit.Test;
 
@@ -23,10 +26,139 @@ public class TestCompositeLogger {
         cdl.warn("foo5");
         assertEquals(12, logger1.getCounter() + logger2.getCounter());
     }
+
+    @Test
+    public void testRegisteredKeysReachEveryLogger() {
+
+        FakeDataLogger logger1 = new FakeDataLogger("test1");
+        FakeDataLogger logger2 = new FakeDataLogger("test2");
+
+        // make the child handles different from the composite's
+        logger2.registerKey("somethingElse");
+        CompositeLogger cdl = new CompositeLogger(logger1, logger2);
+
+        int foo = cdl.registerKey("foo");
+        int bar = cdl.registerKey("bar");
+        assertEquals(foo, cdl.registerKey("foo"));
+        assertEquals("test1.bar", logger1.getPath(logger1.registerKey("bar")));
+        assertEquals("test2.bar", logger2.getPath(logger2.registerKey("bar")));
+
+        cdl.log(foo, 1.0);
+        cdl.log(bar, 2);
+        cdl.log(foo, 3L);
+        cdl.log(bar, true);
+        cdl.log(foo, "baz");
+        assertEquals(10, logger1.getCounter() + logger2.getCounter());
+        assertEquals("foo", logger2.getLastKey());
+    }
+
+    @Test
+    public void testRoutesByPrefix() {
+        FakeDataLogger dashboard = new FakeDataLogger("drive");
+        FakeDataLogger matchLog = new FakeDataLogger("drive");
+        CompositeLogger cdl = new CompositeLogger(new DataLogger[] { dashboard, matchLog },
+                new LogSubscription[] { LogSubscription.everything().exclude("drive.talon"),
+                        LogSubscription.everything() });
+
+        int talon = cdl.registerKey("talon_pos");
+        int mode = cdl.registerKey("mode");
+        assertEquals(1, cdl.getRouteSize(talon));
+        assertEquals(2, cdl.getRouteSize(mode));
+        // excluded keys are never registered with the logger that doesn't want them
+        assertEquals(1, dashboard.getKeyCount());
+
+        cdl.log(talon, 1.0);
+        cdl.log("talon_pos", 2.0);
+        cdl.log(mode, "SPEED");
+        assertEquals(1, dashboard.getCounter());
+        assertEquals(3, matchLog.getCounter());
+    }
+
+    @Test
+    public void testSamplesEveryNth() {
+        FakeDataLogger dashboard = new FakeDataLogger("drive");
+        CompositeLogger cdl = new CompositeLogger(new DataLogger[] { dashboard },
+                new LogSubscription[] { LogSubscription.nothing().subscribeSubsystem("drive", 5) });
+        int key = cdl.registerKey("speed");
+        for (int i = 0; i < 12; i++) {
+            cdl.log(key, (double) i);
+        }
+        // samples 0, 5 and 10
+        assertEquals(3, dashboard.getCounter());
+    }
+
+    @Test
+    public void testSupplierOnlyReadWhenSampled() {
+        FakeDataLogger dashboard = new FakeDataLogger("drive");
+        FakeDataLogger matchLog = new FakeDataLogger("drive");
+        CompositeLogger cdl = new CompositeLogger(new DataLogger[] { dashboard, matchLog },
+                new LogSubscription[] { LogSubscription.everything().subscribe("drive.talon", 5),
+                        LogSubscription.everything().exclude("drive.talon") });
+        CountingSupplier reads = new CountingSupplier();
+        int key = cdl.registerKey("talon_current");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i % 5 == 0, cdl.wantsSample(key));
+            cdl.log(key, reads);
+        }
+        assertEquals(2, reads.count);
+        assertEquals(2, dashboard.getCounter());
+        assertEquals(0, matchLog.getCounter());
+        assertEquals(8, cdl.getSkippedReadCount());
+    }
+
+    @Test
+    public void testSupplierReadOncePerLog() {
+        FakeDataLogger logger1 = new FakeDataLogger("test1");
+        FakeDataLogger logger2 = new FakeDataLogger("test2");
+        CompositeLogger cdl = new CompositeLogger(logger1, logger2);
+        CountingSupplier reads = new CountingSupplier();
+        cdl.log(cdl.registerKey("foo"), reads);
+        assertEquals(1, reads.count);
+        assertEquals(2, logger1.getCounter() + logger2.getCounter());
+    }
+
+    @Test
+    public void testRateLimitedDashboardSkipsRead() {
+        RecordingPublisher p = new RecordingPublisher(16);
+        FakeTimeSource time = new FakeTimeSource();
+        AsyncSmartDashboardLogger dashboard = new AsyncSmartDashboardLogger("drive", p, time);
+        dashboard.setMaxRate("current", 10.0);
+        CompositeLogger cdl = new CompositeLogger(dashboard);
+        CountingSupplier reads = new CountingSupplier();
+        int key = cdl.registerKey("current");
+        for (int i = 0; i < 10; i++) {
+            time.elapsed = i * 0.02;
+            cdl.log(key, reads);
+        }
+        // read at 0.0 and 0.1 seconds
+        assertEquals(2, reads.count);
+        assertFalse(cdl.wantsSample(key));
+    }
+
+    @Test
+    public void testLongestPrefixWins() {
+        LogSubscription s = LogSubscription.nothing()
+                .subscribeSubsystem("LifterSubsystem", 1)
+                .subscribe("LifterSubsystem.Encoder", 10);
+        assertEquals(1, s.getSampleEvery("LifterSubsystem.UpperLimit"));
+        assertEquals(10, s.getSampleEvery("LifterSubsystem.EncoderCount:"));
+        assertEquals(LogSubscription.EXCLUDED, s.getSampleEvery("GrabberSubsystem.isCubeLoaded"));
+    }
+}
+
+class CountingSupplier implements DoubleSupplier {
+    int count = 0;
+
+    @Override
+    public double getAsDouble() {
+        count++;
+        return count;
+    }
 }
 
 class FakeDataLogger extends DataLogger {
     private int counter = 0;
+    private String lastKey = null;
 
     public FakeDataLogger(String name) {
         super(name);
@@ -50,6 +182,7 @@ class FakeDataLogger extends DataLogger {
     @Override
     public void log(String key, String value) {
         counter++;
+        lastKey = key;
     }
 
     @Override
@@ -66,6 +199,10 @@ class FakeDataLogger extends DataLogger {
         return counter;
     }
 
+    public String getLastKey() {
+        return lastKey;
+    }
+
     @Override
     public void warn(String message) {
         counter++;
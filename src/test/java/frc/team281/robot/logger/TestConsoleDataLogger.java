@@ -0,0 +1,87 @@
+package frc.team281.robot.logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Test;
+
+public class TestConsoleDataLogger {
+
+    private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private PrintStream out = new PrintStream(bytes, true);
+
+    private String printed() {
+        return bytes.toString().replace("\r\n", "\n");
+    }
+
+    @Test
+    public void testFormatsLikePrintf() {
+        FakeTimeSource time = new FakeTimeSource();
+        time.elapsed = 1.5;
+        ConsoleDataLogger logger = new ConsoleDataLogger("lifter", time, ConsoleWriter.unbuffered(out));
+        int key = logger.registerKey("pos");
+        logger.log(key, 2.0 / 3.0);
+        logger.log("count", 42);
+        logger.log(key, true);
+        logger.warn("careful");
+        assertEquals("[ 1.500 ] - lifter.pos::0.667\n"
+                + "[ 1.500 ] - lifter.count::42\n"
+                + "[ 1.500 ] - lifter.pos::true\n"
+                + "[ 1.500 ] - lifter.::careful\n", printed());
+    }
+
+    @Test
+    public void testKeysKeepTheirHandlesPastInitialCapacity() {
+        ConsoleDataLogger logger = new ConsoleDataLogger("drive", new FakeTimeSource(), ConsoleWriter.unbuffered(out));
+        int keys = DataLogger.INITIAL_KEY_CAPACITY * 3;
+        for (int i = 0; i < keys; i++) {
+            assertEquals(i, logger.registerKey("key" + i));
+        }
+        for (int i = 0; i < keys; i++) {
+            assertEquals(i, logger.registerKey("key" + i));
+            assertEquals("drive.key" + i, logger.getPath(i));
+        }
+        assertEquals(keys, logger.getKeyCount());
+    }
+
+    @Test
+    public void testAppendFixed() {
+        double[] values = { 0.0, -1.0005, 0.0049, 12345.6789, -0.25, 999.9996 };
+        for (double v : values) {
+            StringBuilder line = new StringBuilder();
+            ConsoleDataLogger.appendFixed(line, v);
+            assertEquals(String.format("%.3f", v), line.toString());
+        }
+    }
+
+    @Test
+    public void testBufferedWritesInBatches() {
+        ConsoleWriter writer = new ConsoleWriter(out, 4);
+        ConsoleDataLogger logger = new ConsoleDataLogger("drive", new FakeTimeSource(), writer);
+        for (int i = 0; i < 6; i++) {
+            logger.log("n", i);
+        }
+        // nothing printed until the writer runs, and the last two didn't fit
+        assertEquals("", printed());
+        assertEquals(4, writer.getQueuedCount());
+        assertEquals(2, writer.getDroppedCount());
+        assertNull(writer.claim());
+
+        assertEquals(4, writer.writePending());
+        assertEquals("[ 0.000 ] - drive.n::0\n[ 0.000 ] - drive.n::1\n"
+                + "[ 0.000 ] - drive.n::2\n[ 0.000 ] - drive.n::3\n", printed());
+
+        // lines are reused once written
+        logger.log("n", 6);
+        assertEquals(1, writer.writePending());
+        assertEquals(5, writer.getWrittenCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePowerOfTwo() {
+        new ConsoleWriter(out, 100);
+    }
+}
@@ -0,0 +1,71 @@
+package frc.team281.robot.logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class TestLoopProfiler {
+
+    public static final long MILLI = 1000000L;
+
+    @Test
+    public void testPercentiles() {
+        TimingHistogram h = new TimingHistogram("test", 20 * MILLI);
+        for (int i = 1; i <= 100; i++) {
+            h.record(i * MILLI / 10);
+        }
+        assertEquals(100, h.getCount());
+        // reported as the top of the bucket
+        assertEquals(5.1, h.getPercentileMillis(50), 0.001);
+        assertEquals(10.0, h.getPercentileMillis(99), 0.001);
+        assertEquals(10.0, h.getMaxMillis(), 0.001);
+        assertEquals(5.05, h.getMeanMillis(), 0.001);
+        assertEquals(0, h.getOverrunCount());
+    }
+
+    @Test
+    public void testOverrunsAndOverflow() {
+        TimingHistogram h = new TimingHistogram("test", 20 * MILLI);
+        h.record(1 * MILLI);
+        h.record(30 * MILLI);
+        h.record(45 * MILLI);
+        assertEquals(2, h.getOverrunCount());
+        assertEquals(45.0, h.getPercentileMillis(99), 0.001);
+        assertEquals(45.0, h.getMaxMillis(), 0.001);
+
+        h.reset();
+        assertEquals(0, h.getCount());
+        assertEquals(0.0, h.getPercentileMillis(50), 0.0);
+        assertEquals(2, h.getOverrunCount());
+    }
+
+    @Test
+    public void testPublishesOncePerWindow() {
+        LoopProfiler profiler = new LoopProfiler();
+        TimingHistogram periodic = profiler.getHistogram("Lifter.periodic");
+        assertSame(periodic, profiler.getHistogram("Lifter.periodic"));
+
+        for (int i = 0; i < LoopProfiler.PUBLISH_EVERY_LOOPS - 1; i++) {
+            long start = profiler.start();
+            profiler.stop(periodic, start);
+            profiler.endLoop(start);
+        }
+        assertEquals(LoopProfiler.PUBLISH_EVERY_LOOPS - 1, periodic.getCount());
+
+        long start = profiler.start();
+        profiler.endLoop(start);
+        // published, so a new window has started
+        assertEquals(0, periodic.getCount());
+        assertEquals(0, profiler.getLoopHistogram().getCount());
+    }
+
+    @Test
+    public void testDisabledDoesNotRecord() {
+        LoopProfiler profiler = new LoopProfiler();
+        profiler.setEnabled(false);
+        TimingHistogram h = profiler.getHistogram("x");
+        profiler.stop(h, profiler.start());
+        assertEquals(0, h.getCount());
+    }
+}
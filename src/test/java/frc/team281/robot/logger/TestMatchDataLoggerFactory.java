@@ -0,0 +1,51 @@
+package frc.team281.robot.logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+public class TestMatchDataLoggerFactory {
+
+    private File makeLog(File dir, String name, long bytes, long modified) throws Exception {
+        File file = new File(dir, name);
+        try (RandomAccessFile f = new RandomAccessFile(file, "rw")) {
+            f.setLength(bytes);
+        }
+        file.setLastModified(modified);
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void testDeletesOldestLogs() throws Exception {
+        File dir = Files.createTempDirectory("logs").toFile();
+        dir.deleteOnExit();
+        File[] logs = new File[5];
+        for (int i = 0; i < logs.length; i++) {
+            logs[i] = makeLog(dir, MatchDataLoggerFactory.LOG_PREFIX + i + MatchDataLoggerFactory.LOG_SUFFIX, 100,
+                    1000000L * (i + 1));
+        }
+        File other = makeLog(dir, "notes.txt", 1000, 0);
+
+        assertEquals(2, MatchDataLoggerFactory.deleteOldLogs(dir, 350));
+        assertFalse(logs[0].exists());
+        assertFalse(logs[1].exists());
+        assertTrue(logs[2].exists());
+        assertTrue(logs[4].exists());
+        assertTrue(other.exists());
+
+        // already small enough
+        assertEquals(0, MatchDataLoggerFactory.deleteOldLogs(dir, 300));
+    }
+
+    @Test
+    public void testMissingDirectoryIsFine() {
+        assertEquals(0, MatchDataLoggerFactory.deleteOldLogs(new File("/no/such/logs"), 0));
+    }
+}
@@ -0,0 +1,135 @@
+package frc.team281.robot.logger;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TestSmartDashboardPublisher {
+
+    @Test
+    public void testPublishesInOrder() {
+        RecordingPublisher p = new RecordingPublisher(8);
+        p.offerNumber("a", 1.0);
+        p.offerBoolean("b", true);
+        p.offerString("c", "hello");
+
+        assertEquals(3, p.getQueuedCount());
+        assertEquals(3, p.publishPending());
+        assertEquals(0, p.getQueuedCount());
+        assertEquals("[a=1.0, b=true, c=hello]", p.published.toString());
+        assertEquals(0, p.getDroppedCount());
+    }
+
+    @Test
+    public void testDropsOldestWhenFull() {
+        RecordingPublisher p = new RecordingPublisher(4);
+        for (int i = 0; i < 6; i++) {
+            p.offerNumber("n", i);
+        }
+        assertEquals(4, p.getQueuedCount());
+        assertEquals(2, p.getDroppedCount());
+
+        p.publishPending();
+        assertEquals("[n=2.0, n=3.0, n=4.0, n=5.0]", p.published.toString());
+    }
+
+    @Test
+    public void testLoggerQueuesToPublisher() {
+        RecordingPublisher p = new RecordingPublisher(16);
+        AsyncSmartDashboardLogger logger = new AsyncSmartDashboardLogger("drive", p);
+        int key = logger.registerKey("speed");
+        logger.log(key, 2.5);
+        logger.log("mode", "SPEED");
+
+        p.publishPending();
+        assertEquals("[drive.speed=2.5, drive.mode=SPEED]", p.published.toString());
+    }
+
+    @Test
+    public void testOnlyPublishesChanges() {
+        RecordingPublisher p = new RecordingPublisher(16);
+        AsyncSmartDashboardLogger logger = new AsyncSmartDashboardLogger("lifter", p, new FakeTimeSource());
+        int key = logger.registerKey("upperLimit");
+        logger.log(key, false);
+        logger.log(key, false);
+        logger.log(key, true);
+        logger.log("mode", "SPEED");
+        logger.log("mode", "SPEED");
+
+        p.publishPending();
+        assertEquals("[lifter.upperLimit=false, lifter.upperLimit=true, lifter.mode=SPEED]", p.published.toString());
+        assertEquals(2, logger.getPublishCount(key));
+        assertEquals(1, logger.getPublishCount("mode"));
+        assertEquals(2, logger.getSuppressedCount());
+    }
+
+    @Test
+    public void testRateLimitsKey() {
+        RecordingPublisher p = new RecordingPublisher(16);
+        FakeTimeSource time = new FakeTimeSource();
+        AsyncSmartDashboardLogger logger = new AsyncSmartDashboardLogger("drive", p, time);
+        logger.setMaxRate("encoder", 10.0);
+        for (int i = 0; i < 10; i++) {
+            time.elapsed = i * 0.02;
+            logger.log("encoder", i);
+        }
+
+        p.publishPending();
+        assertEquals("[drive.encoder=0.0, drive.encoder=5.0]", p.published.toString());
+        assertEquals(2, logger.getPublishCount("encoder"));
+    }
+
+    @Test
+    public void testDroppedChangeIsRefreshed() {
+        RecordingPublisher p = new RecordingPublisher(2);
+        FakeTimeSource time = new FakeTimeSource();
+        AsyncSmartDashboardLogger logger = new AsyncSmartDashboardLogger("lifter", p, time);
+        int key = logger.registerKey("upperLimit");
+        logger.log(key, true);
+        // the change is pushed out of the ring before it's published
+        p.offerNumber("other", 1.0);
+        p.offerNumber("other", 2.0);
+        assertEquals(1, p.getDroppedCount());
+
+        time.elapsed = AsyncSmartDashboardLogger.REFRESH_SECONDS / 2;
+        logger.log(key, true);
+        assertEquals(1, logger.getPublishCount(key));
+
+        time.elapsed = AsyncSmartDashboardLogger.REFRESH_SECONDS;
+        logger.log(key, true);
+        assertEquals(2, logger.getPublishCount(key));
+        p.publishPending();
+        assertEquals("[other=2.0, lifter.upperLimit=true]", p.published.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePowerOfTwo() {
+        new SmartDashboardPublisher(100);
+    }
+}
+
+class RecordingPublisher extends SmartDashboardPublisher {
+    List<String> published = new ArrayList<>();
+
+    public RecordingPublisher(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    protected void putNumber(String path, double value) {
+        published.add(path + "=" + value);
+    }
+
+    @Override
+    protected void putBoolean(String path, boolean value) {
+        published.add(path + "=" + value);
+    }
+
+    @Override
+    protected void putString(String path, String value) {
+        published.add(path + "=" + value);
+    }
+}
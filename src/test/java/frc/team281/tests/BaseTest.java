@@ -40,6 +40,16 @@ public class BaseTest {
 		RobotTestUtils.setupForTesting();
 	}
 	
+	/**
+	 * Position settings like the drive's, for tests that run simulated
+	 * talons. Change the fields if a test needs different tuning
+	 */
+	public static TalonSettings makePositionSettings() {
+		return TalonSettingsBuilder.defaults().withCurrentLimits(35, 30, 200).brakeInNeutral()
+				.withDirections(false, false).noMotorOutputLimits().noMotorStartupRamping().usePositionControl()
+				.withGains(1.28, 2.0, 0.0, 0.0).withMotionProfile(400, 500, 25).build();
+	}
+
 	public FourTalonsWithSettings makeFakeTalonSettingsGroup() {
 		WPI_TalonSRX frontLeft = Mockito.mock(WPI_TalonSRX.class);
 		WPI_TalonSRX frontRight = Mockito.mock(WPI_TalonSRX.class);
@@ -1,6 +1,8 @@
 package frc.team281.tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -35,4 +37,49 @@ public class TestBaseTalonController {
 		assertEquals(null, controller.getActualPosition());
 
 	}
+
+	private long now = 0;
+
+	private TalonSpeedController speedController(TalonSRX talon) {
+		TalonSettings settings = TalonSettingsBuilder.defaults().withCurrentLimits(35, 30, 200).coastInNeutral()
+				.withDirections(false, false).noMotorOutputLimits().noMotorStartupRamping().useSpeedControl().build();
+		return new TalonSpeedController(talon, settings) {
+			@Override
+			protected long nanoTime() {
+				return now;
+			}
+		};
+	}
+
+	@Test
+	public void testSameOutputIsNotResent() {
+		TalonSRX talon = Mockito.mock(TalonSRX.class);
+		TalonSpeedController controller = speedController(talon);
+
+		for (int i = 0; i < 5; i++) {
+			controller.setDesiredSpeed(0.5);
+			now += 20000000L;
+		}
+		// sent, skipped twice, then refreshed after 60ms, skipped once
+		verify(talon, times(2)).set(ControlMode.PercentOutput, 0.5);
+		assertEquals(2, controller.getSentCount());
+		assertEquals(3, controller.getSuppressedCount());
+
+		controller.setDesiredSpeed(0.25);
+		verify(talon, times(1)).set(ControlMode.PercentOutput, 0.25);
+		assertEquals(3, controller.getSentCount());
+	}
+
+	@Test
+	public void testResetSendsAgain() {
+		TalonSRX talon = Mockito.mock(TalonSRX.class);
+		TalonSpeedController controller = speedController(talon);
+		controller.setDesiredSpeed(1.0);
+		controller.resetPosition();
+		controller.setDesiredSpeed(1.0);
+		controller.forgetLastOutput();
+		controller.setDesiredSpeed(1.0);
+		verify(talon, times(3)).set(ControlMode.PercentOutput, 1.0);
+		assertEquals(0, controller.getSuppressedCount());
+	}
 }
@@ -0,0 +1,117 @@
+package frc.team281.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.ctre.phoenix.motorcontrol.ControlFrame;
+import com.ctre.phoenix.motorcontrol.StatusFrameEnhanced;
+import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+
+import frc.team281.robot.logger.DataLogger;
+import frc.team281.robot.subsystems.CanBusBudget;
+import frc.team281.robot.subsystems.StatusFrameProfile;
+import frc.team281.robot.subsystems.TalonConfigCache;
+import frc.team281.robot.subsystems.TalonConfigResult;
+import frc.team281.robot.subsystems.TalonSettings;
+import frc.team281.robot.subsystems.TalonSettingsBuilder;
+
+public class TestCanBusBudget {
+
+	private static final double TOLERANCE = 0.001;
+
+	private TalonSettings settings() {
+		return TalonSettingsBuilder.defaults().withCurrentLimits(35, 30, 200).coastInNeutral()
+				.withDirections(false, false).noMotorOutputLimits().noMotorStartupRamping().useSpeedControl().build();
+	}
+
+	@Test
+	public void testFramesPerSecond() {
+		TalonSettings.FramePeriods p = new TalonSettings.FramePeriods();
+		// 100 + 50 + 3 x 6.25 + 100 + 100 + 100
+		assertEquals(468.75, CanBusBudget.framesPerSecond(p), TOLERANCE);
+		assertEquals(0.075, CanBusBudget.utilization(500.0), TOLERANCE);
+
+		double idle = CanBusBudget.framesPerSecond(StatusFrameProfile.idle().getPeriods());
+		double teleop = CanBusBudget.framesPerSecond(StatusFrameProfile.driveTeleop().getPeriods());
+		double position = CanBusBudget.framesPerSecond(StatusFrameProfile.drivePosition().getPeriods());
+		assertTrue(idle < teleop);
+		assertTrue(teleop < position);
+	}
+
+	@Test
+	public void testNamedProfiles() {
+		assertEquals(StatusFrameProfile.LIFTER, StatusFrameProfile.named("lifter").getName());
+		TalonSettings s = TalonSettingsBuilder.withFrameProfile(settings(), StatusFrameProfile.named("idle"));
+		assertEquals(100, s.framePeriods.generalMilliseconds);
+		assertEquals(StatusFrameProfile.SLOWEST_MILLIS, s.framePeriods.pidMilliseconds);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownProfile() {
+		StatusFrameProfile.named("fast");
+	}
+
+	@Test
+	public void testSwitchingProfilesSendsOnlyFramePeriods() {
+		TalonSRX talon = Mockito.mock(TalonSRX.class);
+		TalonConfigCache cache = new TalonConfigCache();
+		TalonSettings teleop = TalonSettingsBuilder.withFrameProfile(settings(), StatusFrameProfile.driveTeleop());
+		cache.configure(talon, teleop);
+		verify(talon).setStatusFramePeriod(StatusFrameEnhanced.Status_1_General, 10, TalonSettings.TIMEOUT_MS);
+		verify(talon).setControlFramePeriod(ControlFrame.Control_3_General, 20);
+
+		TalonSettings idle = TalonSettingsBuilder.withFrameProfile(teleop, StatusFrameProfile.idle());
+		TalonConfigResult result = cache.configure(talon, idle);
+		// general, feedback and control changed, without waiting
+		assertEquals(3, result.getSent());
+		verify(talon).setStatusFramePeriod(StatusFrameEnhanced.Status_1_General, 100,
+				TalonSettings.NO_WAIT_TIMEOUT_MS);
+		verify(talon).setStatusFramePeriod(StatusFrameEnhanced.Status_2_Feedback0, 100,
+				TalonSettings.NO_WAIT_TIMEOUT_MS);
+		verify(talon).setControlFramePeriod(ControlFrame.Control_3_General, 100);
+		verify(talon, times(1)).setStatusFramePeriod(eq(StatusFrameEnhanced.Status_13_Base_PIDF0), anyInt(),
+				anyInt());
+	}
+
+	@Test
+	public void testEstimateUsesAppliedSettings() {
+		TalonConfigCache cache = new TalonConfigCache();
+		CanBusBudget budget = new CanBusBudget(cache);
+		assertEquals(CanBusBudget.OTHER_DEVICES_FRAMES_PER_SECOND, budget.estimateFramesPerSecond(), TOLERANCE);
+
+		TalonSettings lifter = TalonSettingsBuilder.withFrameProfile(settings(), StatusFrameProfile.lifter());
+		cache.configure(Mockito.mock(TalonSRX.class), lifter);
+		cache.configure(Mockito.mock(TalonSRX.class), lifter);
+		double expected = CanBusBudget.OTHER_DEVICES_FRAMES_PER_SECOND
+				+ 2 * CanBusBudget.framesPerSecond(lifter.framePeriods);
+		assertEquals(expected, budget.estimateFramesPerSecond(), TOLERANCE);
+	}
+
+	@Test
+	public void testPublishesOncePerWindow() {
+		DataLogger logger = Mockito.mock(DataLogger.class);
+		CanBusBudget budget = new CanBusBudget(new TalonConfigCache()) {
+			@Override
+			protected double readMeasuredUtilization() {
+				return 0.42;
+			}
+		};
+		for (int i = 0; i < CanBusBudget.PUBLISH_EVERY_LOOPS - 1; i++) {
+			budget.periodic(logger);
+		}
+		verify(logger, never()).log(anyInt(), anyDouble());
+
+		budget.periodic(logger);
+		verify(logger, times(3)).log(anyInt(), anyDouble());
+		verify(logger).log(anyInt(), eq(0.42));
+	}
+}
@@ -0,0 +1,280 @@
+package frc.team281.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import frc.team281.robot.controllers.TalonPositionController;
+import frc.team281.robot.logger.TimeSource;
+import frc.team281.robot.sim.SimulatedMotorIO;
+import frc.team281.robot.subsystems.PositionCalculator;
+import frc.team281.robot.subsystems.drive.DriveOdometry;
+import frc.team281.robot.subsystems.drive.EncoderInchesConverter;
+import frc.team281.robot.subsystems.drive.FourTalonsWithSettings;
+import frc.team281.robot.subsystems.drive.RobotPose;
+
+public class TestDriveOdometry {
+
+    public static final double COUNTS_PER_INCH = 44.88;
+    public static final double TRACK_WIDTH = PositionCalculator.DISTANCE_BETWEEN_WHEELS;
+
+    private SimulatedMotorIO frontLeft = new SimulatedMotorIO(1);
+    private SimulatedMotorIO rearLeft = new SimulatedMotorIO(2);
+    private SimulatedMotorIO frontRight = new SimulatedMotorIO(3);
+    private SimulatedMotorIO rearRight = new SimulatedMotorIO(4);
+    private double now = 0.0;
+    private double yaw = 0.0;
+    private double leftInches = 0.0;
+    private double rightInches = 0.0;
+
+    private TimeSource clock = new TimeSource() {
+        @Override
+        public double getSystemTime() {
+            return now;
+        }
+
+        @Override
+        public void resetClock() {
+        }
+
+        @Override
+        public double getElapsedSeconds() {
+            return now;
+        }
+    };
+
+    private DriveOdometry odometry(boolean useGyro) {
+        FourTalonsWithSettings talons = new FourTalonsWithSettings(frontLeft, rearLeft, frontRight, rearRight,
+                null, null, null, null);
+        DriveOdometry odometry = new DriveOdometry(talons, new EncoderInchesConverter(COUNTS_PER_INCH), TRACK_WIDTH,
+                useGyro ? () -> yaw : null, clock);
+        odometry.update();
+        return odometry;
+    }
+
+    private void setEncoders(double left, double right) {
+        frontLeft.setSelectedSensorPosition((int) Math.round(left * COUNTS_PER_INCH));
+        rearLeft.setSelectedSensorPosition((int) Math.round(left * COUNTS_PER_INCH));
+        frontRight.setSelectedSensorPosition((int) Math.round(right * COUNTS_PER_INCH));
+        rearRight.setSelectedSensorPosition((int) Math.round(right * COUNTS_PER_INCH));
+    }
+
+    /**
+     * Moves the sides by these inches, an inch per update at most
+     */
+    private void move(DriveOdometry odometry, double left, double right) {
+        int steps = (int) Math.ceil(Math.max(Math.abs(left), Math.abs(right)));
+        for (int i = 0; i < steps; i++) {
+            leftInches += left / steps;
+            rightInches += right / steps;
+            setEncoders(leftInches, rightInches);
+            now += DriveOdometry.PERIOD_SECONDS;
+            odometry.update();
+        }
+    }
+
+    @Test
+    public void testDrivesStraight() {
+        DriveOdometry odometry = odometry(false);
+        move(odometry, 100, 100);
+        RobotPose pose = odometry.getPose();
+        assertEquals(100.0, pose.getXInches(), 0.1);
+        assertEquals(0.0, pose.getYInches(), 0.1);
+        assertEquals(0.0, pose.getHeadingDegrees(), 0.1);
+        assertEquals(now, pose.getTimestampSeconds(), 1e-9);
+    }
+
+    @Test
+    public void testForwardTurnForward() {
+        DriveOdometry odometry = odometry(false);
+        move(odometry, 100, 100);
+        double turn = PositionCalculator.turnRight(90).getLeftInches();
+        move(odometry, turn, -turn);
+        move(odometry, 50, 50);
+        RobotPose pose = odometry.getPose();
+        assertEquals(100.0, pose.getXInches(), 0.5);
+        assertEquals(-50.0, pose.getYInches(), 0.5);
+        assertEquals(-90.0, pose.getHeadingDegrees(), 0.5);
+    }
+
+    @Test
+    public void testArcEndsUpOnTheCircle() {
+        DriveOdometry odometry = odometry(false);
+        // a left quarter circle, radius 50 at the center of the robot
+        double radius = 50.0;
+        double leftArc = (radius - TRACK_WIDTH / 2) * Math.PI / 2;
+        double rightArc = (radius + TRACK_WIDTH / 2) * Math.PI / 2;
+        move(odometry, leftArc, rightArc);
+        RobotPose pose = odometry.getPose();
+        assertEquals(radius, pose.getXInches(), 0.5);
+        assertEquals(radius, pose.getYInches(), 0.5);
+        assertEquals(90.0, pose.getHeadingDegrees(), 0.5);
+    }
+
+    @Test
+    public void testUsesGyroForHeading() {
+        DriveOdometry odometry = odometry(true);
+        // the navx says we turned right, though the encoders say straight
+        yaw = 90.0;
+        now += DriveOdometry.PERIOD_SECONDS;
+        odometry.update();
+        move(odometry, 50, 50);
+        RobotPose pose = odometry.getPose();
+        assertEquals(-90.0, pose.getHeadingDegrees(), 1e-9);
+        assertEquals(-50.0, pose.getYInches(), 0.5);
+    }
+
+    /**
+     * Zeroes the encoders the way the controllers do
+     */
+    private void zeroEncoders(DriveOdometry odometry) {
+        odometry.zero(frontLeft);
+        odometry.zero(rearLeft);
+        odometry.zero(frontRight);
+        odometry.zero(rearRight);
+        leftInches = 0.0;
+        rightInches = 0.0;
+    }
+
+    @Test
+    public void testEncoderResetsAreNotMoves() {
+        DriveOdometry odometry = odometry(false);
+        move(odometry, 100, 100);
+        zeroEncoders(odometry);
+        now += DriveOdometry.PERIOD_SECONDS;
+        odometry.update();
+        move(odometry, 50, 50);
+        assertEquals(150.0, odometry.getPose().getXInches(), 0.5);
+        assertEquals(4, odometry.getEncoderZeros());
+    }
+
+    @Test
+    public void testResetAfterAShortMoveIsNotAMove() {
+        DriveOdometry odometry = odometry(false);
+        // less than the robot could drive in one update
+        move(odometry, 2, 1);
+        RobotPose before = odometry.getPose();
+        zeroEncoders(odometry);
+        now += DriveOdometry.PERIOD_SECONDS;
+        odometry.update();
+        RobotPose after = odometry.getPose();
+        assertEquals(before.getXInches(), after.getXInches(), 1e-9);
+        assertEquals(before.getHeadingDegrees(), after.getHeadingDegrees(), 1e-9);
+
+        // the rest of the move carries on from there
+        move(odometry, 1, 2);
+        RobotPose pose = odometry.getPose();
+        assertEquals(3.0, pose.getXInches(), 0.1);
+        assertEquals(0.0, pose.getHeadingDegrees(), 0.01);
+    }
+
+    /**
+     * Reads what it read when held, like a talon whose next status frame
+     * hasn't come yet
+     */
+    private static class LateStatusMotorIO extends SimulatedMotorIO {
+        private Integer held = null;
+
+        LateStatusMotorIO(int deviceId) {
+            super(deviceId);
+        }
+
+        void hold() {
+            held = super.getSelectedSensorPosition();
+        }
+
+        void release() {
+            held = null;
+        }
+
+        @Override
+        public int getSelectedSensorPosition() {
+            return held == null ? super.getSelectedSensorPosition() : held;
+        }
+    }
+
+    private void updateAndCheck(DriveOdometry odometry, double x) {
+        now += DriveOdometry.PERIOD_SECONDS;
+        odometry.update();
+        assertEquals(x, odometry.getPose().getXInches(), 0.1);
+        assertEquals(0.0, odometry.getPose().getHeadingDegrees(), 0.01);
+    }
+
+    @Test
+    public void testZeroThatShowsUpLateIsNotAMove() {
+        LateStatusMotorIO[] late = { new LateStatusMotorIO(1), new LateStatusMotorIO(2), new LateStatusMotorIO(3),
+                new LateStatusMotorIO(4) };
+        frontLeft = late[0];
+        rearLeft = late[1];
+        frontRight = late[2];
+        rearRight = late[3];
+        DriveOdometry odometry = odometry(false);
+        move(odometry, 40, 40);
+        for (LateStatusMotorIO m : late) {
+            m.hold();
+        }
+        zeroEncoders(odometry);
+        updateAndCheck(odometry, 40.0);
+
+        // the zeros show up a frame apart, one encoder at a time
+        for (LateStatusMotorIO m : late) {
+            m.release();
+            updateAndCheck(odometry, 40.0);
+        }
+        move(odometry, 10, 10);
+        assertEquals(50.0, odometry.getPose().getXInches(), 0.1);
+    }
+
+    @Test
+    public void testControllersZeroThroughTheOdometry() {
+        DriveOdometry odometry = odometry(false);
+        move(odometry, 2, 2);
+        TalonPositionController controller = new TalonPositionController(frontLeft, null);
+        controller.setEncoderZeroer(odometry);
+        controller.resetPosition();
+        assertEquals(0, frontLeft.getSelectedSensorPosition());
+        assertEquals(1, odometry.getEncoderZeros());
+        now += DriveOdometry.PERIOD_SECONDS;
+        odometry.update();
+        assertEquals(2.0, odometry.getPose().getXInches(), 0.1);
+    }
+
+    @Test
+    public void testResetHappensOnNextUpdate() {
+        DriveOdometry odometry = odometry(false);
+        move(odometry, 20, 20);
+        odometry.reset(new RobotPose(10, 20, 90, 0));
+        assertEquals(20.0, odometry.getPose().getXInches(), 0.1);
+        now += DriveOdometry.PERIOD_SECONDS;
+        odometry.update();
+        move(odometry, 10, 10);
+        RobotPose pose = odometry.getPose();
+        assertEquals(10.0, pose.getXInches(), 0.1);
+        assertEquals(30.0, pose.getYInches(), 0.1);
+        assertEquals(90.0, pose.getHeadingDegrees(), 0.1);
+    }
+
+    @Test
+    public void testReadersAlwaysSeeWholePoses() throws InterruptedException {
+        final DriveOdometry odometry = odometry(false);
+        final boolean[] torn = { false };
+        Thread reader = new Thread(() -> {
+            double lastTime = -1.0;
+            for (int i = 0; i < 100000; i++) {
+                RobotPose p = odometry.getPose();
+                // driving straight, x is always 100 inches per second of time
+                if (Math.abs(p.getXInches() - p.getTimestampSeconds() * 100.0) > 0.1
+                        || p.getTimestampSeconds() < lastTime) {
+                    torn[0] = true;
+                }
+                lastTime = p.getTimestampSeconds();
+            }
+        });
+        reader.start();
+        move(odometry, 1000, 1000);
+        reader.join();
+        assertTrue(!torn[0]);
+        assertEquals(1000, odometry.getUpdates());
+    }
+}
@@ -0,0 +1,62 @@
+package frc.team281.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+
+import frc.team281.robot.controllers.FourTalonEncoderChecker;
+import frc.team281.robot.subsystems.drive.DriveSensorFrame;
+import frc.team281.robot.subsystems.drive.FourTalonsWithSettings;
+
+public class TestDriveSensorFrame extends BaseTest {
+
+    @Test
+    public void testReadsEachTalonOncePerSample() {
+        FourTalonsWithSettings talons = makeFakeTalonSettingsGroup();
+        when(talons.getFrontLeft().getSelectedSensorPosition(0)).thenReturn(100);
+        when(talons.getRearLeft().getSelectedSensorPosition(0)).thenReturn(200);
+        when(talons.getFrontRight().getSelectedSensorPosition(0)).thenReturn(0);
+        when(talons.getRearRight().getSelectedSensorPosition(0)).thenReturn(300);
+        when(talons.getRearRight().getOutputCurrent()).thenReturn(12.5);
+
+        DriveSensorFrame frame = new DriveSensorFrame(talons);
+        FourTalonEncoderChecker checker = new FourTalonEncoderChecker(talons, frame);
+        frame.sample();
+
+        // lots of looking, no more reading
+        checker.friendlyStatus();
+        checker.setMotorsWithBrokenEncodersToFollowers();
+        assertEquals(150, frame.getLeftEncoderCounts());
+        assertEquals(300, frame.getRightEncoderCounts());
+        assertEquals(12.5, frame.getCurrent(DriveSensorFrame.REAR_RIGHT), 0.0);
+        assertFalse(checker.isRightFrontOk());
+
+        for (WPI_TalonSRX talon : new WPI_TalonSRX[] { talons.getFrontLeft(), talons.getFrontRight(),
+                talons.getRearLeft(), talons.getRearRight() }) {
+            verify(talon, times(1)).getSelectedSensorPosition(0);
+            verify(talon, times(1)).getSelectedSensorVelocity(0);
+            verify(talon, times(1)).getClosedLoopError(0);
+            verify(talon, times(1)).getOutputCurrent();
+        }
+    }
+
+    @Test
+    public void testFollowersAreLeftOutOfAverage() {
+        FourTalonsWithSettings talons = makeFakeTalonSettingsGroup();
+        when(talons.getFrontLeft().getSelectedSensorPosition(0)).thenReturn(300);
+        when(talons.getRearLeft().getSelectedSensorPosition(0)).thenReturn(500);
+        when(talons.getRearLeft().getControlMode()).thenReturn(ControlMode.Follower);
+
+        DriveSensorFrame frame = DriveSensorFrame.sampled(talons);
+        assertEquals(300, frame.getLeftEncoderCounts());
+        assertEquals(0, frame.getRightEncoderCounts());
+        assertEquals(1, frame.getSampleCount());
+    }
+}
@@ -0,0 +1,90 @@
+package frc.team281.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import frc.team281.robot.subsystems.Position;
+import frc.team281.robot.subsystems.PositionCalculator;
+import frc.team281.robot.subsystems.drive.DriveTrajectory;
+
+public class TestDriveTrajectory {
+
+    public static final double CRUISE = 80.0;
+    public static final double ACCELERATION = 100.0;
+    public static final int POINT_MILLIS = 10;
+    public static final double DT = POINT_MILLIS / 1000.0;
+
+    @Test
+    public void testStraightPathIsATrapezoid() {
+        DriveTrajectory t = DriveTrajectory.plan(Arrays.asList(new Position(100, 100)), CRUISE, ACCELERATION,
+                POINT_MILLIS);
+        int last = t.size() - 1;
+        assertEquals(100.0, t.getLeftInches(last), 1e-9);
+        assertEquals(100.0, t.getRightInches(last), 1e-9);
+        assertEquals(0.0, t.getLeftVelocity(last), 1e-9);
+
+        // 0.8s up, 0.45s cruise, 0.8s down
+        assertEquals(2.05, t.getDurationSeconds(), 0.05);
+        double fastest = 0.0;
+        double lastVelocity = 0.0;
+        for (int i = 0; i < t.size(); i++) {
+            fastest = Math.max(fastest, t.getLeftVelocity(i));
+            assertTrue(Math.abs(t.getLeftVelocity(i) - lastVelocity) <= ACCELERATION * DT + 1e-9);
+            lastVelocity = t.getLeftVelocity(i);
+        }
+        assertEquals(CRUISE, fastest, 1e-9);
+    }
+
+    @Test
+    public void testDoesntStopBetweenStraightSegments() {
+        DriveTrajectory t = DriveTrajectory.plan(
+                Arrays.asList(new Position(50, 50), new Position(50, 50), new Position(100, 100, false)), CRUISE,
+                ACCELERATION, POINT_MILLIS);
+        int last = t.size() - 1;
+        assertEquals(100.0, t.getLeftInches(last), 1e-9);
+        for (int i = 1; i < last; i++) {
+            assertTrue(t.getLeftVelocity(i) > 0.0);
+        }
+        // same as one 100 inch move
+        assertEquals(2.05, t.getDurationSeconds(), 0.05);
+    }
+
+    @Test
+    public void testStopsToTurnInPlace() {
+        Position turn = PositionCalculator.turnRight(90);
+        DriveTrajectory t = DriveTrajectory.plan(Arrays.asList(new Position(50, 50), turn), CRUISE, ACCELERATION,
+                POINT_MILLIS);
+        int last = t.size() - 1;
+        assertEquals(50.0 + turn.getLeftInches(), t.getLeftInches(last), 1e-9);
+        assertEquals(50.0 + turn.getRightInches(), t.getRightInches(last), 1e-9);
+
+        // the right side reverses, so it has to nearly stop first
+        boolean reversed = false;
+        for (int i = 1; i < t.size(); i++) {
+            if (t.getRightVelocity(i) < 0) {
+                reversed = true;
+            }
+            assertTrue(Math.abs(t.getRightVelocity(i) - t.getRightVelocity(i - 1)) < 2 * ACCELERATION * DT);
+            assertTrue(Math.abs(t.getLeftVelocity(i)) <= CRUISE + 1e-9);
+        }
+        assertTrue(reversed);
+    }
+
+    @Test
+    public void testEmptyPathStaysPut() {
+        DriveTrajectory t = DriveTrajectory.plan(Collections.<Position>emptyList(), CRUISE, ACCELERATION,
+                POINT_MILLIS);
+        assertEquals(1, t.size());
+        assertEquals(0.0, t.getLeftInches(0), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCruiseMustBePositive() {
+        DriveTrajectory.plan(Arrays.asList(new Position(10, 10)), 0.0, ACCELERATION, POINT_MILLIS);
+    }
+}
@@ -0,0 +1,192 @@
+package frc.team281.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+
+import frc.team281.robot.logger.TimeSource;
+import frc.team281.robot.sim.SimulatedCanBus;
+import frc.team281.robot.sim.SimulatedMotorIO;
+import frc.team281.robot.subsystems.Position;
+import frc.team281.robot.subsystems.drive.DriveTrajectory;
+import frc.team281.robot.subsystems.drive.EncoderInchesConverter;
+import frc.team281.robot.subsystems.drive.FourTalonsWithSettings;
+import frc.team281.robot.subsystems.drive.MotionProfileDriveController;
+import frc.team281.robot.subsystems.drive.MotionProfileDriveController.ProfileState;
+
+public class TestMotionProfileDriveController extends BaseTest {
+
+    public static final double COUNTS_PER_INCH = 44.88;
+
+    private SimulatedCanBus bus = new SimulatedCanBus();
+    private SimulatedMotorIO frontLeft = bus.add(1);
+    private SimulatedMotorIO rearLeft = bus.add(2);
+    private SimulatedMotorIO frontRight = bus.add(3);
+    private SimulatedMotorIO rearRight = bus.add(4);
+
+    private MotionProfileDriveController controller() {
+        FourTalonsWithSettings talons = new FourTalonsWithSettings(frontLeft, rearLeft, frontRight, rearRight,
+                makePositionSettings(), makePositionSettings(), makePositionSettings(), makePositionSettings());
+        return new MotionProfileDriveController(talons, new EncoderInchesConverter(COUNTS_PER_INCH)) {
+            @Override
+            protected void startStreaming() {
+                // the test streams
+            }
+        };
+    }
+
+    /**
+     * A 20ms robot loop, with the notifier every 5ms
+     */
+    private void runLoop(MotionProfileDriveController c) {
+        c.periodic();
+        for (int i = 0; i < 4; i++) {
+            c.stream();
+            bus.step(MotionProfileDriveController.STREAM_SECONDS);
+        }
+    }
+
+    @Test
+    public void testDrivesThePathWithoutStopping() {
+        MotionProfileDriveController c = controller();
+        c.activate();
+        frontLeft.setSelectedSensorPosition(1234);
+        c.follow(Arrays.asList(new Position(40, 40), new Position(40, 40)));
+        assertEquals(ProfileState.LOADING, c.getState());
+        assertFalse(c.isFinished());
+
+        int slowestInMiddle = Integer.MAX_VALUE;
+        int loops = 0;
+        while (!c.isFinished() && loops < 500) {
+            runLoop(c);
+            loops++;
+            int pos = frontLeft.getSelectedSensorPosition();
+            boolean inMiddle = pos > 20 * COUNTS_PER_INCH && pos < 60 * COUNTS_PER_INCH;
+            if (c.getState() == ProfileState.RUNNING && inMiddle) {
+                slowestInMiddle = Math.min(slowestInMiddle, frontLeft.getSelectedSensorVelocity());
+            }
+        }
+        assertEquals(ProfileState.FINISHED, c.getState());
+        assertEquals(c.getTrajectory().size(), c.getPointsStreamed());
+        assertTrue(slowestInMiddle > 200);
+
+        // the last point is held
+        for (int i = 0; i < 25; i++) {
+            runLoop(c);
+        }
+        double target = 80 * COUNTS_PER_INCH;
+        assertEquals(target, frontLeft.getSelectedSensorPosition(), 30);
+        assertEquals(target, rearRight.getSelectedSensorPosition(), 30);
+        assertEquals(ControlMode.MotionProfile, frontRight.getControlMode());
+    }
+
+    @Test
+    public void testSwitchesToALongerPathWithoutStopping() {
+        MotionProfileDriveController c = controller();
+        c.activate();
+        c.follow(Arrays.asList(new Position(60, 60)));
+        for (int i = 0; i < 10; i++) {
+            runLoop(c);
+        }
+        DriveTrajectory longer = c.plan(Arrays.asList(new Position(100, 100), new Position(20, -20)));
+        assertTrue(c.switchTo(longer));
+        assertSame(longer, c.getTrajectory());
+
+        int slowestAfterSixty = Integer.MAX_VALUE;
+        int loops = 0;
+        while (!c.isFinished() && loops < 500) {
+            runLoop(c);
+            loops++;
+            int pos = frontLeft.getSelectedSensorPosition();
+            if (pos > 50 * COUNTS_PER_INCH && pos < 70 * COUNTS_PER_INCH) {
+                slowestAfterSixty = Math.min(slowestAfterSixty, frontLeft.getSelectedSensorVelocity());
+            }
+        }
+        assertEquals(ProfileState.FINISHED, c.getState());
+        assertTrue(slowestAfterSixty > 200);
+        for (int i = 0; i < 25; i++) {
+            runLoop(c);
+        }
+        assertEquals(120 * COUNTS_PER_INCH, frontLeft.getSelectedSensorPosition(), 30);
+        assertEquals(80 * COUNTS_PER_INCH, frontRight.getSelectedSensorPosition(), 30);
+    }
+
+    @Test
+    public void testSwitchIsRefusedOnceThePathSlowsDown() {
+        MotionProfileDriveController c = controller();
+        c.activate();
+        c.follow(Arrays.asList(new Position(20, 20)));
+        DriveTrajectory planned = c.getTrajectory();
+        while (c.getPointsStreamed() < planned.size() - 10) {
+            runLoop(c);
+        }
+        assertFalse(c.switchTo(c.plan(Arrays.asList(new Position(100, 100)))));
+        assertSame(planned, c.getTrajectory());
+    }
+
+    private List<double[]> segments = new ArrayList<>();
+
+    private TimeSource busTime() {
+        return new TimeSource() {
+            @Override
+            public double getSystemTime() {
+                return bus.getElapsedSeconds();
+            }
+
+            @Override
+            public void resetClock() {
+            }
+
+            @Override
+            public double getElapsedSeconds() {
+                return bus.getElapsedSeconds();
+            }
+        };
+    }
+
+    @Test
+    public void testReportsEachSegment() {
+        MotionProfileDriveController c = controller();
+        c.setTimeSource(busTime());
+        c.setSegmentListener((segment, seconds, maxError) -> segments.add(new double[] { segment, seconds, maxError }));
+        c.activate();
+        c.follow(Arrays.asList(new Position(40, 40), new Position(0, 0), new Position(20, -20)));
+        assertEquals(2, c.getTrajectory().getSegmentCount());
+        int loops = 0;
+        while (!c.isFinished() && loops < 500) {
+            runLoop(c);
+            loops++;
+        }
+        runLoop(c);
+
+        assertEquals(2, segments.size());
+        assertEquals(0, segments.get(0)[0], 0.0);
+        assertEquals(1, segments.get(1)[0], 0.0);
+        double total = segments.get(0)[1] + segments.get(1)[1];
+        assertEquals(c.getTrajectory().getDurationSeconds(), total, 0.25);
+        assertTrue(segments.get(0)[1] > segments.get(1)[1]);
+        assertTrue(segments.get(0)[2] < 10.0);
+    }
+
+    @Test
+    public void testDeactivateStops() {
+        MotionProfileDriveController c = controller();
+        c.activate();
+        c.follow(Arrays.asList(new Position(40, 40)));
+        runLoop(c);
+        runLoop(c);
+        c.deactivate();
+        assertTrue(c.isFinished());
+        assertEquals(ProfileState.IDLE, c.getState());
+        assertEquals(MotionProfileDriveController.STREAM_MILLIS, frontLeft.getMotionControlFramePeriod());
+    }
+}
@@ -1,6 +1,8 @@
 package frc.team281.tests;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -24,5 +26,22 @@ public class TestPositionBuffer {
 		buf.next();
 		assertFalse(buf.hasNextPosition());
 	}
-	
+
+	@Test
+	public void testFollowingPositionLooksAhead() {
+		PositionBuffer buf = new PositionBuffer();
+		assertNull(buf.getFollowingPosition());
+
+		Position first = new Position(10, 10);
+		Position second = new Position(5, -5);
+		buf.addPosition(first);
+		assertNull(buf.getFollowingPosition());
+		buf.addPosition(second);
+		assertEquals(first, buf.getCurrentPosition());
+		assertEquals(second, buf.getFollowingPosition());
+
+		buf.next();
+		assertEquals(second, buf.getCurrentPosition());
+		assertNull(buf.getFollowingPosition());
+	}
 }
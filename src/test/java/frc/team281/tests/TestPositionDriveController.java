@@ -0,0 +1,102 @@
+package frc.team281.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import frc.team281.robot.sim.SimulatedCanBus;
+import frc.team281.robot.sim.SimulatedMotorIO;
+import frc.team281.robot.subsystems.Position;
+import frc.team281.robot.subsystems.PositionBuffer;
+import frc.team281.robot.subsystems.drive.EncoderInchesConverter;
+import frc.team281.robot.subsystems.drive.FourTalonsWithSettings;
+import frc.team281.robot.subsystems.drive.PositionDriveController;
+
+public class TestPositionDriveController extends BaseTest {
+
+    public static final double COUNTS_PER_INCH = 44.88;
+    public static final double BLEND_INCHES_PER_SECOND = 30.0;
+
+    private SimulatedCanBus bus = new SimulatedCanBus();
+    private PositionBuffer buffer = new PositionBuffer();
+
+    private PositionDriveController controller() {
+        FourTalonsWithSettings talons = new FourTalonsWithSettings(bus.add(1), bus.add(2), bus.add(3), bus.add(4),
+                makePositionSettings(), makePositionSettings(), makePositionSettings(), makePositionSettings());
+        PositionDriveController c = new PositionDriveController(talons, buffer,
+                new EncoderInchesConverter(COUNTS_PER_INCH));
+        c.activate();
+        return c;
+    }
+
+    // the encoders get reset, so add up the distance
+    private double odometerCounts = 0.0;
+    private int slowest = Integer.MAX_VALUE;
+
+    /**
+     * A 20ms loop. Keeps the slowest the front left goes between 30 and 50
+     * inches
+     */
+    private void runLoop(PositionDriveController c) {
+        c.periodic();
+        bus.step(0.02);
+        int velocity = bus.get(1).getSelectedSensorVelocity();
+        odometerCounts += velocity * 10 * 0.02;
+        double inches = odometerCounts / COUNTS_PER_INCH;
+        if (inches > 30 && inches < 50) {
+            slowest = Math.min(slowest, velocity);
+        }
+    }
+
+    private void drive(PositionDriveController c) {
+        buffer.addPosition(new Position(40, 40));
+        buffer.addPosition(new Position(40, 40));
+        int loops = 0;
+        while (buffer.hasNextPosition() && loops < 500) {
+            runLoop(c);
+            loops++;
+        }
+        assertFalse(buffer.hasNextPosition());
+    }
+
+    @Test
+    public void testStopsAtEachPositionWithoutBlending() {
+        PositionDriveController c = controller();
+        drive(c);
+        assertEquals(0, c.getBlendCount());
+        // slowing down to the 1 inch tolerance
+        assertTrue(slowest < BLEND_INCHES_PER_SECOND * COUNTS_PER_INCH / 10.0 * 0.6);
+    }
+
+    @Test
+    public void testBlendsIntoTheNextPosition() {
+        PositionDriveController c = controller();
+        c.setBlendVelocity(BLEND_INCHES_PER_SECOND);
+        assertTrue(c.getBlendInches() > 0.0);
+        drive(c);
+        assertEquals(1, c.getBlendCount());
+        // still going at least the blend speed, in counts per 100ms
+        assertTrue(slowest >= BLEND_INCHES_PER_SECOND * COUNTS_PER_INCH / 10.0 * 0.9);
+
+        // both moves, without resetting in between
+        assertEquals(80.0, c.getCurrentPosition().getLeftInches(), 1.0);
+        assertEquals(80.0, c.getCurrentPosition().getRightInches(), 1.0);
+    }
+
+    @Test
+    public void testDoesntBlendIntoAbsolutePositions() {
+        PositionDriveController c = controller();
+        c.setBlendVelocity(BLEND_INCHES_PER_SECOND);
+        buffer.addPosition(new Position(40, 40));
+        buffer.addPosition(new Position(20, 20, false));
+        int loops = 0;
+        while (buffer.hasNextPosition() && loops < 500) {
+            runLoop(c);
+            loops++;
+        }
+        assertFalse(buffer.hasNextPosition());
+        assertEquals(0, c.getBlendCount());
+    }
+}
@@ -0,0 +1,130 @@
+package frc.team281.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+
+import frc.team281.robot.controllers.FourTalonEncoderChecker;
+import frc.team281.robot.controllers.TalonPositionController;
+import frc.team281.robot.sim.SimulatedCanBus;
+import frc.team281.robot.sim.SimulatedMotorIO;
+import frc.team281.robot.subsystems.TalonSettings;
+import frc.team281.robot.subsystems.TalonSettingsBuilder;
+import frc.team281.robot.subsystems.drive.FourTalonsWithSettings;
+
+public class TestSimulatedMotorIO extends BaseTest {
+
+    public static final int CRUISE = 200;
+    public static final int ACCELERATION = 400;
+
+    private TalonSettings speedSettings() {
+        return TalonSettingsBuilder.defaults().withCurrentLimits(35, 30, 200).coastInNeutral()
+                .withDirections(false, false).noMotorOutputLimits().noMotorStartupRamping().useSpeedControl().build();
+    }
+
+    private TalonSettings positionSettings() {
+        TalonSettings settings = makePositionSettings();
+        settings.gains.p = 1.0;
+        settings.profile.cruiseVelocityEncoderClicksPerSecond = CRUISE;
+        settings.profile.accelerationEncoderClicksPerSecond2 = ACCELERATION;
+        return settings;
+    }
+
+    @Test
+    public void testMotionMagicCruisesAndArrives() {
+        SimulatedMotorIO motor = new SimulatedMotorIO(1);
+        TalonPositionController controller = new TalonPositionController(motor, positionSettings());
+        controller.configure();
+        controller.setDesiredPosition(4000);
+
+        int fastest = 0;
+        for (int i = 0; i < 400; i++) {
+            motor.step(0.01);
+            fastest = Math.max(fastest, motor.getSelectedSensorVelocity());
+        }
+        assertTrue(fastest <= CRUISE * 1.15);
+        assertTrue(fastest >= CRUISE * 0.9);
+        assertEquals(4000, controller.getActualPosition(), 50);
+    }
+
+    @Test
+    public void testPositionLoopConverges() {
+        SimulatedMotorIO motor = new SimulatedMotorIO(1);
+        TalonSettings settings = positionSettings();
+        settings.controlMode = ControlMode.Position;
+        settings.gains.f = 0.0;
+        motor.configure(settings, null);
+        motor.set(ControlMode.Position, 1000);
+        motor.step(3.0);
+        assertEquals(1000, motor.getSelectedSensorPosition(), 20);
+    }
+
+    @Test
+    public void testCurrentIsLimitedAfterThePeakDuration() {
+        SimulatedMotorIO motor = new SimulatedMotorIO(1);
+        TalonSettings settings = TalonSettingsBuilder.defaults().withCurrentLimits(40, 30, 100).coastInNeutral()
+                .withDirections(false, false).noMotorOutputLimits().noMotorStartupRamping().useSpeedControl().build();
+        motor.configure(settings, null);
+        motor.set(ControlMode.PercentOutput, 1.0);
+
+        motor.step(0.05);
+        assertFalse(motor.isCurrentLimiting());
+        assertTrue(motor.getOutputCurrent() > 40);
+
+        motor.step(0.1);
+        assertTrue(motor.isCurrentLimiting());
+        assertTrue(motor.getOutputCurrent() <= 30.0 + 1e-9);
+    }
+
+    @Test
+    public void testFollowerMatchesLeader() {
+        SimulatedCanBus bus = new SimulatedCanBus();
+        SimulatedMotorIO leader = bus.add(1);
+        SimulatedMotorIO follower = bus.add(2);
+        TalonSettings settings = speedSettings();
+        leader.configure(settings, null);
+        follower.configure(TalonSettingsBuilder.follow(settings, 1), null);
+
+        leader.set(ControlMode.PercentOutput, 0.5);
+        bus.step(0.5);
+        assertEquals(0.5, follower.getMotorOutputPercent(), 1e-9);
+        assertEquals(leader.getSelectedSensorVelocity(), follower.getSelectedSensorVelocity(), 2);
+        assertEquals(0.5, bus.getElapsedSeconds(), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIdsAreUnique() {
+        SimulatedCanBus bus = new SimulatedCanBus();
+        bus.add(1);
+        bus.add(1);
+    }
+
+    @Test
+    public void testEncoderCheckerFindsDisconnectedEncoder() {
+        SimulatedCanBus bus = new SimulatedCanBus();
+        SimulatedMotorIO frontLeft = bus.add(1);
+        SimulatedMotorIO rearLeft = bus.add(2);
+        SimulatedMotorIO frontRight = bus.add(3);
+        SimulatedMotorIO rearRight = bus.add(4);
+        FourTalonsWithSettings talons = new FourTalonsWithSettings(frontLeft, rearLeft, frontRight, rearRight,
+                speedSettings(), speedSettings(), speedSettings(), speedSettings());
+        talons.configureAll();
+
+        rearLeft.setEncoderConnected(false);
+        for (SimulatedMotorIO m : new SimulatedMotorIO[] { frontLeft, rearLeft, frontRight, rearRight }) {
+            m.set(ControlMode.PercentOutput, 0.5);
+        }
+        bus.step(0.5);
+
+        FourTalonEncoderChecker checker = new FourTalonEncoderChecker(talons);
+        assertFalse(checker.isLeftRearOk());
+        assertTrue(checker.isLeftFrontOk());
+        assertTrue(checker.isRightOk());
+        assertTrue(checker.canDrive());
+        assertTrue(checker.shouldLeftRearFollowLeftFront());
+    }
+}
@@ -0,0 +1,165 @@
+package frc.team281.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.NeutralMode;
+import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+
+import frc.team281.robot.sim.SimulatedMotorIO;
+import frc.team281.robot.subsystems.TalonConfigCache;
+import frc.team281.robot.subsystems.TalonConfigResult;
+import frc.team281.robot.subsystems.TalonSettings;
+import frc.team281.robot.subsystems.TalonSettingsBuilder;
+
+public class TestTalonConfigCache {
+
+	@Test
+	public void testSameSettingsAreSkipped() {
+		TalonSRX talon = Mockito.mock(TalonSRX.class);
+		TalonConfigCache cache = new TalonConfigCache();
+
+		TalonConfigResult first = cache.configure(talon, BaseTest.makePositionSettings());
+		assertEquals(0, first.getSkipped());
+		assertTrue(cache.isCached(talon));
+
+		TalonConfigResult second = cache.configure(talon, BaseTest.makePositionSettings());
+		// the sensor reset and feedback sensor are only sent the first time
+		assertEquals(first.getSent() + first.getSkipped(), second.getSent() + second.getSkipped() + 2);
+		assertEquals(0, second.getSent());
+		verify(talon, times(1)).config_kP(anyInt(), anyDouble(), anyInt());
+		verify(talon, times(1)).setSelectedSensorPosition(0, TalonSettings.PID_SLOT, TalonSettings.TIMEOUT_MS);
+	}
+
+	@Test
+	public void testOnlyChangesAreSent() {
+		TalonSRX talon = Mockito.mock(TalonSRX.class);
+		TalonConfigCache cache = new TalonConfigCache();
+		cache.configure(talon, BaseTest.makePositionSettings());
+
+		TalonSettings faster = BaseTest.makePositionSettings();
+		faster.gains.p = 0.5;
+		faster.profile.cruiseVelocityEncoderClicksPerSecond = 600;
+		TalonConfigResult result = cache.configure(talon, faster);
+
+		assertEquals(2, result.getSent());
+		verify(talon).config_kP(TalonSettings.PID_SLOT, 0.5, TalonSettings.TIMEOUT_MS);
+		verify(talon).configMotionCruiseVelocity(600, TalonSettings.TIMEOUT_MS);
+		verify(talon, times(1)).config_kF(anyInt(), anyDouble(), anyInt());
+	}
+
+	@Test
+	public void testModeSwitchOnlySelectsSlot() {
+		TalonSRX talon = Mockito.mock(TalonSRX.class);
+		TalonConfigCache cache = new TalonConfigCache();
+		TalonSettings position = TalonSettingsBuilder.withSlotGains(BaseTest.makePositionSettings(), 1, 0.0, 0.1, 0.0,
+				0.0);
+		TalonSettings speed = TalonSettingsBuilder.inMode(position, 1, ControlMode.PercentOutput, NeutralMode.Coast);
+		cache.configure(talon, position);
+		verify(talon).config_kP(TalonSettings.PID_SLOT, 2.0, TalonSettings.TIMEOUT_MS);
+		verify(talon).config_kP(1, 0.1, TalonSettings.TIMEOUT_MS);
+
+		TalonConfigResult toSpeed = cache.configure(talon, speed);
+		// only the brake mode, which doesn't wait
+		assertEquals(1, toSpeed.getSent());
+		verify(talon).selectProfileSlot(1, TalonSettings.PID_SLOT);
+		verify(talon).setNeutralMode(NeutralMode.Coast);
+		verify(talon).set(ControlMode.PercentOutput, 0);
+
+		TalonConfigResult toPosition = cache.configure(talon, position);
+		assertEquals(1, toPosition.getSent());
+		verify(talon, times(2)).selectProfileSlot(TalonSettings.PROFILE_SLOT, TalonSettings.PID_SLOT);
+		verify(talon, times(2)).config_kP(anyInt(), anyDouble(), anyInt());
+		verify(talon, times(1)).setSelectedSensorPosition(anyInt(), anyInt(), anyInt());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSlotMustExist() {
+		TalonSettingsBuilder.withSlotGains(BaseTest.makePositionSettings(), TalonSettings.SLOT_COUNT, 0.0, 0.0, 0.0, 0.0);
+	}
+
+	@Test
+	public void testFailureSendsEverythingNextTime() {
+		TalonSRX talon = Mockito.mock(TalonSRX.class);
+		when(talon.config_kD(anyInt(), anyDouble(), anyInt())).thenReturn(ErrorCode.SigNotUpdated);
+		TalonConfigCache cache = new TalonConfigCache();
+
+		TalonConfigResult result = cache.configure(talon, BaseTest.makePositionSettings());
+		assertFalse(result.isOk());
+		assertEquals(1, result.getFailed());
+		assertFalse(cache.isCached(talon));
+
+		cache.configure(talon, BaseTest.makePositionSettings());
+		verify(talon, times(2)).config_kP(anyInt(), anyDouble(), anyInt());
+	}
+
+	@Test
+	public void testInvalidate() {
+		TalonSRX talon = Mockito.mock(TalonSRX.class);
+		TalonConfigCache cache = new TalonConfigCache();
+		TalonSettings settings = BaseTest.makePositionSettings();
+		cache.configure(talon, settings);
+		cache.invalidate(talon);
+		assertEquals(0, cache.configure(talon, settings).getSkipped());
+		verify(talon, times(2)).config_kP(anyInt(), anyDouble(), anyInt());
+	}
+
+	@Test
+	public void testResetTalonGetsEverything() {
+		TalonSRX talon = Mockito.mock(TalonSRX.class);
+		TalonConfigCache cache = new TalonConfigCache();
+		cache.configure(talon, BaseTest.makePositionSettings());
+
+		when(talon.hasResetOccurred()).thenReturn(true);
+		TalonConfigResult afterReset = cache.configure(talon, BaseTest.makePositionSettings());
+		assertEquals(0, afterReset.getSkipped());
+		assertEquals(1, cache.getResetCount());
+		verify(talon, times(2)).config_kP(anyInt(), anyDouble(), anyInt());
+	}
+
+	@Test
+	public void testPowerCycledTalonIsReconfigured() {
+		List<TalonSettings> previous = new ArrayList<>();
+		SimulatedMotorIO motor = new SimulatedMotorIO(1) {
+			@Override
+			public TalonConfigResult configure(TalonSettings settings, TalonSettings p) {
+				previous.add(p);
+				return super.configure(settings, p);
+			}
+		};
+		TalonConfigCache cache = new TalonConfigCache();
+		TalonSettings settings = BaseTest.makePositionSettings();
+		settings.motorDirections.inverted = true;
+		cache.configure(motor, settings);
+		cache.configure(motor, settings);
+		assertNotNull(previous.get(1));
+
+		motor.powerCycle();
+		assertFalse(motor.getSettings().motorDirections.inverted);
+		cache.configure(motor, settings);
+		assertNull(previous.get(2));
+		assertTrue(motor.getSettings().motorDirections.inverted);
+		assertEquals(1, cache.getResetCount());
+
+		// the reset is only seen once
+		cache.configure(motor, settings);
+		assertNotNull(previous.get(3));
+		assertEquals(1, cache.getResetCount());
+	}
+}
@@ -0,0 +1,105 @@
+package frc.team281.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+
+import frc.team281.robot.subsystems.TalonConfigCache;
+import frc.team281.robot.subsystems.TalonConfigResult;
+import frc.team281.robot.subsystems.TalonSettings;
+import frc.team281.robot.subsystems.TalonSettingsBuilder;
+import frc.team281.robot.subsystems.TalonStartupConfigurator;
+
+public class TestTalonStartupConfigurator {
+
+	private TalonSettings settings = TalonSettingsBuilder.defaults().withCurrentLimits(35, 30, 200).coastInNeutral()
+			.withDirections(false, false).noMotorOutputLimits().noMotorStartupRamping().useSpeedControl().build();
+
+	@Test
+	public void testConfiguresAllTalonsAtOnce() {
+		int count = 8;
+		CountDownLatch allStarted = new CountDownLatch(count);
+		AtomicInteger sawOthers = new AtomicInteger();
+		TalonStartupConfigurator startup = new TalonStartupConfigurator(new TalonConfigCache());
+		startup.begin();
+		for (int i = 0; i < count; i++) {
+			TalonSRX talon = Mockito.mock(TalonSRX.class);
+			// each talon waits here until all of them have started
+			when(talon.config_kP(anyInt(), anyDouble(), anyInt())).thenAnswer(invocation -> {
+				allStarted.countDown();
+				if (allStarted.await(2, TimeUnit.SECONDS)) {
+					sawOthers.incrementAndGet();
+				}
+				return ErrorCode.OK;
+			});
+			startup.configure("talon" + i, talon, settings);
+		}
+		assertTrue(startup.isCollecting());
+
+		TalonConfigResult result = startup.configureAll();
+		assertFalse(startup.isCollecting());
+		assertTrue(result.isOk());
+		assertEquals(count, sawOthers.get());
+		assertTrue(startup.getFailedTalons().isEmpty());
+		assertTrue(startup.getTotalMillis() > 0.0);
+	}
+
+	@Test
+	public void testRetriesWithBackoff() {
+		List<Long> waits = new ArrayList<>();
+		TalonStartupConfigurator startup = new TalonStartupConfigurator(new TalonConfigCache()) {
+			@Override
+			protected void sleep(long millis) {
+				synchronized (waits) {
+					waits.add(millis);
+				}
+			}
+		};
+		startup.setRetries(4, 10);
+
+		TalonSRX flaky = Mockito.mock(TalonSRX.class);
+		when(flaky.config_kD(anyInt(), anyDouble(), anyInt())).thenReturn(ErrorCode.TxTimeout, ErrorCode.OK);
+		TalonSRX broken = Mockito.mock(TalonSRX.class);
+		when(broken.config_kD(anyInt(), anyDouble(), anyInt())).thenReturn(ErrorCode.TxFailed);
+
+		startup.begin();
+		startup.configure("flaky", flaky, settings);
+		startup.configure("broken", broken, settings);
+		TalonConfigResult result = startup.configureAll();
+
+		verify(flaky, times(2)).config_kD(anyInt(), anyDouble(), anyInt());
+		verify(broken, times(4)).config_kD(anyInt(), anyDouble(), anyInt());
+		assertEquals(1 + 3, startup.getRetryCount());
+		assertEquals("[broken]", startup.getFailedTalons().toString());
+		assertEquals(ErrorCode.TxFailed, result.getLastError());
+		// broken waits 10, 20, 40. flaky waits 10
+		assertEquals(4, waits.size());
+		assertTrue(waits.contains(40L));
+	}
+
+	@Test
+	public void testConfiguresRightAwayWhenNotCollecting() {
+		TalonSRX talon = Mockito.mock(TalonSRX.class);
+		TalonStartupConfigurator startup = new TalonStartupConfigurator(new TalonConfigCache());
+		startup.configure("now", talon, settings);
+		verify(talon).config_kP(anyInt(), anyDouble(), anyInt());
+		assertEquals(0, startup.configureAll().getSent());
+	}
+}
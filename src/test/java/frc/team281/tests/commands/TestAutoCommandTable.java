@@ -0,0 +1,80 @@
+package frc.team281.tests.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import edu.wpi.first.wpilibj.command.CommandGroup;
+import frc.team281.robot.AutoCommandFactory;
+import frc.team281.robot.AutoCommandTable;
+import frc.team281.robot.FieldMessage;
+import frc.team281.robot.FieldMessage.StartingPosition;
+import frc.team281.robot.strategy.AutoPlan;
+import frc.team281.robot.strategy.AutoPlanComputer;
+import frc.team281.robot.subsystems.PositionCalculator;
+
+public class TestAutoCommandTable {
+
+    protected AutoPlanComputer computer = new AutoPlanComputer();
+
+    protected AutoCommandFactory mockFactory() {
+        AutoCommandFactory factory = mock(AutoCommandFactory.class);
+        when(factory.makeAutoCommand(any(AutoPlan.class))).thenAnswer(new Answer<CommandGroup>() {
+            @Override
+            public CommandGroup answer(InvocationOnMock invocation) {
+                return new CommandGroup();
+            }
+        });
+        return factory;
+    }
+
+    @Test
+    public void testEveryPlanIsBuiltOnceUpFront() {
+        AutoCommandFactory factory = mockFactory();
+        List<AutoPlan> plans = computer.getAllPlans();
+        AutoCommandTable table = new AutoCommandTable(factory, plans);
+
+        assertEquals(plans.size(), table.size());
+        verify(factory, times(plans.size())).makeAutoCommand(any(AutoPlan.class));
+    }
+
+    @Test
+    public void testLookupDoesNotBuild() {
+        AutoCommandFactory factory = mockFactory();
+        AutoCommandTable table = new AutoCommandTable(factory, computer.getAllPlans());
+
+        FieldMessage fm = new FieldMessage();
+        fm.setOurScaleOnTheLeft(true);
+        fm.setOurSwitchOnTheLeft(true);
+        fm.setPosition(StartingPosition.RIGHT);
+        AutoPlan plan = computer.computePlanFromFieldPoseSwitches(fm, true, true, true, true);
+
+        assertTrue(table.contains(plan));
+        CommandGroup first = table.getCommand(plan);
+        assertSame(first, table.getCommand(plan));
+        verify(factory, times(computer.getAllPlans().size())).makeAutoCommand(any(AutoPlan.class));
+    }
+
+    @Test
+    public void testMissingPlanIsStillBuilt() {
+        AutoCommandFactory factory = mockFactory();
+        AutoCommandTable table = new AutoCommandTable(factory, computer.getAllPlans());
+        AutoPlan other = new AutoPlan("Other", false, false, PositionCalculator.builder().build());
+
+        assertFalse(table.contains(other));
+        assertTrue(table.getCommand(other) != null);
+        verify(factory).makeAutoCommand(other);
+    }
+}
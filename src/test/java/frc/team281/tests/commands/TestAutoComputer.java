@@ -146,4 +146,19 @@ public class TestAutoComputer {
         assertEquals(false,ap.shouldMirror());
         assertEquals(AutoPlanComputer.B,ap.getName());               
     }     
+    
+    @Test
+    public void testPlansAreSharedAndListed(){
+        FieldMessage fm = getBothLeftSideFieldPose();
+        
+        AutoPlan ap = computer.computePlanFromFieldPoseSwitches(fm, false, false, false, false);
+        
+        assertSame(ap, computer.computePlanFromFieldPoseSwitches(fm, false, false, false, false));
+        assertTrue(computer.getAllPlans().contains(ap));
+        
+        fm.setPosition(StartingPosition.RIGHT);
+        AutoPlan mirrored = computer.computePlanFromFieldPoseSwitches(fm, false, false, false, false);
+        assertTrue(computer.getAllPlans().contains(mirrored));
+        assertEquals(false,ap.shouldMirror());
+    }
 }
@@ -0,0 +1,61 @@
+package frc.team281.tests.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import frc.team281.robot.strategy.AutoPlan;
+import frc.team281.robot.strategy.AutoPlanComputer;
+import frc.team281.robot.strategy.AutoSelection;
+import frc.team281.tests.BaseTest;
+
+public class TestAutoSelection extends BaseTest {
+
+    // the switches read false when the robot is on that side
+    protected AutoSelection selection = new AutoSelection(new AutoPlanComputer());
+
+    @Test
+    public void testFirstUpdatePicksAPlan() {
+        assertTrue(selection.update("LLL", false, true, false, false, false, false, false));
+        assertEquals(AutoPlanComputer.A, selection.getPlan().getName());
+        assertTrue(selection.getFieldMessage().isRobotOnLeft());
+        assertEquals(1, selection.getComputeCount());
+    }
+
+    @Test
+    public void testSameInputsDoNotPickAgain() {
+        selection.update("LLL", false, true, false, false, false, false, false);
+        AutoPlan first = selection.getPlan();
+
+        assertFalse(selection.update("LLL", false, true, false, false, false, false, false));
+        assertFalse(selection.update(new String("LLL"), false, true, false, false, false, false, false));
+        assertSame(first, selection.getPlan());
+        assertEquals(1, selection.getComputeCount());
+    }
+
+    @Test
+    public void testLateGameMessagePicksAgain() {
+        selection.update("   ", false, true, false, false, false, false, false);
+        assertTrue(selection.update("RRR", false, true, false, false, false, false, false));
+        assertEquals(AutoPlanComputer.C, selection.getPlan().getName());
+        assertEquals(2, selection.getComputeCount());
+    }
+
+    @Test
+    public void testSelectorButtonPicksAgain() {
+        selection.update("LLL", false, true, false, false, false, false, false);
+        assertTrue(selection.update("LLL", false, true, false, true, false, false, false));
+        assertEquals(AutoPlanComputer.B, selection.getPlan().getName());
+    }
+
+    @Test
+    public void testPositionSwitchPicksAgain() {
+        selection.update("LLL", false, true, false, false, false, false, false);
+        assertTrue(selection.update("LLL", true, false, false, false, false, false, false));
+        assertTrue(selection.getPlan().shouldMirror());
+        assertTrue(selection.getFieldMessage().isRobotOnright());
+    }
+}
@@ -0,0 +1,166 @@
+package frc.team281.tests.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+
+import org.junit.Test;
+
+import frc.team281.robot.commands.DriveForwardUntilCollisionCommand;
+import frc.team281.robot.commands.FollowProfiledPathCommand;
+import frc.team281.robot.strategy.AutoPlan;
+import frc.team281.robot.strategy.AutoPlanEstimator;
+import frc.team281.robot.strategy.AutoTimingDatabase;
+import frc.team281.robot.strategy.RunningSummary;
+import frc.team281.robot.subsystems.PositionCalculator;
+
+public class TestAutoTimingDatabase {
+
+    public static final String DRIVE = AutoTimingDatabase.commandKey(FollowProfiledPathCommand.class.getSimpleName());
+
+    private File tempFile() throws Exception {
+        File file = File.createTempFile("auto_timing", ".csv");
+        file.delete();
+        file.deleteOnExit();
+        return file;
+    }
+
+    private void recordDrive(AutoTimingDatabase db, String plan, double seconds) {
+        db.startRun(plan);
+        db.recordCommand(FollowProfiledPathCommand.class.getSimpleName(), seconds);
+        assertTrue(db.endRun());
+    }
+
+    @Test
+    public void testRunsAreReadBackFromTheFile() throws Exception {
+        File file = tempFile();
+        AutoTimingDatabase db = AutoTimingDatabase.load(file);
+        assertEquals(0, db.getPlanCount());
+
+        recordDrive(db, "A", 3.0);
+        db.startRun("A");
+        db.recordSegment(1, 1.25, 0.5);
+        assertTrue(db.endRun());
+        recordDrive(db, "B", 5.0);
+        assertEquals(2, db.getSummary("A", DRIVE).getCount() + db.getSummary("B", DRIVE).getCount());
+
+        AutoTimingDatabase reloaded = AutoTimingDatabase.load(file);
+        assertEquals(2, reloaded.getPlanCount());
+        assertEquals(4, reloaded.getLoadedLines());
+        assertEquals(3.0, reloaded.getSummary("A", DRIVE).getMean(), 1e-9);
+        assertEquals(1.25, reloaded.getSummary("A", AutoTimingDatabase.segmentSecondsKey(1)).getMean(), 1e-9);
+        assertEquals(0.5, reloaded.getSummary("A", AutoTimingDatabase.segmentErrorKey(1)).getMean(), 1e-9);
+        assertEquals(5.0, reloaded.getSummary("B", DRIVE).getMean(), 1e-9);
+    }
+
+    @Test
+    public void testNothingIsRecordedOutsideARun() throws Exception {
+        File file = tempFile();
+        AutoTimingDatabase db = new AutoTimingDatabase(file);
+        db.recordCommand("Anything", 1.0);
+        assertFalse(db.isRunning());
+        assertTrue(db.endRun());
+        assertEquals(0, db.getPlanCount());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testBadLinesAreSkipped() throws Exception {
+        File file = tempFile();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("1,A," + DRIVE + ",3.0\n");
+            writer.write("2,A," + DRIVE + ",notanumber\n");
+            // cut off when the power went out
+            writer.write("3,A," + DRIVE);
+        }
+        AutoTimingDatabase db = AutoTimingDatabase.load(file);
+        assertEquals(1, db.getLoadedLines());
+        assertEquals(2, db.getSkippedLines());
+        assertEquals(1, db.getSummary("A", DRIVE).getCount());
+        assertNull(db.getSummary("B", DRIVE));
+    }
+
+    @Test
+    public void testSummaryStatistics() {
+        RunningSummary summary = new RunningSummary(0.5);
+        assertEquals(0.0, summary.getPercentile(95), 0.0);
+        for (int i = 1; i <= 20; i++) {
+            summary.add(i);
+        }
+        assertEquals(20, summary.getCount());
+        assertEquals(10.5, summary.getMean(), 1e-9);
+        assertEquals(35.0, summary.getVariance(), 1e-9);
+        assertEquals(Math.sqrt(35.0), summary.getStandardDeviation(), 1e-9);
+        assertEquals(20.0, summary.getMax(), 0.0);
+        // the top of the bucket the value is in
+        assertEquals(19.5, summary.getP95(), 1e-9);
+        assertEquals(10.5, summary.getPercentile(50), 1e-9);
+
+        // past the last bucket is still counted
+        summary.add(1000.0);
+        assertEquals(1000.0, summary.getPercentile(100), 0.0);
+    }
+
+    @Test
+    public void testMeanNeedsEnoughSamples() {
+        AutoTimingDatabase db = new AutoTimingDatabase(null);
+        recordDrive(db, "A", 4.0);
+        recordDrive(db, "A", 4.0);
+        assertEquals(9.0, db.getMean("A", DRIVE, 9.0), 0.0);
+        recordDrive(db, "A", 7.0);
+        assertEquals(AutoTimingDatabase.MIN_SAMPLES, db.getSummary("A", DRIVE).getCount());
+        assertEquals(5.0, db.getMean("A", DRIVE, 9.0), 1e-9);
+    }
+
+    @Test
+    public void testSpeculativeRunsAreKeptApart() {
+        AutoTimingDatabase db = new AutoTimingDatabase(null);
+        recordDrive(db, "A", 5.0);
+        recordDrive(db, "A", 5.0);
+        recordDrive(db, "A", 5.0);
+        db.startRun("A", true);
+        db.recordCommand(FollowProfiledPathCommand.class.getSimpleName(), 1.0);
+        db.recordSegment(0, 1.0, 0.25);
+        db.endRun();
+
+        assertEquals(3, db.getSummary("A", DRIVE).getCount());
+        assertEquals(5.0, db.getMean("A", DRIVE, 9.0), 1e-9);
+        assertNull(db.getSummary("A", AutoTimingDatabase.segmentSecondsKey(0)));
+        assertEquals(1.0, db.getSummary("A", AutoTimingDatabase.speculativeKey(DRIVE)).getMean(), 1e-9);
+        assertEquals(1, db.getSummary("A",
+                AutoTimingDatabase.speculativeKey(AutoTimingDatabase.segmentSecondsKey(0))).getCount());
+
+        // the next run is whole again
+        recordDrive(db, "A", 5.0);
+        assertEquals(4, db.getSummary("A", DRIVE).getCount());
+    }
+
+    @Test
+    public void testEstimatorLearnsFromPastMatches() {
+        AutoPlanEstimator estimator = new AutoPlanEstimator(100.0, 100.0);
+        AutoPlan plan = new AutoPlan("A", false, true, PositionCalculator.builder().forward(200).build());
+        double predictedDrive = estimator.getDriveSeconds(plan);
+        double predictedPoints = estimator.getExpectedPoints(plan);
+
+        AutoTimingDatabase db = new AutoTimingDatabase(null);
+        estimator.setHistory(db);
+        assertEquals(predictedDrive, estimator.getDriveSeconds(plan), 0.0);
+
+        recordDrive(db, "A", 5.0);
+        recordDrive(db, "A", 5.0);
+        recordDrive(db, "A", 5.0);
+        db.startRun("A");
+        db.recordCommand(DriveForwardUntilCollisionCommand.class.getSimpleName(), 2.0);
+        db.recordCommand(DriveForwardUntilCollisionCommand.class.getSimpleName(), 2.0);
+        db.recordCommand(DriveForwardUntilCollisionCommand.class.getSimpleName(), 2.0);
+        db.endRun();
+
+        assertEquals(5.0, estimator.getDriveSeconds(plan), 1e-9);
+        assertEquals(2.0, estimator.getApproachSeconds(plan), 1e-9);
+        assertTrue(estimator.getExpectedPoints(plan) < predictedPoints);
+    }
+}
@@ -0,0 +1,133 @@
+package frc.team281.tests.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import frc.team281.robot.AutoCommandFactory;
+import frc.team281.robot.FieldMessage;
+import frc.team281.robot.FieldMessage.StartingPosition;
+import frc.team281.robot.strategy.AutoPlan;
+import frc.team281.robot.strategy.AutoPlanComputer;
+import frc.team281.robot.strategy.AutoPlanEstimator;
+import frc.team281.robot.strategy.AutoSelection;
+import frc.team281.robot.strategy.CostBasedAutoPlanner;
+import frc.team281.robot.subsystems.PositionCalculator;
+import frc.team281.robot.subsystems.TalonSettings;
+import frc.team281.robot.subsystems.TalonSettingsBuilder;
+import frc.team281.robot.subsystems.drive.EncoderInchesConverter;
+import frc.team281.tests.BaseTest;
+
+public class TestCostBasedAutoPlanner extends BaseTest {
+
+    protected AutoPlanComputer computer = new AutoPlanComputer();
+    protected AutoPlanEstimator estimator = new AutoPlanEstimator(100.0, 100.0);
+    protected CostBasedAutoPlanner planner = new CostBasedAutoPlanner(computer, estimator);
+
+    protected FieldMessage bothOurSide() {
+        FieldMessage fm = new FieldMessage();
+        fm.setOurScaleOnTheLeft(true);
+        fm.setOurSwitchOnTheLeft(true);
+        fm.setPosition(StartingPosition.LEFT);
+        return fm;
+    }
+
+    @Test
+    public void testDriveTimeFollowsTheProfile() {
+        // 200 inches at 100 in/s, with a second to speed up and one to slow down
+        AutoPlan straight = new AutoPlan("S", false, false, PositionCalculator.builder().forward(200).build());
+        assertEquals(3.0, estimator.getDriveSeconds(straight), 0.05);
+
+        AutoPlanEstimator faster = new AutoPlanEstimator(200.0, 100.0);
+        assertTrue(faster.getDriveSeconds(straight) < estimator.getDriveSeconds(straight));
+    }
+
+    @Test
+    public void testFromSettingsUsesMotionMagicUnits() {
+        TalonSettings settings = TalonSettingsBuilder.defaults().withCurrentLimits(35, 30, 200).brakeInNeutral()
+                .withDirections(false, false).noMotorOutputLimits().noMotorStartupRamping().usePositionControl()
+                .withGains(1.0, 0.0, 0.0, 0.0).withMotionProfile(100, 100, 10).build();
+        AutoPlanEstimator fromSettings = AutoPlanEstimator.fromSettings(settings, new EncoderInchesConverter(10.0));
+        AutoPlan straight = new AutoPlan("S", false, false, PositionCalculator.builder().forward(200).build());
+
+        assertEquals(estimator.getDriveSeconds(straight), fromSettings.getDriveSeconds(straight), 1e-9);
+    }
+
+    @Test
+    public void testScoreTimeWaitsForTheLifter() {
+        AutoPlan shortScale = new AutoPlan("S", true, true, PositionCalculator.builder().build());
+        double expected = AutoPlanEstimator.SCALE_LIFT_SECONDS + AutoPlanEstimator.SCALE_EJECT_SECONDS;
+        assertEquals(expected, estimator.getScoreSeconds(shortScale), 1e-9);
+    }
+
+    @Test
+    public void testPointsDropWithTime() {
+        AutoPlan nothing = new AutoPlan("DoNothing", false, false, PositionCalculator.builder().build());
+        AutoPlan near = new AutoPlan("N", false, true, PositionCalculator.builder().forward(100).build());
+        AutoPlan far = new AutoPlan("F", false, true, PositionCalculator.builder().forward(600).build());
+
+        assertEquals(0.0, estimator.getExpectedPoints(nothing), 1e-9);
+        assertFalse(estimator.crossesAutoLine(nothing));
+        assertTrue(estimator.getExpectedPoints(near) > estimator.getExpectedPoints(far));
+        assertTrue(estimator.getExpectedPoints(far) > AutoPlanEstimator.AUTO_LINE_POINTS);
+    }
+
+    @Test
+    public void testCandidatesMakeSenseForTheField() {
+        List<AutoPlan> candidates = planner.getCandidates(bothOurSide());
+        assertEquals(2, candidates.size());
+        assertEquals(AutoPlanComputer.A, candidates.get(0).getName());
+        assertEquals(AutoPlanComputer.B, candidates.get(1).getName());
+    }
+
+    @Test
+    public void testPicksTheMostPoints() {
+        FieldMessage fm = bothOurSide();
+        AutoPlan scale = computer.computePlanFromFieldPoseSwitches(fm, true, false, false, false);
+        AutoPlan nearSwitch = computer.computePlanFromFieldPoseSwitches(fm, false, false, false, false);
+        assertTrue(estimator.getExpectedPoints(nearSwitch) > estimator.getExpectedPoints(scale));
+
+        assertSame(nearSwitch, planner.choose(fm, scale));
+        assertSame(nearSwitch, planner.choose(fm, nearSwitch));
+    }
+
+    @Test
+    public void testPreferredWinsATie() {
+        // neither drops a cube, and both cross the line
+        FieldMessage fm = bothOurSide();
+        fm.setOurScaleOnTheLeft(false);
+        fm.setOurSwitchOnTheLeft(false);
+        AutoPlan c = computer.computePlanFromFieldPoseSwitches(fm, false, false, false, false);
+        AutoPlan f = computer.computePlanFromFieldPoseSwitches(fm, false, false, false, true);
+        assertEquals(AutoPlanComputer.C, c.getName());
+        assertEquals(AutoPlanComputer.F, f.getName());
+
+        assertSame(c, planner.choose(fm, c));
+        assertSame(f, planner.choose(fm, f));
+    }
+
+    @Test
+    public void testSelectionUsesThePlannerWhenAsked() {
+        AutoSelection selection = new AutoSelection(computer);
+        selection.setPlanner(planner);
+
+        selection.update("LLL", false, true, false, true, false, false, false, false);
+        assertEquals(AutoPlanComputer.B, selection.getPlan().getName());
+        assertTrue(selection.getPredictions().contains(AutoPlanComputer.A + " "));
+
+        assertTrue(selection.update("LLL", false, true, false, true, false, false, false, true));
+        assertEquals(AutoPlanComputer.A, selection.getPlan().getName());
+        assertTrue(selection.isUsingPlanner());
+    }
+
+    @Test
+    public void testFactoryConstantsAreUsed() {
+        AutoPlan switchPlan = new AutoPlan("S", false, true, PositionCalculator.builder().build());
+        assertEquals(AutoCommandFactory.SWITCH_LIFT_SECONDS, estimator.getLiftSeconds(switchPlan), 1e-9);
+    }
+}
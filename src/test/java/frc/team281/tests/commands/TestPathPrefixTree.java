@@ -0,0 +1,110 @@
+package frc.team281.tests.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import frc.team281.robot.FieldMessage;
+import frc.team281.robot.FieldMessage.StartingPosition;
+import frc.team281.robot.strategy.AutoPlan;
+import frc.team281.robot.strategy.AutoPlanComputer;
+import frc.team281.robot.strategy.PathPrefixTree;
+import frc.team281.robot.subsystems.Position;
+import frc.team281.robot.subsystems.PositionCalculator;
+
+public class TestPathPrefixTree {
+
+    protected AutoPlan plan(String name, List<Position> path) {
+        return new AutoPlan(name, false, false, path);
+    }
+
+    @Test
+    public void testForwardMovesShareTheShorterPart() {
+        AutoPlan a = plan("A", PositionCalculator.builder().forward(168).right(90).build());
+        AutoPlan c = plan("C", PositionCalculator.builder().forward(224).right(90).forward(180).build());
+        PathPrefixTree tree = new PathPrefixTree();
+        tree.add(a, a.getPath());
+        tree.add(c, c.getPath());
+
+        List<Position> prefix = tree.getSharedPrefix(Arrays.asList(a, c));
+        assertEquals(1, prefix.size());
+        assertEquals(168, prefix.get(0).getLeftInches(), 1e-9);
+        assertEquals(168, prefix.get(0).getRightInches(), 1e-9);
+
+        // on its own, a plan shares its whole path
+        assertEquals(2, tree.getSharedPrefix(Arrays.asList(a)).size());
+        assertEquals(3, tree.getSharedPrefix(Arrays.asList(c)).size());
+    }
+
+    @Test
+    public void testSplitMovesAreJoinedBackTogether() {
+        AutoPlan a = plan("A", PositionCalculator.builder().forward(100).right(90).build());
+        AutoPlan b = plan("B", PositionCalculator.builder().forward(150).right(90).build());
+        AutoPlan c = plan("C", PositionCalculator.builder().forward(200).left(90).build());
+        PathPrefixTree tree = new PathPrefixTree();
+        tree.add(a, a.getPath());
+        tree.add(b, b.getPath());
+        tree.add(c, c.getPath());
+
+        List<Position> prefix = tree.getSharedPrefix(Arrays.asList(b, c));
+        assertEquals(1, prefix.size());
+        assertEquals(150, prefix.get(0).getLeftInches(), 1e-9);
+        assertEquals(100, tree.getSharedPrefix(Arrays.asList(a, b, c)).get(0).getLeftInches(), 1e-9);
+    }
+
+    @Test
+    public void testDifferentFirstMovesShareNothing() {
+        AutoPlan a = plan("A", PositionCalculator.builder().forward(100).build());
+        AutoPlan b = plan("B", PositionCalculator.builder().right(90).forward(100).build());
+        PathPrefixTree tree = new PathPrefixTree();
+        tree.add(a, a.getPath());
+        tree.add(b, b.getPath());
+
+        assertTrue(tree.getSharedPrefix(Arrays.asList(a, b)).isEmpty());
+    }
+
+    @Test
+    public void testRemainderAfterPrefix() {
+        List<Position> path = PositionCalculator.builder().forward(224).right(90).forward(180).build();
+        List<Position> rest = PathPrefixTree.remainderAfter(Arrays.asList(new Position(168, 168)), path);
+
+        assertEquals(3, rest.size());
+        assertEquals(56, rest.get(0).getLeftInches(), 1e-9);
+        assertEquals(path.get(1), rest.get(1));
+
+        assertNull(PathPrefixTree.remainderAfter(Arrays.asList(new Position(300, 300)),
+                PositionCalculator.builder().forward(224).right(90).build()));
+        assertTrue(PathPrefixTree.remainderAfter(path, path).isEmpty());
+    }
+
+    @Test
+    public void testSidePlansShareTheirForwardMove() {
+        AutoPlanComputer computer = new AutoPlanComputer();
+        PathPrefixTree tree = new PathPrefixTree();
+        for (AutoPlan p : computer.getAllPlans()) {
+            tree.add(p, p.getDrivenPath());
+        }
+
+        // on the left, with every selector on, the plan is B, F, A or B
+        FieldMessage fm = new FieldMessage();
+        fm.setPosition(StartingPosition.LEFT);
+        fm.setOurSwitchOnTheLeft(true);
+        fm.setOurScaleOnTheLeft(true);
+        AutoPlan b = computer.computePlanFromFieldPoseSwitches(fm, true, true, true, true);
+        fm.setOurScaleOnTheLeft(false);
+        AutoPlan f = computer.computePlanFromFieldPoseSwitches(fm, true, true, true, true);
+        fm.setOurSwitchOnTheLeft(false);
+        AutoPlan f2 = computer.computePlanFromFieldPoseSwitches(fm, true, true, true, true);
+
+        assertEquals(AutoPlanComputer.B, b.getName());
+        assertEquals(AutoPlanComputer.F, f.getName());
+        List<Position> prefix = tree.getSharedPrefix(Arrays.asList(b, f, f2));
+        assertEquals(1, prefix.size());
+        assertEquals(240, prefix.get(0).getLeftInches(), 1e-6);
+    }
+}
@@ -0,0 +1,125 @@
+package frc.team281.tests.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import edu.wpi.first.wpilibj.command.CommandGroup;
+import frc.team281.robot.AutoCommandFactory;
+import frc.team281.robot.SpeculativeAutoExecutor;
+import frc.team281.robot.SpeculativeAutoExecutor.State;
+import frc.team281.robot.commands.BaseCommand;
+import frc.team281.robot.strategy.AutoPlan;
+import frc.team281.robot.subsystems.Position;
+import frc.team281.robot.subsystems.PositionCalculator;
+import frc.team281.robot.subsystems.drive.DriveTrajectory;
+import frc.team281.robot.subsystems.drive.RealDriveSubsystem;
+import frc.team281.tests.BaseTest;
+
+public class TestSpeculativeAutoExecutor extends BaseTest {
+
+    private AutoPlan switchPlan = new AutoPlan("A", false, true,
+            PositionCalculator.builder().forward(168).right(90).build());
+    private AutoPlan oppositePlan = new AutoPlan("C", false, false,
+            PositionCalculator.builder().forward(224).right(90).forward(180).build());
+    private AutoPlan middlePlan = new AutoPlan("D", false, true,
+            PositionCalculator.builder().forward(24).left(45).build());
+    private AutoPlan turnFirstPlan = new AutoPlan("T", false, false,
+            PositionCalculator.builder().right(90).forward(50).build());
+
+    private RealDriveSubsystem drive = mock(RealDriveSubsystem.class);
+    private AutoCommandFactory factory = mock(AutoCommandFactory.class);
+
+    @SuppressWarnings("unchecked")
+    private SpeculativeAutoExecutor executor() {
+        when(drive.planProfiledPath(anyListOf(Position.class))).thenAnswer(new Answer<DriveTrajectory>() {
+            @Override
+            public DriveTrajectory answer(InvocationOnMock invocation) {
+                return DriveTrajectory.plan((List<Position>) invocation.getArguments()[0], 100, 200, 10);
+            }
+        });
+        when(factory.makeAutoCommand(any(AutoPlan.class), any(BaseCommand.class))).thenAnswer(
+                new Answer<CommandGroup>() {
+                    @Override
+                    public CommandGroup answer(InvocationOnMock invocation) {
+                        return new CommandGroup();
+                    }
+                });
+        return new SpeculativeAutoExecutor(factory, drive, Arrays.asList(switchPlan, oppositePlan, middlePlan,
+                turnFirstPlan));
+    }
+
+    @Test
+    public void testDrivesTheSharedPrefix() {
+        SpeculativeAutoExecutor executor = executor();
+        assertTrue(executor.start(Arrays.asList(switchPlan, oppositePlan)));
+
+        assertTrue(executor.isSpeculating());
+        assertEquals(1, executor.getPrefix().size());
+        assertEquals(168, executor.getPrefix().get(0).getLeftInches(), 1e-9);
+        verify(drive).followProfiledPath(any(DriveTrajectory.class));
+    }
+
+    @Test
+    public void testCommitsWithoutStoppingWhenTheSwitchWorks() {
+        SpeculativeAutoExecutor executor = executor();
+        executor.start(Arrays.asList(switchPlan, oppositePlan));
+        when(drive.switchProfiledPath(any(DriveTrajectory.class))).thenReturn(true);
+
+        executor.commit(oppositePlan);
+
+        assertEquals(State.COMMITTED, executor.getState());
+        assertSame(oppositePlan, executor.getCommittedPlan());
+        // built up front, when the executor was made
+        verify(factory, never()).makeAutoCommand(oppositePlan);
+    }
+
+    @Test
+    public void testLateCommitDrivesTheRestAfterThePrefix() {
+        SpeculativeAutoExecutor executor = executor();
+        executor.start(Arrays.asList(switchPlan, oppositePlan));
+        when(drive.switchProfiledPath(any(DriveTrajectory.class))).thenReturn(false);
+        when(drive.isProfiledPathFinished()).thenReturn(false);
+
+        executor.commit(oppositePlan);
+        assertEquals(State.WAITING_FOR_PREFIX, executor.getState());
+        executor.periodic();
+        assertEquals(State.WAITING_FOR_PREFIX, executor.getState());
+
+        when(drive.isProfiledPathFinished()).thenReturn(true);
+        executor.periodic();
+        assertEquals(State.COMMITTED, executor.getState());
+    }
+
+    @Test
+    public void testPlanThatDoesNotMatchThePrefixIsAbandoned() {
+        SpeculativeAutoExecutor executor = executor();
+        executor.start(Arrays.asList(switchPlan, oppositePlan));
+        when(drive.switchProfiledPath(any(DriveTrajectory.class))).thenReturn(false);
+
+        executor.commit(middlePlan);
+        assertEquals(State.ABANDONED, executor.getState());
+    }
+
+    @Test
+    public void testNothingSharedWaitsWithoutMoving() {
+        SpeculativeAutoExecutor executor = executor();
+        assertFalse(executor.start(Arrays.asList(switchPlan, turnFirstPlan)));
+        assertTrue(executor.isSpeculating());
+        verify(drive, never()).followProfiledPath(any(DriveTrajectory.class));
+    }
+}
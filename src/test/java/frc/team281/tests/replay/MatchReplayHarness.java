@@ -0,0 +1,600 @@
+package frc.team281.tests.replay;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+
+import edu.wpi.first.wpilibj.DigitalInput;
+import frc.team281.robot.Robot;
+import frc.team281.robot.SpeculativeAutoExecutor;
+import frc.team281.robot.SpeculativeAutoExecutor.State;
+import frc.team281.robot.controllers.SettableEncoder;
+import frc.team281.robot.logger.DataLogger;
+import frc.team281.robot.replay.RecordedMatch;
+import frc.team281.robot.replay.ReplayClock;
+import frc.team281.robot.sim.SimulatedCanBus;
+import frc.team281.robot.sim.SimulatedMotorIO;
+import frc.team281.robot.strategy.AutoPlan;
+import frc.team281.robot.strategy.AutoPlanComputer;
+import frc.team281.robot.strategy.AutoPlanEstimator;
+import frc.team281.robot.strategy.AutoSelection;
+import frc.team281.robot.strategy.AutoTimingDatabase;
+import frc.team281.robot.strategy.CostBasedAutoPlanner;
+import frc.team281.robot.strategy.PathPrefixTree;
+import frc.team281.robot.subsystems.LifterSubsystem;
+import frc.team281.robot.subsystems.Position;
+import frc.team281.robot.subsystems.PositionBuffer;
+import frc.team281.robot.subsystems.PositionCalculator;
+import frc.team281.robot.subsystems.drive.DriveTrajectory;
+import frc.team281.robot.subsystems.drive.EncoderInchesConverter;
+import frc.team281.robot.subsystems.drive.FourTalonsWithSettings;
+import frc.team281.robot.subsystems.drive.MotionProfileDriveController;
+import frc.team281.robot.subsystems.drive.PositionDriveController;
+import frc.team281.robot.subsystems.drive.RealDriveSubsystem;
+
+/**
+ * Replays a recorded match through the real auto selection, drive and lifter
+ * logic, in virtual time.
+ * 
+ * The talons, limit switches and encoders are mocks that answer with what was
+ * recorded. Each loop, the harness applies the recorded values for that loop,
+ * runs the robot code, and compares what the code commanded with what the
+ * robot actually commanded. Differences are collected, so you can see where a
+ * bad auto run went wrong.
+ * 
+ * To look at a real match, copy the log from /home/lvuser/logs and write a
+ * test like this:
+ * 
+ * <pre>
+ * MatchReplayHarness replay = new MatchReplayHarness(RecordedMatch.load(new File("match_123.bin")));
+ * replay.run();
+ * replay.getDifferences().forEach(System.out::println);
+ * </pre>
+ * 
+ * Autos that drove a motion profile ( the recording has
+ * MotionProfileDriveController.profileState after auto started ) are replayed
+ * through a MotionProfileDriveController instead. The talons run the profile
+ * themselves, so they are simulated talons, and the harness streams points
+ * into them the way the notifier does, four times a loop. The profile state
+ * is compared with the recording. The simulated encoders can be compared with
+ * the recorded ones too, with setEncoderTolerance(), though a real robot
+ * won't follow the profile exactly like a simulated one.
+ * 
+ * When auto started before the game message, the robot drove the start every
+ * possible plan shares, and switched to the plan once the message came (
+ * SpeculativeAutoExecutor ). The harness does the same with the profile
+ * controller, picking the plan again each loop until the message shows up,
+ * and compares its state and plan with SpeculativeAuto.state and
+ * SpeculativeAuto.committedPlan. Like the lifter, the commands that carry on
+ * after the drive aren't replayed.
+ * 
+ * Everything replayed runs on the harness's ReplayClock, never the system
+ * clock.
+ * 
+ * Lifter requests come from commands, which aren't replayed. Instead, when the
+ * recorded lifter output starts moving, the same request is made to the
+ * replayed lifter. After that its own logic decides when to slow and stop.
+ * 
+ * Needs the wpilib test setup, so use it from a test that extends BaseTest.
+ * 
+ * @author dcowden
+ *
+ */
+public class MatchReplayHarness {
+
+    public static final double LOOP_SECONDS = 0.02;
+    public static final double DEFAULT_TOLERANCE = 0.001;
+
+    public static final String DRIVE_PREFIX = PositionDriveController.class.getSimpleName() + DataLogger.SEPARATOR;
+    public static final String LIFTER_PREFIX = LifterSubsystem.class.getSimpleName() + DataLogger.SEPARATOR;
+    public static final String ROBOT_PREFIX = Robot.LOGGER_NAME + DataLogger.SEPARATOR;
+    public static final String PROFILE_PREFIX = MotionProfileDriveController.class.getSimpleName()
+            + DataLogger.SEPARATOR;
+    public static final String PROFILE_STATE_PATH = PROFILE_PREFIX + MotionProfileDriveController.PROFILE_STATE_KEY;
+    public static final String DRIVE_SUBSYSTEM_PREFIX = RealDriveSubsystem.class.getSimpleName()
+            + DataLogger.SEPARATOR;
+    public static final String SPECULATIVE_PREFIX = SpeculativeAutoExecutor.LOGGER_NAME + DataLogger.SEPARATOR;
+    // the notifier streams this many times a loop
+    public static final int STREAMS_PER_LOOP = (int) Math.round(LOOP_SECONDS
+            / MotionProfileDriveController.STREAM_SECONDS);
+
+    private RecordedMatch match;
+    private ReplayClock clock = new ReplayClock();
+    private double tolerance = DEFAULT_TOLERANCE;
+    private int encoderToleranceCounts = 0;
+
+    private FourTalonsWithSettings talons;
+    private List<ReplayedTalon> driveTalons = new ArrayList<>();
+    private PositionBuffer positionBuffer = new PositionBuffer();
+    private PositionDriveController driveController;
+
+    private SimulatedCanBus profileBus = new SimulatedCanBus();
+    private SimulatedMotorIO[] profileTalons;
+    private MotionProfileDriveController profileController;
+    private boolean replayingProfile = false;
+
+    private ReplayedTalon lifterMotorOne;
+    private ReplayedTalon lifterMotorTwo;
+    private ReplayLifterSubsystem lifter;
+    private double lastRecordedLifterOutput = 0.0;
+
+    private AutoPlanEstimator estimator;
+    private AutoSelection autoSelection;
+    private AutoPlan autoPlan;
+
+    private PathPrefixTree prefixTree = new PathPrefixTree();
+    private State speculativeState = State.IDLE;
+    private List<Position> prefix;
+    private AutoPlan committedPlan;
+    private DriveTrajectory rest;
+    private List<ReplayDifference> differences = new ArrayList<>();
+    private int frameCount = 0;
+
+    public MatchReplayHarness(RecordedMatch match) {
+        this.match = match;
+
+        ReplayedTalon frontLeft = driveTalon(PositionDriveController.FRONT_LEFT);
+        ReplayedTalon frontRight = driveTalon(PositionDriveController.FRONT_RIGHT);
+        ReplayedTalon rearLeft = driveTalon(PositionDriveController.REAR_LEFT);
+        ReplayedTalon rearRight = driveTalon(PositionDriveController.REAR_RIGHT);
+        talons = new FourTalonsWithSettings(frontLeft.talon, rearLeft.talon, frontRight.talon, rearRight.talon,
+                RealDriveSubsystem.leftPositionSettings(), RealDriveSubsystem.leftPositionSettings(),
+                RealDriveSubsystem.rightPositionSettings(), RealDriveSubsystem.rightPositionSettings());
+        driveController = new PositionDriveController(talons, positionBuffer,
+                new EncoderInchesConverter(RealDriveSubsystem.ENCODER_TICKS_PER_INCH));
+        driveController.setTimeSource(clock);
+
+        profileTalons = new SimulatedMotorIO[] { profileBus.add(1), profileBus.add(2), profileBus.add(3),
+                profileBus.add(4) };
+        profileController = new ReplayedProfileController(new FourTalonsWithSettings(profileTalons[0],
+                profileTalons[1], profileTalons[2], profileTalons[3], RealDriveSubsystem.leftPositionSettings(),
+                RealDriveSubsystem.leftPositionSettings(), RealDriveSubsystem.rightPositionSettings(),
+                RealDriveSubsystem.rightPositionSettings()));
+        profileController.setTimeSource(clock);
+
+        // picks the plan the way robotInit sets it up
+        AutoPlanComputer computer = new AutoPlanComputer();
+        estimator = AutoPlanEstimator.fromSettings(RealDriveSubsystem.leftPositionSettings(),
+                new EncoderInchesConverter(RealDriveSubsystem.ENCODER_TICKS_PER_INCH));
+        estimator.setHistory(new AutoTimingDatabase(null));
+        autoSelection = new AutoSelection(computer);
+        autoSelection.setPlanner(new CostBasedAutoPlanner(computer, estimator));
+        for (AutoPlan plan : computer.getAllPlans()) {
+            prefixTree.add(plan, plan.getDrivenPath());
+        }
+
+        lifterMotorOne = new ReplayedTalon(null, LIFTER_PREFIX + LifterSubsystem.MOTOR_ONE_CURRENT_KEY, null);
+        lifterMotorTwo = new ReplayedTalon(null, LIFTER_PREFIX + LifterSubsystem.MOTOR_TWO_CURRENT_KEY, null);
+        lifter = new ReplayLifterSubsystem();
+        lifter.initialize(lifterMotorOne.talon, lifterMotorTwo.talon,
+                switchInput(LIFTER_PREFIX + LifterSubsystem.LOWER_LIMIT_KEY),
+                switchInput(LIFTER_PREFIX + LifterSubsystem.UPPER_LIMIT_SWITCH_KEY),
+                recordedEncoder(LIFTER_PREFIX + LifterSubsystem.ENCODER_COUNT_KEY));
+    }
+
+    private ReplayedTalon driveTalon(String name) {
+        ReplayedTalon t = new ReplayedTalon(DRIVE_PREFIX + name + PositionDriveController.POSITION_SUFFIX,
+                DRIVE_PREFIX + name + PositionDriveController.CURRENT_SUFFIX,
+                DRIVE_PREFIX + name + PositionDriveController.OUTPUT_SUFFIX);
+        driveTalons.add(t);
+        return t;
+    }
+
+    /**
+     * A limit switch. The logged value is 'pressed', but the input reads false
+     * when pressed.
+     */
+    private DigitalInput switchInput(String pressedPath) {
+        DigitalInput input = mock(DigitalInput.class);
+        when(input.get()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                return !match.getBoolean(pressedPath, false);
+            }
+        });
+        return input;
+    }
+
+    /**
+     * The logged count already includes any offsets the robot set, so set and
+     * reset do nothing here.
+     */
+    private SettableEncoder recordedEncoder(String countPath) {
+        SettableEncoder encoder = mock(SettableEncoder.class);
+        when(encoder.get()).thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) {
+                return match.getInt(countPath, 0);
+            }
+        });
+        return encoder;
+    }
+
+    /**
+     * The timings the robot had loaded for this match. The cost planner picks
+     * from them, so without them it can pick differently. Empty by default
+     */
+    public void setTimingHistory(AutoTimingDatabase history) {
+        estimator.setHistory(history);
+        autoSelection.invalidate();
+    }
+
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Compares the simulated encoders with the recorded ones, when replaying a
+     * profile. 0, the default, doesn't compare them
+     */
+    public void setEncoderTolerance(int encoderToleranceCounts) {
+        this.encoderToleranceCounts = encoderToleranceCounts;
+    }
+
+    /**
+     * Replays the match from the start of auto ( or the start of the log, if
+     * auto never started ) to the end of the log.
+     */
+    public void run() {
+        double start = match.findNext(ROBOT_PREFIX + Robot.AUTO_STARTED_KEY, 0.0);
+        if (start < 0) {
+            start = match.getStartSeconds();
+        }
+        match.rewind();
+        match.advanceTo(start);
+        clock.setTime(start);
+        clock.resetClock();
+
+        autoPlan = replayAutoSelection();
+        replayingProfile = match.findNext(PROFILE_STATE_PATH, start) >= 0;
+        if (!autoSelection.hasGameMessage()) {
+            replayingProfile = true;
+            startSpeculating();
+        } else if (replayingProfile) {
+            profileController.activate();
+            profileController.follow(autoPlan.getDrivenPath());
+        } else {
+            startPositionDrive();
+        }
+
+        int frames = (int) Math.ceil((match.getEndSeconds() - start) / LOOP_SECONDS);
+        for (int i = 1; i <= frames; i++) {
+            step(start + i * LOOP_SECONDS);
+        }
+    }
+
+    private void startPositionDrive() {
+        positionBuffer.clear();
+        List<Position> path = autoPlan.getPath();
+        if (autoPlan.shouldMirror()) {
+            path = PositionCalculator.mirror(path);
+        }
+        for (Position p : path) {
+            positionBuffer.addPosition(p);
+        }
+        driveController.activate();
+    }
+
+    /**
+     * Drives the start every possible plan shares, like
+     * SpeculativeAutoExecutor.start()
+     */
+    private void startSpeculating() {
+        prefix = prefixTree.getSharedPrefix(autoSelection.getPossiblePlans());
+        String prefixPath = SPECULATIVE_PREFIX + SpeculativeAutoExecutor.PREFIX_MOVES_KEY;
+        if (match.hasValue(prefixPath) && match.getInt(prefixPath, 0) != prefix.size()) {
+            differences.add(new ReplayDifference(match.getCurrentTime(), prefixPath,
+                    "" + match.getInt(prefixPath, 0), "" + prefix.size()));
+        }
+        speculativeState = State.SPECULATING;
+        profileController.activate();
+        if (!prefix.isEmpty()) {
+            profileController.follow(profileController.plan(prefix));
+        }
+    }
+
+    /**
+     * Picks the plan each loop until the message comes, then switches to it,
+     * or drives the rest of it once the start is done, like
+     * SpeculativeAutoExecutor.commit() and periodic()
+     */
+    protected void stepSpeculation(double time) {
+        if (speculativeState == State.SPECULATING) {
+            AutoPlan plan = replayAutoSelection();
+            if (autoSelection.hasGameMessage()) {
+                commit(plan);
+            }
+        }
+        if (speculativeState == State.WAITING_FOR_PREFIX && profileController.isFinished()) {
+            profileController.follow(rest);
+            speculativeState = State.COMMITTED;
+        }
+        compareString(time, SPECULATIVE_PREFIX + SpeculativeAutoExecutor.STATE_KEY, speculativeState.name());
+        if (committedPlan != null) {
+            compareString(time, SPECULATIVE_PREFIX + SpeculativeAutoExecutor.COMMITTED_PLAN_KEY,
+                    committedPlan.getName());
+        }
+    }
+
+    private void commit(AutoPlan plan) {
+        committedPlan = plan;
+        autoPlan = plan;
+        if (profileController.switchTo(profileController.plan(plan.getDrivenPath()))) {
+            speculativeState = State.COMMITTED;
+            return;
+        }
+        List<Position> remainder = PathPrefixTree.remainderAfter(prefix, plan.getDrivenPath());
+        if (remainder == null) {
+            speculativeState = State.ABANDONED;
+            return;
+        }
+        rest = profileController.plan(remainder);
+        speculativeState = State.WAITING_FOR_PREFIX;
+    }
+
+    /**
+     * Picks the auto plan from the recorded game message and switches through
+     * AutoSelection, with the cost planner if the robot was using it, and
+     * checks it against the plan the robot picked.
+     */
+    public AutoPlan replayAutoSelection() {
+        autoSelection.update(match.getString(ROBOT_PREFIX + Robot.GAME_MESSAGE_KEY, "   "),
+                match.getBoolean(ROBOT_PREFIX + Robot.LEFT_POSITION_SWITCH_KEY, false),
+                match.getBoolean(ROBOT_PREFIX + Robot.RIGHT_POSITION_SWITCH_KEY, false),
+                match.getBoolean(ROBOT_PREFIX + Robot.STOP_AT_E_KEY, false),
+                match.getBoolean(ROBOT_PREFIX + Robot.BOTH_THIS_SIDE_KEY, false),
+                match.getBoolean(ROBOT_PREFIX + Robot.FRONT_SLASH_KEY, false),
+                match.getBoolean(ROBOT_PREFIX + Robot.BACK_SLASH_KEY, false),
+                match.getBoolean(ROBOT_PREFIX + Robot.BOTH_OPPOSITE_KEY, false),
+                match.getBoolean(ROBOT_PREFIX + Robot.USE_PLANNER_KEY, false));
+        AutoPlan plan = autoSelection.getPlan();
+        String recorded = match.getString(ROBOT_PREFIX + Robot.SELECTED_AUTO_KEY, null);
+        if (recorded != null && !recorded.equals(plan.getName())) {
+            differences.add(new ReplayDifference(match.getCurrentTime(), ROBOT_PREFIX + Robot.SELECTED_AUTO_KEY,
+                    recorded, plan.getName()));
+        }
+        return plan;
+    }
+
+    protected void step(double time) {
+        match.advanceTo(time);
+        clock.setTime(time);
+        frameCount++;
+
+        stepLifter(time);
+        if (speculativeState != State.IDLE) {
+            stepSpeculation(time);
+        }
+        if (replayingProfile) {
+            stepProfile(time);
+            return;
+        }
+        driveController.periodic();
+
+        for (ReplayedTalon t : driveTalons) {
+            compare(time, t.outputPath, t.value);
+        }
+    }
+
+    /**
+     * Runs the profile controller's loop, then streams and runs the talons
+     * until the next loop
+     */
+    protected void stepProfile(double time) {
+        profileController.periodic();
+        compareString(time, PROFILE_STATE_PATH, profileController.getState().name());
+        if (encoderToleranceCounts > 0) {
+            compareEncoder(time, RealDriveSubsystem.FRONT_LEFT_ENCODER_KEY, profileTalons[0]);
+            compareEncoder(time, RealDriveSubsystem.REAR_LEFT_ENCODER_KEY, profileTalons[1]);
+            compareEncoder(time, RealDriveSubsystem.FRONT_RIGHT_ENCODER_KEY, profileTalons[2]);
+            compareEncoder(time, RealDriveSubsystem.REAR_RIGHT_ENCODER_KEY, profileTalons[3]);
+        }
+        for (int i = 0; i < STREAMS_PER_LOOP; i++) {
+            clock.setTime(time + i * MotionProfileDriveController.STREAM_SECONDS);
+            profileController.stream();
+            profileBus.step(MotionProfileDriveController.STREAM_SECONDS);
+        }
+    }
+
+    protected void stepLifter(double time) {
+        String outputPath = LIFTER_PREFIX + LifterSubsystem.MOTOR_OUTPUT_KEY;
+        if (!match.hasValue(outputPath)) {
+            return;
+        }
+        double recorded = match.getDouble(outputPath, 0.0);
+        if (lastRecordedLifterOutput == 0.0 && lifterMotorOne.value == 0.0) {
+            if (recorded > 0.0) {
+                lifter.motorsUp(recorded);
+            } else if (recorded < 0.0) {
+                lifter.motorsDown(-recorded);
+            }
+        }
+        lastRecordedLifterOutput = recorded;
+        lifter.periodic();
+        compare(time, outputPath, lifterMotorOne.value);
+    }
+
+    private void compare(double time, String path, double replayed) {
+        if (path == null || !match.hasValue(path)) {
+            return;
+        }
+        double recorded = match.getDouble(path, 0.0);
+        if (Math.abs(recorded - replayed) > tolerance) {
+            differences.add(new ReplayDifference(time, path, "" + recorded, "" + replayed));
+        }
+    }
+
+    private void compareString(double time, String path, String replayed) {
+        if (!match.hasValue(path)) {
+            return;
+        }
+        String recorded = match.getString(path, null);
+        if (!replayed.equals(recorded)) {
+            differences.add(new ReplayDifference(time, path, recorded, replayed));
+        }
+    }
+
+    private void compareEncoder(double time, String key, SimulatedMotorIO talon) {
+        String path = DRIVE_SUBSYSTEM_PREFIX + key;
+        if (!match.hasValue(path)) {
+            return;
+        }
+        int recorded = match.getInt(path, 0);
+        int replayed = talon.getSelectedSensorPosition();
+        if (Math.abs(recorded - replayed) > encoderToleranceCounts) {
+            differences.add(new ReplayDifference(time, path, "" + recorded, "" + replayed));
+        }
+    }
+
+    public List<ReplayDifference> getDifferences() {
+        return differences;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public AutoPlan getAutoPlan() {
+        return autoPlan;
+    }
+
+    public ReplayClock getClock() {
+        return clock;
+    }
+
+    public PositionDriveController getDriveController() {
+        return driveController;
+    }
+
+    public MotionProfileDriveController getProfileController() {
+        return profileController;
+    }
+
+    public State getSpeculativeState() {
+        return speculativeState;
+    }
+
+    /**
+     * The plan picked once the message came, or null if auto didn't start
+     * early
+     */
+    public AutoPlan getCommittedPlan() {
+        return committedPlan;
+    }
+
+    public boolean isReplayingProfile() {
+        return replayingProfile;
+    }
+
+    public LifterSubsystem getLifter() {
+        return lifter;
+    }
+
+    /**
+     * One place where the replayed code did something different than the
+     * robot did.
+     */
+    public static class ReplayDifference {
+        public final double time;
+        public final String path;
+        public final String recorded;
+        public final String replayed;
+
+        public ReplayDifference(double time, String path, String recorded, String replayed) {
+            this.time = time;
+            this.path = path;
+            this.recorded = recorded;
+            this.replayed = replayed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f %s recorded=%s replayed=%s", time, path, recorded, replayed);
+        }
+    }
+
+    /**
+     * A mock talon that reads sensors from the recording, and remembers what
+     * it was told to do.
+     */
+    private class ReplayedTalon {
+        final WPI_TalonSRX talon = mock(WPI_TalonSRX.class);
+        final String outputPath;
+        ControlMode mode = ControlMode.PercentOutput;
+        double value = 0.0;
+
+        ReplayedTalon(String positionPath, String currentPath, String outputPath) {
+            this.outputPath = outputPath;
+            doAnswer(new Answer<Void>() {
+                @Override
+                public Void answer(InvocationOnMock invocation) {
+                    mode = (ControlMode) invocation.getArguments()[0];
+                    value = (Double) invocation.getArguments()[1];
+                    return null;
+                }
+            }).when(talon).set(any(ControlMode.class), anyDouble());
+            when(talon.getControlMode()).thenAnswer(new Answer<ControlMode>() {
+                @Override
+                public ControlMode answer(InvocationOnMock invocation) {
+                    return mode;
+                }
+            });
+            when(talon.get()).thenAnswer(new Answer<Double>() {
+                @Override
+                public Double answer(InvocationOnMock invocation) {
+                    return value;
+                }
+            });
+            when(talon.getSelectedSensorPosition(anyInt())).thenAnswer(new Answer<Integer>() {
+                @Override
+                public Integer answer(InvocationOnMock invocation) {
+                    return positionPath == null ? 0 : match.getInt(positionPath, 0);
+                }
+            });
+            when(talon.getOutputCurrent()).thenAnswer(new Answer<Double>() {
+                @Override
+                public Double answer(InvocationOnMock invocation) {
+                    return match.getDouble(currentPath, 0.0);
+                }
+            });
+            when(talon.getLastError()).thenReturn(ErrorCode.OK);
+        }
+    }
+
+    /**
+     * The harness streams, instead of a notifier
+     */
+    private static class ReplayedProfileController extends MotionProfileDriveController {
+        ReplayedProfileController(FourTalonsWithSettings talons) {
+            super(talons, new EncoderInchesConverter(RealDriveSubsystem.ENCODER_TICKS_PER_INCH));
+        }
+
+        @Override
+        protected void startStreaming() {
+        }
+    }
+
+    /**
+     * Gives the harness access to the lifter's hardware seam.
+     */
+    private static class ReplayLifterSubsystem extends LifterSubsystem {
+        @Override
+        protected void initialize(WPI_TalonSRX motorOne, WPI_TalonSRX motorTwo, DigitalInput bottomLimitSwitch,
+                DigitalInput topLimitSwitch, SettableEncoder encoder) {
+            super.initialize(motorOne, motorTwo, bottomLimitSwitch, topLimitSwitch, encoder);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package frc.team281.tests.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import frc.team281.robot.FieldMessageGetter;
+import frc.team281.robot.Robot;
+import frc.team281.robot.SpeculativeAutoExecutor;
+import frc.team281.robot.SpeculativeAutoExecutor.State;
+import frc.team281.robot.logger.BinaryMatchLog;
+import frc.team281.robot.logger.BinaryMatchLogReader;
+import frc.team281.robot.logger.BinaryMatchLogger;
+import frc.team281.robot.replay.RecordedMatch;
+import frc.team281.robot.replay.ReplayClock;
+import frc.team281.robot.sim.SimulatedCanBus;
+import frc.team281.robot.sim.SimulatedMotorIO;
+import frc.team281.robot.strategy.AutoPlan;
+import frc.team281.robot.strategy.AutoPlanComputer;
+import frc.team281.robot.strategy.PathPrefixTree;
+import frc.team281.robot.subsystems.LifterSubsystem;
+import frc.team281.robot.subsystems.Position;
+import frc.team281.robot.subsystems.drive.EncoderInchesConverter;
+import frc.team281.robot.subsystems.drive.FourTalonsWithSettings;
+import frc.team281.robot.subsystems.drive.MotionProfileDriveController;
+import frc.team281.robot.subsystems.drive.MotionProfileDriveController.ProfileState;
+import frc.team281.robot.subsystems.drive.PositionDriveController;
+import frc.team281.robot.subsystems.drive.RealDriveSubsystem;
+import frc.team281.tests.BaseTest;
+
+public class TestMatchReplay extends BaseTest {
+
+    // plan D starts by driving forward 24 inches
+    public static final int FIRST_TARGET_COUNTS = 1077;
+    public static final int FRAMES = 10;
+    public static final int PROFILE_FRAMES = 50;
+
+    private ReplayClock clock = new ReplayClock();
+    private ByteBuffer buffer = ByteBuffer.allocate(BinaryMatchLog.HEADER_SIZE + 64 * 1024);
+    private BinaryMatchLog log = new BinaryMatchLog(buffer, clock);
+    private BinaryMatchLogger robot = new BinaryMatchLogger(Robot.LOGGER_NAME, log);
+    private BinaryMatchLogger drive = new BinaryMatchLogger("PositionDriveController", log);
+    private BinaryMatchLogger lifter = new BinaryMatchLogger("LifterSubsystem", log);
+    private BinaryMatchLogger profile = new BinaryMatchLogger("MotionProfileDriveController", log);
+    private BinaryMatchLogger encoders = new BinaryMatchLogger("RealDriveSubsystem", log);
+    private BinaryMatchLogger speculative = new BinaryMatchLogger(SpeculativeAutoExecutor.LOGGER_NAME, log);
+
+    protected void recordAutoStart(String selectedAuto) {
+        // both position switches read true: robot in the middle
+        robot.log(Robot.GAME_MESSAGE_KEY, "LRL");
+        robot.log(Robot.LEFT_POSITION_SWITCH_KEY, true);
+        robot.log(Robot.RIGHT_POSITION_SWITCH_KEY, true);
+        robot.log(Robot.STOP_AT_E_KEY, false);
+        robot.log(Robot.SELECTED_AUTO_KEY, selectedAuto);
+        robot.log(Robot.AUTO_STARTED_KEY, true);
+    }
+
+    protected void recordLoop(int frame, double driveOutput, double lifterOutput) {
+        clock.setTime(frame * MatchReplayHarness.LOOP_SECONDS);
+        for (String talon : new String[] { PositionDriveController.FRONT_LEFT, PositionDriveController.FRONT_RIGHT,
+                PositionDriveController.REAR_LEFT, PositionDriveController.REAR_RIGHT }) {
+            drive.log(talon + PositionDriveController.POSITION_SUFFIX, frame * 10);
+            drive.log(talon + PositionDriveController.OUTPUT_SUFFIX, driveOutput);
+        }
+        lifter.log(LifterSubsystem.ENCODER_COUNT_KEY, frame * 20);
+        lifter.log(LifterSubsystem.UPPER_LIMIT_SWITCH_KEY, false);
+        lifter.log(LifterSubsystem.LOWER_LIMIT_KEY, false);
+        lifter.log(LifterSubsystem.MOTOR_ONE_CURRENT_KEY, 5.0);
+        lifter.log(LifterSubsystem.MOTOR_TWO_CURRENT_KEY, 5.0);
+        lifter.log(LifterSubsystem.MOTOR_OUTPUT_KEY, lifterOutput);
+    }
+
+    /**
+     * Records a profiled auto the way the robot runs one, with simulated
+     * talons. Frames from tamperFrom to tamperTo record LOADING instead of
+     * the real profile state
+     */
+    protected void recordProfiledAuto(int tamperFrom, int tamperTo) {
+        recordAutoStart("D");
+        AutoPlan plan = new AutoPlanComputer().computePlanFromFieldPoseSwitches(
+                new FieldMessageGetter(true, true, false).convertGameMessageToFieldMessage("LRL"), false, false,
+                false, false);
+
+        SimulatedCanBus bus = new SimulatedCanBus();
+        SimulatedMotorIO[] motors = { bus.add(1), bus.add(2), bus.add(3), bus.add(4) };
+        MotionProfileDriveController c = new MotionProfileDriveController(new FourTalonsWithSettings(motors[0],
+                motors[1], motors[2], motors[3], RealDriveSubsystem.leftPositionSettings(),
+                RealDriveSubsystem.leftPositionSettings(), RealDriveSubsystem.rightPositionSettings(),
+                RealDriveSubsystem.rightPositionSettings()),
+                new EncoderInchesConverter(RealDriveSubsystem.ENCODER_TICKS_PER_INCH)) {
+            @Override
+            protected void startStreaming() {
+                // the test streams
+            }
+        };
+        c.setTimeSource(clock);
+        c.activate();
+        c.follow(plan.getDrivenPath());
+
+        for (int i = 1; i <= PROFILE_FRAMES; i++) {
+            double time = i * MatchReplayHarness.LOOP_SECONDS;
+            clock.setTime(time);
+            c.periodic();
+            boolean tampered = i >= tamperFrom && i <= tamperTo;
+            profile.log(MotionProfileDriveController.PROFILE_STATE_KEY,
+                    tampered ? ProfileState.LOADING.name() : c.getState().name());
+            encoders.log(RealDriveSubsystem.FRONT_LEFT_ENCODER_KEY, motors[0].getSelectedSensorPosition());
+            encoders.log(RealDriveSubsystem.REAR_LEFT_ENCODER_KEY, motors[1].getSelectedSensorPosition());
+            encoders.log(RealDriveSubsystem.FRONT_RIGHT_ENCODER_KEY, motors[2].getSelectedSensorPosition());
+            encoders.log(RealDriveSubsystem.REAR_RIGHT_ENCODER_KEY, motors[3].getSelectedSensorPosition());
+            for (int k = 0; k < MatchReplayHarness.STREAMS_PER_LOOP; k++) {
+                clock.setTime(time + k * MotionProfileDriveController.STREAM_SECONDS);
+                c.stream();
+                bus.step(MotionProfileDriveController.STREAM_SECONDS);
+            }
+        }
+        clock.setTime(PROFILE_FRAMES * MatchReplayHarness.LOOP_SECONDS);
+    }
+
+    protected MatchReplayHarness replay() {
+        return replay(0);
+    }
+
+    protected MatchReplayHarness replay(int encoderToleranceCounts) {
+        MatchReplayHarness harness = new MatchReplayHarness(new RecordedMatch(new BinaryMatchLogReader(buffer)));
+        harness.setEncoderTolerance(encoderToleranceCounts);
+        harness.run();
+        return harness;
+    }
+
+    @Test
+    public void testReplayMatchesRecording() {
+        recordAutoStart("D");
+        for (int i = 1; i <= FRAMES; i++) {
+            recordLoop(i, FIRST_TARGET_COUNTS, i > 3 ? LifterSubsystem.UP_SPEED_PERCENT : 0.0);
+        }
+
+        MatchReplayHarness harness = replay();
+        assertEquals("D", harness.getAutoPlan().getName());
+        assertEquals(FRAMES, harness.getFrameCount());
+        assertEquals("[]", harness.getDifferences().toString());
+    }
+
+    @Test
+    public void testReplaysThePlannersPick() {
+        // on the left, with LRL, the buttons pick C but the planner picks B
+        robot.log(Robot.GAME_MESSAGE_KEY, "LRL");
+        robot.log(Robot.LEFT_POSITION_SWITCH_KEY, true);
+        robot.log(Robot.RIGHT_POSITION_SWITCH_KEY, false);
+        robot.log(Robot.STOP_AT_E_KEY, false);
+        robot.log(Robot.SELECTED_AUTO_KEY, "B");
+        robot.log(Robot.USE_PLANNER_KEY, true);
+        robot.log(Robot.AUTO_STARTED_KEY, true);
+
+        MatchReplayHarness harness = replay();
+        assertEquals("B", harness.getAutoPlan().getName());
+        assertEquals("[]", harness.getDifferences().toString());
+    }
+
+    /**
+     * Auto starts in the middle before the game message, which comes at
+     * messageFrame. G and D share their first 24 inches, and the log ends
+     * FRAMES after the message
+     */
+    protected void recordSpeculativeAuto(int messageFrame, String committedPlan, State... committedStates) {
+        robot.log(Robot.GAME_MESSAGE_KEY, "   ");
+        robot.log(Robot.LEFT_POSITION_SWITCH_KEY, true);
+        robot.log(Robot.RIGHT_POSITION_SWITCH_KEY, true);
+        robot.log(Robot.STOP_AT_E_KEY, false);
+        robot.log(Robot.SELECTED_AUTO_KEY, "G");
+        robot.log(Robot.AUTO_STARTED_KEY, true);
+        speculative.log(SpeculativeAutoExecutor.PREFIX_MOVES_KEY, 1);
+        speculative.log(SpeculativeAutoExecutor.STATE_KEY, State.SPECULATING.name());
+
+        clock.setTime(messageFrame * MatchReplayHarness.LOOP_SECONDS);
+        robot.log(Robot.GAME_MESSAGE_KEY, "LRL");
+        robot.log(Robot.SELECTED_AUTO_KEY, "D");
+        speculative.log(SpeculativeAutoExecutor.COMMITTED_PLAN_KEY, committedPlan);
+        for (State state : committedStates) {
+            speculative.log(SpeculativeAutoExecutor.STATE_KEY, state.name());
+        }
+        clock.setTime((messageFrame + FRAMES) * MatchReplayHarness.LOOP_SECONDS);
+        robot.log(Robot.AUTO_STARTED_KEY, true);
+    }
+
+    @Test
+    public void testReplaysSpeculativeStart() {
+        // in time to switch, before much of the start is streamed
+        recordSpeculativeAuto(1, "D", State.COMMITTED);
+
+        MatchReplayHarness harness = replay();
+        assertEquals(State.COMMITTED, harness.getSpeculativeState());
+        assertEquals("D", harness.getCommittedPlan().getName());
+        // switched to the whole of D without stopping
+        MotionProfileDriveController drive = harness.getProfileController();
+        assertEquals(drive.plan(harness.getCommittedPlan().getDrivenPath()).size(), drive.getTrajectory().size());
+        assertEquals("[]", harness.getDifferences().toString());
+    }
+
+    @Test
+    public void testReplaysLateMessageAfterThePrefix() {
+        // 24 inches takes well under three seconds
+        recordSpeculativeAuto(150, "D", State.WAITING_FOR_PREFIX, State.COMMITTED);
+
+        MatchReplayHarness harness = replay();
+        assertEquals(State.COMMITTED, harness.getSpeculativeState());
+        MotionProfileDriveController drive = harness.getProfileController();
+        List<Position> rest = PathPrefixTree.remainderAfter(Arrays.asList(new Position(24, 24)),
+                harness.getCommittedPlan().getDrivenPath());
+        assertEquals(drive.plan(rest).size(), drive.getTrajectory().size());
+        assertEquals("[]", harness.getDifferences().toString());
+    }
+
+    @Test
+    public void testReportsSpeculativeDifferences() {
+        recordSpeculativeAuto(1, "G", State.ABANDONED);
+
+        MatchReplayHarness harness = replay();
+        MatchReplayHarness.ReplayDifference first = harness.getDifferences().get(0);
+        assertEquals(MatchReplayHarness.SPECULATIVE_PREFIX + SpeculativeAutoExecutor.STATE_KEY, first.path);
+        assertEquals(State.ABANDONED.name(), first.recorded);
+        assertEquals(State.COMMITTED.name(), first.replayed);
+        // the state and the plan, every loop after the message
+        assertEquals(2 * (FRAMES + 1), harness.getDifferences().size());
+    }
+
+    @Test
+    public void testMatchesAfterAnHourPowered() {
+        clock.setTime(3600.0);
+        robot.log(Robot.SELECTED_AUTO_KEY, "D");
+        clock.setTime(3600.5);
+        robot.log(Robot.AUTO_STARTED_KEY, true);
+
+        RecordedMatch match = new RecordedMatch(new BinaryMatchLogReader(buffer));
+        assertEquals(3600.0, match.getStartSeconds(), 1e-6);
+        assertEquals(3600.5, match.getEndSeconds(), 1e-6);
+        assertEquals(3600.5, match.findNext(Robot.LOGGER_NAME + "." + Robot.AUTO_STARTED_KEY, 3600.1), 1e-6);
+    }
+
+    @Test
+    public void testReportsDifferences() {
+        recordAutoStart("A");
+        for (int i = 1; i <= FRAMES; i++) {
+            recordLoop(i, i > 5 ? 0.0 : FIRST_TARGET_COUNTS, 0.0);
+        }
+
+        MatchReplayHarness harness = replay();
+        MatchReplayHarness.ReplayDifference first = harness.getDifferences().get(0);
+        assertEquals("Robot.selectedAuto", first.path);
+        assertEquals("A", first.recorded);
+        assertEquals("D", first.replayed);
+
+        // the drive outputs diverge on each of the four talons, for five frames
+        assertEquals(1 + 4 * 5, harness.getDifferences().size());
+        assertTrue(harness.getDifferences().get(1).path.endsWith(PositionDriveController.OUTPUT_SUFFIX));
+    }
+
+    @Test
+    public void testReplaysProfiledAuto() {
+        recordProfiledAuto(0, -1);
+
+        MatchReplayHarness harness = replay(1);
+        assertTrue(harness.isReplayingProfile());
+        assertEquals(PROFILE_FRAMES, harness.getFrameCount());
+        assertEquals(ProfileState.RUNNING, harness.getProfileController().getState());
+        assertEquals("[]", harness.getDifferences().toString());
+    }
+
+    @Test
+    public void testReportsProfileStateDifferences() {
+        recordProfiledAuto(30, 32);
+
+        MatchReplayHarness harness = replay();
+        assertEquals(3, harness.getDifferences().size());
+        MatchReplayHarness.ReplayDifference first = harness.getDifferences().get(0);
+        assertEquals(MatchReplayHarness.PROFILE_STATE_PATH, first.path);
+        assertEquals(ProfileState.LOADING.name(), first.recorded);
+        assertEquals(ProfileState.RUNNING.name(), first.replayed);
+    }
+}